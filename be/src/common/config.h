@@ -1080,6 +1080,16 @@ CONF_Int16(jdbc_minimum_idle_connections, "1");
 // this setting only applies when jdbc_minimum_idle_connections is less than jdbc_connection_pool_size.
 // The minimum allowed value is 10000(10 seconds).
 CONF_Int32(jdbc_connection_idle_timeout_ms, "600000");
+// whether the jdbc scanner writes numeric and string columns into off-heap memory directly,
+// instead of returning boxed java objects which are converted again by BE.
+CONF_mBool(jdbc_scanner_enable_off_heap_columns, "true");
+// whether the hive jni scanner decodes primitive columns by converters resolved once per scanner,
+// instead of allocating an object for each value.
+CONF_mBool(hive_jni_scanner_batch_decode, "true");
+// whether the paimon and hudi jni scanners convert the values of a chunk by typed converters resolved once per
+// scanner, instead of allocating an object for each value.
+CONF_mBool(paimon_jni_scanner_batch_decode, "true");
+CONF_mBool(hudi_jni_scanner_batch_decode, "true");
 
 // spill dirs
 CONF_String(spill_local_storage_dir, "${STARROCKS_HOME}/spill");
@@ -99,6 +99,9 @@ Status ESDataSource::open(RuntimeState* state) {
     RETURN_IF_ERROR(_normalize_conjuncts());
     RETURN_IF_ERROR(_create_scanner());
     _init_counter();
+    if (_is_sliced()) {
+        COUNTER_UPDATE(_scroll_slices_counter, 1);
+    }
     return Status::OK();
 }
 
@@ -202,9 +205,15 @@ Status ESDataSource::_create_scanner() {
     _properties[ESScanReader::KEY_BATCH_SIZE] =
             std::to_string(std::min(config::es_index_max_result_window, _runtime_state->chunk_size()));
     _properties[ESScanReader::KEY_HOST_PORT] = get_host_port(es_scan_range.es_hosts);
+    if (_is_sliced()) {
+        _properties[ESScanReader::KEY_SLICE_ID] = std::to_string(es_scan_range.slice_id);
+        _properties[ESScanReader::KEY_SLICE_MAX] = std::to_string(es_scan_range.slice_max);
+    }
     // push down limit to Elasticsearch
     // if have conjunct ES can not process, then must not push down limit operator
-    if (_conjunct_ctxs.size() == 0 && _read_limit != -1 && _read_limit <= _runtime_state->chunk_size()) {
+    // the limit is pushed down by a single search request, which can't be sliced
+    if (!_is_sliced() && _conjunct_ctxs.size() == 0 && _read_limit != -1 &&
+        _read_limit <= _runtime_state->chunk_size()) {
         _properties[ESScanReader::KEY_TERMINATE_AFTER] = std::to_string(_read_limit);
     }
 
@@ -222,6 +231,19 @@ void ESDataSource::close(RuntimeState* state) {
     if (_es_reader != nullptr) {
         WARN_IF_ERROR(_es_reader->close(), "close es reader failed");
     }
+    if (_is_sliced() && _runtime_profile != nullptr) {
+        // throughput of each slice, to find out the slow slices and the skew between slices
+        int64_t read_time_ms = _read_time_ns / 1000000;
+        int64_t rows_per_second = _read_time_ns > 0 ? _rows_read_number * 1000000000 / _read_time_ns : 0;
+        _runtime_profile->add_info_string(
+                fmt::format("Slice[{}#{}/{}]", _scan_range.index, _scan_range.shard_id, _scan_range.slice_id),
+                fmt::format("RowsRead: {}, BytesRead: {}, ReadTime: {}ms, RowsPerSecond: {}", _rows_read_number,
+                            _bytes_read, read_time_ms, rows_per_second));
+    }
+}
+
+bool ESDataSource::_is_sliced() const {
+    return _scan_range.__isset.slice_max && _scan_range.slice_max > 1;
 }
 
 void ESDataSource::_init_counter() {
@@ -229,6 +251,7 @@ void ESDataSource::_init_counter() {
     _rows_read_counter = ADD_COUNTER(_runtime_profile, "RowsRead", TUnit::UNIT);
     _read_timer = ADD_TIMER(_runtime_profile, "TotalRawReadTime(*)");
     _materialize_timer = ADD_TIMER(_runtime_profile, "MaterializeTupleTime(*)");
+    _scroll_slices_counter = ADD_COUNTER(_runtime_profile, "ScrollSlices", TUnit::UNIT);
 }
 
 Status ESDataSource::get_next(RuntimeState* state, ChunkPtr* chunk) {
@@ -239,6 +262,7 @@ Status ESDataSource::get_next(RuntimeState* state, ChunkPtr* chunk) {
     }
 
     SCOPED_TIMER(_read_timer);
+    SCOPED_RAW_TIMER(&_read_time_ns);
     while (!_batch_eof) {
         RETURN_IF_CANCELLED(state);
         COUNTER_UPDATE(_read_counter, 1);
@@ -93,6 +93,8 @@ private:
     int64_t _rows_return_number = 0;
     int64_t _bytes_read = 0;
     int64_t _cpu_time_ns = 0;
+    // wall time of reading this scan range, used for the throughput of slices
+    int64_t _read_time_ns = 0;
 
     ESScanReader* _es_reader = nullptr;
     std::unique_ptr<ScrollParser> _es_scroll_parser;
@@ -101,12 +103,14 @@ private:
     RuntimeProfile::Counter* _read_timer = nullptr;
     RuntimeProfile::Counter* _materialize_timer = nullptr;
     RuntimeProfile::Counter* _rows_read_counter = nullptr;
+    RuntimeProfile::Counter* _scroll_slices_counter = nullptr;
     // =========================
 
     Status _build_conjuncts();
     Status _normalize_conjuncts();
     Status _try_skip_constant_conjuncts();
     Status _create_scanner();
+    bool _is_sliced() const;
     void _init_counter();
 };
 
@@ -78,7 +78,11 @@ static std::string get_jdbc_sql(const Slice jdbc_url, const std::string& table,
 }
 
 JDBCDataSource::JDBCDataSource(const JDBCDataSourceProvider* provider, const TScanRange& scan_range)
-        : _provider(provider) {}
+        : _provider(provider) {
+    if (scan_range.__isset.jdbc_scan_range && scan_range.jdbc_scan_range.__isset.split_predicate) {
+        _split_predicate = scan_range.jdbc_scan_range.split_predicate;
+    }
+}
 
 std::string JDBCDataSource::name() const {
     return "JDBCDataSource";
@@ -150,8 +154,15 @@ Status JDBCDataSource::_create_scanner(RuntimeState* state) {
     scan_ctx.jdbc_url = jdbc_table->jdbc_url();
     scan_ctx.user = jdbc_table->jdbc_user();
     scan_ctx.passwd = jdbc_table->jdbc_passwd();
-    scan_ctx.sql = get_jdbc_sql(scan_ctx.jdbc_url, jdbc_scan_node.table_name, jdbc_scan_node.columns,
-                                jdbc_scan_node.filters, _read_limit);
+    std::vector<std::string> filters = jdbc_scan_node.filters;
+    if (!_split_predicate.empty()) {
+        filters.emplace_back(_split_predicate);
+    }
+    scan_ctx.sql =
+            get_jdbc_sql(scan_ctx.jdbc_url, jdbc_scan_node.table_name, jdbc_scan_node.columns, filters, _read_limit);
+    if (jdbc_scan_node.__isset.num_splits) {
+        scan_ctx.num_splits = jdbc_scan_node.num_splits;
+    }
     _scanner = _pool->add(new JDBCScanner(scan_ctx, _tuple_desc, _runtime_profile));
 
     RETURN_IF_ERROR(_scanner->open(state));
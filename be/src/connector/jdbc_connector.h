@@ -76,6 +76,8 @@ private:
     ObjectPool* _pool = &_obj_pool;
     RuntimeState* _runtime_state = nullptr;
     JDBCScanner* _scanner = nullptr;
+    // predicate on the split column if the scan is split into ranges, empty otherwise
+    std::string _split_predicate;
     int64_t _rows_read = 0;
     int64_t _bytes_read = 0;
 };
@@ -14,12 +14,17 @@
 
 #include "exec/jdbc_scanner.h"
 
+#include <algorithm>
+#include <map>
 #include <memory>
 
+#include "column/binary_column.h"
 #include "column/column_helper.h"
 #include "column/column_viewer.h"
 #include "column/nullable_column.h"
+#include "column/type_traits.h"
 #include "column/vectorized_fwd.h"
+#include "common/config.h"
 #include "common/statusor.h"
 #include "exprs/cast_expr.h"
 #include "exprs/clone_expr.h"
@@ -56,6 +61,8 @@ Status JDBCScanner::open(RuntimeState* state) {
 
     RETURN_IF_ERROR(_init_jdbc_util());
 
+    RETURN_IF_ERROR(_init_off_heap_columns());
+
     return Status::OK();
 }
 
@@ -132,6 +139,9 @@ Status JDBCScanner::_init_jdbc_scan_context(RuntimeState* state) {
     if (UNLIKELY(minimum_idle_connections < 0 || minimum_idle_connections > connection_pool_size)) {
         minimum_idle_connections = connection_pool_size;
     }
+    // all the ranges of a split scan may read from the same backend at the same time, the pool should hold
+    // enough connections for them, the idle connections are not affected.
+    connection_pool_size = std::max(connection_pool_size, _scan_ctx.num_splits);
     int idle_timeout_ms = config::jdbc_connection_idle_timeout_ms;
     if (UNLIKELY(idle_timeout_ms < MINIMUM_ALLOWED_JDBC_CONNECTION_IDLE_TIMEOUT_MS)) {
         idle_timeout_ms = MINIMUM_ALLOWED_JDBC_CONNECTION_IDLE_TIMEOUT_MS;
@@ -179,6 +189,8 @@ Status JDBCScanner::_init_jdbc_scanner() {
     DCHECK(_scanner_get_next_chunk != nullptr);
     _scanner_close = env->GetMethodID(_jdbc_scanner_cls->clazz(), "close", "()V");
     DCHECK(_scanner_close != nullptr);
+    _scanner_get_off_heap_chunk_meta = env->GetMethodID(_jdbc_scanner_cls->clazz(), "getOffHeapChunkMeta", "()J");
+    DCHECK(_scanner_get_off_heap_chunk_meta != nullptr);
 
     // open scanner
     jmethodID scanner_open = env->GetMethodID(_jdbc_scanner_cls->clazz(), "open", "()V");
@@ -269,6 +281,54 @@ Status JDBCScanner::_init_jdbc_util() {
     return Status::OK();
 }
 
+// Only the columns whose values can be copied to the intermediate column as is are written into off-heap memory,
+// others still go through the boxed array, e.g. java.sql.Timestamp is formatted to string by JDBCUtil.
+std::string JDBCScanner::_off_heap_column_type(const std::string& java_class, LogicalType result_type) {
+    static const std::map<std::pair<std::string, LogicalType>, std::string> off_heap_column_types = {
+            {{"java.lang.Boolean", TYPE_BOOLEAN}, "boolean"},
+            {{"java.lang.Byte", TYPE_BOOLEAN}, "boolean"},
+            {{"java.lang.Byte", TYPE_TINYINT}, "tinyint"},
+            {{"java.lang.Short", TYPE_SMALLINT}, "smallint"},
+            {{"java.lang.Integer", TYPE_INT}, "int"},
+            {{"java.lang.Long", TYPE_BIGINT}, "bigint"},
+            {{"java.lang.Float", TYPE_FLOAT}, "float"},
+            {{"java.lang.Double", TYPE_DOUBLE}, "double"},
+            {{"java.lang.String", TYPE_VARCHAR}, "string"},
+    };
+    auto iter = off_heap_column_types.find({java_class, result_type});
+    return iter == off_heap_column_types.end() ? "" : iter->second;
+}
+
+Status JDBCScanner::_init_off_heap_columns() {
+    _off_heap_columns.assign(_column_class_names.size(), false);
+    if (!config::jdbc_scanner_enable_off_heap_columns) {
+        return Status::OK();
+    }
+    std::string types;
+    for (size_t i = 0; i < _column_class_names.size(); i++) {
+        std::string type = _off_heap_column_type(_column_class_names[i], _result_column_types[i]);
+        _off_heap_columns[i] = !type.empty();
+        _has_off_heap_columns |= _off_heap_columns[i];
+        if (i > 0) {
+            types.append(",");
+        }
+        types.append(type);
+    }
+    if (!_has_off_heap_columns) {
+        return Status::OK();
+    }
+
+    auto* env = JVMFunctionHelper::getInstance().getEnv();
+    jmethodID set_off_heap_column_types =
+            env->GetMethodID(_jdbc_scanner_cls->clazz(), "setOffHeapColumnTypes", "(Ljava/lang/String;)V");
+    DCHECK(set_off_heap_column_types != nullptr);
+    jstring jtypes = env->NewStringUTF(types.c_str());
+    LOCAL_REF_GUARD_ENV(env, jtypes);
+    env->CallVoidMethod(_jdbc_scanner.handle(), set_off_heap_column_types, jtypes);
+    CHECK_JAVA_EXCEPTION(env, "set JDBCScanner off-heap column types failed")
+    return Status::OK();
+}
+
 Status JDBCScanner::_has_next(bool* result) {
     auto* env = JVMFunctionHelper::getInstance().getEnv();
     jboolean ret = env->CallBooleanMethod(_jdbc_scanner.handle(), _scanner_has_next);
@@ -305,6 +365,80 @@ Status JDBCScanner::_close_jdbc_scanner() {
     return Status::OK();
 }
 
+template <LogicalType type>
+static void fill_off_heap_fixed_length_column(Column* data_column, const void* values, size_t num_rows) {
+    using ColumnType = RunTimeColumnType<type>;
+    using CppType = RunTimeCppType<type>;
+    auto* column = down_cast<ColumnType*>(data_column);
+    column->resize_uninitialized(num_rows);
+    memcpy(column->get_data().data(), values, num_rows * sizeof(CppType));
+}
+
+// parse the off-heap table written by JDBCScanner, see OffHeapTable.java for the memory layout.
+Status JDBCScanner::_fill_off_heap_columns(size_t num_rows) {
+    auto* env = JVMFunctionHelper::getInstance().getEnv();
+    auto* meta = reinterpret_cast<const int64_t*>(
+            env->CallLongMethod(_jdbc_scanner.handle(), _scanner_get_off_heap_chunk_meta));
+    CHECK_JAVA_EXCEPTION(env, "getOffHeapChunkMeta failed")
+    if (UNLIKELY(meta == nullptr || static_cast<size_t>(*meta) != num_rows)) {
+        return Status::InternalError(fmt::format("JDBC off-heap chunk has unexpected number of rows, expect {}",
+                                                 num_rows));
+    }
+    meta++;
+
+    for (size_t i = 0; i < _off_heap_columns.size(); i++) {
+        if (!_off_heap_columns[i]) {
+            continue;
+        }
+        auto* nullable_column = down_cast<NullableColumn*>(_result_chunk->columns()[i].get());
+        const auto* nulls = reinterpret_cast<const uint8_t*>(*meta++);
+        NullData& null_data = nullable_column->null_column_data();
+        null_data.resize(num_rows);
+        memcpy(null_data.data(), nulls, num_rows);
+
+        Column* data_column = nullable_column->data_column().get();
+        switch (_result_column_types[i]) {
+        case TYPE_BOOLEAN:
+            fill_off_heap_fixed_length_column<TYPE_BOOLEAN>(data_column, reinterpret_cast<void*>(*meta++), num_rows);
+            break;
+        case TYPE_TINYINT:
+            fill_off_heap_fixed_length_column<TYPE_TINYINT>(data_column, reinterpret_cast<void*>(*meta++), num_rows);
+            break;
+        case TYPE_SMALLINT:
+            fill_off_heap_fixed_length_column<TYPE_SMALLINT>(data_column, reinterpret_cast<void*>(*meta++), num_rows);
+            break;
+        case TYPE_INT:
+            fill_off_heap_fixed_length_column<TYPE_INT>(data_column, reinterpret_cast<void*>(*meta++), num_rows);
+            break;
+        case TYPE_BIGINT:
+            fill_off_heap_fixed_length_column<TYPE_BIGINT>(data_column, reinterpret_cast<void*>(*meta++), num_rows);
+            break;
+        case TYPE_FLOAT:
+            fill_off_heap_fixed_length_column<TYPE_FLOAT>(data_column, reinterpret_cast<void*>(*meta++), num_rows);
+            break;
+        case TYPE_DOUBLE:
+            fill_off_heap_fixed_length_column<TYPE_DOUBLE>(data_column, reinterpret_cast<void*>(*meta++), num_rows);
+            break;
+        case TYPE_VARCHAR: {
+            const auto* offsets = reinterpret_cast<const uint32_t*>(*meta++);
+            const auto* bytes = reinterpret_cast<const uint8_t*>(*meta++);
+            auto* binary_column = down_cast<BinaryColumn*>(data_column);
+            binary_column->get_offset().resize(num_rows + 1);
+            memcpy(binary_column->get_offset().data(), offsets, (num_rows + 1) * sizeof(uint32_t));
+            binary_column->get_bytes().resize(offsets[num_rows]);
+            memcpy(binary_column->get_bytes().data(), bytes, offsets[num_rows]);
+            binary_column->invalidate_slice_cache();
+            break;
+        }
+        default:
+            return Status::InternalError(
+                    fmt::format("Type {} is not supported for JDBC off-heap column", _result_column_types[i]));
+        }
+        nullable_column->update_has_null();
+    }
+    return Status::OK();
+}
+
 Status JDBCScanner::_fill_chunk(jobject jchunk, size_t num_rows, ChunkPtr* chunk) {
     SCOPED_TIMER(_profile.fill_chunk_timer);
     // get result from JNI
@@ -315,7 +449,13 @@ Status JDBCScanner::_fill_chunk(jobject jchunk, size_t num_rows, ChunkPtr* chunk
         COUNTER_UPDATE(_profile.rows_read_counter, num_rows);
         (*chunk)->reset();
 
+        if (_has_off_heap_columns) {
+            RETURN_IF_ERROR(_fill_off_heap_columns(num_rows));
+        }
         for (size_t i = 0; i < _slot_descs.size(); i++) {
+            if (_off_heap_columns[i]) {
+                continue;
+            }
             jobject jcolumn = helper.list_get(jchunk, i);
             LOCAL_REF_GUARD_ENV(env, jcolumn);
             auto& result_column = _result_chunk->columns()[i];
@@ -40,6 +40,8 @@ struct JDBCScanContext {
     std::string passwd;
     std::string sql;
     std::map<std::string, std::string> properties;
+    // number of ranges the table scan is split into, each of them holds a connection while reading
+    int32_t num_splits = 1;
 };
 
 struct JDBCScannerProfile {
@@ -77,12 +79,18 @@ private:
 
     Status _init_jdbc_util();
 
+    Status _init_off_heap_columns();
+
+    static std::string _off_heap_column_type(const std::string& java_class, LogicalType result_type);
+
     Status _has_next(bool* result);
 
     Status _get_next_chunk(jobject* chunk, size_t* num_rows);
 
     Status _fill_chunk(jobject jchunk, size_t num_rows, ChunkPtr* chunk);
 
+    Status _fill_off_heap_columns(size_t num_rows);
+
     Status _close_jdbc_scanner();
 
     JDBCScanContext _scan_ctx;
@@ -91,6 +99,9 @@ private:
     // java class name for each result column
     std::vector<std::string> _column_class_names;
     std::vector<LogicalType> _result_column_types;
+    // whether the result column is written into off-heap memory by JDBCScanner instead of boxed array
+    std::vector<bool> _off_heap_columns;
+    bool _has_off_heap_columns = false;
     std::vector<ExprContext*> _cast_exprs;
     ChunkPtr _result_chunk;
 
@@ -102,6 +113,7 @@ private:
     jmethodID _scanner_get_next_chunk;
     jmethodID _scanner_result_rows;
     jmethodID _scanner_close;
+    jmethodID _scanner_get_off_heap_chunk_meta;
     // JDBCUtil method
     jmethodID _util_format_date;
     jmethodID _util_format_localdatetime;
@@ -20,6 +20,7 @@
 #include "column/map_column.h"
 #include "column/struct_column.h"
 #include "column/type_traits.h"
+#include "common/config.h"
 #include "fmt/core.h"
 #include "udf/java/java_udf.h"
 #include "util/defer_op.h"
@@ -540,6 +541,7 @@ std::unique_ptr<JniScanner> create_hive_jni_scanner(const JniScanner::CreateOpti
     jni_scanner_params["input_format"] = input_format;
     jni_scanner_params["time_zone"] = time_zone;
     jni_scanner_params["fs_options_props"] = build_fs_options_properties(*(options.fs_options));
+    jni_scanner_params["batch_decode"] = config::hive_jni_scanner_batch_decode ? "true" : "false";
 
     for (const auto& pair : serde_properties) {
         jni_scanner_params[serde_property_prefix + pair.first] = pair.second;
@@ -561,6 +563,7 @@ std::unique_ptr<JniScanner> create_paimon_jni_scanner(const JniScanner::CreateOp
     jni_scanner_params["predicate_info"] = scan_range.paimon_predicate_info;
     jni_scanner_params["native_table"] = paimon_table->get_paimon_native_table();
     jni_scanner_params["time_zone"] = paimon_table->get_time_zone();
+    jni_scanner_params["batch_decode"] = config::paimon_jni_scanner_batch_decode ? "true" : "false";
 
     std::string scanner_factory_class = "com/starrocks/paimon/reader/PaimonSplitScannerFactory";
     return std::make_unique<JniScanner>(scanner_factory_class, jni_scanner_params);
@@ -601,6 +604,7 @@ std::unique_ptr<JniScanner> create_hudi_jni_scanner(const JniScanner::CreateOpti
     jni_scanner_params["input_format"] = hudi_table->get_input_format();
     jni_scanner_params["fs_options_props"] = build_fs_options_properties(*(options.fs_options));
     jni_scanner_params["time_zone"] = hudi_table->get_time_zone();
+    jni_scanner_params["batch_decode"] = config::hudi_jni_scanner_batch_decode ? "true" : "false";
 
     std::string scanner_factory_class = "com/starrocks/hudi/reader/HudiSliceScannerFactory";
     return std::make_unique<JniScanner>(scanner_factory_class, jni_scanner_params);
@@ -42,6 +42,8 @@
 #include "column/column_helper.h"
 #include "common/logging.h"
 #include "exec/es/es_predicate.h"
+#include "exec/es/es_scan_reader.h"
+#include "exec/es/es_scroll_query.h"
 #include "rapidjson/document.h"
 #include "rapidjson/rapidjson.h"
 #include "rapidjson/stringbuffer.h"
@@ -692,4 +694,27 @@ TEST_F(BooleanQueryBuilderTest, validate_timezone) {
     EXPECT_EQ("854971200000", time_literal->to_string());
 }
 
+TEST_F(BooleanQueryBuilderTest, sliced_scroll_query) {
+    std::map<std::string, std::string> properties;
+    properties[ESScanReader::KEY_BATCH_SIZE] = "4096";
+    properties[ESScanReader::KEY_DOC_VALUES_MODE] = "0";
+    properties[ESScanReader::KEY_SLICE_ID] = "1";
+    properties[ESScanReader::KEY_SLICE_MAX] = "4";
+    std::vector<std::string> fields = {"k1"};
+    std::vector<EsPredicate*> predicates;
+    std::map<std::string, std::string> docvalue_context;
+    bool doc_value_mode = true;
+    std::string query = ESScrollQueryBuilder::build(properties, fields, predicates, docvalue_context, &doc_value_mode);
+    ASSERT_FALSE(doc_value_mode);
+    ASSERT_STREQ(
+            "{\"query\":{\"match_all\":{}},\"_source\":[\"k1\"],\"sort\":[\"_doc\"],\"size\":4096,"
+            "\"slice\":{\"id\":1,\"max\":4}}",
+            query.c_str());
+
+    // the limit is pushed down by a search request which can't be sliced
+    properties[ESScanReader::KEY_TERMINATE_AFTER] = "10";
+    query = ESScrollQueryBuilder::build(properties, fields, predicates, docvalue_context, &doc_value_mode);
+    ASSERT_EQ(std::string::npos, query.find("slice"));
+}
+
 } // namespace starrocks
@@ -80,6 +80,7 @@ public class EsTable extends Table implements GsonPostProcessable {
     public static final String KEY_DOC_VALUE_SCAN = "enable_docvalue_scan";
     public static final String KEY_KEYWORD_SNIFF = "enable_keyword_sniff";
     public static final String KEY_MAX_DOCVALUE_FIELDS = "max_docvalue_fields";
+    public static final String KEY_SCROLL_SLICES = "scroll_slices";
 
     public static final String KEY_WAN_ONLY = "es.nodes.wan.only";
     public static final String KEY_ES_NET_SSL = "es.net.ssl";
@@ -114,6 +115,9 @@ public class EsTable extends Table implements GsonPostProcessable {
     // if the number of fields which value extracted from `doc_value` exceeding this max limitation
     // would downgrade to extract value from `stored_fields`
     private int maxDocValueFields = DEFAULT_MAX_DOCVALUE_FIELDS;
+    // the number of slices each shard is scanned by, each slice is a sliced scroll read by its own scan range.
+    // 1 means scanning each shard by a single scroll.
+    private int scrollSlices = DEFAULT_SCROLL_SLICES;
 
     // Solr doc_values vs stored_fields performance-smackdown indicate:
     // It is possible to notice that retrieving an high number of fields leads
@@ -126,6 +130,10 @@ public class EsTable extends Table implements GsonPostProcessable {
     // @see `MAX_DOCVALUE_FIELDS`
     private static final int DEFAULT_MAX_DOCVALUE_FIELDS = 20;
 
+    private static final int DEFAULT_SCROLL_SLICES = 1;
+    // the default value of `index.max_slices_per_scroll` of ES
+    private static final int MAX_SCROLL_SLICES = 1024;
+
     private boolean wanOnly = false;
     private boolean sslEnabled = false;
     private String timeZone = null;
@@ -171,6 +179,10 @@ public class EsTable extends Table implements GsonPostProcessable {
         return maxDocValueFields;
     }
 
+    public int scrollSlices() {
+        return scrollSlices;
+    }
+
     public boolean isDocValueScanEnable() {
         return enableDocValueScan;
     }
@@ -297,6 +309,17 @@ public class EsTable extends Table implements GsonPostProcessable {
             }
         }
 
+        if (properties.containsKey(KEY_SCROLL_SLICES)) {
+            try {
+                scrollSlices = Integer.parseInt(properties.get(KEY_SCROLL_SLICES).trim());
+            } catch (Exception e) {
+                throw new DdlException("fail to parse " + KEY_SCROLL_SLICES + ": " + properties.get(KEY_SCROLL_SLICES));
+            }
+            if (scrollSlices < 1 || scrollSlices > MAX_SCROLL_SLICES) {
+                throw new DdlException(KEY_SCROLL_SLICES + " should be in range [1, " + MAX_SCROLL_SLICES + "]");
+            }
+        }
+
         if (properties.containsKey(KEY_WAN_ONLY)) {
             try {
                 wanOnly = Boolean.parseBoolean(properties.get(KEY_WAN_ONLY).trim());
@@ -334,6 +357,7 @@ public class EsTable extends Table implements GsonPostProcessable {
         tableContext.put("enableDocValueScan", String.valueOf(enableDocValueScan));
         tableContext.put("enableKeywordSniff", String.valueOf(enableKeywordSniff));
         tableContext.put("maxDocValueFields", String.valueOf(maxDocValueFields));
+        tableContext.put("scrollSlices", String.valueOf(scrollSlices));
         tableContext.put("es.nodes.wan.only", String.valueOf(wanOnly));
         tableContext.put(KEY_ES_NET_SSL, String.valueOf(sslEnabled));
     }
@@ -405,6 +429,13 @@ public class EsTable extends Table implements GsonPostProcessable {
                 maxDocValueFields = DEFAULT_MAX_DOCVALUE_FIELDS;
             }
         }
+        if (tableContext.containsKey("scrollSlices")) {
+            try {
+                scrollSlices = Integer.parseInt(tableContext.get("scrollSlices"));
+            } catch (Exception e) {
+                scrollSlices = DEFAULT_SCROLL_SLICES;
+            }
+        }
         if (tableContext.containsKey(KEY_WAN_ONLY)) {
             wanOnly = Boolean.parseBoolean(tableContext.get(KEY_WAN_ONLY));
         } else {
@@ -20,6 +20,7 @@ import com.google.gson.annotations.SerializedName;
 import com.starrocks.analysis.DescriptorTable;
 import com.starrocks.catalog.Resource.ResourceType;
 import com.starrocks.common.DdlException;
+import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.thrift.TJDBCTable;
 import com.starrocks.thrift.TTableDescriptor;
@@ -99,6 +100,18 @@ public class JDBCTable extends Table {
         return jdbcTable;
     }
 
+    /**
+     * The number of ranges the scan of this table may be split into, see jdbc_scan_split_num.
+     * Only tables of JDBC catalogs are split.
+     */
+    public int getScanSplitNum() {
+        ConnectContext context = ConnectContext.get();
+        if (context == null || !Strings.isNullOrEmpty(resourceName)) {
+            return 1;
+        }
+        return Math.max(context.getSessionVariable().getJdbcScanSplitNum(), 1);
+    }
+
     @Override
     public List<Column> getPartitionColumns() {
         return partitionColumns;
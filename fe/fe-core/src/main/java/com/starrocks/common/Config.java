@@ -163,6 +163,38 @@ public class Config extends ConfigBase {
     @ConfField
     public static boolean audit_log_enable_compress = false;
 
+    /**
+     * The max number of audit events waiting to be handed to the audit plugins. It's divided among the
+     * audit_event_processor_threads_num threads, and the share of each thread is rounded down to a power of 2.
+     */
+    @ConfField
+    public static int audit_event_queue_capacity = 10000;
+
+    /**
+     * What to do with an audit event when the audit event queue is full:
+     * block: the query finishing thread waits until the event is queued,
+     * drop: the event is dropped,
+     * sample: one of every audit_event_queue_sample_ratio events is queued as with block, the others are dropped.
+     */
+    @ConfField(mutable = true)
+    public static String audit_event_queue_overflow_policy = "block";
+
+    @ConfField(mutable = true)
+    public static int audit_event_queue_sample_ratio = 10;
+
+    /**
+     * The number of threads handing audit events to the audit plugins. With more than one thread, the events are not
+     * handed in order any more, and the audit plugins are called concurrently.
+     */
+    @ConfField
+    public static int audit_event_processor_threads_num = 1;
+
+    /**
+     * The max number of audit events handed to an audit plugin at once.
+     */
+    @ConfField(mutable = true)
+    public static int audit_event_batch_size = 256;
+
     @ConfField(mutable = true)
     public static long slow_lock_threshold_ms = 3000L;
 
@@ -618,6 +650,32 @@ public class Config extends ConfigBase {
     @ConfField
     public static int max_agent_task_threads_num = 4096;
 
+    /**
+     * If true, agent tasks are buffered per backend and coalesced into fewer submit_tasks rpcs,
+     * publish and clone tasks are sent before the other tasks of the same backend.
+     */
+    @ConfField(mutable = true)
+    public static boolean agent_task_dispatcher_enable = false;
+
+    /**
+     * How long the agent tasks of a backend are buffered before being sent, publish and clone tasks are not buffered.
+     */
+    @ConfField(mutable = true)
+    public static long agent_task_dispatch_window_ms = 20;
+
+    /**
+     * The max number of agent tasks sent in one submit_tasks rpc by the agent task dispatcher.
+     */
+    @ConfField(mutable = true)
+    public static int agent_task_dispatch_max_batch_size = 1000;
+
+    /**
+     * The max number of submit_tasks rpcs in flight to a backend of the agent task dispatcher,
+     * one of them is kept for publish and clone tasks.
+     */
+    @ConfField(mutable = true)
+    public static int agent_task_dispatch_max_in_flight_per_backend = 4;
+
     /**
      * This config will decide whether to resend agent task when create_time for agent_task is set,
      * only when current_time - create_time > agent_task_resend_wait_time_ms can ReportHandler do resend agent task
@@ -799,6 +857,21 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int thrift_rpc_timeout_ms = 10000;
 
+    /**
+     * If set to true, heartbeats and agent tasks are sent to backends through a multiplexed thrift client,
+     * which pipelines the requests of each backend over one shared connection instead of borrowing an exclusive
+     * connection from the connection pool for every call.
+     */
+    @ConfField(mutable = true)
+    public static boolean thrift_rpc_multiplexed_enable = false;
+
+    /**
+     * The max number of requests in flight on the multiplexed thrift connection of a backend,
+     * the following requests wait until some responses arrive.
+     */
+    @ConfField(mutable = true)
+    public static int thrift_rpc_multiplexed_max_in_flight_per_endpoint = 32;
+
     /**
      * the retry times for thrift rpc call
      */
@@ -855,12 +928,37 @@ public class Config extends ConfigBase {
     @ConfField
     public static int max_mysql_service_task_threads_num = 4096;
 
+    /**
+     * Whether to process mysql connections on virtual threads instead of the pool limited by
+     * max_mysql_service_task_threads_num, so that idle connections and queries blocked on rpc don't hold platform
+     * threads. Requires JDK 21 or later, falls back to the pool otherwise.
+     */
+    @ConfField
+    public static boolean mysql_service_use_virtual_threads = false;
+
     /**
      * max num of thread to handle task for http sql.
      */
     @ConfField
     public static int max_http_sql_service_task_threads_num = 4096;
 
+    /**
+     * Whether to handle the transaction stream load requests (/api/transaction/*) in a dedicated thread pool,
+     * so that slow begin/prepare/commit operations do not occupy the http worker threads.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_http_async_transaction_load = false;
+
+    /**
+     * num of thread and queue size to handle the transaction stream load requests
+     * when enable_http_async_transaction_load is true.
+     */
+    @ConfField
+    public static int http_async_transaction_load_threads_num = 64;
+
+    @ConfField
+    public static int http_async_transaction_load_queue_size = 4096;
+
     /**
      * modifies the version string returned by following situations:
      * select version();
@@ -1187,6 +1285,26 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int task_runs_concurrency = 4;
 
+    /**
+     * Whether to schedule pending TaskRuns fairly across owners instead of the global priority order.
+     * The owner of a TaskRun is its resource group if set, otherwise its creating user.
+     */
+    @ConfField(mutable = true)
+    public static boolean task_runs_fair_schedule_enable = false;
+
+    /**
+     * Weights of TaskRun owners used by the fair schedule, eg: "rg1:4,user1:2", owner's default weight is 1.
+     */
+    @ConfField(mutable = true)
+    public static String task_runs_fair_schedule_weights = "";
+
+    /**
+     * Pending TaskRun's priority is increased by 1 for each interval it waits to avoid starvation.
+     * 0 means no priority aging.
+     */
+    @ConfField(mutable = true)
+    public static int task_runs_priority_aging_interval_second = 0;
+
     /**
      * max num of thread to handle task runs in task runs executor thread-pool.
      */
@@ -1241,6 +1359,20 @@ public class Config extends ConfigBase {
     @ConfField
     public static int max_connection_scheduler_threads_num = 4096;
 
+    /**
+     * Whether a follower forwards the session variables of a connection to the leader as a binary snapshot which
+     * is only sent when it changed, instead of the `SET` sql of all the modified variables for every statement.
+     * Only enable it after all the FEs are upgraded.
+     */
+    @ConfField(mutable = true)
+    public static boolean forward_session_state_snapshot_enable = false;
+
+    /**
+     * How long the leader keeps the session state snapshot of a forwarding connection since its last use.
+     */
+    @ConfField
+    public static long forward_session_state_cache_expire_second = 3600;
+
     /**
      * Used to limit element num of InPredicate in delete statement.
      */
@@ -1690,6 +1822,13 @@ public class Config extends ConfigBase {
     @ConfField
     public static boolean enable_metric_calculator = true;
 
+    /**
+     * How long the prometheus output of a scrape can be reused by the following scrapes with the same parameters.
+     * Concurrent scrapes always share the output which is being built, 0 means no reuse after it is built.
+     */
+    @ConfField(mutable = true)
+    public static long prometheus_metric_snapshot_ttl_ms = 0;
+
     /**
      * enable replicated storage as default table engine
      */
@@ -1894,6 +2033,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean authorization_enable_priv_collection_cache = true;
 
+    /**
+     * When set to true, the privileges of a session are compiled into a snapshot which memoizes the result
+     * of each check, checks are answered without locking until users, roles or privileges change.
+     * Only takes effect when authorization_enable_priv_collection_cache is true.
+     */
+    @ConfField(mutable = true)
+    public static boolean authorization_enable_priv_check_snapshot = true;
+
     /**
      * In some cases, some tablets may have all replicas damaged or lost.
      * At this time, the data has been lost, and the damaged tablets
@@ -2211,6 +2358,21 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_hive_partitions_per_rpc = 5000;
 
+    /**
+     * In `auto` plan mode, hive scans selecting at least this many partitions resolve partitions from the
+     * metastore on FE in batches while listing the files of the resolved ones, instead of resolving all of
+     * them upfront. In `distributed` plan mode, partitions are always resolved in batches.
+     * A negative value disables it in `auto` plan mode.
+     */
+    @ConfField(mutable = true)
+    public static int hive_batched_partition_listing_threshold = 10000;
+
+    /**
+     * The number of partitions resolved from the metastore by one task when partitions are resolved in batches.
+     */
+    @ConfField(mutable = true)
+    public static int hive_batched_partition_listing_batch_size = 1000;
+
     /**
      * The interval of lazy refreshing remote file's metadata cache
      */
@@ -2223,6 +2385,34 @@ public class Config extends ConfigBase {
     @ConfField
     public static int remote_file_metadata_load_concurrency = 32;
 
+    /**
+     * The max number of remote file listing tasks running concurrently for each catalog, shared by all the queries.
+     * The actual concurrency is adapted between 1 and this value by the observed listing latency and throttling
+     * errors of the object store. Non-positive value means no limit.
+     */
+    @ConfField(mutable = true)
+    public static int connector_remote_file_listing_max_concurrency = 64;
+
+    /**
+     * The listing latency above which the concurrency of remote file listing of a catalog is decreased.
+     */
+    @ConfField(mutable = true)
+    public static long connector_remote_file_listing_latency_target_ms = 5000L;
+
+    /**
+     * Directory of the second tier, disk backed cache of hive remote file listings. Entries survive FE restarts,
+     * and FEs pointing to the same shared directory warm from each other. Empty means disabled.
+     */
+    @ConfField
+    public static String remote_file_disk_cache_dir = "";
+
+    /**
+     * Max size in bytes of the remote file disk cache entries of each catalog, the least recently used entries
+     * are removed when it's exceeded.
+     */
+    @ConfField
+    public static long remote_file_disk_cache_max_size_bytes = 1024L * 1024 * 1024;
+
     /**
      * Hive MetaStore Client socket timeout in seconds.
      */
@@ -2259,6 +2449,15 @@ public class Config extends ConfigBase {
     @ConfField
     public static int hms_process_events_parallel_num = 4;
 
+    /**
+     * The maximum time in seconds the hive metadata cache can go without being synced with hms events.
+     * Once exceeded, the cache of the catalog is invalidated, so with enable_hms_events_incremental_sync
+     * the cache ttl (metastore_cache_ttl_sec) can be disabled by setting it to -1.
+     * A negative value disables the check.
+     */
+    @ConfField(mutable = true)
+    public static long hms_events_max_staleness_sec = 600;
+
     /**
      * Enable background refresh all external tables all partitions metadata on internal catalog.
      */
@@ -2455,6 +2654,22 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int heartbeat_retry_times = 3;
 
+    /**
+     * If true, heartbeat mgr only sends heartbeats to the nodes which are due, with a per node timeout, and handles
+     * the responses in parallel, so a slow node does not delay the heartbeat of the others.
+     * A node failing heartbeats is checked every heartbeat_timeout_second / 4 seconds,
+     * and a node answering heartbeats steadily is checked every heartbeat_stable_interval_second seconds.
+     */
+    @ConfField(mutable = true)
+    public static boolean heartbeat_adaptive_fanout_enable = false;
+
+    /**
+     * The heartbeat interval of the nodes answering heartbeats steadily, if heartbeat_adaptive_fanout_enable is true.
+     * Intervals shorter than heartbeat_timeout_second are ignored.
+     */
+    @ConfField(mutable = true)
+    public static int heartbeat_stable_interval_second = 10;
+
     /**
      * set this to enable Transparent Data Encryption(TDE)
      * once set, should not be changed, or the data depending on this key cannot be read anymore
@@ -2694,6 +2909,18 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static String lake_compaction_disable_tables = "";
 
+    @ConfField(mutable = true, comment = "Partitions whose number of loads in the last minute reaches this value " +
+            "are treated as hot and compacted before other partitions by CostSorter. 0 disables hot partition preemption.")
+    public static int lake_compaction_hot_partition_loads_per_minute = 0;
+
+    @ConfField(mutable = true, comment = "Whether to adjust the number of running compaction tablets of each node " +
+            "according to the observed compaction latency of the node")
+    public static boolean lake_compaction_enable_adaptive_node_concurrency = false;
+
+    @ConfField(mutable = true, comment = "Upper bound of the number of running compaction tablets of each node when " +
+            "lake_compaction_enable_adaptive_node_concurrency is true")
+    public static int lake_compaction_adaptive_node_max_tasks = 64;
+
     @ConfField(mutable = true, comment = "the max number of threads for lake table publishing version")
     public static int lake_publish_version_max_threads = 512;
 
@@ -3187,6 +3414,18 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long jdbc_meta_default_cache_expire_sec = 600L;
 
+    /**
+     * How long the range of the split column of a JDBC table is cached, see session variable jdbc_scan_split_num.
+     */
+    @ConfField
+    public static long jdbc_scan_split_range_cache_expire_sec = 600L;
+
+    /**
+     * Timeout of the query which gets the range of the split column of a JDBC table.
+     */
+    @ConfField(mutable = true)
+    public static int jdbc_scan_split_range_query_timeout_sec = 10;
+
     // the retention time for host disconnection events
     @ConfField(mutable = true)
     public static long black_host_history_sec = 2 * 60; // 2min
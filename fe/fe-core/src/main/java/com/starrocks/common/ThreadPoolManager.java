@@ -44,7 +44,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
@@ -115,6 +118,26 @@ public class ThreadPoolManager {
         }
     }
 
+    /**
+     * Create an executor starting a new virtual thread for each task, if virtual threads are supported by the
+     * running JVM (JDK 21 or later). FE is compiled for JDK 11, so the API is looked up by reflection.
+     *
+     * @return the executor, or empty if virtual threads are not supported.
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor(String poolName) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, poolName + "-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory));
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            LOG.warn("Virtual threads are not supported by the JVM, {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
     public static ThreadPoolExecutor newDaemonCacheThreadPool(int maxNumThread, String poolName,
                                                               boolean needRegisterMetric) {
         return newDaemonThreadPool(0, maxNumThread, KEEP_ALIVE_TIME, TimeUnit.SECONDS, new SynchronousQueue(),
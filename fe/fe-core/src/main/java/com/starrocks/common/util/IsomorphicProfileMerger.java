@@ -0,0 +1,302 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Pair;
+import com.starrocks.thrift.TCounterStrategy;
+import com.starrocks.thrift.TUnit;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * IsomorphicProfileMerger merges isomorphic profiles, e.g. the profiles of all the instances of one fragment,
+ * in a single streaming pass. Profiles are folded in one by one with {@link #add(RuntimeProfile)}, and the merged
+ * {@link RuntimeProfile} is only materialized by {@link #build()}.
+ * <p>
+ * Each counter name is assigned an id the first time it is seen, and the aggregated sum/min/max of all the
+ * counters are kept in primitive arrays indexed by that id, so folding a profile costs one hash lookup per counter
+ * instead of building per counter lists of {@link Counter} across all the profiles. The result is the same as
+ * merging all the profiles at once, see {@link RuntimeProfile#mergeIsomorphicProfiles(List, Set)}.
+ */
+public class IsomorphicProfileMerger {
+    private static final Logger LOG = LogManager.getLogger(IsomorphicProfileMerger.class);
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final byte FLAG_AVG = 1;
+    private static final byte FLAG_SKIP_MERGE = 1 << 1;
+    private static final byte FLAG_ALREADY_MERGED = 1 << 2;
+
+    private final Set<String> excludedInfoStrings;
+    // Only holds the name and the merged info strings until build
+    private final RuntimeProfile mergedProfile;
+    private int numProfiles = 0;
+
+    // Counter columns, indexed by counter id
+    private final Map<String, Integer> counterIds = Maps.newHashMap();
+    private int numCounters = 0;
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] parentNames = new String[INITIAL_CAPACITY];
+    private int[] levels = new int[INITIAL_CAPACITY];
+    private TUnit[] types = new TUnit[INITIAL_CAPACITY];
+    private TCounterStrategy[] strategies = new TCounterStrategy[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private long[] sums = new long[INITIAL_CAPACITY];
+    private long[] mins = new long[INITIAL_CAPACITY];
+    private long[] maxs = new long[INITIAL_CAPACITY];
+    // min/max of the __MIN_OF_/__MAX_OF_ counters, if the profiles are already merged ones
+    private long[] mergedMins = new long[INITIAL_CAPACITY];
+    private long[] mergedMaxs = new long[INITIAL_CAPACITY];
+
+    // Children are merged following the order of the first profile with the most children
+    private final Map<String, IsomorphicProfileMerger> children = Maps.newHashMap();
+    private List<String> childNames = Collections.emptyList();
+
+    private RuntimeProfile built = null;
+
+    public IsomorphicProfileMerger(String name, Set<String> excludedInfoStrings) {
+        this.mergedProfile = new RuntimeProfile(name);
+        this.excludedInfoStrings = excludedInfoStrings;
+    }
+
+    public int getNumProfiles() {
+        return numProfiles;
+    }
+
+    public void add(RuntimeProfile profile) {
+        numProfiles++;
+        mergedProfile.copyAllInfoStringsFrom(profile, excludedInfoStrings);
+        addCounters(profile);
+
+        List<Pair<RuntimeProfile, Boolean>> childList = profile.getChildList();
+        if (childList.size() > childNames.size()) {
+            List<String> prototypeNames = Lists.newArrayListWithCapacity(childList.size());
+            childList.forEach(pair -> prototypeNames.add(pair.first.getName()));
+            childNames = prototypeNames;
+        }
+        for (Pair<RuntimeProfile, Boolean> pair : childList) {
+            RuntimeProfile child = pair.first;
+            // Children are matched by name, skip the ones shadowed by another child with the same name
+            if (child != profile.getChild(child.getName())) {
+                continue;
+            }
+            children.computeIfAbsent(child.getName(), name -> new IsomorphicProfileMerger(name, excludedInfoStrings))
+                    .add(child);
+        }
+    }
+
+    // Level order traverse starts with root, so that the parent of a counter always gets a smaller level
+    private void addCounters(RuntimeProfile profile) {
+        Map<String, Set<String>> childCounterMap = profile.getChildCounterMap();
+        Queue<String> nameQueue = Lists.newLinkedList();
+        nameQueue.offer(RuntimeProfile.ROOT_COUNTER);
+        int level = -1;
+        while (!nameQueue.isEmpty()) {
+            level++;
+            for (int i = nameQueue.size(); i > 0; i--) {
+                String name = nameQueue.poll();
+                Set<String> childCounterNames = childCounterMap.get(name);
+                if (childCounterNames != null) {
+                    childCounterNames.forEach(nameQueue::offer);
+                }
+                if (Objects.equals(RuntimeProfile.ROOT_COUNTER, name)) {
+                    continue;
+                }
+                // The extra info (min value and max value) created by be is folded together with its counter
+                if (name.startsWith(RuntimeProfile.MERGED_INFO_PREFIX_MIN)
+                        || name.startsWith(RuntimeProfile.MERGED_INFO_PREFIX_MAX)) {
+                    continue;
+                }
+                Pair<Counter, String> pair = profile.getCounterPair(name);
+                if (pair == null) {
+                    LOG.warn("missing counter, profileName={}, counterName={}", profile.getName(), name);
+                    continue;
+                }
+                addCounter(profile, name, pair.first, pair.second, level);
+            }
+        }
+    }
+
+    private void addCounter(RuntimeProfile profile, String name, Counter counter, String parentName, int level) {
+        Integer id = counterIds.get(name);
+        if (id == null) {
+            id = newCounter(name, counter.getType(), parentName, level);
+        } else if (types[id] != counter.getType()) {
+            LOG.warn("find non-isomorphic counter, profileName={}, counterName={}, existType={}, anotherType={}",
+                    mergedProfile.getName(), name, types[id].name(), counter.getType().name());
+            return;
+        }
+        if ((flags[id] & FLAG_SKIP_MERGE) != 0) {
+            return;
+        }
+
+        strategies[id] = counter.getStrategy();
+        long value = counter.getValue();
+        if (counter.isSkipMerge()) {
+            flags[id] |= FLAG_SKIP_MERGE;
+            sums[id] = value;
+            return;
+        }
+
+        if (!counter.isSkipMinMax()) {
+            Counter minCounter = profile.getCounter(RuntimeProfile.MERGED_INFO_PREFIX_MIN + name);
+            if (minCounter != null) {
+                flags[id] |= FLAG_ALREADY_MERGED;
+                mergedMins[id] = Math.min(mergedMins[id], minCounter.getValue());
+            }
+            Counter maxCounter = profile.getCounter(RuntimeProfile.MERGED_INFO_PREFIX_MAX + name);
+            if (maxCounter != null) {
+                flags[id] |= FLAG_ALREADY_MERGED;
+                mergedMaxs[id] = Math.max(mergedMaxs[id], maxCounter.getValue());
+            }
+        }
+
+        // Whether to average is decided by the first counter
+        if (counts[id] == 0 && counter.isAvg()) {
+            flags[id] |= FLAG_AVG;
+        }
+        counts[id]++;
+        sums[id] += value;
+        mins[id] = Math.min(mins[id], value);
+        maxs[id] = Math.max(maxs[id], value);
+    }
+
+    private int newCounter(String name, TUnit type, String parentName, int level) {
+        if (numCounters == names.length) {
+            int capacity = numCounters * 2;
+            names = Arrays.copyOf(names, capacity);
+            parentNames = Arrays.copyOf(parentNames, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            types = Arrays.copyOf(types, capacity);
+            strategies = Arrays.copyOf(strategies, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            mergedMins = Arrays.copyOf(mergedMins, capacity);
+            mergedMaxs = Arrays.copyOf(mergedMaxs, capacity);
+        }
+        int id = numCounters++;
+        names[id] = name;
+        parentNames[id] = parentName;
+        levels[id] = level;
+        types[id] = type;
+        mins[id] = Long.MAX_VALUE;
+        maxs[id] = Long.MIN_VALUE;
+        mergedMins[id] = Long.MAX_VALUE;
+        mergedMaxs[id] = Long.MIN_VALUE;
+        counterIds.put(name, id);
+        return id;
+    }
+
+    /**
+     * Materialize the merged profile, should be called after all the profiles are added.
+     *
+     * @return the merged profile, or null if no profile is added.
+     */
+    public RuntimeProfile build() {
+        if (numProfiles == 0) {
+            return null;
+        }
+        if (built != null) {
+            return built;
+        }
+        built = mergedProfile;
+
+        // Parents must be added before children
+        Integer[] orderedIds = new Integer[numCounters];
+        for (int i = 0; i < numCounters; i++) {
+            orderedIds[i] = i;
+        }
+        Arrays.sort(orderedIds, (id1, id2) -> Integer.compare(levels[id1], levels[id2]));
+        for (int id : orderedIds) {
+            buildCounter(id);
+        }
+
+        boolean identical = true;
+        for (String childName : childNames) {
+            IsomorphicProfileMerger child = children.get(childName);
+            if (child.numProfiles < numProfiles) {
+                identical = false;
+                LOG.info("find non-isomorphic children, profileName={}, requiredChildName={}, missingNum={}",
+                        mergedProfile.getName(), childName, numProfiles - child.numProfiles);
+            }
+            mergedProfile.addChild(child.build());
+        }
+        if (!identical) {
+            mergedProfile.addInfoString("NotIdentical", "");
+        }
+
+        return mergedProfile;
+    }
+
+    private void buildCounter(int id) {
+        String name = names[id];
+        String parentName = parentNames[id];
+        TUnit type = types[id];
+        Counter mergedCounter;
+        if (!Objects.equals(RuntimeProfile.ROOT_COUNTER, parentName) && mergedProfile.getCounter(parentName) != null) {
+            mergedCounter = mergedProfile.addCounter(name, type, strategies[id], parentName);
+        } else {
+            if (!Objects.equals(RuntimeProfile.ROOT_COUNTER, parentName)) {
+                LOG.warn("missing parent counter, profileName={}, counterName={}, parentCounterName={}",
+                        mergedProfile.getName(), name, parentName);
+            }
+            mergedCounter = mergedProfile.addCounter(name, type, strategies[id]);
+        }
+
+        if ((flags[id] & FLAG_SKIP_MERGE) != 0) {
+            mergedCounter.setValue(sums[id]);
+            return;
+        }
+        long mergedValue = sums[id];
+        if ((flags[id] & FLAG_AVG) != 0) {
+            mergedValue /= counts[id];
+        }
+        mergedCounter.setValue(mergedValue);
+
+        if (!mergedCounter.isSkipMinMax()) {
+            boolean alreadyMerged = (flags[id] & FLAG_ALREADY_MERGED) != 0;
+            Counter minCounter = mergedProfile.addCounter(RuntimeProfile.MERGED_INFO_PREFIX_MIN + name, type,
+                    mergedCounter.getStrategy(), name);
+            Counter maxCounter = mergedProfile.addCounter(RuntimeProfile.MERGED_INFO_PREFIX_MAX + name, type,
+                    mergedCounter.getStrategy(), name);
+            minCounter.setValue(alreadyMerged ? mergedMins[id] : mins[id]);
+            maxCounter.setValue(alreadyMerged ? mergedMaxs[id] : maxs[id]);
+        }
+    }
+
+    public static RuntimeProfile merge(List<RuntimeProfile> profiles, Set<String> excludedInfoStrings) {
+        if (CollectionUtils.isEmpty(profiles)) {
+            return null;
+        }
+        IsomorphicProfileMerger merger = new IsomorphicProfileMerger(profiles.get(0).getName(), excludedInfoStrings);
+        profiles.forEach(merger::add);
+        return merger.build();
+    }
+}
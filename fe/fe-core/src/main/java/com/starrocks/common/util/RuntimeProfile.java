@@ -35,6 +35,8 @@
 package com.starrocks.common.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -50,7 +52,6 @@ import com.starrocks.thrift.TRuntimeProfileTree;
 import com.starrocks.thrift.TUnit;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -78,6 +79,10 @@ public class RuntimeProfile {
     public static final String MERGED_INFO_PREFIX_MIN = "__MIN_OF_";
     public static final String MERGED_INFO_PREFIX_MAX = "__MAX_OF_";
 
+    // Counter names, child names and info string keys are the same for all the instances of a fragment,
+    // intern them to avoid keeping one copy per instance profile.
+    private static final Interner<String> NAME_INTERNER = Interners.newWeakInterner();
+
     private final Counter counterTotalTime;
 
     private final Map<String, String> infoStrings = Collections.synchronizedMap(Maps.newLinkedHashMap());
@@ -146,6 +151,8 @@ public class RuntimeProfile {
         } else {
             Preconditions.checkState(parentName.equals(ROOT_COUNTER)
                     || this.counterMap.containsKey(parentName));
+            name = NAME_INTERNER.intern(name);
+            parentName = NAME_INTERNER.intern(parentName);
             Counter newCounter = new Counter(type, strategy, 0);
             this.counterMap.put(name, Pair.create(newCounter, parentName));
 
@@ -340,7 +347,7 @@ public class RuntimeProfile {
             for (String key : node.info_strings_display_order) {
                 String value = nodeInfoStrings.get(key);
                 Preconditions.checkState(value != null);
-                addInfoString(key, value);
+                addInfoString(NAME_INTERNER.intern(key), value);
             }
         }
 
@@ -351,7 +358,7 @@ public class RuntimeProfile {
             String childName = tchild.name;
             RuntimeProfile childProfile = this.childMap.get(childName);
             if (childProfile == null) {
-                childProfile = new RuntimeProfile(childName);
+                childProfile = new RuntimeProfile(NAME_INTERNER.intern(childName));
                 addChild(childProfile);
             }
             childProfile.update(nodes, idx, isNodeOld);
@@ -634,204 +641,7 @@ public class RuntimeProfile {
     // that all the children are isomorphic, otherwise, the behavior is undefined
     public static RuntimeProfile mergeIsomorphicProfiles(List<RuntimeProfile> profiles,
                                                          Set<String> excludedInfoStrings) {
-        if (CollectionUtils.isEmpty(profiles)) {
-            return null;
-        }
-
-        RuntimeProfile mergedProfile = new RuntimeProfile(profiles.get(0).getName());
-
-        for (RuntimeProfile runtimeProfile : profiles) {
-            mergedProfile.copyAllInfoStringsFrom(runtimeProfile, excludedInfoStrings);
-        }
-
-        // Find all counters, although these profiles are expected to be isomorphic,
-        // some counters are only attached to one of them
-        List<Map<String, Pair<TUnit, String>>> allLevelCounters = Lists.newArrayList();
-        for (RuntimeProfile profile : profiles) {
-            // Level order traverse starts with root
-            Queue<String> nameQueue = Lists.newLinkedList();
-            nameQueue.offer(ROOT_COUNTER);
-            int levelIdx = -1;
-            while (!nameQueue.isEmpty()) {
-                levelIdx++;
-                List<String> currentNames = Lists.newArrayList(nameQueue);
-                nameQueue.clear();
-                for (String name : currentNames) {
-                    Set<String> childNames = profile.childCounterMap.get(name);
-                    if (childNames != null) {
-                        for (String childName : childNames) {
-                            nameQueue.offer(childName);
-                        }
-                    }
-
-                    if (Objects.equals(ROOT_COUNTER, name)) {
-                        continue;
-                    }
-                    Pair<Counter, String> pair = profile.counterMap.get(name);
-                    if (pair == null) {
-                        LOG.warn("missing counter, profileName={}, counterName={}", profile.name, name);
-                        continue;
-                    }
-                    Counter counter = pair.first;
-                    String parentName = pair.second;
-
-                    while (allLevelCounters.size() <= levelIdx) {
-                        allLevelCounters.add(Maps.newHashMap());
-                    }
-
-                    Map<String, Pair<TUnit, String>> levelCounters = allLevelCounters.get(levelIdx);
-                    if (!levelCounters.containsKey(name)) {
-                        levelCounters.put(name, Pair.create(counter.getType(), parentName));
-                        continue;
-                    }
-                    TUnit existType = levelCounters.get(name).first;
-                    if (!existType.equals(counter.getType())) {
-                        LOG.warn(
-                                "find non-isomorphic counter, profileName={}, counterName={}, existType={}, anotherType={}",
-                                mergedProfile.name, name, existType.name(), counter.getType().name());
-                        continue;
-                    }
-                }
-            }
-        }
-
-        List<Triple<TUnit, String, String>> levelOrderedCounters = Lists.newArrayList();
-        for (Map<String, Pair<TUnit, String>> levelCounters : allLevelCounters) {
-            for (Map.Entry<String, Pair<TUnit, String>> entry : levelCounters.entrySet()) {
-                String name = entry.getKey();
-                TUnit type = entry.getValue().first;
-                String parentName = entry.getValue().second;
-                levelOrderedCounters.add(Triple.of(type, name, parentName));
-            }
-        }
-
-        for (Triple<TUnit, String, String> triple : levelOrderedCounters) {
-            TUnit type = triple.getLeft();
-            String name = triple.getMiddle();
-            String parentName = triple.getRight();
-
-            // We don't need to calculate sum or average of counter's extra info (min value and max value) created by be
-            if (name.startsWith(MERGED_INFO_PREFIX_MIN) || name.startsWith(MERGED_INFO_PREFIX_MAX)) {
-                continue;
-            }
-
-            List<Counter> counters = Lists.newArrayList();
-            long minValue = Long.MAX_VALUE;
-            long maxValue = Long.MIN_VALUE;
-            boolean alreadyMerged = false;
-            boolean skipMerge = false;
-            Counter skipMergeCounter = null;
-            TCounterStrategy strategy = null;
-            for (RuntimeProfile profile : profiles) {
-                Counter counter = profile.getCounter(name);
-
-                // Allow some counters which only attach to one of the isomorphic profiles
-                // E.g. A bunch of ExchangeSinkOperators may share one SinkBuffer, so the metrics
-                // of SinkBuffer only attach to the first ExchangeSinkOperator's profile
-                if (counter == null) {
-                    continue;
-                }
-                if (!type.equals(counter.getType())) {
-                    LOG.warn(
-                            "find non-isomorphic counter, profileName={}, counterName={}, existType={}, anotherType={}",
-                            mergedProfile.name, name, type.name(), counter.getType().name());
-                    continue;
-                }
-                strategy = counter.getStrategy();
-                if (counter.isSkipMerge()) {
-                    skipMerge = true;
-                    skipMergeCounter = counter;
-                    break;
-                }
-
-                if (!counter.isSkipMinMax()) {
-                    Counter minCounter = profile.getCounter(MERGED_INFO_PREFIX_MIN + name);
-                    if (minCounter != null) {
-                        alreadyMerged = true;
-                        if (minCounter.getValue() < minValue) {
-                            minValue = minCounter.getValue();
-                        }
-                    }
-                    Counter maxCounter = profile.getCounter(MERGED_INFO_PREFIX_MAX + name);
-                    if (maxCounter != null) {
-                        alreadyMerged = true;
-                        if (maxCounter.getValue() > maxValue) {
-                            maxValue = maxCounter.getValue();
-                        }
-                    }
-                }
-
-                counters.add(counter);
-            }
-            Counter mergedCounter;
-            if (!Objects.equals(ROOT_COUNTER, parentName) && mergedProfile.getCounter(parentName) != null) {
-                mergedCounter = mergedProfile.addCounter(name, type, strategy, parentName);
-            } else {
-                if (!Objects.equals(ROOT_COUNTER, parentName)) {
-                    LOG.warn("missing parent counter, profileName={}, counterName={}, parentCounterName={}",
-                            mergedProfile.name, name, parentName);
-                }
-                mergedCounter = mergedProfile.addCounter(name, type, strategy);
-            }
-            if (skipMerge) {
-                mergedCounter.setValue(skipMergeCounter.getValue());
-            } else {
-                Counter.MergedInfo mergedInfo = Counter.mergeIsomorphicCounters(counters);
-                final long mergedValue = mergedInfo.mergedValue;
-                if (!alreadyMerged) {
-                    minValue = mergedInfo.minValue;
-                    maxValue = mergedInfo.maxValue;
-                }
-                mergedCounter.setValue(mergedValue);
-
-                if (!mergedCounter.isSkipMinMax()) {
-                    Counter minCounter =
-                            mergedProfile.addCounter(MERGED_INFO_PREFIX_MIN + name, type, mergedCounter.getStrategy(),
-                                    name);
-                    Counter maxCounter =
-                            mergedProfile.addCounter(MERGED_INFO_PREFIX_MAX + name, type, mergedCounter.getStrategy(),
-                                    name);
-                    minCounter.setValue(minValue);
-                    maxCounter.setValue(maxValue);
-                }
-            }
-
-        }
-
-        // merge children
-        int maxChildSize = 0;
-        RuntimeProfile profileWithFullChild = null;
-        for (RuntimeProfile profile : profiles) {
-            if (profile.getChildList().size() > maxChildSize) {
-                maxChildSize = profile.getChildList().size();
-                profileWithFullChild = profile;
-            }
-        }
-        if (profileWithFullChild != null) {
-            boolean identical = true;
-            for (int i = 0; i < maxChildSize; i++) {
-                Pair<RuntimeProfile, Boolean> prototypeKv = profileWithFullChild.getChildList().get(i);
-                String childName = prototypeKv.first.getName();
-                List<RuntimeProfile> subProfiles = Lists.newArrayList();
-                for (RuntimeProfile profile : profiles) {
-                    RuntimeProfile child = profile.getChild(childName);
-                    if (child == null) {
-                        identical = false;
-                        LOG.info("find non-isomorphic children, profileName={}, requiredChildName={}",
-                                profile.name, childName);
-                        continue;
-                    }
-                    subProfiles.add(child);
-                }
-                RuntimeProfile mergedChild = mergeIsomorphicProfiles(subProfiles, excludedInfoStrings);
-                mergedProfile.addChild(mergedChild);
-            }
-            if (!identical) {
-                mergedProfile.addInfoString("NotIdentical", "");
-            }
-        }
-
-        return mergedProfile;
+        return IsomorphicProfileMerger.merge(profiles, excludedInfoStrings);
     }
 
     public static void removeRedundantMinMaxMetrics(RuntimeProfile profile) {
@@ -0,0 +1,103 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util.concurrent;
+
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free queue for many producers and a single consumer.
+ * <p>
+ * Producers claim a slot by advancing the tail with a CAS, and publish the element into it. The consumer takes the
+ * elements in claim order, and stops at a claimed slot whose element is not published yet. {@link #drainTo} must only
+ * be called by one thread at a time.
+ */
+public class MpscRingBuffer<E> {
+    private final AtomicReferenceArray<E> buffer;
+    private final int capacity;
+    private final int mask;
+    // the next slot to claim by producers
+    private final AtomicLong tail = new AtomicLong(0);
+    // the next slot to take by the consumer, only written by the consumer
+    private final AtomicLong head = new AtomicLong(0);
+
+    /**
+     * @param capacity rounded up to a power of 2
+     */
+    public MpscRingBuffer(int capacity) {
+        Preconditions.checkArgument(capacity > 0 && capacity <= (1 << 30), "invalid capacity: " + capacity);
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        Preconditions.checkNotNull(element);
+        while (true) {
+            long claimed = tail.get();
+            if (claimed - head.get() >= capacity) {
+                return false;
+            }
+            if (tail.compareAndSet(claimed, claimed + 1)) {
+                buffer.lazySet((int) claimed & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Move at most maxElements elements to the list.
+     *
+     * @return the number of moved elements
+     */
+    public int drainTo(List<? super E> list, int maxElements) {
+        long current = head.get();
+        int drained = 0;
+        while (drained < maxElements) {
+            int index = (int) current & mask;
+            E element = buffer.get(index);
+            if (element == null) {
+                // empty, or the producer of this slot has not published its element yet
+                break;
+            }
+            // clear the slot before releasing it to producers
+            buffer.lazySet(index, null);
+            list.add(element);
+            current++;
+            drained++;
+        }
+        if (drained > 0) {
+            head.lazySet(current);
+        }
+        return drained;
+    }
+
+    /**
+     * @return the approximate number of elements in the buffer, including the claimed but not published ones
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -14,14 +14,21 @@
 
 package com.starrocks.connector;
 
+import com.starrocks.common.ThreadPoolManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
@@ -38,6 +45,11 @@ import java.util.concurrent.locks.ReentrantLock;
  * It provides methods to start tasks, retrieve outputs, and handle task exceptions.
  * <p>
  * Make sure there is a single consumer.
+ * <p>
+ * Optionally, the queue can share a {@link ConcurrencyBudget} with the other queues of the same catalog. Then a task
+ * is triggered only when the budget allows, the budget adapts its limit by the latency and the throttling errors of
+ * the tasks, and tasks failed by throttling are run again up to {@link #MAX_THROTTLED_RETRIES} times after an
+ * exponential backoff with jitter, so their `run` must be idempotent.
  */
 
 /*
@@ -54,6 +66,12 @@ import java.util.concurrent.locks.ReentrantLock;
 public class AsyncTaskQueue<T> {
     private static final Logger LOG = LogManager.getLogger(AsyncTaskQueue.class);
 
+    static final int MAX_THROTTLED_RETRIES = 3;
+    static final long THROTTLED_RETRY_BASE_DELAY_MS = 100L;
+    // delays the retries of throttled tasks
+    private static final ScheduledExecutorService RETRY_SCHEDULER =
+            ThreadPoolManager.newDaemonScheduledThreadPool(1, "async-task-queue-retry", false);
+
     public interface Task<T> {
         List<T> run() throws InterruptedException;
 
@@ -88,6 +106,12 @@ public class AsyncTaskQueue<T> {
     int maxOutputQueueSize = Integer.MAX_VALUE;
     Executor executor;
 
+    // concurrency budget shared with other queues
+    ConcurrencyBudget budget = null;
+    ConcurrencyBudget.Priority priority = ConcurrencyBudget.Priority.INTERACTIVE;
+    AtomicBoolean waitingForBudget = new AtomicBoolean(false);
+    Map<Task<T>, Integer> throttledRetries = new ConcurrentHashMap<>();
+
     class ConcurrencyTuner {
         long lastTime = 0;
         int scale = 0;
@@ -131,6 +155,32 @@ public class AsyncTaskQueue<T> {
         this.maxOutputQueueSize = maxOutputQueueSize;
     }
 
+    public void setConcurrencyBudget(ConcurrencyBudget budget, ConcurrencyBudget.Priority priority) {
+        this.budget = budget;
+        this.priority = priority;
+        budget.register(this);
+    }
+
+    // number of tasks which can run concurrently, bounded by the budget if any
+    int getTaskConcurrency() {
+        int concurrency = maxRunningTaskCount.get();
+        return budget == null ? concurrency : Math.min(concurrency, budget.getLimit());
+    }
+
+    // number of tasks waiting to be triggered
+    int getPendingTaskCount() {
+        if (!hasMoreOutput || taskException.get() != null) {
+            return 0;
+        }
+        return Math.max(0, taskQueueSize.get() - runningTaskCount.get());
+    }
+
+    // called by the budget when a slot is released after this queue failed to acquire one.
+    void onBudgetAvailable() {
+        waitingForBudget.set(false);
+        triggerTasks();
+    }
+
     public void start(List<? extends Task<T>> tasks) {
         taskQueue.addAll(tasks);
         taskQueueSize.addAndGet(tasks.size());
@@ -157,6 +207,9 @@ public class AsyncTaskQueue<T> {
                 // unless we try to fetch it.
                 if (taskException.get() != null || taskQueueSize.get() == 0) {
                     hasMoreOutput = false;
+                    if (budget != null) {
+                        budget.unregister(this);
+                    }
                     if (taskException.get() != null) {
                         throw new RuntimeException(taskException.get());
                     }
@@ -237,11 +290,18 @@ public class AsyncTaskQueue<T> {
         // 3. submit this task, and check if ok
         // 4. if not ok, dec running count.
         boolean success = false;
+        boolean acquired = false;
         try {
             int count = runningTaskCount.incrementAndGet();
             if (count > maxRunningTaskCountValue) {
                 return false;
             }
+            if (budget != null) {
+                acquired = tryAcquireBudget();
+                if (!acquired) {
+                    return false;
+                }
+            }
             Task task = taskQueue.poll();
             if (task == null) {
                 return false;
@@ -254,11 +314,55 @@ public class AsyncTaskQueue<T> {
         } finally {
             if (!success) {
                 runningTaskCount.decrementAndGet();
+                if (acquired) {
+                    budget.cancel();
+                }
             }
         }
         return false;
     }
 
+    private boolean tryAcquireBudget() {
+        if (budget.tryAcquire(priority)) {
+            return true;
+        }
+        // wait for the budget, and check again in case that it was released before waiting.
+        if (waitingForBudget.compareAndSet(false, true)) {
+            budget.addWaiter(this, priority);
+        }
+        return budget.tryAcquire(priority);
+    }
+
+    private boolean retryThrottledTask(Task<T> task) {
+        if (budget == null) {
+            return false;
+        }
+        int retries = throttledRetries.merge(task, 1, Integer::sum);
+        if (retries > MAX_THROTTLED_RETRIES) {
+            return false;
+        }
+        // the budget has been decreased, run it again later. the jitter keeps the tasks throttled together from
+        // hitting the remote storage again at the same time.
+        taskQueueSize.addAndGet(1);
+        try {
+            RETRY_SCHEDULER.schedule(() -> {
+                taskQueue.addLast(task);
+                triggerTasks();
+            }, throttledRetryDelayMs(retries), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            taskQueue.addLast(task);
+        }
+        return true;
+    }
+
+    /**
+     * @return a random delay in [base * 2^(retries - 1) / 2, base * 2^(retries - 1)]
+     */
+    static long throttledRetryDelayMs(int retries) {
+        long maxDelayMs = THROTTLED_RETRY_BASE_DELAY_MS << (retries - 1);
+        return maxDelayMs / 2 + ThreadLocalRandom.current().nextLong(maxDelayMs / 2 + 1);
+    }
+
     // trigger enough tasks.
     private void triggerTasks() {
         int maxRunningTaskCountValue = maxRunningTaskCount.get();
@@ -278,8 +382,12 @@ public class AsyncTaskQueue<T> {
 
         @Override
         public void run() {
+            long startNanos = System.nanoTime();
+            boolean executed = false;
+            boolean throttled = false;
             if (taskException.get() == null) {
                 // run it only when there is no exception.
+                executed = true;
                 try {
                     List<T> outputs = task.run();
                     addOutputs(outputs);
@@ -293,10 +401,20 @@ public class AsyncTaskQueue<T> {
                         taskQueue.addFirst(task);
                     }
                 } catch (Exception e) {
-                    updateTaskException(e);
+                    throttled = ConcurrencyBudget.isThrottled(e);
+                    if (!throttled || !retryThrottledTask(task)) {
+                        updateTaskException(e);
+                    }
                 }
             }
             runningTaskCount.decrementAndGet();
+            if (budget != null) {
+                if (executed) {
+                    budget.release(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), throttled);
+                } else {
+                    budget.cancel();
+                }
+            }
             // all tasks are done, notify the consumer.
             if (taskQueueSize.decrementAndGet() == 0) {
                 addOutputs(List.of());
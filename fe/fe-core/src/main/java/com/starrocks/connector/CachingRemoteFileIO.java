@@ -18,8 +18,12 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.starrocks.connector.exception.StarRocksConnectorException;
+import com.starrocks.metric.LongCounterMetric;
+import com.starrocks.metric.MetricRepo;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.logging.log4j.LogManager;
@@ -41,8 +45,11 @@ public class CachingRemoteFileIO implements RemoteFileIO {
 
     public static final long NEVER_EVICT = -1;
     public static final long NEVER_REFRESH = -1;
+    public static final String MEMORY_TIER_NAME = "memory";
     private final RemoteFileIO fileIO;
     private final LoadingCache<RemotePathKey, List<RemoteFileDesc>> cache;
+    // optional second tier, only used by catalog level instance
+    private RemoteFileDiskCache diskCache;
 
     protected CachingRemoteFileIO(RemoteFileIO fileIO,
                                   Executor executor,
@@ -54,10 +61,18 @@ public class CachingRemoteFileIO implements RemoteFileIO {
                 .build(asyncReloading(new CacheLoader<RemotePathKey, List<RemoteFileDesc>>() {
                     @Override
                     public List<RemoteFileDesc> load(RemotePathKey key) throws Exception {
-                        List<RemoteFileDesc> res = loadRemoteFiles(key);
+                        List<RemoteFileDesc> res = loadRemoteFilesWithDiskCache(key);
                         key.drop();
                         return res;
                     }
+
+                    @Override
+                    public ListenableFuture<List<RemoteFileDesc>> reload(RemotePathKey key, List<RemoteFileDesc> oldValue) {
+                        // refresh always goes to remote storage, otherwise the disk entry would be served back.
+                        List<RemoteFileDesc> res = loadRemoteFiles(key);
+                        key.drop();
+                        return Futures.immediateFuture(res);
+                    }
                 }, executor));
     }
 
@@ -79,11 +94,18 @@ public class CachingRemoteFileIO implements RemoteFileIO {
         return getRemoteFiles(pathKey, true);
     }
 
+    public void setDiskCache(RemoteFileDiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
     public Map<RemotePathKey, List<RemoteFileDesc>> getRemoteFiles(RemotePathKey pathKey, boolean useCache) {
         try {
             if (!useCache) {
                 invalidatePartition(pathKey);
             }
+            if (!(fileIO instanceof CachingRemoteFileIO)) {
+                recordCacheAccess(MEMORY_TIER_NAME, cache.getIfPresent(pathKey) != null);
+            }
             return ImmutableMap.of(pathKey, cache.getUnchecked(pathKey));
         } catch (UncheckedExecutionException e) {
             LOG.error("Error occurred when getting remote files from cache", e);
@@ -93,7 +115,34 @@ public class CachingRemoteFileIO implements RemoteFileIO {
     }
 
     public List<RemoteFileDesc> loadRemoteFiles(RemotePathKey pathKey) {
-        return fileIO.getRemoteFiles(pathKey).get(pathKey);
+        List<RemoteFileDesc> files = fileIO.getRemoteFiles(pathKey).get(pathKey);
+        if (diskCache != null) {
+            diskCache.put(pathKey, files);
+        }
+        return files;
+    }
+
+    private List<RemoteFileDesc> loadRemoteFilesWithDiskCache(RemotePathKey pathKey) {
+        if (diskCache != null) {
+            List<RemoteFileDesc> files = diskCache.get(pathKey);
+            if (files != null) {
+                return files;
+            }
+        }
+        return loadRemoteFiles(pathKey);
+    }
+
+    static void recordCacheAccess(String tier, boolean hit) {
+        LongCounterMetric hitCounter = MetricRepo.COUNTER_REMOTE_FILE_CACHE_HIT.getMetric(tier);
+        LongCounterMetric missCounter = MetricRepo.COUNTER_REMOTE_FILE_CACHE_MISS.getMetric(tier);
+        if (hit) {
+            hitCounter.increase(1L);
+        } else {
+            missCounter.increase(1L);
+        }
+        long hits = hitCounter.getValue();
+        long total = hits + missCounter.getValue();
+        MetricRepo.GAUGE_REMOTE_FILE_CACHE_HIT_RATIO.getMetric(tier).setValue(total == 0 ? 0.0 : (double) hits / total);
     }
 
     public Map<RemotePathKey, List<RemoteFileDesc>> getPresentRemoteFiles(List<RemotePathKey> paths) {
@@ -121,6 +170,9 @@ public class CachingRemoteFileIO implements RemoteFileIO {
 
     public synchronized void invalidateAll() {
         cache.invalidateAll();
+        if (diskCache != null) {
+            diskCache.invalidateAll();
+        }
     }
 
     public void invalidatePartition(RemotePathKey pathKey) {
@@ -131,6 +183,9 @@ public class CachingRemoteFileIO implements RemoteFileIO {
             cache.invalidate(pathKey);
         } else {
             cache.invalidate(pathKey);
+            if (diskCache != null) {
+                diskCache.invalidate(pathKey);
+            }
         }
         pathKey.drop();
     }
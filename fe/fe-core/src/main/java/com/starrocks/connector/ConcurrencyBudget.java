@@ -0,0 +1,307 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.connector;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.MapMaker;
+import com.starrocks.common.Config;
+import com.starrocks.metric.GaugeMetric;
+import com.starrocks.metric.LongCounterMetric;
+import com.starrocks.metric.Metric;
+import com.starrocks.metric.MetricLabel;
+import com.starrocks.metric.MetricRepo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ConcurrencyBudget limits the number of {@link AsyncTaskQueue} tasks running concurrently against the same
+ * catalog, across all the queries.
+ * <p>
+ * The limit is adapted by AIMD over windows of `limit` tasks: it grows by one after a window of tasks all completed
+ * within the latency target of `connector_remote_file_listing_latency_target_ms`, and shrinks by a quarter after a
+ * window in which more than a quarter of the tasks exceeded the target, so that a few slow tasks don't cut the
+ * concurrency of the whole catalog. It is halved when a task is throttled by the object store, at most once per
+ * {@link #DECREASE_INTERVAL_MS} so that a burst of errors caused by the same overload only counts once.
+ * <p>
+ * Interactive tasks can use the whole limit. Background tasks can use at most half of it, and only when no
+ * interactive queue is waiting. Queues failing to acquire the budget register as waiters and are triggered again
+ * when running tasks release it, interactive ones first.
+ */
+public class ConcurrencyBudget {
+    private static final Logger LOG = LogManager.getLogger(ConcurrencyBudget.class);
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    @VisibleForTesting
+    static final long DECREASE_INTERVAL_MS = 1000L;
+    // bounds the window when the limit is unbounded
+    private static final int MAX_WINDOW_SIZE = 100;
+
+    private static final Map<String, ConcurrencyBudget> BUDGETS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final AtomicInteger runningTaskCount = new AtomicInteger(0);
+    private volatile int limit;
+    // the tasks completed in the current window, and those of them exceeding the latency target
+    private int windowTaskCount = 0;
+    private int windowSlowTaskCount = 0;
+    private long lastDecreaseMs = 0;
+    private final List<Metric<?>> metrics = new ArrayList<>();
+
+    private final Queue<AsyncTaskQueue<?>> interactiveWaiters = new ConcurrentLinkedQueue<>();
+    private final Queue<AsyncTaskQueue<?>> backgroundWaiters = new ConcurrentLinkedQueue<>();
+    // queues using this budget, to report the number of pending tasks. abandoned queues are released by gc.
+    private final Set<AsyncTaskQueue<?>> queues = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+
+    private final Histogram latencyMs = new Histogram(new ExponentiallyDecayingReservoir());
+    private final LongCounterMetric throttledCounter = new LongCounterMetric("connector_task_throttled_total",
+            Metric.MetricUnit.REQUESTS, "the number of connector tasks throttled by the remote storage");
+
+    @VisibleForTesting
+    ConcurrencyBudget(String name) {
+        this.name = name;
+        this.limit = maxLimit();
+    }
+
+    /**
+     * @return the budget shared by all the queries of the catalog.
+     */
+    public static ConcurrencyBudget of(String catalogName) {
+        return BUDGETS.computeIfAbsent(catalogName, name -> {
+            ConcurrencyBudget budget = new ConcurrencyBudget(name);
+            budget.registerMetrics();
+            return budget;
+        });
+    }
+
+    /**
+     * Forget the budget of a dropped catalog along with its metrics.
+     */
+    public static void remove(String catalogName) {
+        ConcurrencyBudget budget = BUDGETS.remove(catalogName);
+        if (budget != null) {
+            for (Metric<?> metric : budget.metrics) {
+                MetricRepo.removeMetric(metric);
+            }
+        }
+    }
+
+    private static int maxLimit() {
+        int max = Config.connector_remote_file_listing_max_concurrency;
+        return max <= 0 ? Integer.MAX_VALUE : max;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return Math.min(limit, maxLimit());
+    }
+
+    public int getRunningTaskCount() {
+        return runningTaskCount.get();
+    }
+
+    public long getPendingTaskCount() {
+        long count = 0;
+        for (AsyncTaskQueue<?> queue : queues) {
+            count += queue.getPendingTaskCount();
+        }
+        return count;
+    }
+
+    public Histogram getLatencyMs() {
+        return latencyMs;
+    }
+
+    void register(AsyncTaskQueue<?> queue) {
+        queues.add(queue);
+    }
+
+    void unregister(AsyncTaskQueue<?> queue) {
+        queues.remove(queue);
+    }
+
+    private int capacity(Priority priority) {
+        int value = getLimit();
+        if (priority == Priority.INTERACTIVE) {
+            return value;
+        }
+        return interactiveWaiters.isEmpty() ? Math.max(1, value / 2) : 0;
+    }
+
+    public boolean tryAcquire(Priority priority) {
+        while (true) {
+            int count = runningTaskCount.get();
+            if (count >= capacity(priority)) {
+                return false;
+            }
+            if (runningTaskCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a slot acquired by {@link #tryAcquire(Priority)} without running a task.
+     */
+    public void cancel() {
+        runningTaskCount.decrementAndGet();
+        wakeUpWaiters();
+    }
+
+    /**
+     * Release a slot acquired by {@link #tryAcquire(Priority)} after running a task, and adapt the limit by the
+     * latency and the result of the task.
+     */
+    public void release(long elapsedMs, boolean throttled) {
+        runningTaskCount.decrementAndGet();
+        latencyMs.update(elapsedMs);
+        if (throttled) {
+            throttledCounter.increase(1L);
+        }
+        adjust(elapsedMs, throttled);
+        wakeUpWaiters();
+    }
+
+    private synchronized void adjust(long elapsedMs, boolean throttled) {
+        int maxValue = maxLimit();
+        int value = Math.min(limit, maxValue);
+        if (throttled) {
+            long now = System.currentTimeMillis();
+            if (now - lastDecreaseMs >= DECREASE_INTERVAL_MS) {
+                decrease(value, value / 2, now, "throttled");
+            }
+            return;
+        }
+        windowTaskCount++;
+        if (elapsedMs > Config.connector_remote_file_listing_latency_target_ms) {
+            windowSlowTaskCount++;
+        }
+        if (windowTaskCount < Math.min(value, MAX_WINDOW_SIZE)) {
+            return;
+        }
+        if (windowSlowTaskCount * 4 > windowTaskCount) {
+            decrease(value, value * 3 / 4, System.currentTimeMillis(),
+                    windowSlowTaskCount + " of " + windowTaskCount + " tasks are slow");
+        } else {
+            if (windowSlowTaskCount == 0) {
+                limit = value < maxValue ? value + 1 : maxValue;
+            }
+            windowTaskCount = 0;
+            windowSlowTaskCount = 0;
+        }
+    }
+
+    private void decrease(int value, int newValue, long now, String reason) {
+        lastDecreaseMs = now;
+        windowTaskCount = 0;
+        windowSlowTaskCount = 0;
+        limit = Math.max(1, newValue);
+        LOG.info("Decrease the concurrency of {} from {} to {}: {}", name, value, limit, reason);
+    }
+
+    void addWaiter(AsyncTaskQueue<?> queue, Priority priority) {
+        if (priority == Priority.INTERACTIVE) {
+            interactiveWaiters.add(queue);
+        } else {
+            backgroundWaiters.add(queue);
+        }
+    }
+
+    private void wakeUpWaiters() {
+        wakeUpWaiters(interactiveWaiters, Priority.INTERACTIVE);
+        wakeUpWaiters(backgroundWaiters, Priority.BACKGROUND);
+    }
+
+    private void wakeUpWaiters(Queue<AsyncTaskQueue<?>> waiters, Priority priority) {
+        AsyncTaskQueue<?> queue;
+        while (runningTaskCount.get() < capacity(priority) && (queue = waiters.poll()) != null) {
+            queue.onBudgetAvailable();
+        }
+    }
+
+    /**
+     * @return true if the exception is caused by the remote storage rejecting requests for exceeding its rate limit,
+     * which is recognized by the exception class names and messages of the object store clients.
+     */
+    public static boolean isThrottled(Throwable e) {
+        for (Throwable t : Throwables.getCausalChain(e)) {
+            if (t.getClass().getSimpleName().contains("Throttl")) {
+                return true;
+            }
+            String message = t.getMessage();
+            if (message != null && (message.contains("SlowDown") || message.contains("Throttl") ||
+                    message.contains("TooManyRequests") || message.contains("Too Many Requests") ||
+                    message.contains("RequestLimitExceeded") || message.contains("Rate exceeded") ||
+                    message.contains("ServerBusy") || message.contains("503 Service Unavailable"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void registerMetrics() {
+        addGauge("connector_task_pending", "the number of connector tasks waiting in the queues",
+                budget -> budget.getPendingTaskCount());
+        addGauge("connector_task_running", "the number of connector tasks running",
+                budget -> budget.getRunningTaskCount());
+        addGauge("connector_task_concurrency_limit", "the adaptive concurrency limit of connector tasks",
+                budget -> budget.getLimit());
+        for (double quantile : new double[] {0.5, 0.9, 0.99}) {
+            addGauge("connector_task_latency_ms", "the latency percentiles of connector tasks",
+                    budget -> budget.getLatencyMs().getSnapshot().getValue(quantile),
+                    new MetricLabel("quantile", String.valueOf(quantile)));
+        }
+        throttledCounter.addLabel(new MetricLabel("catalog", name));
+        MetricRepo.addMetric(throttledCounter);
+        metrics.add(throttledCounter);
+    }
+
+    private void addGauge(String metricName, String description, ToDoubleFunction<ConcurrencyBudget> getter,
+                          MetricLabel... labels) {
+        GaugeMetric<Double> gauge = new GaugeMetric<Double>(metricName, Metric.MetricUnit.NOUNIT, description) {
+            @Override
+            public Double getValue() {
+                return getter.applyAsDouble(ConcurrencyBudget.this);
+            }
+        };
+        gauge.addLabel(new MetricLabel("catalog", name));
+        for (MetricLabel label : labels) {
+            gauge.addLabel(label);
+        }
+        MetricRepo.addMetric(gauge);
+        metrics.add(gauge);
+    }
+}
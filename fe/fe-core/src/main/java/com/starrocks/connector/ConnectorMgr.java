@@ -70,6 +70,7 @@ public class ConnectorMgr {
         try {
             CatalogConnector catalogConnector = connectors.remove(catalogName);
             catalogConnector.shutdown();
+            ConcurrencyBudget.remove(catalogName);
         } finally {
             writeUnLock();
         }
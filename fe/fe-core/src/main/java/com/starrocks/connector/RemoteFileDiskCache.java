@@ -0,0 +1,397 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.connector;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.starrocks.common.Config;
+import com.starrocks.connector.hive.HiveRemoteFileIO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * RemoteFileDiskCache is the second tier of {@link CachingRemoteFileIO}. It keeps hive remote file listings on
+ * local or shared disk, so that they survive FE restarts and FEs pointing to the same directory warm from
+ * each other instead of listing the object store again.
+ * <p>
+ * Each path key is stored in its own file, written to a temp file first and then atomically renamed, so readers
+ * never observe a partial entry. Entries are tagged with the cache version, {@link #invalidateAll()} bumps the
+ * version in the VERSION file, which invalidates all the entries written before, including those written by peers.
+ * <p>
+ * The total size of the entries is bounded by {@link Config#remote_file_disk_cache_max_size_bytes}, the least
+ * recently used entries are deleted first. The bound is tracked by each FE for the entries it has written or read,
+ * entries of older versions, expired entries and leftover temp files are purged when the cache is loaded.
+ */
+public class RemoteFileDiskCache {
+    private static final Logger LOG = LogManager.getLogger(RemoteFileDiskCache.class);
+
+    public static final String TIER_NAME = "disk";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String VERSION_FILE = "VERSION";
+    private static final String ENTRY_SUFFIX = ".files";
+    private static final String TMP_SUFFIX = ".tmp";
+    // how often the version written by other FEs is reloaded
+    private static final long VERSION_CHECK_INTERVAL_MS = 1000L;
+    // temp files older than this are left by crashed writers, younger ones may still be being written by peers
+    private static final long STALE_TMP_FILE_MS = 10 * 60 * 1000L;
+
+    private final Path dir;
+    private final HiveRemoteFileIO fileIO;
+    private final long ttlMs;
+    private final long maxSizeBytes;
+
+    private volatile long version;
+    private volatile long lastVersionCheckMs = 0;
+
+    // entry file -> size in bytes, in least recently used order
+    private final LinkedHashMap<Path, Long> entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSizeBytes = 0;
+
+    @VisibleForTesting
+    RemoteFileDiskCache(Path dir, HiveRemoteFileIO fileIO, long ttlSec) {
+        this(dir, fileIO, ttlSec, Config.remote_file_disk_cache_max_size_bytes);
+    }
+
+    @VisibleForTesting
+    RemoteFileDiskCache(Path dir, HiveRemoteFileIO fileIO, long ttlSec, long maxSizeBytes) {
+        this.dir = dir;
+        this.fileIO = fileIO;
+        this.ttlMs = ttlSec < 0 ? Long.MAX_VALUE : ttlSec * 1000L;
+        this.maxSizeBytes = maxSizeBytes;
+        this.version = readVersion();
+        load();
+    }
+
+    public static Optional<RemoteFileDiskCache> create(String catalogName, HiveRemoteFileIO fileIO, long ttlSec) {
+        if (Strings.isNullOrEmpty(Config.remote_file_disk_cache_dir)) {
+            return Optional.empty();
+        }
+        Path dir = Paths.get(Config.remote_file_disk_cache_dir, catalogName);
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            LOG.warn("Failed to create remote file disk cache directory {}, disk cache is disabled", dir, e);
+            return Optional.empty();
+        }
+        return Optional.of(new RemoteFileDiskCache(dir, fileIO, ttlSec));
+    }
+
+    /**
+     * @return the cached files of the path, or null if there is no valid entry on disk.
+     */
+    public List<RemoteFileDesc> get(RemotePathKey pathKey) {
+        List<RemoteFileDesc> files = read(pathKey);
+        CachingRemoteFileIO.recordCacheAccess(TIER_NAME, files != null);
+        return files;
+    }
+
+    private List<RemoteFileDesc> read(RemotePathKey pathKey) {
+        Path file = entryPath(pathKey);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int formatVersion = in.readInt();
+            long entryVersion = in.readLong();
+            if (isStale(formatVersion, entryVersion, in.readLong())) {
+                deleteEntry(file);
+                return null;
+            }
+            // written by a peer which has seen a newer version than this FE
+            if (entryVersion != currentVersion()) {
+                return null;
+            }
+            // guard against hash collisions
+            if (!pathKey.getPath().equals(in.readUTF()) || pathKey.isRecursive() != in.readBoolean()) {
+                return null;
+            }
+            List<RemoteFileDesc> files = readFiles(in);
+            touchEntry(file);
+            return files;
+        } catch (NoSuchFileException e) {
+            removeEntry(file);
+            return null;
+        } catch (IOException e) {
+            LOG.warn("Failed to read remote file disk cache entry of {}", pathKey, e);
+            return null;
+        }
+    }
+
+    public void put(RemotePathKey pathKey, List<RemoteFileDesc> files) {
+        // subclasses carry format specific fields which are not persisted
+        if (files == null || files.stream().anyMatch(file -> file.getClass() != RemoteFileDesc.class)) {
+            return;
+        }
+        Path file = entryPath(pathKey);
+        Path tmpFile = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + TMP_SUFFIX);
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(currentVersion());
+                out.writeLong(System.currentTimeMillis());
+                out.writeUTF(pathKey.getPath());
+                out.writeBoolean(pathKey.isRecursive());
+                writeFiles(out, files);
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            addEntry(file, Files.size(file));
+        } catch (IOException e) {
+            LOG.warn("Failed to write remote file disk cache entry of {}", pathKey, e);
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException ignored) {
+                // ignore
+            }
+        }
+    }
+
+    public void invalidate(RemotePathKey pathKey) {
+        deleteEntry(entryPath(pathKey));
+    }
+
+    public synchronized void invalidateAll() {
+        long newVersion = Math.max(readVersion(), version) + 1;
+        Path file = dir.resolve(VERSION_FILE);
+        Path tmpFile = dir.resolve(VERSION_FILE + "." + UUID.randomUUID() + TMP_SUFFIX);
+        try {
+            Files.write(tmpFile, String.valueOf(newVersion).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Failed to update remote file disk cache version in {}", dir, e);
+        }
+        version = newVersion;
+        lastVersionCheckMs = System.currentTimeMillis();
+        // all the known entries are of older versions now
+        for (Path entry : new ArrayList<>(entrySizes.keySet())) {
+            deleteEntry(entry);
+        }
+    }
+
+    /**
+     * @return whether the entry is of another format or an older version, or has expired
+     */
+    private boolean isStale(int formatVersion, long entryVersion, long writeTimeMs) {
+        return formatVersion != FORMAT_VERSION || entryVersion < currentVersion() ||
+                System.currentTimeMillis() - writeTimeMs > ttlMs;
+    }
+
+    /**
+     * Purges the stale entries and temp files, and tracks the size of the valid entries in the order of their
+     * modification time.
+     */
+    private void load() {
+        List<Path> entries = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        try (Stream<Path> files = Files.walk(dir, 2)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(TMP_SUFFIX)) {
+                    if (now - Files.getLastModifiedTime(file).toMillis() > STALE_TMP_FILE_MS) {
+                        Files.deleteIfExists(file);
+                    }
+                } else if (fileName.endsWith(ENTRY_SUFFIX)) {
+                    boolean stale;
+                    try (DataInputStream in = new DataInputStream(
+                            new BufferedInputStream(Files.newInputStream(file)))) {
+                        stale = isStale(in.readInt(), in.readLong(), in.readLong());
+                    } catch (IOException e) {
+                        stale = true;
+                    }
+                    if (stale) {
+                        Files.deleteIfExists(file);
+                    } else {
+                        entries.add(file);
+                    }
+                }
+            }
+            Map<Path, Long> modificationTimes = new HashMap<>();
+            for (Path entry : entries) {
+                modificationTimes.put(entry, Files.getLastModifiedTime(entry).toMillis());
+            }
+            entries.sort(Comparator.comparing(modificationTimes::get));
+            for (Path entry : entries) {
+                addEntry(entry, Files.size(entry));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // entries deleted by peers at the same time
+            LOG.warn("Failed to load remote file disk cache in {}", dir, e);
+        }
+    }
+
+    private synchronized void addEntry(Path file, long sizeBytes) {
+        Long oldSizeBytes = entrySizes.put(file, sizeBytes);
+        totalSizeBytes += sizeBytes - (oldSizeBytes == null ? 0 : oldSizeBytes);
+        Iterator<Map.Entry<Path, Long>> iterator = entrySizes.entrySet().iterator();
+        while (totalSizeBytes > maxSizeBytes && iterator.hasNext()) {
+            Map.Entry<Path, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(file)) {
+                continue;
+            }
+            iterator.remove();
+            totalSizeBytes -= eldest.getValue();
+            try {
+                Files.deleteIfExists(eldest.getKey());
+            } catch (IOException e) {
+                LOG.warn("Failed to evict remote file disk cache entry {}", eldest.getKey(), e);
+            }
+        }
+    }
+
+    private void touchEntry(Path file) throws IOException {
+        synchronized (this) {
+            if (entrySizes.get(file) != null) {
+                return;
+            }
+        }
+        // written by a peer
+        addEntry(file, Files.size(file));
+    }
+
+    private synchronized void removeEntry(Path file) {
+        Long sizeBytes = entrySizes.remove(file);
+        if (sizeBytes != null) {
+            totalSizeBytes -= sizeBytes;
+        }
+    }
+
+    private void deleteEntry(Path file) {
+        removeEntry(file);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete remote file disk cache entry {}", file, e);
+        }
+    }
+
+    @VisibleForTesting
+    synchronized long getTotalSizeBytes() {
+        return totalSizeBytes;
+    }
+
+    private long currentVersion() {
+        long now = System.currentTimeMillis();
+        if (now - lastVersionCheckMs > VERSION_CHECK_INTERVAL_MS) {
+            version = Math.max(version, readVersion());
+            lastVersionCheckMs = now;
+        }
+        return version;
+    }
+
+    private long readVersion() {
+        try {
+            String content = new String(Files.readAllBytes(dir.resolve(VERSION_FILE)), StandardCharsets.UTF_8);
+            return Long.parseLong(content.trim());
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException | NumberFormatException e) {
+            LOG.warn("Failed to read remote file disk cache version in {}", dir, e);
+            return 0;
+        }
+    }
+
+    private Path entryPath(RemotePathKey pathKey) {
+        String hash = Hashing.sha256()
+                .hashString(pathKey.getPath() + "#" + pathKey.isRecursive(), StandardCharsets.UTF_8).toString();
+        // spread entries into sub directories to keep directories small
+        return dir.resolve(hash.substring(0, 2)).resolve(hash + ENTRY_SUFFIX);
+    }
+
+    private void writeFiles(DataOutputStream out, List<RemoteFileDesc> files) throws IOException {
+        out.writeInt(files.size());
+        for (RemoteFileDesc file : files) {
+            out.writeUTF(file.getFileName());
+            writeNullableString(out, file.getFullPath());
+            writeNullableString(out, file.getCompression());
+            out.writeLong(file.getLength());
+            out.writeLong(file.getModificationTime());
+            List<RemoteFileBlockDesc> blocks = file.getBlockDescs() == null ? List.of() : file.getBlockDescs();
+            out.writeInt(blocks.size());
+            for (RemoteFileBlockDesc block : blocks) {
+                out.writeLong(block.getOffset());
+                out.writeLong(block.getLength());
+                // host ids are only meaningful inside this process, persist the host names instead.
+                long[] hostIds = block.getReplicaHostIds() == null ? new long[0] : block.getReplicaHostIds();
+                out.writeInt(hostIds.length);
+                for (long hostId : hostIds) {
+                    out.writeUTF(fileIO.getHdfsDataNodeHostPort(hostId));
+                }
+            }
+        }
+    }
+
+    private List<RemoteFileDesc> readFiles(DataInputStream in) throws IOException {
+        int fileNum = in.readInt();
+        List<RemoteFileDesc> files = new ArrayList<>(fileNum);
+        for (int i = 0; i < fileNum; i++) {
+            String fileName = in.readUTF();
+            String fullPath = readNullableString(in);
+            String compression = readNullableString(in);
+            long length = in.readLong();
+            long modificationTime = in.readLong();
+            int blockNum = in.readInt();
+            ImmutableList.Builder<RemoteFileBlockDesc> blocks = ImmutableList.builder();
+            for (int j = 0; j < blockNum; j++) {
+                long offset = in.readLong();
+                long blockLength = in.readLong();
+                String[] hosts = new String[in.readInt()];
+                for (int k = 0; k < hosts.length; k++) {
+                    hosts[k] = in.readUTF();
+                }
+                blocks.add(fileIO.buildRemoteFileBlockDesc(offset, blockLength, fileIO.getReplicaHostIds(hosts)));
+            }
+            RemoteFileDesc file = new RemoteFileDesc(fileName, compression, length, modificationTime, blocks.build());
+            if (fullPath != null) {
+                file.setFullPath(fullPath);
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
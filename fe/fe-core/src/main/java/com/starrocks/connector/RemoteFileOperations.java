@@ -46,6 +46,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -64,6 +65,7 @@ public class RemoteFileOperations {
     private final boolean isRecursive;
     private final boolean enableCatalogLevelCache;
     private final Configuration conf;
+    private final ConcurrencyBudget concurrencyBudget;
 
     public RemoteFileOperations(CachingRemoteFileIO remoteFileIO,
                                 ExecutorService pullRemoteFileExecutor,
@@ -71,12 +73,24 @@ public class RemoteFileOperations {
                                 boolean isRecursive,
                                 boolean enableCatalogLevelCache,
                                 Configuration conf) {
+        this(remoteFileIO, pullRemoteFileExecutor, updateRemoteFilesExecutor, isRecursive, enableCatalogLevelCache,
+                conf, null);
+    }
+
+    public RemoteFileOperations(CachingRemoteFileIO remoteFileIO,
+                                ExecutorService pullRemoteFileExecutor,
+                                Executor updateRemoteFilesExecutor,
+                                boolean isRecursive,
+                                boolean enableCatalogLevelCache,
+                                Configuration conf,
+                                ConcurrencyBudget concurrencyBudget) {
         this.remoteFileIO = remoteFileIO;
         this.pullRemoteFileExecutor = pullRemoteFileExecutor;
         this.updateRemoteFilesExecutor = updateRemoteFilesExecutor;
         this.isRecursive = isRecursive;
         this.enableCatalogLevelCache = enableCatalogLevelCache;
         this.conf = conf;
+        this.concurrencyBudget = concurrencyBudget;
     }
 
     public static class Options {
@@ -159,70 +173,177 @@ public class RemoteFileOperations {
             Tracers.count(Tracers.Module.EXTERNAL, HMS_PARTITIONS_REMOTE_FILES, cacheMissSize);
         }
 
-        class MyAsyncTaskQueue extends AsyncTaskQueue<RemoteFileInfo> implements RemoteFileInfoSource {
-            public MyAsyncTaskQueue(Executor executor) {
-                super(executor);
-            }
+        RemoteFileInfoTaskQueue asyncTaskQueue = newRemoteFileInfoTaskQueue();
+        List<AsyncTaskQueue.Task<RemoteFileInfo>> tasks = new ArrayList<>();
+        List attachments = params.getPartitionAttachments();
+        for (int i = 0; i < partitions.size(); i++) {
+            final Object attachment = (attachments != null) ? attachments.get(i) : null;
+            tasks.add(newListFilesTask(scanContext, partitions.get(i), attachment));
+        }
+        asyncTaskQueue.start(tasks);
+        return asyncTaskQueue;
+    }
 
-            @Override
-            public List<RemoteFileInfo> getOutputs(int maxSize) {
-                try (Timer ignored = Tracers.watchScope(Tracers.Module.EXTERNAL, HMS_PARTITIONS_LIST_FIES_ASYNC_GET)) {
-                    return super.getOutputs(maxSize);
-                }
+    /**
+     * Like {@link #getRemoteFilesAsync(Table, List, GetRemoteFilesParams)}, but partitions are resolved by
+     * `partitionLoader` in batches of `batchSize` names inside the task queue. So listing files of the first
+     * batches overlaps with resolving the rest from the metastore, and scan ranges are streamed to the
+     * scheduler before all partitions are known. Partitions missing from the loader result are skipped.
+     * <p>
+     * As many batches as the queue can run concurrently are queued ahead, and each resolved batch queues the next
+     * one after its listing tasks, so the metastore is busy resolving while the files are listed.
+     */
+    public RemoteFileInfoSource getRemoteFilesAsync(Table table, List<String> partitionNames,
+                                                    Function<List<String>, Map<String, Partition>> partitionLoader,
+                                                    int batchSize, GetRemoteFilesParams params) {
+        Preconditions.checkArgument(batchSize > 0, "batch size must be positive");
+        RemoteFileScanContext scanContext = new RemoteFileScanContext(table);
+        RemoteFileInfoTaskQueue asyncTaskQueue = newRemoteFileInfoTaskQueue();
+        PartitionBatches batches = new PartitionBatches(scanContext, partitionNames, partitionLoader, batchSize,
+                params.getPartitionAttachments());
+        List<AsyncTaskQueue.Task<RemoteFileInfo>> tasks = new ArrayList<>();
+        int lookahead = Math.max(1, asyncTaskQueue.getTaskConcurrency());
+        for (int i = 0; i < lookahead; i++) {
+            AsyncTaskQueue.Task<RemoteFileInfo> task = batches.nextTask();
+            if (task == null) {
+                break;
             }
+            tasks.add(task);
+        }
+        asyncTaskQueue.start(tasks);
+        return asyncTaskQueue;
+    }
 
-            @Override
-            public boolean hasMoreOutput() {
-                // `hasMoreOutput` will trigger tasks to generate output.
-                try (Timer ignored = Tracers.watchScope(Tracers.Module.EXTERNAL, HMS_PARTITIONS_LIST_FILES_ASYNC_WAIT)) {
-                    return super.hasMoreOutput();
-                }
+    private class PartitionBatches {
+        private final RemoteFileScanContext scanContext;
+        private final List<String> partitionNames;
+        private final Function<List<String>, Map<String, Partition>> partitionLoader;
+        private final int batchSize;
+        private final List attachments;
+        // the first partition of the next batch to queue
+        private final AtomicInteger nextBegin = new AtomicInteger(0);
+
+        PartitionBatches(RemoteFileScanContext scanContext, List<String> partitionNames,
+                         Function<List<String>, Map<String, Partition>> partitionLoader, int batchSize,
+                         List attachments) {
+            this.scanContext = scanContext;
+            this.partitionNames = partitionNames;
+            this.partitionLoader = partitionLoader;
+            this.batchSize = batchSize;
+            this.attachments = attachments;
+        }
+
+        // returns null if all the batches have been queued
+        AsyncTaskQueue.Task<RemoteFileInfo> nextTask() {
+            int batchBegin = nextBegin.getAndAdd(batchSize);
+            if (batchBegin >= partitionNames.size()) {
+                return null;
             }
+            List<String> batch = partitionNames.subList(batchBegin,
+                    Math.min(batchBegin + batchSize, partitionNames.size()));
+            return new AsyncTaskQueue.Task<RemoteFileInfo>() {
+                private final List<AsyncTaskQueue.Task<RemoteFileInfo>> listFilesTasks = new ArrayList<>();
 
-            @Override
-            public int computeOutputSize(RemoteFileInfo output) {
-                List<RemoteFileDesc> files = (output.getFiles());
-                int size = 1;
-                if (files != null) {
-                    size = Math.max(size, files.size());
+                @Override
+                public List<RemoteFileInfo> run() {
+                    // run again if throttled
+                    listFilesTasks.clear();
+                    Map<String, Partition> partitions = partitionLoader.apply(batch);
+                    for (int i = 0; i < batch.size(); i++) {
+                        Partition partition = partitions.get(batch.get(i));
+                        if (partition == null) {
+                            continue;
+                        }
+                        Object attachment = (attachments != null) ? attachments.get(batchBegin + i) : null;
+                        listFilesTasks.add(newListFilesTask(scanContext, partition, attachment));
+                    }
+                    return List.of();
                 }
-                return size;
-            }
 
-            @Override
-            public RemoteFileInfo getOutput() {
-                List<RemoteFileInfo> res = getOutputs(1);
-                Preconditions.checkArgument(res.size() == 1);
-                return res.get(0);
-            }
+                @Override
+                public List<AsyncTaskQueue.Task<RemoteFileInfo>> moreTasks() {
+                    // only called once after the batch is resolved
+                    AsyncTaskQueue.Task<RemoteFileInfo> next = nextTask();
+                    if (next == null) {
+                        return listFilesTasks;
+                    }
+                    List<AsyncTaskQueue.Task<RemoteFileInfo>> tasks = new ArrayList<>(listFilesTasks);
+                    tasks.add(next);
+                    return tasks;
+                }
+            };
         }
+    }
+
+    private AsyncTaskQueue.Task<RemoteFileInfo> newListFilesTask(RemoteFileScanContext scanContext,
+                                                                 Partition partition, Object attachment) {
+        final RemotePathKey pathKey = RemotePathKey.of(partition.getFullPath(), isRecursive);
+        pathKey.setScanContext(scanContext);
+        return () -> {
+            Map<RemotePathKey, List<RemoteFileDesc>> res = remoteFileIO.getRemoteFiles(pathKey);
+            List<RemoteFileDesc> files = res.get(pathKey);
+            RemoteFileInfo remoteFileInfo = buildRemoteFileInfo(partition, files);
+            remoteFileInfo.setAttachment(attachment);
+            return List.of(remoteFileInfo);
+        };
+    }
 
+    private RemoteFileInfoTaskQueue newRemoteFileInfoTaskQueue() {
         SessionVariable sv = SessionVariable.DEFAULT_SESSION_VARIABLE;
         if (ConnectContext.get() != null) {
             sv = ConnectContext.get().getSessionVariable();
         }
-        MyAsyncTaskQueue asyncTaskQueue = new MyAsyncTaskQueue(pullRemoteFileExecutor);
+        RemoteFileInfoTaskQueue asyncTaskQueue = new RemoteFileInfoTaskQueue(pullRemoteFileExecutor);
         asyncTaskQueue.setMaxOutputQueueSize(sv.getConnectorRemoteFileAsyncQueueSize());
         asyncTaskQueue.setMaxRunningTaskCount(sv.getConnectorRemoteFileAsyncTaskSize());
-        List<AsyncTaskQueue.Task<RemoteFileInfo>> tasks = new ArrayList<>();
-        List attachments = params.getPartitionAttachments();
-        for (int i = 0; i < partitions.size(); i++) {
-            final Partition partition = partitions.get(i);
-            final RemotePathKey pathKey = RemotePathKey.of(partition.getFullPath(), isRecursive);
-            final Object attachment = (attachments != null) ? attachments.get(i) : null;
-            pathKey.setScanContext(scanContext);
-            tasks.add(() -> {
-                Map<RemotePathKey, List<RemoteFileDesc>> res = remoteFileIO.getRemoteFiles(pathKey);
-                List<RemoteFileDesc> files = res.get(pathKey);
-                RemoteFileInfo remoteFileInfo = buildRemoteFileInfo(partition, files);
-                remoteFileInfo.setAttachment(attachment);
-                return List.of(remoteFileInfo);
-            });
+        if (concurrencyBudget != null) {
+            // statistics collection and other jobs without a user session give way to interactive queries
+            ConnectContext context = ConnectContext.get();
+            boolean background = context == null || context.isStatisticsJob();
+            asyncTaskQueue.setConcurrencyBudget(concurrencyBudget,
+                    background ? ConcurrencyBudget.Priority.BACKGROUND : ConcurrencyBudget.Priority.INTERACTIVE);
         }
-        asyncTaskQueue.start(tasks);
         return asyncTaskQueue;
     }
 
+    private static class RemoteFileInfoTaskQueue extends AsyncTaskQueue<RemoteFileInfo> implements RemoteFileInfoSource {
+        public RemoteFileInfoTaskQueue(Executor executor) {
+            super(executor);
+        }
+
+        @Override
+        public List<RemoteFileInfo> getOutputs(int maxSize) {
+            try (Timer ignored = Tracers.watchScope(Tracers.Module.EXTERNAL, HMS_PARTITIONS_LIST_FIES_ASYNC_GET)) {
+                return super.getOutputs(maxSize);
+            }
+        }
+
+        @Override
+        public boolean hasMoreOutput() {
+            // `hasMoreOutput` will trigger tasks to generate output.
+            try (Timer ignored = Tracers.watchScope(Tracers.Module.EXTERNAL, HMS_PARTITIONS_LIST_FILES_ASYNC_WAIT)) {
+                return super.hasMoreOutput();
+            }
+        }
+
+        @Override
+        public int computeOutputSize(RemoteFileInfo output) {
+            List<RemoteFileDesc> files = (output.getFiles());
+            int size = 1;
+            if (files != null) {
+                size = Math.max(size, files.size());
+            }
+            return size;
+        }
+
+        @Override
+        public RemoteFileInfo getOutput() {
+            List<RemoteFileInfo> res = getOutputs(1);
+            Preconditions.checkArgument(res.size() == 1);
+            return res.get(0);
+        }
+    }
+
     public List<RemoteFileInfo> getPresentFilesInCache(Collection<Partition> partitions) {
         Map<RemotePathKey, Partition> pathKeyToPartition = partitions.stream()
                 .collect(Collectors.toMap(
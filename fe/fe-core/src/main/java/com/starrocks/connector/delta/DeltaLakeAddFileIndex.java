@@ -0,0 +1,630 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.connector.delta;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.starrocks.analysis.BinaryType;
+import com.starrocks.catalog.PrimitiveType;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import io.delta.kernel.types.ByteType;
+import io.delta.kernel.types.DataType;
+import io.delta.kernel.types.DateType;
+import io.delta.kernel.types.DoubleType;
+import io.delta.kernel.types.FloatType;
+import io.delta.kernel.types.IntegerType;
+import io.delta.kernel.types.LongType;
+import io.delta.kernel.types.ShortType;
+import io.delta.kernel.types.StringType;
+import io.delta.kernel.types.StructField;
+import io.delta.kernel.types.StructType;
+import io.delta.kernel.utils.FileStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DeltaLakeAddFileIndex is a compact, columnar representation of all the `AddFile` entries of a snapshot.
+ * <p>
+ * Paths are split into a directory dictionary and file names, partition values are dictionary encoded per
+ * column, and min/max/null count of numeric columns are kept as primitive arrays. Compared to caching the
+ * checkpoint as {@code ColumnarBatch} or {@code JsonNode}, it takes a fraction of the heap, and partition and
+ * stats pruning of a query runs as simple loops over the arrays instead of a log replay.
+ * <p>
+ * Pruning is conservative: conjuncts that can't be evaluated on the index keep all files.
+ */
+public class DeltaLakeAddFileIndex {
+    private static final Logger LOG = LogManager.getLogger(DeltaLakeAddFileIndex.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long UNKNOWN = -1;
+
+    private final int numFiles;
+    private final String[] directories;
+    private final int[] directoryIds;
+    private final String[] fileNames;
+    private final long[] sizes;
+    private final long[] modificationTimes;
+    // UNKNOWN if the file has no stats
+    private final long[] numRecords;
+    // lower case column name -> column
+    private final Map<String, PartitionColumn> partitionColumns;
+    private final Map<String, StatsColumn> statsColumns;
+    private final long estimatedSize;
+
+    private DeltaLakeAddFileIndex(Builder builder) {
+        this.numFiles = builder.numFiles;
+        this.directories = builder.directories.toArray(new String[0]);
+        this.directoryIds = Arrays.copyOf(builder.directoryIds, numFiles);
+        this.fileNames = Arrays.copyOf(builder.fileNames, numFiles);
+        this.sizes = Arrays.copyOf(builder.sizes, numFiles);
+        this.modificationTimes = Arrays.copyOf(builder.modificationTimes, numFiles);
+        this.numRecords = Arrays.copyOf(builder.numRecords, numFiles);
+        this.partitionColumns = new HashMap<>();
+        for (PartitionColumn.Builder column : builder.partitionColumns) {
+            partitionColumns.put(column.name.toLowerCase(Locale.ROOT), column.build(numFiles));
+        }
+        this.statsColumns = new HashMap<>();
+        for (StatsColumn column : builder.statsColumns) {
+            statsColumns.put(column.name.toLowerCase(Locale.ROOT), column.trim(numFiles));
+        }
+        this.estimatedSize = computeEstimatedSize();
+    }
+
+    public int getNumFiles() {
+        return numFiles;
+    }
+
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    public String getPath(int file) {
+        return directories[directoryIds[file]] + fileNames[file];
+    }
+
+    public FileScanTask toFileScanTask(int file, long estimateRowSize) {
+        FileStatus fileStatus = FileStatus.of(getPath(file), sizes[file], modificationTimes[file]);
+        long records = numRecords[file] != UNKNOWN ? numRecords[file] : sizes[file] / estimateRowSize;
+        Map<String, String> partitionValues = new HashMap<>();
+        for (PartitionColumn column : partitionColumns.values()) {
+            int code = column.codes[file];
+            partitionValues.put(column.name, code < 0 ? null : column.dictionary[code]);
+        }
+        return new FileScanTask(fileStatus, records, partitionValues);
+    }
+
+    /**
+     * @return positions of the files which may contain rows matching all the conjuncts.
+     */
+    public int[] select(List<ScalarOperator> conjuncts) {
+        boolean[] selected = new boolean[numFiles];
+        Arrays.fill(selected, true);
+        for (ScalarOperator conjunct : conjuncts) {
+            apply(conjunct, selected);
+        }
+
+        int count = 0;
+        for (int i = 0; i < numFiles; i++) {
+            count += selected[i] ? 1 : 0;
+        }
+        int[] result = new int[count];
+        int pos = 0;
+        for (int i = 0; i < numFiles; i++) {
+            if (selected[i]) {
+                result[pos++] = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The index only keeps partition values and numeric stats, it can't prune on predicates like the ones on the
+     * stats of date, timestamp, string or decimal columns, which the delta kernel data skipping supports.
+     *
+     * @return whether the index prunes the files as well as the kernel for all the conjuncts.
+     */
+    public boolean canEvaluate(List<ScalarOperator> conjuncts) {
+        return conjuncts.stream().allMatch(this::canEvaluate);
+    }
+
+    private boolean canEvaluate(ScalarOperator conjunct) {
+        if (conjunct instanceof BinaryPredicateOperator) {
+            BinaryPredicateOperator binary = (BinaryPredicateOperator) conjunct;
+            if (binary.getChild(0) instanceof ConstantOperator && binary.getChild(1) instanceof ColumnRefOperator) {
+                binary = binary.commutative();
+            }
+            if (!(binary.getChild(0) instanceof ColumnRefOperator) || !(binary.getChild(1) instanceof ConstantOperator)) {
+                return false;
+            }
+            BinaryType op = binary.getBinaryType();
+            ConstantOperator constant = (ConstantOperator) binary.getChild(1);
+            if (constant.isNull() || op == BinaryType.NE || op == BinaryType.EQ_FOR_NULL) {
+                return false;
+            }
+            String name = ((ColumnRefOperator) binary.getChild(0)).getName().toLowerCase(Locale.ROOT);
+            PartitionColumn partitionColumn = partitionColumns.get(name);
+            if (partitionColumn != null) {
+                return partitionColumn.canCompare(constant);
+            }
+            StatsColumn statsColumn = statsColumns.get(name);
+            return statsColumn != null && statsColumn.canFilter(constant);
+        } else if (conjunct instanceof InPredicateOperator) {
+            InPredicateOperator in = (InPredicateOperator) conjunct;
+            if (in.isNotIn() || !(in.getChild(0) instanceof ColumnRefOperator) || in.hasAnyNullValues() ||
+                    !in.allValuesMatch(ScalarOperator::isConstantRef)) {
+                return false;
+            }
+            String name = ((ColumnRefOperator) in.getChild(0)).getName().toLowerCase(Locale.ROOT);
+            PartitionColumn partitionColumn = partitionColumns.get(name);
+            return partitionColumn != null &&
+                    in.getListChildren().stream().allMatch(child -> partitionColumn.canCompare((ConstantOperator) child));
+        }
+        return false;
+    }
+
+    private void apply(ScalarOperator conjunct, boolean[] selected) {
+        if (conjunct instanceof BinaryPredicateOperator) {
+            BinaryPredicateOperator binary = (BinaryPredicateOperator) conjunct;
+            if (binary.getChild(0) instanceof ConstantOperator && binary.getChild(1) instanceof ColumnRefOperator) {
+                binary = binary.commutative();
+            }
+            if (!(binary.getChild(0) instanceof ColumnRefOperator) || !(binary.getChild(1) instanceof ConstantOperator)) {
+                return;
+            }
+            BinaryType op = binary.getBinaryType();
+            ConstantOperator constant = (ConstantOperator) binary.getChild(1);
+            if (constant.isNull() || op == BinaryType.NE || op == BinaryType.EQ_FOR_NULL) {
+                return;
+            }
+            String name = ((ColumnRefOperator) binary.getChild(0)).getName().toLowerCase(Locale.ROOT);
+            PartitionColumn partitionColumn = partitionColumns.get(name);
+            if (partitionColumn != null) {
+                partitionColumn.filter(selected, List.of(constant), op);
+                return;
+            }
+            StatsColumn statsColumn = statsColumns.get(name);
+            if (statsColumn != null) {
+                statsColumn.filter(selected, constant, op, numRecords);
+            }
+        } else if (conjunct instanceof InPredicateOperator) {
+            InPredicateOperator in = (InPredicateOperator) conjunct;
+            if (in.isNotIn() || !(in.getChild(0) instanceof ColumnRefOperator) || in.hasAnyNullValues() ||
+                    !in.allValuesMatch(ScalarOperator::isConstantRef)) {
+                return;
+            }
+            String name = ((ColumnRefOperator) in.getChild(0)).getName().toLowerCase(Locale.ROOT);
+            PartitionColumn partitionColumn = partitionColumns.get(name);
+            if (partitionColumn != null) {
+                List<ConstantOperator> values = new ArrayList<>();
+                in.getListChildren().forEach(child -> values.add((ConstantOperator) child));
+                partitionColumn.filter(selected, values, BinaryType.EQ);
+            }
+        }
+    }
+
+    private long computeEstimatedSize() {
+        long size = 64L + numFiles * (4L + 8L * 3);
+        for (String directory : directories) {
+            size += 40L + 2L * directory.length();
+        }
+        for (String fileName : fileNames) {
+            size += 40L + 2L * fileName.length();
+        }
+        for (PartitionColumn column : partitionColumns.values()) {
+            size += 4L * numFiles;
+            for (String value : column.dictionary) {
+                size += 40L + 2L * value.length();
+            }
+        }
+        for (StatsColumn column : statsColumns.values()) {
+            size += (8L * 3 + 1) * numFiles;
+        }
+        return size;
+    }
+
+    static final class PartitionColumn {
+        private final String name;
+        private final DataType type;
+        private final String[] dictionary;
+        // index into dictionary, -1 for null partition value
+        private final int[] codes;
+
+        private PartitionColumn(String name, DataType type, String[] dictionary, int[] codes) {
+            this.name = name;
+            this.type = type;
+            this.dictionary = dictionary;
+            this.codes = codes;
+        }
+
+        void filter(boolean[] selected, List<ConstantOperator> values, BinaryType op) {
+            // evaluate the predicate once per distinct value, then map it to files
+            boolean[] matches = new boolean[dictionary.length];
+            for (int d = 0; d < dictionary.length; d++) {
+                for (ConstantOperator value : values) {
+                    Integer cmp = compare(dictionary[d], value);
+                    if (cmp == null || matches(cmp, op)) {
+                        matches[d] = true;
+                        break;
+                    }
+                }
+            }
+            for (int i = 0; i < codes.length; i++) {
+                int code = codes[i];
+                selected[i] &= code >= 0 && matches[code];
+            }
+        }
+
+        boolean canCompare(ConstantOperator constant) {
+            PrimitiveType constantType = constant.getType().getPrimitiveType();
+            return (constant.getType().isIntegerType() && isIntegral(type)) ||
+                    (constant.getType().isNumericType() && constantType != PrimitiveType.LARGEINT &&
+                            !constant.getType().isDecimalOfAnyVersion() && isNumeric(type)) ||
+                    (constant.getType().isStringType() && type instanceof StringType) ||
+                    (constantType == PrimitiveType.DATE && type instanceof DateType);
+        }
+
+        private Integer compare(String partitionValue, ConstantOperator constant) {
+            try {
+                PrimitiveType constantType = constant.getType().getPrimitiveType();
+                if (constant.getType().isIntegerType() && isIntegral(type)) {
+                    return Long.compare(Long.parseLong(partitionValue), toLong(constant));
+                } else if (constant.getType().isNumericType() && constantType != PrimitiveType.LARGEINT &&
+                        !constant.getType().isDecimalOfAnyVersion() && isNumeric(type)) {
+                    return Double.compare(Double.parseDouble(partitionValue), toDouble(constant));
+                } else if (constant.getType().isStringType() && type instanceof StringType) {
+                    return partitionValue.compareTo((String) constant.getValue());
+                } else if (constantType == PrimitiveType.DATE && type instanceof DateType) {
+                    return LocalDate.parse(partitionValue).compareTo(constant.getDate().toLocalDate());
+                }
+            } catch (RuntimeException e) {
+                LOG.debug("Failed to compare delta lake partition value {} with {}", partitionValue, constant, e);
+            }
+            // unknown, keep the files
+            return null;
+        }
+
+        static final class Builder {
+            private final String name;
+            private final DataType type;
+            private final Map<String, Integer> valueToCode = new HashMap<>();
+            private final List<String> dictionary = new ArrayList<>();
+            private int[] codes = new int[16];
+
+            Builder(String name, DataType type) {
+                this.name = name;
+                this.type = type;
+            }
+
+            void add(int file, String value) {
+                if (file >= codes.length) {
+                    codes = Arrays.copyOf(codes, codes.length * 2);
+                }
+                if (value == null) {
+                    codes[file] = -1;
+                } else {
+                    codes[file] = valueToCode.computeIfAbsent(value, k -> {
+                        dictionary.add(k);
+                        return dictionary.size() - 1;
+                    });
+                }
+            }
+
+            PartitionColumn build(int numFiles) {
+                return new PartitionColumn(name, type, dictionary.toArray(new String[0]), Arrays.copyOf(codes, numFiles));
+            }
+        }
+    }
+
+    static final class StatsColumn {
+        private final String name;
+        private final boolean integral;
+        private long[] longMins;
+        private long[] longMaxs;
+        private double[] doubleMins;
+        private double[] doubleMaxs;
+        // UNKNOWN if absent
+        private long[] nullCounts;
+        private boolean[] hasMinMax;
+
+        private StatsColumn(String name, boolean integral) {
+            this.name = name;
+            this.integral = integral;
+            int capacity = 16;
+            if (integral) {
+                longMins = new long[capacity];
+                longMaxs = new long[capacity];
+            } else {
+                doubleMins = new double[capacity];
+                doubleMaxs = new double[capacity];
+            }
+            nullCounts = new long[capacity];
+            hasMinMax = new boolean[capacity];
+        }
+
+        private void ensureCapacity(int file) {
+            if (file < hasMinMax.length) {
+                return;
+            }
+            int capacity = hasMinMax.length * 2;
+            if (integral) {
+                longMins = Arrays.copyOf(longMins, capacity);
+                longMaxs = Arrays.copyOf(longMaxs, capacity);
+            } else {
+                doubleMins = Arrays.copyOf(doubleMins, capacity);
+                doubleMaxs = Arrays.copyOf(doubleMaxs, capacity);
+            }
+            nullCounts = Arrays.copyOf(nullCounts, capacity);
+            hasMinMax = Arrays.copyOf(hasMinMax, capacity);
+        }
+
+        void add(int file, JsonNode min, JsonNode max, JsonNode nullCount) {
+            ensureCapacity(file);
+            nullCounts[file] = nullCount != null && nullCount.isIntegralNumber() ? nullCount.asLong() : UNKNOWN;
+            if (integral) {
+                hasMinMax[file] = min != null && max != null && min.isIntegralNumber() && max.isIntegralNumber();
+                if (hasMinMax[file]) {
+                    longMins[file] = min.asLong();
+                    longMaxs[file] = max.asLong();
+                }
+            } else {
+                hasMinMax[file] = min != null && max != null && min.isNumber() && max.isNumber() &&
+                        !Double.isNaN(min.asDouble()) && !Double.isNaN(max.asDouble());
+                if (hasMinMax[file]) {
+                    doubleMins[file] = min.asDouble();
+                    doubleMaxs[file] = max.asDouble();
+                }
+            }
+        }
+
+        StatsColumn trim(int numFiles) {
+            ensureCapacity(Math.max(numFiles - 1, 0));
+            if (integral) {
+                longMins = Arrays.copyOf(longMins, numFiles);
+                longMaxs = Arrays.copyOf(longMaxs, numFiles);
+            } else {
+                doubleMins = Arrays.copyOf(doubleMins, numFiles);
+                doubleMaxs = Arrays.copyOf(doubleMaxs, numFiles);
+            }
+            nullCounts = Arrays.copyOf(nullCounts, numFiles);
+            hasMinMax = Arrays.copyOf(hasMinMax, numFiles);
+            return this;
+        }
+
+        void filter(boolean[] selected, ConstantOperator constant, BinaryType op, long[] numRecords) {
+            // a file whose values of this column are all null matches no comparison
+            for (int i = 0; i < selected.length; i++) {
+                selected[i] &= nullCounts[i] == UNKNOWN || nullCounts[i] != numRecords[i];
+            }
+            if (!canFilter(constant)) {
+                return;
+            }
+            if (integral) {
+                filterLong(selected, toLong(constant), op);
+            } else {
+                filterDouble(selected, toDouble(constant), op);
+            }
+        }
+
+        boolean canFilter(ConstantOperator constant) {
+            return integral ? constant.getType().isIntegerType() :
+                    constant.getType().isIntegerType() || constant.getType().isFloatingPointType();
+        }
+
+        private void filterLong(boolean[] selected, long value, BinaryType op) {
+            long[] mins = longMins;
+            long[] maxs = longMaxs;
+            switch (op) {
+                case EQ:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | (mins[i] <= value & value <= maxs[i]);
+                    }
+                    break;
+                case LT:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | mins[i] < value;
+                    }
+                    break;
+                case LE:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | mins[i] <= value;
+                    }
+                    break;
+                case GT:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | maxs[i] > value;
+                    }
+                    break;
+                case GE:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | maxs[i] >= value;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void filterDouble(boolean[] selected, double value, BinaryType op) {
+            if (Double.isNaN(value)) {
+                return;
+            }
+            double[] mins = doubleMins;
+            double[] maxs = doubleMaxs;
+            switch (op) {
+                case EQ:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | (mins[i] <= value & value <= maxs[i]);
+                    }
+                    break;
+                case LT:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | mins[i] < value;
+                    }
+                    break;
+                case LE:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | mins[i] <= value;
+                    }
+                    break;
+                case GT:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | maxs[i] > value;
+                    }
+                    break;
+                case GE:
+                    for (int i = 0; i < selected.length; i++) {
+                        selected[i] &= !hasMinMax[i] | maxs[i] >= value;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static boolean isIntegral(DataType type) {
+        return type instanceof ByteType || type instanceof ShortType || type instanceof IntegerType ||
+                type instanceof LongType;
+    }
+
+    private static boolean isNumeric(DataType type) {
+        return isIntegral(type) || type instanceof FloatType || type instanceof DoubleType;
+    }
+
+    private static long toLong(ConstantOperator constant) {
+        switch (constant.getType().getPrimitiveType()) {
+            case TINYINT:
+                return constant.getTinyInt();
+            case SMALLINT:
+                return constant.getSmallint();
+            case INT:
+                return constant.getInt();
+            default:
+                return constant.getBigint();
+        }
+    }
+
+    private static double toDouble(ConstantOperator constant) {
+        switch (constant.getType().getPrimitiveType()) {
+            case FLOAT:
+                return constant.getFloat();
+            case DOUBLE:
+                return constant.getDouble();
+            default:
+                return toLong(constant);
+        }
+    }
+
+    public static class Builder {
+        private final List<PartitionColumn.Builder> partitionColumns = new ArrayList<>();
+        private final List<StatsColumn> statsColumns = new ArrayList<>();
+        private final Map<String, Integer> directoryToId = new HashMap<>();
+        private final List<String> directories = new ArrayList<>();
+        private int numFiles = 0;
+        private int[] directoryIds = new int[16];
+        private String[] fileNames = new String[16];
+        private long[] sizes = new long[16];
+        private long[] modificationTimes = new long[16];
+        private long[] numRecords = new long[16];
+
+        public Builder(StructType schema, Set<String> partitionColumnNames) {
+            Set<String> lowerCasePartitionColumnNames = new HashSet<>();
+            partitionColumnNames.forEach(name -> lowerCasePartitionColumnNames.add(name.toLowerCase(Locale.ROOT)));
+            for (StructField field : schema.fields()) {
+                if (lowerCasePartitionColumnNames.contains(field.getName().toLowerCase(Locale.ROOT))) {
+                    partitionColumns.add(new PartitionColumn.Builder(field.getName(), field.getDataType()));
+                } else if (isNumeric(field.getDataType())) {
+                    statsColumns.add(new StatsColumn(field.getName(), isIntegral(field.getDataType())));
+                }
+            }
+        }
+
+        public Builder add(FileStatus fileStatus, Map<String, String> partitionValues, String stats) {
+            int file = numFiles++;
+            if (file >= sizes.length) {
+                int capacity = sizes.length * 2;
+                directoryIds = Arrays.copyOf(directoryIds, capacity);
+                fileNames = Arrays.copyOf(fileNames, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+                modificationTimes = Arrays.copyOf(modificationTimes, capacity);
+                numRecords = Arrays.copyOf(numRecords, capacity);
+            }
+
+            String path = fileStatus.getPath();
+            int split = path.lastIndexOf('/') + 1;
+            directoryIds[file] = directoryToId.computeIfAbsent(path.substring(0, split), k -> {
+                directories.add(k);
+                return directories.size() - 1;
+            });
+            fileNames[file] = path.substring(split);
+            sizes[file] = fileStatus.getSize();
+            modificationTimes[file] = fileStatus.getModificationTime();
+
+            for (PartitionColumn.Builder column : partitionColumns) {
+                column.add(file, getPartitionValue(partitionValues, column.name));
+            }
+
+            JsonNode statsNode = null;
+            if (stats != null) {
+                try {
+                    statsNode = MAPPER.readTree(stats);
+                } catch (Exception e) {
+                    LOG.warn("Failed to parse delta lake add file stats of {}", path, e);
+                }
+            }
+            JsonNode records = statsNode == null ? null : statsNode.get("numRecords");
+            numRecords[file] = records != null && records.isIntegralNumber() ? records.asLong() : UNKNOWN;
+            JsonNode minValues = statsNode == null ? null : statsNode.get("minValues");
+            JsonNode maxValues = statsNode == null ? null : statsNode.get("maxValues");
+            JsonNode nullCount = statsNode == null ? null : statsNode.get("nullCount");
+            for (StatsColumn column : statsColumns) {
+                column.add(file,
+                        minValues == null ? null : minValues.get(column.name),
+                        maxValues == null ? null : maxValues.get(column.name),
+                        nullCount == null ? null : nullCount.get(column.name));
+            }
+            return this;
+        }
+
+        private static String getPartitionValue(Map<String, String> partitionValues, String column) {
+            if (partitionValues.containsKey(column)) {
+                return partitionValues.get(column);
+            }
+            for (Map.Entry<String, String> entry : partitionValues.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(column)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
+
+        public DeltaLakeAddFileIndex build() {
+            return new DeltaLakeAddFileIndex(this);
+        }
+    }
+}
@@ -27,6 +27,8 @@ public class DeltaLakeCatalogProperties {
     public static final String DELTA_LAKE_CHECKPOINT_META_CACHE_TTL = "deltalake_checkpoint_meta_cache_ttl_sec";
     public static final String DELTA_LAKE_CHECKPOINT_META_CACHE_MEMORY_USAGE_RATIO =
             "deltalake_checkpoint_meta_cache_memory_usage_ratio";
+    public static final String ENABLE_DELTA_LAKE_ADD_FILE_INDEX = "enable_deltalake_add_file_index";
+    public static final String DELTA_LAKE_ADD_FILE_INDEX_MEMORY_USAGE_RATIO = "deltalake_add_file_index_memory_usage_ratio";
 
     private final Map<String, String> properties;
     private boolean enableDeltaLakeTableCache;
@@ -36,6 +38,8 @@ public class DeltaLakeCatalogProperties {
     private double deltaLakeJsonMetaCacheMemoryUsageRatio;
     private long deltaLakeCheckpointMetaCacheTtlSec;
     private double deltaLakeCheckpointMetaCacheMemoryUsageRatio;
+    private boolean enableDeltaLakeAddFileIndex;
+    private double deltaLakeAddFileIndexMemoryUsageRatio;
 
     public DeltaLakeCatalogProperties(Map<String, String> properties) {
         this.properties = properties;
@@ -57,6 +61,10 @@ public class DeltaLakeCatalogProperties {
                 PropertyUtil.propertyAsLong(properties, DELTA_LAKE_CHECKPOINT_META_CACHE_TTL, 48 * 60 * 60);
         this.deltaLakeCheckpointMetaCacheMemoryUsageRatio =
                 PropertyUtil.propertyAsDouble(properties, DELTA_LAKE_CHECKPOINT_META_CACHE_MEMORY_USAGE_RATIO, 0.1);
+        this.enableDeltaLakeAddFileIndex =
+                PropertyUtil.propertyAsBoolean(properties, ENABLE_DELTA_LAKE_ADD_FILE_INDEX, false);
+        this.deltaLakeAddFileIndexMemoryUsageRatio =
+                PropertyUtil.propertyAsDouble(properties, DELTA_LAKE_ADD_FILE_INDEX_MEMORY_USAGE_RATIO, 0.1);
     }
 
     public boolean isEnableDeltaLakeTableCache() {
@@ -87,6 +95,14 @@ public class DeltaLakeCatalogProperties {
         return deltaLakeCheckpointMetaCacheMemoryUsageRatio;
     }
 
+    public boolean isEnableDeltaLakeAddFileIndex() {
+        return enableDeltaLakeAddFileIndex;
+    }
+
+    public double getDeltaLakeAddFileIndexMemoryUsageRatio() {
+        return deltaLakeAddFileIndexMemoryUsageRatio;
+    }
+
     public Map<String, String> getProperties() {
         return properties;
     }
@@ -15,6 +15,7 @@
 package com.starrocks.connector.delta;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
 import com.google.common.cache.LoadingCache;
 import com.starrocks.common.Pair;
 import io.delta.kernel.data.ColumnarBatch;
@@ -25,6 +26,7 @@ import io.delta.kernel.types.StructType;
 import org.apache.hadoop.conf.Configuration;
 
 import java.util.List;
+import java.util.Optional;
 
 public class DeltaLakeEngine extends DefaultEngine {
     private final Configuration hadoopConf;
@@ -33,15 +35,19 @@ public class DeltaLakeEngine extends DefaultEngine {
     private final LoadingCache<Pair<DeltaLakeFileStatus, StructType>, List<ColumnarBatch>> checkpointCache;
     // Cache for json metadata, key is file path, value is list of JsonNode
     private final LoadingCache<DeltaLakeFileStatus, List<JsonNode>> jsonCache;
+    // Cache for add file index, key is table path and snapshot version, value is the index of all add files
+    private final Cache<Pair<String, Long>, DeltaLakeAddFileIndex> addFileIndexCache;
 
     protected DeltaLakeEngine(Configuration hadoopConf, DeltaLakeCatalogProperties properties,
                               LoadingCache<Pair<DeltaLakeFileStatus, StructType>, List<ColumnarBatch>> checkpointCache,
-                              LoadingCache<DeltaLakeFileStatus, List<JsonNode>> jsonCache) {
+                              LoadingCache<DeltaLakeFileStatus, List<JsonNode>> jsonCache,
+                              Cache<Pair<String, Long>, DeltaLakeAddFileIndex> addFileIndexCache) {
         super(hadoopConf);
         this.hadoopConf = hadoopConf;
         this.properties = properties;
         this.checkpointCache = checkpointCache;
         this.jsonCache = jsonCache;
+        this.addFileIndexCache = addFileIndexCache;
     }
 
     @Override
@@ -56,9 +62,14 @@ public class DeltaLakeEngine extends DefaultEngine {
                 new TraceDefaultParquetHandler(hadoopConf);
     }
 
+    public Optional<Cache<Pair<String, Long>, DeltaLakeAddFileIndex>> getAddFileIndexCache() {
+        return properties.isEnableDeltaLakeAddFileIndex() ? Optional.ofNullable(addFileIndexCache) : Optional.empty();
+    }
+
     public static DeltaLakeEngine create(Configuration hadoopConf, DeltaLakeCatalogProperties properties,
                                          LoadingCache<Pair<DeltaLakeFileStatus, StructType>, List<ColumnarBatch>> checkpointCache,
-                                         LoadingCache<DeltaLakeFileStatus, List<JsonNode>> jsonCache) {
-        return new DeltaLakeEngine(hadoopConf, properties, checkpointCache, jsonCache);
+                                         LoadingCache<DeltaLakeFileStatus, List<JsonNode>> jsonCache,
+                                         Cache<Pair<String, Long>, DeltaLakeAddFileIndex> addFileIndexCache) {
+        return new DeltaLakeEngine(hadoopConf, properties, checkpointCache, jsonCache, addFileIndexCache);
     }
 }
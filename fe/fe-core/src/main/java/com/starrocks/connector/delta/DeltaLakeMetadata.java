@@ -14,7 +14,10 @@
 
 package com.starrocks.connector.delta;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.DeltaLakeTable;
@@ -61,8 +64,10 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import static com.starrocks.common.profile.Tracers.Module.EXTERNAL;
@@ -232,6 +237,26 @@ public class DeltaLakeMetadata implements ConnectorMetadata {
 
         long estimateRowSize = table.getColumns().stream().mapToInt(column -> column.getType().getTypeSize()).sum();
 
+        Optional<Cache<Pair<String, Long>, DeltaLakeAddFileIndex>> addFileIndexCache = engine instanceof DeltaLakeEngine ?
+                ((DeltaLakeEngine) engine).getAddFileIndexCache() : Optional.empty();
+        // column statistics need the full stats of every file, which are not kept by the index
+        DeltaLakeAddFileIndex index = addFileIndexCache.isPresent() && !enableCollectColumnStatistics(connectContext) ?
+                getAddFileIndex(addFileIndexCache.get(), deltaLakeTable, engine, snapshot) : null;
+        // fall back to the kernel data skipping for the predicates the index can't evaluate
+        if (index != null && index.canEvaluate(scalarOperators)) {
+            try (Timer ignored = Tracers.watchScope(EXTERNAL, "DELTA_LAKE.pruneAddFileIndex")) {
+                for (int file : index.select(scalarOperators)) {
+                    FileScanTask fileScanTask = index.toFileScanTask(file, estimateRowSize);
+                    files.add(fileScanTask);
+                    statisticProvider.updateFileStats(deltaLakeTable, key, fileScanTask, null,
+                            nonPartitionPrimitiveColumns, partitionPrimitiveColumns);
+                }
+            }
+            splitTasks.put(key, files);
+            scannedTables.add(key);
+            return;
+        }
+
         try (CloseableIterator<FilteredColumnarBatch> scanFilesAsBatches = scan.getScanFiles(engine, true)) {
             while (scanFilesAsBatches.hasNext()) {
                 FilteredColumnarBatch scanFileBatch = scanFilesAsBatches.next();
@@ -275,6 +300,48 @@ public class DeltaLakeMetadata implements ConnectorMetadata {
         scannedTables.add(key);
     }
 
+    private DeltaLakeAddFileIndex getAddFileIndex(Cache<Pair<String, Long>, DeltaLakeAddFileIndex> cache,
+                                                  DeltaLakeTable table, Engine engine, SnapshotImpl snapshot) {
+        Pair<String, Long> indexKey = Pair.create(table.getTableLocation(), snapshot.getVersion(engine));
+        try {
+            return cache.get(indexKey, () -> buildAddFileIndex(table, engine, snapshot));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new StarRocksConnectorException("Failed to build delta lake add file index", e.getCause());
+        }
+    }
+
+    private DeltaLakeAddFileIndex buildAddFileIndex(DeltaLakeTable table, Engine engine, SnapshotImpl snapshot) {
+        Metadata metadata = table.getDeltaMetadata();
+        DeltaLakeAddFileIndex.Builder builder =
+                new DeltaLakeAddFileIndex.Builder(metadata.getSchema(), metadata.getPartitionColNames());
+        // replay the log once without any filter, queries with different predicates are pruned on the index
+        ScanImpl scan = (ScanImpl) snapshot.getScanBuilder(engine).build();
+        try (Timer ignored = Tracers.watchScope(EXTERNAL, "DELTA_LAKE.buildAddFileIndex");
+                CloseableIterator<FilteredColumnarBatch> scanFilesAsBatches = scan.getScanFiles(engine, true)) {
+            while (scanFilesAsBatches.hasNext()) {
+                FilteredColumnarBatch scanFileBatch = scanFilesAsBatches.next();
+                try (CloseableIterator<Row> scanFileRows = scanFileBatch.getRows()) {
+                    while (scanFileRows.hasNext()) {
+                        Row scanFileRow = scanFileRows.next();
+                        DeletionVectorDescriptor dv = InternalScanFileUtils.getDeletionVectorDescriptorFromRow(scanFileRow);
+                        if (dv != null) {
+                            ErrorReport.reportValidateException(ErrorCode.ERR_BAD_TABLE_ERROR, ErrorType.UNSUPPORTED,
+                                    "Delta table feature [deletion vectors] is not supported");
+                        }
+                        builder.add(InternalScanFileUtils.getAddFileStatus(scanFileRow),
+                                InternalScanFileUtils.getPartitionValues(scanFileRow),
+                                ScanFileUtils.getAddFileStats(scanFileRow));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Failed to get delta lake scan files", e);
+            throw new StarRocksConnectorException("Failed to get delta lake scan files", e);
+        }
+        return builder.build();
+    }
+
     public boolean enableCollectColumnStatistics(ConnectContext context) {
         if (context == null) {
             return false;
@@ -15,6 +15,7 @@
 package com.starrocks.connector.delta;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -58,6 +59,7 @@ public abstract class DeltaLakeMetastore implements IDeltaLakeMetastore {
 
     private final LoadingCache<Pair<DeltaLakeFileStatus, StructType>, List<ColumnarBatch>> checkpointCache;
     private final LoadingCache<DeltaLakeFileStatus, List<JsonNode>> jsonCache;
+    private final Cache<Pair<String, Long>, DeltaLakeAddFileIndex> addFileIndexCache;
 
     public DeltaLakeMetastore(String catalogName, IMetastore metastore, Configuration hdfsConfiguration,
                               DeltaLakeCatalogProperties properties) {
@@ -69,6 +71,8 @@ public abstract class DeltaLakeMetastore implements IDeltaLakeMetastore {
                 properties.getDeltaLakeCheckpointMetaCacheMemoryUsageRatio());
         long jsonCacheSize = Math.round(Runtime.getRuntime().maxMemory() *
                 properties.getDeltaLakeJsonMetaCacheMemoryUsageRatio());
+        long addFileIndexCacheSize = Math.round(Runtime.getRuntime().maxMemory() *
+                properties.getDeltaLakeAddFileIndexMemoryUsageRatio());
 
         this.checkpointCache = CacheBuilder.newBuilder()
                 .expireAfterWrite(properties.getDeltaLakeCheckpointMetaCacheTtlSec(), TimeUnit.SECONDS)
@@ -94,6 +98,14 @@ public abstract class DeltaLakeMetastore implements IDeltaLakeMetastore {
                         return DeltaLakeJsonHandler.readJsonFile(fileStatus.getPath(), hdfsConfiguration);
                     }
                 });
+
+        // the index knows its own size, no need to walk the object graph with SizeEstimator
+        this.addFileIndexCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(properties.getDeltaLakeCheckpointMetaCacheTtlSec(), TimeUnit.SECONDS)
+                .weigher((Pair<String, Long> key, DeltaLakeAddFileIndex value) ->
+                        (int) Math.min(Integer.MAX_VALUE, value.getEstimatedSize()))
+                .maximumWeight(addFileIndexCacheSize)
+                .build();
     }
 
     @Override
@@ -122,7 +134,8 @@ public abstract class DeltaLakeMetastore implements IDeltaLakeMetastore {
         String path = metastoreTable.getTableLocation();
         long createTime = metastoreTable.getCreateTime();
 
-        Engine deltaLakeEngine = DeltaLakeEngine.create(hdfsConfiguration, properties, checkpointCache, jsonCache);
+        Engine deltaLakeEngine = DeltaLakeEngine.create(hdfsConfiguration, properties, checkpointCache, jsonCache,
+                addFileIndexCache);
         return DeltaUtils.convertDeltaToSRTable(catalogName, dbName, tableName, path, deltaLakeEngine, createTime);
     }
 
@@ -173,11 +186,13 @@ public abstract class DeltaLakeMetastore implements IDeltaLakeMetastore {
     public void invalidateAll() {
         checkpointCache.invalidateAll();
         jsonCache.invalidateAll();
+        addFileIndexCache.invalidateAll();
     }
 
     @Override
     public Map<String, Long> estimateCount() {
-        return Map.of("checkpointCache", checkpointCache.size(), "jsonCache", jsonCache.size());
+        return Map.of("checkpointCache", checkpointCache.size(), "jsonCache", jsonCache.size(),
+                "addFileIndexCache", addFileIndexCache.size());
     }
 
     @Override
@@ -66,6 +66,10 @@ public class ScanFileUtils {
         return scanFileInfo.getStruct(ADD_FILE_ORDINAL);
     }
 
+    public static String getAddFileStats(Row scanFileInfo) {
+        return getAddFileEntry(scanFileInfo).getString(ADD_FILE_STATS_ORDINAL);
+    }
+
     public static Pair<FileScanTask, DeltaLakeAddFileStatsSerDe> convertFromRowToFileScanTask(
             boolean needStats, Row file, long estimateRowSize) {
         FileStatus fileStatus = InternalScanFileUtils.getAddFileStatus(file);
@@ -22,6 +22,7 @@ import static com.starrocks.catalog.EsTable.KEY_ES_NET_SSL;
 import static com.starrocks.catalog.EsTable.KEY_HOSTS;
 import static com.starrocks.catalog.EsTable.KEY_KEYWORD_SNIFF;
 import static com.starrocks.catalog.EsTable.KEY_PASSWORD;
+import static com.starrocks.catalog.EsTable.KEY_SCROLL_SLICES;
 import static com.starrocks.catalog.EsTable.KEY_USER;
 import static com.starrocks.catalog.EsTable.KEY_WAN_ONLY;
 
@@ -57,6 +58,11 @@ public class EsConfig extends ConnectorConfig {
             defaultValue = "true")
     private boolean enableKeywordSniff;
 
+    @Config(key = KEY_SCROLL_SLICES,
+            desc = "The number of sliced scrolls each shard is scanned by in parallel",
+            defaultValue = "1")
+    private int scrollSlices;
+
     public String[] getNodes() {
         return nodes;
     }
@@ -112,4 +118,12 @@ public class EsConfig extends ConnectorConfig {
     public void setEnableKeywordSniff(boolean enableKeywordSniff) {
         this.enableKeywordSniff = enableKeywordSniff;
     }
+
+    public int getScrollSlices() {
+        return scrollSlices;
+    }
+
+    public void setScrollSlices(int scrollSlices) {
+        this.scrollSlices = scrollSlices;
+    }
 }
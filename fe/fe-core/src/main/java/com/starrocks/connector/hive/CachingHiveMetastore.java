@@ -15,8 +15,10 @@
 package com.starrocks.connector.hive;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -44,6 +46,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -76,6 +79,17 @@ public class CachingHiveMetastore extends CachingMetastore implements IHiveMetas
     protected LoadingCache<DatabaseTableName, HivePartitionStats> tableStatsCache;
     protected LoadingCache<HivePartitionName, HivePartitionStats> partitionStatsCache;
 
+    // the id of the latest hms event applied to each partition, older events replayed after a failure are skipped.
+    // It expires with the partition cache, a partition reloaded from hms is newer than any event replayed before.
+    private final Cache<HivePartitionName, Long> partitionEventIds;
+    // the partitions added (true) or dropped (false) by hms events of each table, they are patched into the cached
+    // partition keys together by flushPartitionKeyPatches, so a batch of events patches each key list once
+    private final Map<DatabaseTableName, Map<HivePartitionName, Boolean>> pendingPartitionKeyPatches =
+            Maps.newHashMap();
+    // all the hms events up to syncedEventId had been applied to the cache at syncedTimeMs
+    private volatile long syncedEventId = -1;
+    private volatile long syncedTimeMs = 0;
+
     public static CachingHiveMetastore createQueryLevelInstance(IHiveMetastore metastore, long perQueryCacheMaxSize) {
         return new CachingHiveMetastore(
                 metastore,
@@ -108,6 +122,8 @@ public class CachingHiveMetastore extends CachingMetastore implements IHiveMetas
                     .build(asyncReloading(CacheLoader.from(this::loadPartitionKeys), executor));
         }
 
+        partitionEventIds = newCacheBuilder(expireAfterWriteSec, NEVER_REFRESH, maxSize).build();
+
         partitionCache = newCacheBuilder(expireAfterWriteSec, NEVER_REFRESH, maxSize)
                 .build(asyncReloading(new CacheLoader<HivePartitionName, Partition>() {
                     @Override
@@ -619,6 +635,8 @@ public class CachingHiveMetastore extends CachingMetastore implements IHiveMetas
         partitionCache.invalidateAll();
         tableStatsCache.invalidateAll();
         partitionStatsCache.invalidateAll();
+        partitionEventIds.invalidateAll();
+        pendingPartitionKeyPatches.clear();
     }
 
     public synchronized void invalidateDatabase(String dbName) {
@@ -637,6 +655,8 @@ public class CachingHiveMetastore extends CachingMetastore implements IHiveMetas
         presentPartitions.forEach(p -> partitionCache.invalidate(p));
         List<HivePartitionName> presentPartitionStats = getPresentPartitionNames(partitionStatsCache, dbName, tableName);
         presentPartitionStats.forEach(p -> partitionStatsCache.invalidate(p));
+        partitionEventIds.asMap().keySet().removeIf(p -> p.approximateMatchTable(dbName, tableName));
+        pendingPartitionKeyPatches.remove(databaseTableName);
     }
 
     public synchronized void invalidatePartition(HivePartitionName partitionName) {
@@ -682,17 +702,132 @@ public class CachingHiveMetastore extends CachingMetastore implements IHiveMetas
 
     public synchronized void refreshPartitionByEvent(HivePartitionName hivePartitionName,
                                                      HiveCommonStats commonStats,
-                                                     Partition partition) {
+                                                     Partition partition,
+                                                     long eventId) {
+        if (!tryApplyEvent(hivePartitionName, eventId)) {
+            return;
+        }
         Map<String, HiveColumnStats> columnStats = get(partitionStatsCache, hivePartitionName).getColumnStats();
         HivePartitionStats updatedPartitionStats = createPartitionStats(commonStats, columnStats);
-        DatabaseTableName
-                databaseTableName = DatabaseTableName.of(hivePartitionName.getDatabaseName(), hivePartitionName.getTableName());
-        partitionKeysCache.asMap().keySet().stream().filter(hivePartitionValue -> hivePartitionValue.getHiveTableName().
-                equals(databaseTableName)).forEach(partitionKeysCache::invalidate);
+        // altering a partition doesn't change the partition names, so the partition keys are kept
         partitionCache.put(hivePartitionName, partition);
         partitionStatsCache.put(hivePartitionName, updatedPartitionStats);
     }
 
+    /**
+     * Patch the cache with a partition added in hms, instead of reloading all the partition keys of the table.
+     * The partition statistics are loaded on demand, since the event doesn't carry the column statistics.
+     * The partition keys are patched by {@link #flushPartitionKeyPatches} after the batch of events is applied.
+     */
+    public synchronized void addPartitionByEvent(HivePartitionName hivePartitionName, Partition partition, long eventId) {
+        if (!tryApplyEvent(hivePartitionName, eventId)) {
+            return;
+        }
+        patchPartitionKeys(hivePartitionName, true);
+        partitionCache.put(hivePartitionName, partition);
+        partitionStatsCache.invalidate(hivePartitionName);
+    }
+
+    public synchronized void dropPartitionByEvent(HivePartitionName hivePartitionName, long eventId) {
+        if (!tryApplyEvent(hivePartitionName, eventId)) {
+            return;
+        }
+        patchPartitionKeys(hivePartitionName, false);
+        partitionCache.invalidate(hivePartitionName);
+        partitionStatsCache.invalidate(hivePartitionName);
+    }
+
+    private boolean tryApplyEvent(HivePartitionName hivePartitionName, long eventId) {
+        Long appliedEventId = partitionEventIds.getIfPresent(hivePartitionName);
+        if (appliedEventId != null && appliedEventId > eventId) {
+            LOG.info("Skip event {} on partition {}, event {} has been applied", eventId, hivePartitionName, appliedEventId);
+            return false;
+        }
+        partitionEventIds.put(hivePartitionName, eventId);
+        return true;
+    }
+
+    private void patchPartitionKeys(HivePartitionName hivePartitionName, boolean add) {
+        if (hivePartitionName.getPartitionNames().isEmpty()) {
+            return;
+        }
+        DatabaseTableName databaseTableName = DatabaseTableName.of(
+                hivePartitionName.getDatabaseName(), hivePartitionName.getTableName());
+        // only the last event of a partition matters
+        pendingPartitionKeyPatches.computeIfAbsent(databaseTableName, k -> Maps.newLinkedHashMap())
+                .put(hivePartitionName, add);
+    }
+
+    /**
+     * Patch the cached partition keys with the partitions added and dropped by the events applied since the last
+     * flush. The keys of the cache are scanned once, and each cached key list is rebuilt once for all the events
+     * of its table.
+     */
+    public synchronized void flushPartitionKeyPatches() {
+        if (pendingPartitionKeyPatches.isEmpty()) {
+            return;
+        }
+        List<HivePartitionValue> cachedKeys = partitionKeysCache.asMap().keySet().stream()
+                .filter(hivePartitionValue -> pendingPartitionKeyPatches.containsKey(hivePartitionValue.getHiveTableName()))
+                .collect(Collectors.toList());
+        for (HivePartitionValue hivePartitionValue : cachedKeys) {
+            patchPartitionKeys(hivePartitionValue, pendingPartitionKeyPatches.get(hivePartitionValue.getHiveTableName()));
+        }
+        pendingPartitionKeyPatches.clear();
+    }
+
+    private void patchPartitionKeys(HivePartitionValue hivePartitionValue, Map<HivePartitionName, Boolean> patches) {
+        List<String> partitionNames = partitionKeysCache.getIfPresent(hivePartitionValue);
+        if (partitionNames == null) {
+            return;
+        }
+        List<Optional<String>> partitionValues = hivePartitionValue.getPartitionValues();
+        Set<String> patchedNames = new LinkedHashSet<>(partitionNames);
+        boolean patched = false;
+        for (Map.Entry<HivePartitionName, Boolean> patch : patches.entrySet()) {
+            HivePartitionName hivePartitionName = patch.getKey();
+            String partitionName = hivePartitionName.getPartitionNames().get();
+            if (!partitionValues.isEmpty()) {
+                if (partitionValues.size() != hivePartitionName.getPartitionValues().size()) {
+                    partitionKeysCache.invalidate(hivePartitionValue);
+                    return;
+                }
+                if (PartitionUtil.getFilteredPartitionKeys(List.of(partitionName), partitionValues).isEmpty()) {
+                    continue;
+                }
+            }
+            patched |= patch.getValue() ? patchedNames.add(partitionName) : patchedNames.remove(partitionName);
+        }
+        if (patched) {
+            partitionKeysCache.put(hivePartitionValue, ImmutableList.copyOf(patchedNames));
+        }
+    }
+
+    /**
+     * Record that all the hms events up to eventId have been applied to the cache, and that eventId was the
+     * latest event of hms at syncedTimeMs. A negative syncedTimeMs keeps the previous one, it is used when
+     * more events are pending, whose age is unknown.
+     */
+    public void setSyncedEventId(long eventId, long syncedTimeMs) {
+        syncedEventId = eventId;
+        if (syncedTimeMs >= 0) {
+            this.syncedTimeMs = syncedTimeMs;
+        }
+    }
+
+    public long getSyncedEventId() {
+        return syncedEventId;
+    }
+
+    /**
+     * The freshness guarantee of the cache when it is maintained by hms events: every change made in hms
+     * before the last sync is visible in the cache. So the cache is not staler than the returned interval,
+     * and the ttl based refresh isn't needed as long as it stays bounded.
+     */
+    public long getStalenessMs() {
+        return syncedEventId < 0 ? Long.MAX_VALUE : System.currentTimeMillis() - syncedTimeMs;
+    }
+
     private HivePartitionStats createPartitionStats(HiveCommonStats commonStats, Map<String, HiveColumnStats> columnStats) {
         long totalRowNums = commonStats.getRowNums();
         if (totalRowNums == -1) {
@@ -64,6 +64,9 @@ public class HiveCacheUpdateProcessor implements CacheUpdateProcessor {
 
     // Record the latest synced event id when processing hive events
     private long lastSyncedEventId = -1;
+    // The latest event id of hms and the time it was fetched at
+    private long currentEventId = -1;
+    private long currentEventIdTimeMs = -1;
 
     private final Map<BasePartitionInfo, Long> partitionUpdatedTimes;
 
@@ -87,7 +90,8 @@ public class HiveCacheUpdateProcessor implements CacheUpdateProcessor {
 
     private void trySyncEventId() {
         try {
-            setLastSyncedEventId(metastore.getCurrentEventId());
+            setLastSyncedEventId(fetchCurrentEventId());
+            updateSyncedEventId();
         } catch (MetastoreNotificationFetchException e) {
             LOG.error("Sync event id on init get exception when pulling events on catalog [{}]", catalogName);
         }
@@ -326,14 +330,41 @@ public class HiveCacheUpdateProcessor implements CacheUpdateProcessor {
         refreshRemoteFiles(updatedHiveTable, Operator.UPDATE, getExistPaths(updatedHiveTable), true);
     }
 
-    public void refreshPartitionByEvent(HivePartitionName hivePartitionName, HiveCommonStats commonStats, Partition partion) {
-        ((CachingHiveMetastore) metastore).refreshPartitionByEvent(hivePartitionName, commonStats, partion);
+    public void refreshPartitionByEvent(HivePartitionName hivePartitionName, HiveCommonStats commonStats,
+                                        Partition partion, long eventId) {
+        ((CachingHiveMetastore) metastore).refreshPartitionByEvent(hivePartitionName, commonStats, partion, eventId);
         if (remoteFileIO.isPresent()) {
             RemotePathKey pathKey = RemotePathKey.of(partion.getFullPath(), isRecursive);
             remoteFileIO.get().updateRemoteFiles(pathKey);
         }
     }
 
+    public void addPartitionByEvent(HivePartitionName hivePartitionName, Partition partition, long eventId) {
+        ((CachingHiveMetastore) metastore).addPartitionByEvent(hivePartitionName, partition, eventId);
+        // the files of a partition dropped and added again may still be cached
+        if (remoteFileIO.isPresent()) {
+            RemotePathKey pathKey = RemotePathKey.of(partition.getFullPath(), isRecursive);
+            remoteFileIO.get().invalidatePartition(pathKey);
+        }
+    }
+
+    public void dropPartitionByEvent(HivePartitionName hivePartitionName, long eventId) {
+        CachingHiveMetastore cachingMetastore = (CachingHiveMetastore) metastore;
+        Partition partition = cachingMetastore.getCachedPartitions(Lists.newArrayList(hivePartitionName))
+                .get(hivePartitionName);
+        cachingMetastore.dropPartitionByEvent(hivePartitionName, eventId);
+        if (partition != null && remoteFileIO.isPresent()) {
+            RemotePathKey pathKey = RemotePathKey.of(partition.getFullPath(), isRecursive);
+            remoteFileIO.get().invalidatePartition(pathKey);
+        }
+    }
+
+    public void flushPartitionKeyPatches() {
+        if (metastore instanceof CachingHiveMetastore) {
+            ((CachingHiveMetastore) metastore).flushPartitionKeyPatches();
+        }
+    }
+
     public void invalidateAll() {
         metastore.invalidateAll();
         remoteFileIO.ifPresent(CachingRemoteFileIO::invalidateAll);
@@ -378,17 +409,52 @@ public class HiveCacheUpdateProcessor implements CacheUpdateProcessor {
         this.lastSyncedEventId = lastSyncedEventId;
     }
 
+    /**
+     * Called after all the events up to the last synced event id have been applied to the cache.
+     * The synced time only advances when the last fetched event id of hms is reached. A capped batch
+     * leaves events of unknown age behind, stamping it with the current time would understate the lag.
+     */
+    public void updateSyncedEventId() {
+        if (metastore instanceof CachingHiveMetastore) {
+            long syncedTimeMs = lastSyncedEventId >= currentEventId ? currentEventIdTimeMs : -1;
+            ((CachingHiveMetastore) metastore).setSyncedEventId(lastSyncedEventId, syncedTimeMs);
+        }
+    }
+
+    private long fetchCurrentEventId() {
+        long fetchTimeMs = System.currentTimeMillis();
+        currentEventId = metastore.getCurrentEventId();
+        currentEventIdTimeMs = fetchTimeMs;
+        return currentEventId;
+    }
+
+    public boolean isCacheStale(long maxStalenessMs) {
+        return metastore instanceof CachingHiveMetastore &&
+                ((CachingHiveMetastore) metastore).getStalenessMs() > maxStalenessMs;
+    }
+
+    /**
+     * Drop the whole cache of the catalog and continue syncing from the current event id of hms.
+     * The event id is fetched before invalidating, so no change made in between is missed.
+     */
+    public void resetCache() {
+        long eventId = fetchCurrentEventId();
+        invalidateAll();
+        setLastSyncedEventId(eventId);
+        updateSyncedEventId();
+    }
+
     public NotificationEventResponse getNextEventResponse(String catalogName, final boolean getAllEvents)
             throws MetastoreNotificationFetchException {
         if (lastSyncedEventId == -1) {
-            lastSyncedEventId = metastore.getCurrentEventId();
+            lastSyncedEventId = fetchCurrentEventId();
             LOG.error("Last synced event id is null when pulling events on catalog [{}]", catalogName);
             return null;
         }
 
-        long currentEventId = metastore.getCurrentEventId();
-        if (currentEventId == lastSyncedEventId) {
+        if (fetchCurrentEventId() == lastSyncedEventId) {
             LOG.info("Event id not updated when pulling events on catalog [{}]", catalogName);
+            updateSyncedEventId();
             return null;
         }
         return ((CachingHiveMetastore) metastore).getNextEventResponse(lastSyncedEventId, catalogName, getAllEvents);
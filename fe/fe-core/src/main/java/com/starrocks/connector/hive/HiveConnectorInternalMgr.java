@@ -24,6 +24,7 @@ import com.starrocks.connector.CachingRemoteFileIO;
 import com.starrocks.connector.HdfsEnvironment;
 import com.starrocks.connector.MetastoreType;
 import com.starrocks.connector.ReentrantExecutor;
+import com.starrocks.connector.RemoteFileDiskCache;
 import com.starrocks.connector.RemoteFileIO;
 import com.starrocks.sql.analyzer.SemanticException;
 
@@ -133,7 +134,7 @@ public class HiveConnectorInternalMgr {
     public RemoteFileIO createRemoteFileIO() {
         // TODO(stephen): Abstract the creator class to construct RemoteFiloIO
 
-        RemoteFileIO remoteFileIO = new HiveRemoteFileIO(hdfsEnvironment.getConfiguration());
+        HiveRemoteFileIO remoteFileIO = new HiveRemoteFileIO(hdfsEnvironment.getConfiguration());
 
         RemoteFileIO baseRemoteFileIO;
         if (!enableRemoteFileCache) {
@@ -141,12 +142,15 @@ public class HiveConnectorInternalMgr {
         } else {
             refreshRemoteFileExecutor = Executors.newCachedThreadPool(
                     new ThreadFactoryBuilder().setNameFormat("hive-remote-files-refresh-%d").build());
-            baseRemoteFileIO = CachingRemoteFileIO.createCatalogLevelInstance(
+            CachingRemoteFileIO cachingRemoteFileIO = CachingRemoteFileIO.createCatalogLevelInstance(
                     remoteFileIO,
                     new ReentrantExecutor(refreshRemoteFileExecutor, remoteFileConf.getRefreshMaxThreadNum()),
                     remoteFileConf.getCacheTtlSec(),
                     enableHmsEventsIncrementalSync ? NEVER_REFRESH : remoteFileConf.getCacheRefreshIntervalSec(),
                     remoteFileConf.getCacheMaxSize());
+            RemoteFileDiskCache.create(catalogName, remoteFileIO, remoteFileConf.getCacheTtlSec())
+                    .ifPresent(cachingRemoteFileIO::setDiskCache);
+            baseRemoteFileIO = cachingRemoteFileIO;
         }
 
         return baseRemoteFileIO;
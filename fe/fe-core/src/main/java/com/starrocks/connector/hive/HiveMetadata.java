@@ -25,6 +25,7 @@ import com.starrocks.catalog.HiveTable;
 import com.starrocks.catalog.PartitionKey;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.AlreadyExistsException;
+import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.MetaNotFoundException;
 import com.starrocks.common.UserException;
@@ -35,6 +36,7 @@ import com.starrocks.connector.ConnectorMetadata;
 import com.starrocks.connector.GetRemoteFilesParams;
 import com.starrocks.connector.HdfsEnvironment;
 import com.starrocks.connector.PartitionInfo;
+import com.starrocks.connector.PlanMode;
 import com.starrocks.connector.RemoteFileInfo;
 import com.starrocks.connector.RemoteFileInfoSource;
 import com.starrocks.connector.RemoteFileOperations;
@@ -234,30 +236,47 @@ public class HiveMetadata implements ConnectorMetadata {
         if (((HiveMetaStoreTable) table).isUnPartitioned()) {
             partitions.add(hmsOps.getPartition(hmsTbl.getDbName(), hmsTbl.getTableName(), Lists.newArrayList()));
         } else {
-            // convert partition keys to partition names.
-            // and handle partition names in following code.
-            // in most cases, we use partition keys. but in some cases,  we use partition names.
-            // so partition keys has higher priority than partition names.
-            List<String> partitionNames = params.getPartitionNames();
-            if (params.getPartitionKeys() != null) {
-                partitionNames =
-                        params.getPartitionKeys().stream().map(x -> toHivePartitionName(hmsTbl.getPartitionColumnNames(), x))
-                                .collect(
-                                        Collectors.toList());
-            }
-            // check existences
-            Map<String, Partition> existingPartitions = hmsOps.getPartitionByNames(table, partitionNames);
+            List<String> partitionNames = getRemoteFilesPartitionNames(hmsTbl, params);
+            Map<String, Partition> existingPartitions =
+                    getExistingPartitions(table, partitionNames, params.isCheckPartitionExistence());
             for (String hivePartitionName : partitionNames) {
                 Partition partition = existingPartitions.get(hivePartitionName);
                 if (partition != null) {
                     partitions.add(partition);
-                } else if (params.isCheckPartitionExistence()) {
+                }
+            }
+        }
+        return partitions.build();
+    }
+
+    private List<String> getRemoteFilesPartitionNames(HiveMetaStoreTable hmsTbl, GetRemoteFilesParams params) {
+        // convert partition keys to partition names.
+        // and handle partition names in following code.
+        // in most cases, we use partition keys. but in some cases,  we use partition names.
+        // so partition keys has higher priority than partition names.
+        List<String> partitionNames = params.getPartitionNames();
+        if (params.getPartitionKeys() != null) {
+            partitionNames =
+                    params.getPartitionKeys().stream().map(x -> toHivePartitionName(hmsTbl.getPartitionColumnNames(), x))
+                            .collect(
+                                    Collectors.toList());
+        }
+        return partitionNames;
+    }
+
+    private Map<String, Partition> getExistingPartitions(Table table, List<String> partitionNames,
+                                                         boolean checkPartitionExistence) {
+        // check existences
+        Map<String, Partition> existingPartitions = hmsOps.getPartitionByNames(table, partitionNames);
+        if (checkPartitionExistence) {
+            for (String hivePartitionName : partitionNames) {
+                if (!existingPartitions.containsKey(hivePartitionName)) {
                     LOG.error("Partition {} doesn't exist", hivePartitionName);
                     throw new StarRocksConnectorException("Partition %s doesn't exist", hivePartitionName);
                 }
             }
         }
-        return partitions.build();
+        return existingPartitions;
     }
 
     @Override
@@ -280,10 +299,36 @@ public class HiveMetadata implements ConnectorMetadata {
 
     @Override
     public RemoteFileInfoSource getRemoteFilesAsync(Table table, GetRemoteFilesParams params) {
+        HiveMetaStoreTable hmsTbl = (HiveMetaStoreTable) table;
+        if (!hmsTbl.isUnPartitioned()) {
+            List<String> partitionNames = getRemoteFilesPartitionNames(hmsTbl, params);
+            if (partitionNames != null && useBatchedPartitionListing(partitionNames.size())) {
+                // resolve partitions from metastore in batches while listing files, so the first scan ranges
+                // don't wait for all the selected partitions to be fetched.
+                return fileOps.getRemoteFilesAsync(table, partitionNames,
+                        names -> getExistingPartitions(table, names, params.isCheckPartitionExistence()),
+                        Config.hive_batched_partition_listing_batch_size, params);
+            }
+        }
         List<Partition> partitions = buildGetRemoteFilesPartitions(table, params);
         return fileOps.getRemoteFilesAsync(table, partitions, params);
     }
 
+    // only the partition lookups on FE are batched, nothing is distributed to BE/CN nodes
+    private boolean useBatchedPartitionListing(int partitionNum) {
+        ConnectContext connectContext = ConnectContext.get();
+        if (connectContext == null || connectContext.getSessionVariable() == null) {
+            return false;
+        }
+
+        PlanMode planMode = PlanMode.fromName(connectContext.getSessionVariable().getPlanMode());
+        if (planMode == PlanMode.DISTRIBUTED) {
+            return true;
+        }
+        return planMode == PlanMode.AUTO && Config.hive_batched_partition_listing_threshold >= 0 &&
+                partitionNum >= Config.hive_batched_partition_listing_threshold;
+    }
+
     @Override
     public List<PartitionInfo> getRemotePartitions(Table table, List<String> partitionNames) {
         ImmutableList.Builder<Partition> partitionBuilder = ImmutableList.builder();
@@ -16,6 +16,7 @@ package com.starrocks.connector.hive;
 
 import com.starrocks.connector.CachingRemoteFileConf;
 import com.starrocks.connector.CachingRemoteFileIO;
+import com.starrocks.connector.ConcurrencyBudget;
 import com.starrocks.connector.HdfsEnvironment;
 import com.starrocks.connector.MetastoreType;
 import com.starrocks.connector.RemoteFileIO;
@@ -81,7 +82,8 @@ public class HiveMetadataFactory {
                 updateRemoteFilesExecutor,
                 isRecursive,
                 remoteFileIO instanceof CachingRemoteFileIO,
-                hdfsEnvironment.getConfiguration());
+                hdfsEnvironment.getConfiguration(),
+                ConcurrencyBudget.of(catalogName));
         HiveStatisticsProvider statisticsProvider = new HiveStatisticsProvider(hiveMetastoreOperations, remoteFileOperations);
 
         Optional<HiveCacheUpdateProcessor> cacheUpdateProcessor = getCacheUpdateProcessor();
@@ -231,6 +231,10 @@ public class HiveRemoteFileIO implements RemoteFileIO {
         return hostPort.split(":")[0];
     }
 
+    public String getHdfsDataNodeHostPort(long hostId) {
+        return idToBlockHost.get(hostId);
+    }
+
     @VisibleForTesting
     public void setFileSystem(FileSystem fs) {
         this.fileSystem = fs;
@@ -45,6 +45,8 @@ public class AlterPartitionEvent extends MetastoreTableEvent {
     private final Partition partitionBefore;
     // the Partition object after alter operation, as parsed from the NotificationEvent
     private final Partition partitionAfter;
+    // the name of the partition before alter operation, differs from the current one if the partition is renamed
+    private final HivePartitionName partitionNameBefore;
 
     private AlterPartitionEvent(NotificationEvent event, HiveCacheUpdateProcessor cacheProcessor, String catalogName) {
         super(event, cacheProcessor, catalogName);
@@ -63,6 +65,8 @@ public class AlterPartitionEvent extends MetastoreTableEvent {
                     .map(FieldSchema::getName).collect(Collectors.toList());
             hivePartitionNames.add(HivePartitionName.of(dbName, tblName,
                     FileUtils.makePartName(partitionColNames, partitionAfter.getValues())));
+            partitionNameBefore = HivePartitionName.of(dbName, tblName,
+                    FileUtils.makePartName(partitionColNames, partitionBefore.getValues()));
         } catch (Exception e) {
             throw new MetastoreNotificationException(
                     debugString("Unable to parse the alter partition message"), e);
@@ -89,7 +93,12 @@ public class AlterPartitionEvent extends MetastoreTableEvent {
 
     @Override
     protected boolean existInCache() {
-        return cache.isPartitionPresent(getHivePartitionName());
+        return cache.isPartitionPresent(getHivePartitionName()) ||
+                (isRename() && cache.isPartitionPresent(partitionNameBefore));
+    }
+
+    private boolean isRename() {
+        return !partitionNameBefore.equals(getHivePartitionName());
     }
 
     @Override
@@ -125,7 +134,12 @@ public class AlterPartitionEvent extends MetastoreTableEvent {
             LOG.info("Start to process ALTER_PARTITION event on [{}.{}.{}.{}]. Partition:[{}], HiveCommonStats:[{}]",
                     catalogName, dbName, tblName, getHivePartitionName(), partition, hiveCommonStats);
 
-            cache.refreshPartitionByEvent(getHivePartitionName(), hiveCommonStats, partition);
+            if (isRename()) {
+                cache.dropPartitionByEvent(partitionNameBefore, getEventId());
+                cache.addPartitionByEvent(getHivePartitionName(), partition, getEventId());
+            } else {
+                cache.refreshPartitionByEvent(getHivePartitionName(), hiveCommonStats, partition, getEventId());
+            }
         } catch (Exception e) {
             LOG.error("Failed to process {} event, event detail msg: {}",
                     getEventType(), metastoreNotificationEvent, e);
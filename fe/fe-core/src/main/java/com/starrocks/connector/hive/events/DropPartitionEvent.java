@@ -17,6 +17,7 @@ package com.starrocks.connector.hive.events;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.starrocks.connector.DatabaseTableName;
 import com.starrocks.connector.hive.HiveCacheUpdateProcessor;
 import com.starrocks.connector.hive.HivePartitionName;
 import org.apache.hadoop.hive.metastore.api.FieldSchema;
@@ -96,9 +97,12 @@ public class DropPartitionEvent extends MetastoreTableEvent {
         return batchEvent;
     }
 
+    /**
+     * The cached partition keys of the table need to be patched even if the partition itself isn't cached.
+     */
     @Override
     protected boolean existInCache() {
-        return cache.isPartitionPresent(getHivePartitionName());
+        return cache.isTablePresent(DatabaseTableName.of(dbName, tblName));
     }
 
     @Override
@@ -109,16 +113,15 @@ public class DropPartitionEvent extends MetastoreTableEvent {
     @Override
     protected void process() throws MetastoreNotificationException {
         if (!existInCache()) {
-            LOG.warn("Partition [Catalog: [{}], Table: [{}.{}]. Partition name: [{}] ] " +
-                            "doesn't exist in cache on event id [{}]",
-                    catalogName, dbName, tblName, getHivePartitionName(), getEventId());
+            LOG.warn("Table [Catalog: [{}], Table: [{}.{}]] doesn't exist in cache on event id [{}]",
+                    catalogName, dbName, tblName, getEventId());
             return;
         }
 
         try {
             LOG.info("Start to process DROP_PARTITION event on {}.{}.{}.{}",
                     catalogName, dbName, tblName, getHivePartitionName());
-            cache.invalidatePartition(getHivePartitionName());
+            cache.dropPartitionByEvent(getHivePartitionName(), getEventId());
         } catch (Exception e) {
             LOG.error("Failed to process {} event, event detail msg: {}",
                     getEventType(), metastoreNotificationEvent, e);
@@ -134,7 +134,7 @@ public class InsertEvent extends MetastoreTableEvent {
                 hiveCommonStats = toHiveCommonStats(insertPartition.getParameters());
                 LOG.info("Start to process INSERT_EVENT event on {}.{}.{}.{}. Partition:[{}], HveCommonStats:[{}]",
                         catalogName, dbName, tblName, getHivePartitionName(), partition, hiveCommonStats);
-                cache.refreshPartitionByEvent(getHivePartitionName(), hiveCommonStats, partition);
+                cache.refreshPartitionByEvent(getHivePartitionName(), hiveCommonStats, partition, getEventId());
             }
         } catch (Exception e) {
             LOG.error("Failed to process {} event, event detail msg: {}",
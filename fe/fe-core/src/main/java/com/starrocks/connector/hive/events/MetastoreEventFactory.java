@@ -64,6 +64,8 @@ public class MetastoreEventFactory implements EventFactory {
                 return AlterTableEvent.getEvents(event, cacheProcessor, catalogName);
             case DROP_TABLE:
                 return DropTableEvent.getEvents(event, cacheProcessor, catalogName);
+            case ADD_PARTITION:
+                return AddPartitionEvent.getEvents(event, cacheProcessor, catalogName);
             case ALTER_PARTITION:
                 return AlterPartitionEvent.getEvents(event, cacheProcessor, catalogName);
             case DROP_PARTITION:
@@ -195,17 +195,44 @@ public class MetastoreEventsProcessor extends FrontendDaemon {
 
         if (filteredEvents.isEmpty()) {
             cacheProcessor.setLastSyncedEventId(events.get(events.size() - 1).getEventId());
+            cacheProcessor.updateSyncedEventId();
             return;
         }
 
         LOG.info("Notification events {} to be processed on catalog [{}]", events, catalogName);
 
-        if (Config.enable_hms_parallel_process_evens) {
-            doExecuteWithPartialProgress(filteredEvents);
-        } else {
-            doExecute(filteredEvents, cacheProcessor);
+        try {
+            if (Config.enable_hms_parallel_process_evens) {
+                doExecuteWithPartialProgress(filteredEvents);
+            } else {
+                doExecute(filteredEvents, cacheProcessor);
+            }
+        } finally {
+            // the partition keys are patched once for the events applied, even if the others failed
+            cacheProcessor.flushPartitionKeyPatches();
         }
         cacheProcessor.setLastSyncedEventId(filteredEvents.get(filteredEvents.size() - 1).getEventId());
+        cacheProcessor.updateSyncedEventId();
+    }
+
+    /**
+     * The cache is only patched by events when the ttl based refresh is disabled. If the events can't be synced
+     * for a long time, e.g. the hms is unreachable or the events have been cleaned up before being pulled,
+     * the whole cache of the catalog is dropped, so it's never staler than {@link Config#hms_events_max_staleness_sec}.
+     */
+    private void checkCacheFreshness(String catalogName) {
+        HiveCacheUpdateProcessor cacheProcessor = cacheUpdateProcessors.get(catalogName);
+        if (cacheProcessor == null || Config.hms_events_max_staleness_sec < 0 ||
+                !cacheProcessor.isCacheStale(Config.hms_events_max_staleness_sec * 1000L)) {
+            return;
+        }
+        LOG.warn("Hive metadata cache on catalog [{}] has not been synced with hms events for more than {}s, " +
+                "invalidate it", catalogName, Config.hms_events_max_staleness_sec);
+        try {
+            cacheProcessor.resetCache();
+        } catch (Exception e) {
+            LOG.error("Failed to reset hive metadata cache on catalog [{}]", catalogName, e);
+        }
     }
 
     @Override
@@ -232,6 +259,7 @@ public class MetastoreEventsProcessor extends FrontendDaemon {
                                 "in the range of event id from {} to {}.", catalogName,
                         events.get(0).getEventId(), events.get(events.size() - 1).getEventId(), ex);
             }
+            checkCacheFreshness(catalogName);
         }
     }
 
@@ -16,6 +16,7 @@ package com.starrocks.connector.hudi;
 
 import com.starrocks.connector.CachingRemoteFileConf;
 import com.starrocks.connector.CachingRemoteFileIO;
+import com.starrocks.connector.ConcurrencyBudget;
 import com.starrocks.connector.HdfsEnvironment;
 import com.starrocks.connector.MetastoreType;
 import com.starrocks.connector.RemoteFileIO;
@@ -74,7 +75,8 @@ public class HudiMetadataFactory {
                 pullRemoteFileExecutor,
                 isRecursive,
                 remoteFileIO instanceof CachingRemoteFileIO,
-                hdfsEnvironment.getConfiguration());
+                hdfsEnvironment.getConfiguration(),
+                ConcurrencyBudget.of(catalogName));
         HiveStatisticsProvider statisticsProvider = new HiveStatisticsProvider(hiveMetastoreOperations, remoteFileOperations);
         Optional<HiveCacheUpdateProcessor> cacheUpdateProcessor = getCacheUpdateProcessor();
 
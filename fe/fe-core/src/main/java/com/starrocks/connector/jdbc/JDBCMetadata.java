@@ -14,6 +14,10 @@
 
 package com.starrocks.connector.jdbc;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.starrocks.analysis.DateLiteral;
@@ -26,29 +30,49 @@ import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Type;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
+import com.starrocks.common.Pair;
 import com.starrocks.connector.ConnectorMetadata;
 import com.starrocks.connector.ConnectorTableId;
+import com.starrocks.connector.GetRemoteFilesParams;
 import com.starrocks.connector.PartitionInfo;
 import com.starrocks.connector.PartitionUtil;
+import com.starrocks.connector.RemoteFileDesc;
+import com.starrocks.connector.RemoteFileInfo;
 import com.starrocks.connector.TableVersionRange;
 import com.starrocks.connector.exception.StarRocksConnectorException;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.ast.StatementBase;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class JDBCMetadata implements ConnectorMetadata {
 
     private static Logger LOG = LogManager.getLogger(JDBCMetadata.class);
 
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final long MAX_CACHED_SPLIT_RANGES = 10000;
+
     private Map<String, String> properties;
     JDBCSchemaResolver schemaResolver;
     private String catalogName;
@@ -57,6 +81,8 @@ public class JDBCMetadata implements ConnectorMetadata {
     private JDBCMetaCache<JDBCTableName, Integer> tableIdCache;
     private JDBCMetaCache<JDBCTableName, Table> tableInstanceCache;
     private JDBCMetaCache<JDBCTableName, List<Partition>> partitionInfoCache;
+    // (table, jdbc_scan_split_column) -> range of the split column, to avoid querying the remote table on every planning
+    private Cache<Pair<JDBCTableName, String>, Optional<SplitRange>> splitRangeCache;
 
     private HikariDataSource dataSource;
 
@@ -122,6 +148,10 @@ public class JDBCMetadata implements ConnectorMetadata {
         tableIdCache = new JDBCMetaCache<>(properties, true);
         tableInstanceCache = new JDBCMetaCache<>(properties, false);
         partitionInfoCache = new JDBCMetaCache<>(properties, false);
+        splitRangeCache = Caffeine.newBuilder()
+                .expireAfterWrite(Config.jdbc_scan_split_range_cache_expire_sec, TimeUnit.SECONDS)
+                .maximumSize(MAX_CACHED_SPLIT_RANGES)
+                .build();
     }
 
     public void checkAndSetSupportPartitionInformation() {
@@ -289,6 +319,190 @@ public class JDBCMetadata implements ConnectorMetadata {
         return list.build();
     }
 
+    /**
+     * Split the scan of a JDBC table into ranges of the split column, so that the ranges can be read by
+     * different scanners in parallel. The result contains one {@link JDBCRemoteFileDesc}, whose split predicates
+     * are empty if the table can't be split.
+     */
+    @Override
+    public List<RemoteFileInfo> getRemoteFiles(Table table, GetRemoteFilesParams params) {
+        List<String> splitPredicates = ImmutableList.of();
+        ConnectContext context = ConnectContext.get();
+        if (context != null && context.getSessionVariable().getJdbcScanSplitNum() > 1) {
+            SessionVariable sessionVariable = context.getSessionVariable();
+            // explain doesn't read the table, don't query the remote table for the range of the split column
+            boolean explain = context.getExplainLevel() != null &&
+                    context.getExplainLevel() != StatementBase.ExplainLevel.ANALYZE;
+            splitPredicates = getSplitPredicates((JDBCTable) table, sessionVariable.getJdbcScanSplitNum(),
+                    sessionVariable.getJdbcScanSplitColumn(), explain);
+        }
+        RemoteFileInfo remoteFileInfo = new RemoteFileInfo();
+        List<RemoteFileDesc> remoteFileDescs = ImmutableList.of(
+                JDBCRemoteFileDesc.createJDBCRemoteFileDesc(splitPredicates));
+        remoteFileInfo.setFiles(remoteFileDescs);
+        return Lists.newArrayList(remoteFileInfo);
+    }
+
+    /**
+     * @param onlyCached only use the cached range of the split column instead of querying the remote table
+     */
+    @VisibleForTesting
+    List<String> getSplitPredicates(JDBCTable table, int splitNum, String splitColumnName, boolean onlyCached) {
+        Pair<JDBCTableName, String> key = Pair.create(
+                new JDBCTableName(null, table.getDbName(), table.getName()), Strings.nullToEmpty(splitColumnName));
+        Optional<SplitRange> range = onlyCached ? splitRangeCache.getIfPresent(key) :
+                splitRangeCache.get(key, k -> loadSplitRange(table, k.second));
+        if (range == null || range.isEmpty()) {
+            return ImmutableList.of();
+        }
+        return buildSplitPredicates(range.get(), splitNum);
+    }
+
+    /**
+     * @return the range of the split column, empty if the table can't be split, or null if the range is unknown
+     * because of an error, which is not cached.
+     */
+    private Optional<SplitRange> loadSplitRange(JDBCTable table, String splitColumnName) {
+        Column splitColumn = getSplitColumn(table, splitColumnName);
+        if (splitColumn == null) {
+            return Optional.empty();
+        }
+        String identifier = getIdentifierSymbol();
+        String columnName = identifier + splitColumn.getName() + identifier;
+        String sql = "SELECT MIN(" + columnName + "), MAX(" + columnName + ") FROM " +
+                getQualifiedTableName(table, identifier);
+        Type type = splitColumn.getType();
+        try (Connection connection = getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(Config.jdbc_scan_split_range_query_timeout_sec);
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                if (!resultSet.next()) {
+                    return Optional.empty();
+                }
+                if (type.isIntegerType()) {
+                    long min = resultSet.getLong(1);
+                    if (resultSet.wasNull()) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(new SplitRange(columnName, type, min, resultSet.getLong(2)));
+                }
+                Timestamp min = resultSet.getTimestamp(1);
+                Timestamp max = resultSet.getTimestamp(2);
+                if (min == null || max == null) {
+                    return Optional.empty();
+                }
+                if (type.isDate()) {
+                    return Optional.of(new SplitRange(columnName, type, min.toLocalDateTime().toLocalDate().toEpochDay(),
+                            max.toLocalDateTime().toLocalDate().toEpochDay()));
+                }
+                return Optional.of(new SplitRange(columnName, type, min.toLocalDateTime().toEpochSecond(ZoneOffset.UTC),
+                        max.toLocalDateTime().toEpochSecond(ZoneOffset.UTC)));
+            }
+        } catch (SQLException e) {
+            LOG.warn("Failed to get range of split column {} of table {}.{}, scan it without splitting",
+                    splitColumn.getName(), table.getDbName(), table.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Use the user specified column if it exists, otherwise the first column of the primary key.
+     * Only integer, date and datetime columns can be used to split.
+     */
+    private Column getSplitColumn(JDBCTable table, String splitColumnName) {
+        Column column = null;
+        if (!Strings.isNullOrEmpty(splitColumnName)) {
+            column = table.getColumn(splitColumnName);
+        }
+        if (column == null) {
+            try (Connection connection = getConnection();
+                    ResultSet resultSet = schemaResolver.getPrimaryKeys(connection, table.getDbName(),
+                            table.getName())) {
+                while (resultSet.next()) {
+                    if (resultSet.getInt("KEY_SEQ") == 1) {
+                        column = table.getColumn(resultSet.getString("COLUMN_NAME"));
+                        break;
+                    }
+                }
+            } catch (SQLException e) {
+                LOG.warn("Failed to get primary key of table {}.{}", table.getDbName(), table.getName(), e);
+            }
+        }
+        if (column == null || !(column.getType().isIntegerType() || column.getType().isDateType())) {
+            return null;
+        }
+        return column;
+    }
+
+    private String getQualifiedTableName(JDBCTable table, String identifier) {
+        // jdbc table name has been qualified by the schema resolvers which quote identifiers by double quotes
+        if (table.getProperty(JDBCTable.JDBC_TABLENAME) != null) {
+            return table.getJdbcTable();
+        }
+        return identifier + table.getDbName() + identifier + "." + identifier + table.getJdbcTable() + identifier;
+    }
+
+    private String getIdentifierSymbol() {
+        // keep the same with JDBCScanNode
+        return properties.get(JDBCResource.URI).startsWith("jdbc:mysql") ? "`" : "";
+    }
+
+    private boolean isOracle() {
+        return properties.get(JDBCResource.DRIVER_CLASS).toLowerCase().contains("oracle");
+    }
+
+    private List<String> buildSplitPredicates(SplitRange range, int splitNum) {
+        List<String> boundaries = Lists.newArrayList();
+        for (long boundary : getSplitBoundaries(range.min, range.max, splitNum)) {
+            if (range.type.isIntegerType()) {
+                boundaries.add(String.valueOf(boundary));
+            } else if (range.type.isDate()) {
+                String literal = "'" + DATE_FORMATTER.format(LocalDate.ofEpochDay(boundary)) + "'";
+                boundaries.add(isOracle() ? "DATE " + literal : literal);
+            } else {
+                LocalDateTime datetime = LocalDateTime.ofEpochSecond(boundary, 0, ZoneOffset.UTC);
+                String literal = "'" + DATETIME_FORMATTER.format(datetime) + "'";
+                boundaries.add(isOracle() ? "TIMESTAMP " + literal : literal);
+            }
+        }
+        return buildSplitPredicates(range.columnName, boundaries);
+    }
+
+    /**
+     * @return the inner boundaries which split [min, max] into at most splitNum ranges of the same length.
+     */
+    @VisibleForTesting
+    static List<Long> getSplitBoundaries(long min, long max, int splitNum) {
+        List<Long> boundaries = Lists.newArrayList();
+        if (max <= min) {
+            return boundaries;
+        }
+        BigInteger lower = BigInteger.valueOf(min);
+        BigInteger length = BigInteger.valueOf(max).subtract(lower).add(BigInteger.ONE);
+        int num = length.min(BigInteger.valueOf(splitNum)).intValue();
+        for (int i = 1; i < num; i++) {
+            boundaries.add(lower.add(length.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(num)))
+                    .longValue());
+        }
+        return boundaries;
+    }
+
+    @VisibleForTesting
+    static List<String> buildSplitPredicates(String columnName, List<String> boundaries) {
+        if (boundaries.isEmpty()) {
+            return ImmutableList.of();
+        }
+        List<String> predicates = Lists.newArrayList();
+        // rows with null split column are read by the first range
+        predicates.add(columnName + " < " + boundaries.get(0) + " OR " + columnName + " IS NULL");
+        for (int i = 1; i < boundaries.size(); i++) {
+            predicates.add(columnName + " >= " + boundaries.get(i - 1) + " AND " + columnName + " < " +
+                    boundaries.get(i));
+        }
+        predicates.add(columnName + " >= " + boundaries.get(boundaries.size() - 1));
+        return predicates;
+    }
+
     @Override
     public void refreshTable(String srDbName, Table table, List<String> partitionNames, boolean onlyCachedPartitions) {
         JDBCTable jdbcTable = (JDBCTable) table;
@@ -298,9 +512,27 @@ public class JDBCMetadata implements ConnectorMetadata {
         }
         partitionNamesCache.invalidate(jdbcTableName);
         partitionInfoCache.invalidate(jdbcTableName);
+        splitRangeCache.asMap().keySet().removeIf(key -> key.first.equals(jdbcTableName));
     }
 
     public void refreshCache(Map<String, String> properties) {
         createMetaAsyncCacheInstances(properties);
     }
+
+    /**
+     * Range of the split column, the values of date and datetime columns are epoch days and epoch seconds.
+     */
+    private static class SplitRange {
+        private final String columnName;
+        private final Type type;
+        private final long min;
+        private final long max;
+
+        SplitRange(String columnName, Type type, long min, long max) {
+            this.columnName = columnName;
+            this.type = type;
+            this.min = min;
+            this.max = max;
+        }
+    }
 }
@@ -0,0 +1,53 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.connector.jdbc;
+
+import com.starrocks.connector.RemoteFileDesc;
+
+import java.util.List;
+
+public class JDBCRemoteFileDesc extends RemoteFileDesc {
+    // each predicate selects one range of the split column, empty if the table is not split
+    private final List<String> splitPredicates;
+
+    private JDBCRemoteFileDesc(List<String> splitPredicates) {
+        super(null, null, 0, 0, null);
+        this.splitPredicates = splitPredicates;
+    }
+
+    public static JDBCRemoteFileDesc createJDBCRemoteFileDesc(List<String> splitPredicates) {
+        return new JDBCRemoteFileDesc(splitPredicates);
+    }
+
+    public List<String> getSplitPredicates() {
+        return splitPredicates;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RemoteFileDesc{");
+        sb.append("fileName='").append(fileName).append('\'');
+        sb.append("fullPath='").append(fullPath).append('\'');
+        sb.append(", compression='").append(compression).append('\'');
+        sb.append(", length=").append(length);
+        sb.append(", modificationTime=").append(modificationTime);
+        sb.append(", blockDescs=").append(blockDescs);
+        sb.append(", splittable=").append(splittable);
+        sb.append(", textFileFormatDesc=").append(textFileFormatDesc);
+        sb.append(", splitPredicates=").append(splitPredicates);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -125,8 +125,14 @@ public abstract class BaseAction implements IAction {
         // HttpResponseStatus.CONTINUE));
         // }
 
-        FullHttpResponse responseObj = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
+        writeResponse(request, response, status,
                 Unpooled.wrappedBuffer(response.getContent().toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Write the content buffer as the response body, instead of the content of the response
+    protected void writeResponse(BaseRequest request, BaseResponse response, HttpResponseStatus status,
+                                 ByteBuf content) {
+        FullHttpResponse responseObj = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, content);
         Preconditions.checkNotNull(responseObj);
         HttpMethod method = request.getRequest().method();
 
@@ -49,6 +49,15 @@ public class HttpMetricRegistry {
     /** A histogram metric. The latency in milliseconds to handle http requests by {@link BaseAction#handleRequest}. */
     public static final String HTTP_REQUEST_HANDLE_LATENCY_MS = "http_request_handle_latency_ms";
 
+    /** A counter metric. The number of http requests that are dispatched to an async thread pool and not finished. */
+    public static final String HTTP_ASYNC_HANDLING_REQUESTS_NUM = "http_async_handling_requests_num";
+
+    /** A histogram metric. The latency in milliseconds an async http request waits in the thread pool queue. */
+    public static final String HTTP_ASYNC_REQUEST_PENDING_LATENCY_MS = "http_async_request_pending_latency_ms";
+
+    /** A histogram metric. The latency in milliseconds to execute an async http request in the thread pool. */
+    public static final String HTTP_ASYNC_REQUEST_EXECUTE_LATENCY_MS = "http_async_request_execute_latency_ms";
+
     // ================= Transaction Stream Load Metrics =================
 
     /** A counter metric. The number of begin operations that are being handled. */
@@ -18,6 +18,9 @@ import com.codahale.metrics.Histogram;
 import com.starrocks.metric.LongCounterMetric;
 import com.starrocks.metric.Metric;
 
+import static com.starrocks.http.HttpMetricRegistry.HTTP_ASYNC_HANDLING_REQUESTS_NUM;
+import static com.starrocks.http.HttpMetricRegistry.HTTP_ASYNC_REQUEST_EXECUTE_LATENCY_MS;
+import static com.starrocks.http.HttpMetricRegistry.HTTP_ASYNC_REQUEST_PENDING_LATENCY_MS;
 import static com.starrocks.http.HttpMetricRegistry.HTTP_CONNECTIONS_NUM;
 import static com.starrocks.http.HttpMetricRegistry.HTTP_HANDLING_REQUESTS_NUM;
 import static com.starrocks.http.HttpMetricRegistry.HTTP_REQUEST_HANDLE_LATENCY_MS;
@@ -31,6 +34,11 @@ public class HttpServerHandlerMetrics {
     public final LongCounterMetric httpConnectionsNum;
     public final LongCounterMetric handlingRequestsNum;
     public final Histogram requestHandleLatencyMs;
+    // Requests handed off to a thread pool by the action finish after handleRequest() returns, the phases below
+    // are tracked separately, see TransactionLoadAction
+    public final LongCounterMetric asyncHandlingRequestsNum;
+    public final Histogram asyncRequestPendingLatencyMs;
+    public final Histogram asyncRequestExecuteLatencyMs;
 
     private HttpServerHandlerMetrics() {
         HttpMetricRegistry httpMetricRegistry = HttpMetricRegistry.getInstance();
@@ -41,6 +49,11 @@ public class HttpServerHandlerMetrics {
                 "the number of http requests that is being handled");
         httpMetricRegistry.registerCounter(handlingRequestsNum);
         this.requestHandleLatencyMs = httpMetricRegistry.registerHistogram(HTTP_REQUEST_HANDLE_LATENCY_MS);
+        this.asyncHandlingRequestsNum = new LongCounterMetric(HTTP_ASYNC_HANDLING_REQUESTS_NUM, Metric.MetricUnit.NOUNIT,
+                "the number of http requests that are dispatched to a thread pool and not finished");
+        httpMetricRegistry.registerCounter(asyncHandlingRequestsNum);
+        this.asyncRequestPendingLatencyMs = httpMetricRegistry.registerHistogram(HTTP_ASYNC_REQUEST_PENDING_LATENCY_MS);
+        this.asyncRequestExecuteLatencyMs = httpMetricRegistry.registerHistogram(HTTP_ASYNC_REQUEST_EXECUTE_LATENCY_MS);
     }
 
     public static HttpServerHandlerMetrics getInstance() {
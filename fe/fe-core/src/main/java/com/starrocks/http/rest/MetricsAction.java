@@ -44,11 +44,11 @@ import com.starrocks.http.IllegalArgException;
 import com.starrocks.metric.JsonMetricVisitor;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.metric.MetricVisitor;
-import com.starrocks.metric.PrometheusMetricVisitor;
 import com.starrocks.metric.SimpleCoreMetricVisitor;
 import com.starrocks.privilege.AccessDeniedException;
 import com.starrocks.sql.ast.UserIdentity;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -108,6 +108,12 @@ public class MetricsAction extends RestBaseAction {
         public boolean isMinifyMVMetrics() {
             return minifyMVMetrics;
         }
+
+        @Override
+        public String toString() {
+            return "collectTableMetrics=" + collectTableMetrics + ", minifyTableMetrics=" + minifyTableMetrics
+                    + ", collectMVMetrics=" + collectMVMetrics + ", minifyMVMetrics=" + minifyMVMetrics;
+        }
     }
 
     public static void registerAction(ActionController controller) throws IllegalArgException {
@@ -123,14 +129,18 @@ public class MetricsAction extends RestBaseAction {
             visitor = new SimpleCoreMetricVisitor("starrocks_fe");
         } else if (!Strings.isNullOrEmpty(type) && type.equalsIgnoreCase("json")) {
             visitor = new JsonMetricVisitor("starrocks_fe");
-        } else {
-            visitor = new PrometheusMetricVisitor("starrocks_fe");
         }
 
         // parse request params
         RequestParams requestParams = parseRequestParams(request);
 
         response.setContentType("text/plain");
+        if (visitor == null) {
+            // prometheus output is written into a buffer shared by concurrent scrapes, and sent as it is
+            writeResponse(request, response, HttpResponseStatus.OK,
+                    MetricRepo.getPrometheusMetric("starrocks_fe", requestParams));
+            return;
+        }
         response.getContent().append(MetricRepo.getMetric(visitor, requestParams));
         sendResult(request, response);
     }
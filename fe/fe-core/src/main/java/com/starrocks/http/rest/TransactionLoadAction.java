@@ -38,15 +38,19 @@ import com.codahale.metrics.Histogram;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.starrocks.catalog.Database;
+import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.LabelAlreadyUsedException;
 import com.starrocks.common.StarRocksHttpException;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.http.ActionController;
 import com.starrocks.http.BaseRequest;
 import com.starrocks.http.BaseResponse;
+import com.starrocks.http.HttpConnectContext;
 import com.starrocks.http.HttpMetricRegistry;
+import com.starrocks.http.HttpServerHandlerMetrics;
 import com.starrocks.http.IllegalArgException;
 import com.starrocks.http.rest.transaction.BypassWriteTransactionHandler;
 import com.starrocks.http.rest.transaction.TransactionOperation;
@@ -59,6 +63,7 @@ import com.starrocks.http.rest.transaction.TransactionWithChannelHandler;
 import com.starrocks.http.rest.transaction.TransactionWithoutChannelHandler;
 import com.starrocks.metric.LongCounterMetric;
 import com.starrocks.metric.Metric;
+import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.WarehouseManager;
 import com.starrocks.system.ComputeNode;
@@ -75,6 +80,9 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
@@ -175,8 +183,77 @@ public class TransactionLoadAction extends RestBaseAction {
 
     @Override
     public void executeWithoutPassword(BaseRequest request, BaseResponse response) throws DdlException {
-        OpMetrics opMetrics = null;
         long startTime = System.currentTimeMillis();
+        if (Config.enable_http_async_transaction_load) {
+            executeAsync(request, response, startTime);
+        } else {
+            handleTransaction(request, response, startTime, null);
+        }
+    }
+
+    /**
+     * Hand the request off to {@link AsyncExecutorHolder#EXECUTOR}, so that the http worker thread can serve other
+     * requests while the transaction operation is waiting for locks, edit log or publish.
+     */
+    private void executeAsync(BaseRequest request, BaseResponse response, long startTime) {
+        TransactionOperationParams txnOperationParams;
+        try {
+            // Build the params before submitting to executor pool,
+            // because the request body will be released after handleAction.
+            txnOperationParams = toTxnOperationParams(request);
+        } catch (Exception e) {
+            // invalid request, let handleTransaction reply the error in current thread
+            handleTransaction(request, response, startTime, null);
+            return;
+        }
+
+        HttpServerHandlerMetrics metrics = HttpServerHandlerMetrics.getInstance();
+        HttpConnectContext context = request.getConnectContext();
+        metrics.asyncHandlingRequestsNum.increase(1L);
+        CompletableFuture<Void> future;
+        try {
+            future = CompletableFuture.runAsync(() -> {
+                long executeStartTime = System.currentTimeMillis();
+                metrics.asyncRequestPendingLatencyMs.update(executeStartTime - startTime);
+                // store context in current thread, privilege checks rely on this thread local variable
+                context.setThreadLocalInfo();
+                try {
+                    handleTransaction(request, response, startTime, txnOperationParams);
+                } finally {
+                    ConnectContext.remove();
+                    metrics.asyncRequestExecuteLatencyMs.update(System.currentTimeMillis() - executeStartTime);
+                }
+            }, AsyncExecutorHolder.EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            metrics.asyncHandlingRequestsNum.increase(-1L);
+            LOG.warn("Too many pending transaction requests, reject request: {}", request.getRequest().uri());
+            TransactionResult resp = new TransactionResult();
+            resp.status = ActionStatus.FAILED;
+            resp.msg = "Too many pending transaction requests, please retry later";
+            sendResult(request, response, resp);
+            return;
+        }
+        future.whenComplete((r, e) -> {
+            metrics.asyncHandlingRequestsNum.increase(-1L);
+            if (e != null) {
+                LOG.warn("Failed to handle transaction request: {}", request.getRequest().uri(), e);
+                TransactionResult resp = new TransactionResult();
+                resp.status = ActionStatus.FAILED;
+                resp.msg = e.getClass() + ": " + e.getMessage();
+                sendResult(request, response, resp);
+            }
+            // HttpServerHandler.channelReadComplete has flushed the channel before the response is written,
+            // so we have to flush explicitly
+            request.getContext().flush();
+        });
+    }
+
+    /**
+     * @param txnOperationParams the params resolved from the request in advance, or null to resolve them here.
+     */
+    private void handleTransaction(BaseRequest request, BaseResponse response, long startTime,
+                                   TransactionOperationParams txnOperationParams) {
+        OpMetrics opMetrics = null;
         try {
             if (redirectToLeader(request, response)) {
                 return;
@@ -188,7 +265,8 @@ public class TransactionLoadAction extends RestBaseAction {
             if (opMetrics != null) {
                 opMetrics.opRunningNum.increase(1L);
             }
-            executeTransaction(request, response);
+            executeTransaction(request, response,
+                    txnOperationParams != null ? txnOperationParams : toTxnOperationParams(request));
         } catch (Exception e) {
             TransactionResult resp = new TransactionResult();
             if (e instanceof LabelAlreadyUsedException) {
@@ -209,8 +287,8 @@ public class TransactionLoadAction extends RestBaseAction {
         }
     }
 
-    protected void executeTransaction(BaseRequest request, BaseResponse response) throws UserException {
-        TransactionOperationParams txnOperationParams = toTxnOperationParams(request);
+    protected void executeTransaction(BaseRequest request, BaseResponse response,
+                                      TransactionOperationParams txnOperationParams) throws UserException {
         TransactionOperation txnOperation = txnOperationParams.getTxnOperation();
         String label = txnOperationParams.getLabel();
 
@@ -288,7 +366,8 @@ public class TransactionLoadAction extends RestBaseAction {
             // txnNodeMap is LRU cache, it atomic remove unused entry
             accessTxnNodeMapWithWriteLock(txnNodeMap -> txnNodeMap.put(label, chosenNodeId));
         } else {
-            nodeId = accessTxnNodeMapWithReadLock(txnNodeMap -> txnNodeMap.get(label));
+            // txnNodeMap is access ordered, get() modifies the map
+            nodeId = accessTxnNodeMapWithWriteLock(txnNodeMap -> txnNodeMap.get(label));
         }
 
         if (nodeId == null) {
@@ -421,6 +500,12 @@ public class TransactionLoadAction extends RestBaseAction {
 
     /* helper classes */
 
+    private static class AsyncExecutorHolder {
+        private static final ExecutorService EXECUTOR = ThreadPoolManager.newDaemonFixedThreadPool(
+                Config.http_async_transaction_load_threads_num, Config.http_async_transaction_load_queue_size,
+                "starrocks-http-txn-load-pool", true);
+    }
+
     private static class OpMetrics {
         LongCounterMetric opRunningNum;
         Histogram opLatencyMs;
@@ -0,0 +1,104 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.lake.compaction;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Limit the number of running compaction tablets of each node in an AIMD way. Every time a compaction job finishes,
+// the average duration per tablet on each node it ran on is compared with the smoothed history of that node:
+// the limit of the node is increased by one if the latency is not worse than expected, or decreased by a quarter if
+// the latency is much worse, which usually means the node is saturated by compaction.
+// Not thread safe, should only be used by the compaction scheduler thread.
+public class AdaptiveNodeTaskLimiter {
+    private static final Logger LOG = LogManager.getLogger(AdaptiveNodeTaskLimiter.class);
+    // the limit a node starts from, capped by lake_compaction_adaptive_node_max_tasks
+    static final int INITIAL_NODE_TASK_LIMIT = 16;
+    private static final int MIN_NODE_TASK_LIMIT = 1;
+    private static final double LATENCY_TOLERANCE = 0.5;
+    private static final double LATENCY_SMOOTHING_FACTOR = 0.3;
+
+    private final Map<Long, NodeState> nodeStates = new HashMap<>();
+
+    private static class NodeState {
+        private int taskLimit = initialTaskLimit();
+        // smoothed compaction duration per tablet, 0 means unknown
+        private double avgTabletLatencyMs = 0;
+    }
+
+    public void onJobFinished(CompactionJob job) {
+        long durationMs = job.getFinishTs() - job.getStartTs();
+        if (durationMs <= 0) {
+            return;
+        }
+        for (Map.Entry<Long, Integer> entry : job.getTabletCountByNode().entrySet()) {
+            if (entry.getValue() > 0) {
+                update(entry.getKey(), (double) durationMs / entry.getValue());
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void update(long nodeId, double tabletLatencyMs) {
+        NodeState state = nodeStates.computeIfAbsent(nodeId, k -> new NodeState());
+        int maxLimit = maxTaskLimit();
+        // the config may have been lowered since the last update
+        state.taskLimit = Math.min(maxLimit, state.taskLimit);
+        int oldLimit = state.taskLimit;
+        if (state.avgTabletLatencyMs > 0 && tabletLatencyMs > state.avgTabletLatencyMs * (1 + LATENCY_TOLERANCE)) {
+            state.taskLimit = Math.max(MIN_NODE_TASK_LIMIT, state.taskLimit - Math.max(1, state.taskLimit / 4));
+        } else {
+            state.taskLimit = Math.min(maxLimit, state.taskLimit + 1);
+        }
+        state.avgTabletLatencyMs = state.avgTabletLatencyMs == 0 ? tabletLatencyMs :
+                LATENCY_SMOOTHING_FACTOR * tabletLatencyMs + (1 - LATENCY_SMOOTHING_FACTOR) * state.avgTabletLatencyMs;
+        if (oldLimit != state.taskLimit && LOG.isDebugEnabled()) {
+            LOG.debug("Adjusted compaction task limit of node {} from {} to {}, tablet latency {}ms, average {}ms",
+                    nodeId, oldLimit, state.taskLimit, tabletLatencyMs, state.avgTabletLatencyMs);
+        }
+    }
+
+    public int getTaskLimit(long nodeId) {
+        NodeState state = nodeStates.get(nodeId);
+        return state == null ? initialTaskLimit() : Math.min(maxTaskLimit(), state.taskLimit);
+    }
+
+    private static int maxTaskLimit() {
+        return Math.max(Config.lake_compaction_adaptive_node_max_tasks, MIN_NODE_TASK_LIMIT);
+    }
+
+    private static int initialTaskLimit() {
+        return Math.min(INITIAL_NODE_TASK_LIMIT, maxTaskLimit());
+    }
+
+    // A node which is not running any compaction always accepts a new job, otherwise a partition having more tablets
+    // on a node than the limit of the node could never be compacted.
+    public boolean canSchedule(Map<Long, List<Long>> beToTablets, Map<Long, Integer> runningTabletsByNode) {
+        for (Map.Entry<Long, List<Long>> entry : beToTablets.entrySet()) {
+            int running = runningTabletsByNode.getOrDefault(entry.getKey(), 0);
+            if (running > 0 && running + entry.getValue().size() > getTaskLimit(entry.getKey())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
@@ -126,6 +127,18 @@ public class CompactionJob {
         return tasks.stream().filter(Predicate.not(CompactionTask::isDone)).mapToInt(CompactionTask::tabletCount).sum();
     }
 
+    // number of tablets not finished compaction yet on each node
+    public Map<Long, Integer> getNumTabletCompactionTasksByNode() {
+        return tasks.stream().filter(Predicate.not(CompactionTask::isDone)).collect(
+                Collectors.groupingBy(CompactionTask::getNodeId, Collectors.summingInt(CompactionTask::tabletCount)));
+    }
+
+    // number of tablets of this job on each node, including the finished ones
+    public Map<Long, Integer> getTabletCountByNode() {
+        return tasks.stream().collect(
+                Collectors.groupingBy(CompactionTask::getNodeId, Collectors.summingInt(CompactionTask::tabletCount)));
+    }
+
     public long getStartTs() {
         return startTs;
     }
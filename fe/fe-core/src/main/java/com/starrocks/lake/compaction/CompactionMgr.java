@@ -99,6 +99,7 @@ public class CompactionMgr implements MemoryTrackable {
             }
             v.setCurrentVersion(currentVersion);
             v.setCompactionScore(compactionScore);
+            v.recordLoad(System.currentTimeMillis());
             return v;
         });
         if (LOG.isDebugEnabled()) {
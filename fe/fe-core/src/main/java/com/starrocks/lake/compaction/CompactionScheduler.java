@@ -83,6 +83,7 @@ public class CompactionScheduler extends Daemon {
     private long waitTxnId = -1;
     private long lastPartitionCleanTime;
     private Set<Long> disabledTables; // copy-on-write
+    private final AdaptiveNodeTaskLimiter nodeTaskLimiter = new AdaptiveNodeTaskLimiter();
 
     CompactionScheduler(@NotNull CompactionMgr compactionManager, @NotNull SystemInfoService systemInfoService,
                         @NotNull GlobalTransactionMgr transactionMgr, @NotNull GlobalStateMgr stateMgr,
@@ -186,6 +187,10 @@ public class CompactionScheduler extends Daemon {
                 job.finish();
                 history.offer(CompactionRecord.build(job));
                 long cost = job.getFinishTs() - job.getStartTs();
+                if (statistics != null) {
+                    statistics.updateCompactionCost(cost);
+                }
+                nodeTaskLimiter.onJobFinished(job);
                 if (cost >= /*60 minutes=*/3600000) {
                     LOG.info("Removed published compaction. {} cost={}s running={}", job.getDebugString(),
                             cost / 1000, runningCompactions.size());
@@ -206,15 +211,27 @@ public class CompactionScheduler extends Daemon {
             return;
         }
 
+        // null means no per node limit
+        Map<Long, Integer> runningTabletsByNode = null;
+        if (Config.lake_compaction_enable_adaptive_node_concurrency) {
+            runningTabletsByNode = new HashMap<>();
+            for (CompactionJob job : runningCompactions.values()) {
+                addRunningTablets(runningTabletsByNode, job);
+            }
+        }
+
         List<PartitionIdentifier> partitions = compactionManager.choosePartitionsToCompact(runningCompactions.keySet(),
                 disabledTables);
         while (numRunningTasks < compactionLimit && index < partitions.size()) {
             PartitionIdentifier partition = partitions.get(index++);
-            CompactionJob job = startCompaction(partition);
+            CompactionJob job = startCompaction(partition, runningTabletsByNode);
             if (job == null) {
                 continue;
             }
             numRunningTasks += job.getNumTabletCompactionTasks();
+            if (runningTabletsByNode != null) {
+                addRunningTablets(runningTabletsByNode, job);
+            }
             runningCompactions.put(partition, job);
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Created new compaction job. partition={} txnId={}", partition, job.getTxnId());
@@ -222,6 +239,12 @@ public class CompactionScheduler extends Daemon {
         }
     }
 
+    private static void addRunningTablets(Map<Long, Integer> runningTabletsByNode, CompactionJob job) {
+        for (Map.Entry<Long, Integer> entry : job.getNumTabletCompactionTasksByNode().entrySet()) {
+            runningTabletsByNode.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+    }
+
     private void abortTransactionIgnoreException(CompactionJob job, String reason) {
         try {
             List<TabletCommitInfo> finishedTablets = job.buildTabletCommitInfo();
@@ -255,7 +278,8 @@ public class CompactionScheduler extends Daemon {
         }
     }
 
-    private CompactionJob startCompaction(PartitionIdentifier partitionIdentifier) {
+    private CompactionJob startCompaction(PartitionIdentifier partitionIdentifier,
+                                          Map<Long, Integer> runningTabletsByNode) {
         Database db = stateMgr.getLocalMetastore().getDb(partitionIdentifier.getDbId());
         if (db == null) {
             compactionManager.removePartition(partitionIdentifier);
@@ -294,6 +318,10 @@ public class CompactionScheduler extends Daemon {
                 compactionManager.enableCompactionAfter(partitionIdentifier, MIN_COMPACTION_INTERVAL_MS_ON_FAILURE);
                 return null;
             }
+            // The nodes are busy, try again in the next round without delay.
+            if (runningTabletsByNode != null && !nodeTaskLimiter.canSchedule(beToTablets, runningTabletsByNode)) {
+                return null;
+            }
 
             // Note: call `beginTransaction()` in the scope of database reader lock to make sure no shadow index will
             // be added to this table(i.e., no schema change) before calling `beginTransaction()`.
@@ -0,0 +1,140 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.lake.compaction;
+
+import com.starrocks.common.Config;
+import com.starrocks.metric.TableMetricsEntity;
+import com.starrocks.metric.TableMetricsRegistry;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import javax.validation.constraints.NotNull;
+
+// Sort partitions by the expected benefit per unit of compaction cost, that is
+//   (read frequency * score improvement) / estimated cost
+// where
+//   - read frequency is the smoothed number of finished scans of the table per minute, i.e. the growth of the
+//     cumulative scan counter of the table metrics between two sorts divided by the elapsed time,
+//   - score improvement is how much the compaction score can be lowered, i.e. max score - 1,
+//   - estimated cost is the smoothed duration of the previous compactions of the partition; partitions which have
+//     not been compacted yet use the median cost of the other partitions.
+// Manual compactions come first, followed by the hot partitions whose ingest rate reaches
+// `lake_compaction_hot_partition_loads_per_minute`, so that a burst of loads will not be starved by cheaper partitions.
+public class CostSorter implements Sorter {
+    private static final double READ_RATE_SMOOTHING_FACTOR = 0.3;
+    // the scan counter is sampled at most once per interval, so that the rate is not computed from a tiny delta
+    private static final long READ_RATE_SAMPLE_INTERVAL_MS = 10 * 1000L;
+    // forget the tables which have not been sorted for a long time, e.g. dropped tables
+    private static final long READ_RATE_EXPIRE_MS = 60 * 60 * 1000L;
+
+    private final LongSupplier clock;
+    // table id -> read rate, only accessed by the compaction scheduler
+    private final Map<Long, ReadRate> tableReadRates = new HashMap<>();
+
+    private static class ReadRate {
+        private long sampleCount;
+        private long sampleTimeMs;
+        private long lastSortTimeMs;
+        private double readsPerMinute = 0;
+
+        ReadRate(long count, long nowMs) {
+            this.sampleCount = count;
+            this.sampleTimeMs = nowMs;
+            this.lastSortTimeMs = nowMs;
+        }
+
+        double update(long count, long nowMs) {
+            lastSortTimeMs = nowMs;
+            if (count < sampleCount) {
+                // the metrics of the table have been recreated
+                sampleCount = count;
+                sampleTimeMs = nowMs;
+            } else if (nowMs - sampleTimeMs >= READ_RATE_SAMPLE_INTERVAL_MS) {
+                double rate = (count - sampleCount) * 60000.0 / (nowMs - sampleTimeMs);
+                readsPerMinute = READ_RATE_SMOOTHING_FACTOR * rate + (1 - READ_RATE_SMOOTHING_FACTOR) * readsPerMinute;
+                sampleCount = count;
+                sampleTimeMs = nowMs;
+            }
+            return readsPerMinute;
+        }
+    }
+
+    public CostSorter() {
+        this(System::currentTimeMillis);
+    }
+
+    CostSorter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    @NotNull
+    public List<PartitionStatisticsSnapshot> sort(@NotNull List<PartitionStatisticsSnapshot> partitionStatistics) {
+        List<PartitionStatisticsSnapshot> candidates = partitionStatistics.stream()
+                .filter(p -> p.getCompactionScore() != null)
+                .collect(Collectors.toList());
+        long defaultCostMs = medianCompactionCostMs(candidates);
+        long nowMs = clock.getAsLong();
+        tableReadRates.values().removeIf(r -> nowMs - r.lastSortTimeMs > READ_RATE_EXPIRE_MS);
+        Map<Long, Double> tableReads = new HashMap<>();
+        Map<PartitionStatisticsSnapshot, Double> ranks = new HashMap<>();
+        for (PartitionStatisticsSnapshot stats : candidates) {
+            double reads = tableReads.computeIfAbsent(stats.getPartition().getTableId(),
+                    tableId -> getTableReadsPerMinute(tableId, nowMs));
+            ranks.put(stats, rank(stats, reads, defaultCostMs));
+        }
+        int hotThreshold = Config.lake_compaction_hot_partition_loads_per_minute;
+        return candidates.stream()
+                .sorted(Comparator.comparingInt((PartitionStatisticsSnapshot stats) -> stats.getPriority().getValue())
+                        .thenComparing(stats -> hotThreshold > 0 && stats.getIngestLoadsPerMinute() >= hotThreshold)
+                        .thenComparing(ranks::get)
+                        .thenComparing(PartitionStatisticsSnapshot::getCompactionScore)
+                        .reversed())
+                .collect(Collectors.toList());
+    }
+
+    static double rank(PartitionStatisticsSnapshot stats, double readsPerMinute, long defaultCostMs) {
+        double improvement = Math.max(0, stats.getCompactionScore().getMax() - 1);
+        long costMs = stats.getAvgCompactionCostMs() > 0 ? stats.getAvgCompactionCostMs() : defaultCostMs;
+        // tables never read still benefit from compaction, just less than the ones being read
+        return (readsPerMinute + 1) * improvement / Math.max(costMs, 1);
+    }
+
+    private static long medianCompactionCostMs(List<PartitionStatisticsSnapshot> partitionStatistics) {
+        List<Long> costs = partitionStatistics.stream()
+                .map(PartitionStatisticsSnapshot::getAvgCompactionCostMs)
+                .filter(cost -> cost > 0)
+                .sorted()
+                .collect(Collectors.toList());
+        return costs.isEmpty() ? 1 : costs.get(costs.size() / 2);
+    }
+
+    private double getTableReadsPerMinute(long tableId, long nowMs) {
+        TableMetricsEntity entity = TableMetricsRegistry.getInstance().getMetricsEntityIfPresent(tableId);
+        long count = entity == null ? 0 : entity.counterScanFinishedTotal.getValue();
+        ReadRate readRate = tableReadRates.get(tableId);
+        if (readRate == null) {
+            // the first sample only sets the baseline, the rate is unknown until the next one
+            tableReadRates.put(tableId, new ReadRate(count, nowMs));
+            return 0;
+        }
+        return readRate.update(count, nowMs);
+    }
+}
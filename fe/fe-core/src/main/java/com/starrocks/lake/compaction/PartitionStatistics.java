@@ -36,6 +36,15 @@ public class PartitionStatistics {
     private volatile CompactionPriority priority = CompactionPriority.DEFAULT;
     // not persist on purpose, used to control the interval of continuous partial success compaction
     private int punishFactor = 1;
+    // not persist on purpose, smoothed duration of the successful compactions, 0 means unknown
+    private volatile long avgCompactionCostMs = 0;
+    // not persist on purpose, number of loads finished in the current and the previous ingest window
+    private long ingestWindowStartTime = 0;
+    private volatile int ingestWindowLoads = 0;
+    private volatile int lastIngestWindowLoads = 0;
+
+    private static final long INGEST_WINDOW_MS = 60 * 1000L;
+    private static final double COMPACTION_COST_SMOOTHING_FACTOR = 0.3;
 
     public enum CompactionPriority {
         DEFAULT(0),
@@ -114,6 +123,39 @@ public class PartitionStatistics {
         }
     }
 
+    public long getAvgCompactionCostMs() {
+        return avgCompactionCostMs;
+    }
+
+    // should only called by compaction scheduler when a compaction job has finished successfully
+    public void updateCompactionCost(long costMs) {
+        if (costMs <= 0) {
+            return;
+        }
+        if (avgCompactionCostMs == 0) {
+            avgCompactionCostMs = costMs;
+        } else {
+            avgCompactionCostMs = Math.round(COMPACTION_COST_SMOOTHING_FACTOR * costMs +
+                    (1 - COMPACTION_COST_SMOOTHING_FACTOR) * avgCompactionCostMs);
+        }
+    }
+
+    // should only called by loading
+    public void recordLoad(long nowMs) {
+        if (nowMs - ingestWindowStartTime >= INGEST_WINDOW_MS) {
+            // the previous window is only meaningful if it is adjacent to the new one
+            lastIngestWindowLoads = (nowMs - ingestWindowStartTime < 2 * INGEST_WINDOW_MS) ? ingestWindowLoads : 0;
+            ingestWindowStartTime = nowMs;
+            ingestWindowLoads = 0;
+        }
+        ingestWindowLoads++;
+    }
+
+    // number of loads finished in about the last minute
+    public int getIngestLoadsPerMinute() {
+        return Math.max(ingestWindowLoads, lastIngestWindowLoads);
+    }
+
     public void setCompactionScore(@Nullable Quantiles compactionScore) {
         this.compactionScore = compactionScore;
     }
@@ -24,11 +24,15 @@ public class PartitionStatisticsSnapshot {
     private final PartitionStatistics.CompactionPriority priority;
     // deep copy
     private final Quantiles compactionScore;
+    private final long avgCompactionCostMs;
+    private final int ingestLoadsPerMinute;
 
     public PartitionStatisticsSnapshot(@NotNull PartitionStatistics ps) {
         this.partition = ps.getPartition();
         this.priority = ps.getPriority();
         this.compactionScore = new Quantiles(ps.getCompactionScore());
+        this.avgCompactionCostMs = ps.getAvgCompactionCostMs();
+        this.ingestLoadsPerMinute = ps.getIngestLoadsPerMinute();
     }
 
     PartitionIdentifier getPartition() {
@@ -42,4 +46,12 @@ public class PartitionStatisticsSnapshot {
     Quantiles getCompactionScore() {
         return compactionScore;
     }
+
+    long getAvgCompactionCostMs() {
+        return avgCompactionCostMs;
+    }
+
+    int getIngestLoadsPerMinute() {
+        return ingestLoadsPerMinute;
+    }
 }
@@ -828,10 +828,11 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
             }
         }
 
-        List<AgentTask> diffTasks = AgentTaskQueue.getDiffTasks(backendId, runningTasks);
+        // to escape sending duplicate agent task to be, only the tasks waited long enough are resent
+        long taskReportTime = System.currentTimeMillis();
+        List<AgentTask> diffTasks = AgentTaskQueue.getDiffTasksToResend(backendId, runningTasks, taskReportTime);
 
         AgentBatchTask batchTask = new AgentBatchTask();
-        long taskReportTime = System.currentTimeMillis();
         for (AgentTask task : diffTasks) {
             // these tasks no need to do diff
             // 1. CREATE
@@ -840,11 +841,7 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
             if (task.getTaskType() == TTaskType.CREATE || task.getTaskType() == TTaskType.CHECK_CONSISTENCY) {
                 continue;
             }
-
-            // to escape sending duplicate agent task to be
-            if (task.shouldResend(taskReportTime)) {
-                batchTask.addTask(task);
-            }
+            batchTask.addTask(task);
         }
 
         LOG.debug("get {} diff task(s) to resend", batchTask.getTaskNum());
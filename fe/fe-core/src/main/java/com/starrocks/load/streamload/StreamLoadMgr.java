@@ -17,6 +17,7 @@ package com.starrocks.load.streamload;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Striped;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.MaterializedView;
 import com.starrocks.catalog.OlapTable;
@@ -53,15 +54,23 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 public class StreamLoadMgr implements MemoryTrackable {
     private static final Logger LOG = LogManager.getLogger(StreamLoadMgr.class);
     private static final int MEMORY_JOB_SAMPLES = 10;
+    private static final int LABEL_LOCK_STRIPES = 256;
+    private static final long EXPIRY_BUCKET_MS = 60 * 1000L;
+
+    // All the maps below are concurrent maps, lookups do not need any lock.
+    // Adding and removing the task of a label, including its label in `createTimeBucketToLabels`, are serialized
+    // by the lock of the label in `labelLocks`.
 
     // label -> streamLoadTask
     private Map<String, StreamLoadTask> idToStreamLoadTask;
@@ -71,23 +80,15 @@ public class StreamLoadMgr implements MemoryTrackable {
     private Map<Long, StreamLoadTask> txnIdToSyncStreamLoadTasks;
 
     private Map<Long, Map<String, StreamLoadTask>> dbToLabelToStreamLoadTask;
-    private ReentrantReadWriteLock lock;
-
-    private void writeLock() {
-        lock.writeLock().lock();
-    }
-
-    private void writeUnlock() {
-        lock.writeLock().unlock();
-    }
 
-    private void readLock() {
-        lock.readLock().lock();
-    }
+    // create time bucket -> labels of the tasks created in the bucket.
+    // The end time of a task is never earlier than its create time, so the cleaner can stop at the first bucket
+    // newer than `stream_load_task_keep_max_second` instead of checking every task.
+    private Map<Long, Set<String>> createTimeBucketToLabels;
 
-    private void readUnlock() {
-        lock.readLock().unlock();
-    }
+    private Striped<Lock> labelLocks;
+    // only one thread cleans the tasks triggered by `stream_load_task_keep_max_num` at a time
+    private ReentrantLock cleanLock;
 
     public StreamLoadMgr() {
         init();
@@ -98,7 +99,9 @@ public class StreamLoadMgr implements MemoryTrackable {
         idToStreamLoadTask = Maps.newConcurrentMap();
         txnIdToSyncStreamLoadTasks = Maps.newConcurrentMap();
         dbToLabelToStreamLoadTask = Maps.newConcurrentMap();
-        lock = new ReentrantReadWriteLock(true);
+        createTimeBucketToLabels = Maps.newConcurrentMap();
+        labelLocks = Striped.lock(LABEL_LOCK_STRIPES);
+        cleanLock = new ReentrantLock();
     }
 
     public void beginLoadTask(String dbName, String tableName, String label, String user, String clientIp, long timeoutMillis,
@@ -113,20 +116,16 @@ public class StreamLoadMgr implements MemoryTrackable {
         Database db = checkDbName(dbName);
         long dbId = db.getId();
         // if task is already created, return directly
-        readLock();
-        try {
-            task = idToStreamLoadTask.get(label);
-            if (task != null) {
-                task.beginTxn(channelId, channelNum, resp);
-                return;
-            }
-        } finally {
-            readUnlock();
+        task = idToStreamLoadTask.get(label);
+        if (task != null) {
+            task.beginTxn(channelId, channelNum, resp);
+            return;
         }
 
         boolean createTask = true;
 
-        writeLock();
+        Lock labelLock = labelLocks.get(label);
+        labelLock.lock();
         try {
             // double check here
             task = idToStreamLoadTask.get(label);
@@ -141,7 +140,7 @@ public class StreamLoadMgr implements MemoryTrackable {
             task.beginTxn(channelId, channelNum, resp);
             createTask = true;
         } finally {
-            writeUnlock();
+            labelLock.unlock();
         }
         if (createTask) {
             GlobalStateMgr.getCurrentState().getEditLog().logCreateStreamLoadJob(task);
@@ -155,7 +154,8 @@ public class StreamLoadMgr implements MemoryTrackable {
         Database db = checkDbName(dbName);
         long dbId = db.getId();
 
-        writeLock();
+        Lock labelLock = labelLocks.get(label);
+        labelLock.lock();
         try {
             task = createLoadTask(db, tableName, label, user, clientIp, timeoutMillis, isRoutineLoad, warehouseId);
             LOG.info(new LogBuilder(LogKey.STREAM_LOAD_TASK, task.getId())
@@ -164,7 +164,7 @@ public class StreamLoadMgr implements MemoryTrackable {
             task.beginTxn(0, 1, resp);
             addLoadTask(task);
         } finally {
-            writeUnlock();
+            labelLock.unlock();
         }
     }
 
@@ -265,32 +265,49 @@ public class StreamLoadMgr implements MemoryTrackable {
             txnIdToSyncStreamLoadTasks.put(task.getTxnId(), task);
         }
 
-        // Clear the stream load tasks manually
-        if (idToStreamLoadTask.size() > Config.stream_load_task_keep_max_num) {
-            // If enable_load_profile = true,
-            // most stream load tasks are generated through flink-cdc and routine load generally,
-            // so clearing the syncStreamLoadTask is preferred.
-            LOG.info("trigger cleanSyncStreamLoadTasks when add load task label:{}", task.getLabel());
-            cleanSyncStreamLoadTasks();
-            // The size of idToStreamLoadTask is still huge, indicates that the type of most tasks is PARALLEL,
-            // so clean all the streamLoadTasks manaully not waitting for Config.stream_load_task_keep_max_second.
-            if (idToStreamLoadTask.size() > Config.stream_load_task_keep_max_num / 2) {
-                LOG.info("trigger cleanOldStreamLoadTasks when add load task label{}", task.getLabel());
-                cleanOldStreamLoadTasks(true);
+        // Clear the stream load tasks manually, skip it if another thread is cleaning
+        if (idToStreamLoadTask.size() > Config.stream_load_task_keep_max_num && cleanLock.tryLock()) {
+            try {
+                // If enable_load_profile = true,
+                // most stream load tasks are generated through flink-cdc and routine load generally,
+                // so clearing the syncStreamLoadTask is preferred.
+                LOG.info("trigger cleanSyncStreamLoadTasks when add load task label:{}", task.getLabel());
+                cleanSyncStreamLoadTasks();
+                // The size of idToStreamLoadTask is still huge, indicates that the type of most tasks is PARALLEL,
+                // so clean all the streamLoadTasks manaully not waitting for Config.stream_load_task_keep_max_second.
+                if (idToStreamLoadTask.size() > Config.stream_load_task_keep_max_num / 2) {
+                    LOG.info("trigger cleanOldStreamLoadTasks when add load task label{}", task.getLabel());
+                    cleanOldStreamLoadTasks(true);
+                }
+            } finally {
+                cleanLock.unlock();
             }
         }
 
         long dbId = task.getDBId();
         String label = task.getLabel();
-        Map<String, StreamLoadTask> labelToStreamLoadTask = null;
-        if (dbToLabelToStreamLoadTask.containsKey(dbId)) {
-            labelToStreamLoadTask = dbToLabelToStreamLoadTask.get(dbId);
-        } else {
-            labelToStreamLoadTask = Maps.newConcurrentMap();
-            dbToLabelToStreamLoadTask.put(dbId, labelToStreamLoadTask);
+        // replay and routine load add tasks without holding the label lock, the lock is reentrant for the others
+        Lock labelLock = labelLocks.get(label);
+        labelLock.lock();
+        try {
+            dbToLabelToStreamLoadTask.compute(dbId, (k, labelToStreamLoadTask) -> {
+                if (labelToStreamLoadTask == null) {
+                    labelToStreamLoadTask = Maps.newConcurrentMap();
+                }
+                labelToStreamLoadTask.put(label, task);
+                return labelToStreamLoadTask;
+            });
+            idToStreamLoadTask.put(label, task);
+            createTimeBucketToLabels.compute(getExpiryBucket(task), (k, labels) -> {
+                if (labels == null) {
+                    labels = ConcurrentHashMap.newKeySet();
+                }
+                labels.add(label);
+                return labels;
+            });
+        } finally {
+            labelLock.unlock();
         }
-        labelToStreamLoadTask.put(label, task);
-        idToStreamLoadTask.put(label, task);
 
         // add callback before txn created, because callback will be performed on replay without txn begin
         // register txn state listener
@@ -300,115 +317,65 @@ public class StreamLoadMgr implements MemoryTrackable {
     public TNetworkAddress executeLoadTask(String label, int channelId, HttpHeaders headers,
                                            TransactionResult resp, String dbName, String tableName)
             throws UserException {
-        boolean needUnLock = true;
-        readLock();
-        try {
-            if (!idToStreamLoadTask.containsKey(label)) {
-                throw new UserException("stream load task " + label + " does not exist");
-            }
-            StreamLoadTask task = idToStreamLoadTask.get(label);
+        StreamLoadTask task = idToStreamLoadTask.get(label);
+        if (task == null) {
+            throw new UserException("stream load task " + label + " does not exist");
+        }
 
-            // check whether the database and table are consistent with the transaction,
-            // for single database and single table are supported so far
-            if (!task.getDBName().equals(dbName)) {
-                throw new UserException(
-                        String.format("Request table %s not equal transaction table %s", dbName, task.getDBName()));
-            }
-            if (!task.getTableName().equals(tableName)) {
-                throw new UserException(
-                        String.format("Request table %s not equal transaction table %s", tableName, task.getTableName()));
-            }
+        // check whether the database and table are consistent with the transaction,
+        // for single database and single table are supported so far
+        if (!task.getDBName().equals(dbName)) {
+            throw new UserException(
+                    String.format("Request table %s not equal transaction table %s", dbName, task.getDBName()));
+        }
+        if (!task.getTableName().equals(tableName)) {
+            throw new UserException(
+                    String.format("Request table %s not equal transaction table %s", tableName, task.getTableName()));
+        }
 
-            readUnlock();
-            needUnLock = false;
-            TNetworkAddress redirectAddress = task.tryLoad(channelId, resp);
-            if (redirectAddress != null || !resp.stateOK() || resp.containMsg()) {
-                return redirectAddress;
-            }
-            return task.executeTask(channelId, headers, resp);
-        } finally {
-            if (needUnLock) {
-                readUnlock();
-            }
+        TNetworkAddress redirectAddress = task.tryLoad(channelId, resp);
+        if (redirectAddress != null || !resp.stateOK() || resp.containMsg()) {
+            return redirectAddress;
         }
+        return task.executeTask(channelId, headers, resp);
     }
 
     public void prepareLoadTask(String label, int channelId, HttpHeaders headers, TransactionResult resp)
             throws UserException {
-        boolean needUnLock = true;
-        readLock();
-        try {
-            if (!idToStreamLoadTask.containsKey(label)) {
-                throw new UserException("stream load task " + label + " does not exist");
-            }
-            StreamLoadTask task = idToStreamLoadTask.get(label);
-            readUnlock();
-            needUnLock = false;
-            task.prepareChannel(channelId, headers, resp);
-        } finally {
-            if (needUnLock) {
-                readUnlock();
-            }
+        StreamLoadTask task = idToStreamLoadTask.get(label);
+        if (task == null) {
+            throw new UserException("stream load task " + label + " does not exist");
         }
+        task.prepareChannel(channelId, headers, resp);
     }
 
     public void tryPrepareLoadTaskTxn(String label, TransactionResult resp)
             throws UserException {
-        boolean needUnLock = true;
-        readLock();
-        try {
-            if (!idToStreamLoadTask.containsKey(label)) {
-                throw new UserException("stream load task " + label + " does not exist");
-            }
-            StreamLoadTask task = idToStreamLoadTask.get(label);
-            readUnlock();
-            needUnLock = false;
-            if (task.checkNeedPrepareTxn()) {
-                task.waitCoordFinishAndPrepareTxn(resp);
-            }
-        } finally {
-            if (needUnLock) {
-                readUnlock();
-            }
+        StreamLoadTask task = idToStreamLoadTask.get(label);
+        if (task == null) {
+            throw new UserException("stream load task " + label + " does not exist");
+        }
+        if (task.checkNeedPrepareTxn()) {
+            task.waitCoordFinishAndPrepareTxn(resp);
         }
     }
 
     public void commitLoadTask(String label, TransactionResult resp)
             throws UserException {
-        boolean needUnLock = true;
-        readLock();
-        try {
-            if (!idToStreamLoadTask.containsKey(label)) {
-                throw new UserException("stream load task " + label + " does not exist");
-            }
-            StreamLoadTask task = idToStreamLoadTask.get(label);
-            readUnlock();
-            needUnLock = false;
-            task.commitTxn(resp);
-        } finally {
-            if (needUnLock) {
-                readUnlock();
-            }
+        StreamLoadTask task = idToStreamLoadTask.get(label);
+        if (task == null) {
+            throw new UserException("stream load task " + label + " does not exist");
         }
+        task.commitTxn(resp);
     }
 
     public void rollbackLoadTask(String label, TransactionResult resp)
             throws UserException {
-        boolean needUnLock = true;
-        readLock();
-        try {
-            if (!idToStreamLoadTask.containsKey(label)) {
-                throw new UserException("stream load task" + label + "does not exist");
-            }
-            StreamLoadTask task = idToStreamLoadTask.get(label);
-            readUnlock();
-            needUnLock = false;
-            task.manualCancelTask(resp);
-        } finally {
-            if (needUnLock) {
-                readUnlock();
-            }
+        StreamLoadTask task = idToStreamLoadTask.get(label);
+        if (task == null) {
+            throw new UserException("stream load task" + label + "does not exist");
         }
+        task.manualCancelTask(resp);
     }
 
     // Remove old stream load tasks from idToStreamLoadTask and dbToLabelToStreamLoadTask
@@ -416,18 +383,27 @@ public class StreamLoadMgr implements MemoryTrackable {
     // Cancelled and Committed task will be removed after Config.stream_load_task_keep_max_second seconds
     public void cleanOldStreamLoadTasks(boolean isForce) {
         LOG.debug("begin to clean old stream load tasks");
-        writeLock();
-        try {
-            Iterator<Map.Entry<String, StreamLoadTask>> iterator = idToStreamLoadTask.entrySet().iterator();
-            long currentMs = System.currentTimeMillis();
-            while (iterator.hasNext()) {
-                StreamLoadTask streamLoadTask = iterator.next().getValue();
-                if (streamLoadTask.checkNeedRemove(currentMs, isForce)) {
-                    unprotectedRemoveTaskFromDb(streamLoadTask);
-                    iterator.remove();
-                    if (streamLoadTask.isSyncStreamLoad()) {
-                        txnIdToSyncStreamLoadTasks.remove(streamLoadTask.getTxnId());
-                    }
+        long currentMs = System.currentTimeMillis();
+        long expireBeforeMs = currentMs - Config.stream_load_task_keep_max_second * 1000L;
+        List<Long> buckets = new ArrayList<>(createTimeBucketToLabels.keySet());
+        Collections.sort(buckets);
+        for (long bucket : buckets) {
+            // all the tasks in this bucket and the newer buckets are created, thus ended, after expireBeforeMs
+            if (!isForce && bucket * EXPIRY_BUCKET_MS > expireBeforeMs) {
+                break;
+            }
+            Set<String> labels = createTimeBucketToLabels.get(bucket);
+            if (labels == null) {
+                continue;
+            }
+            for (String label : labels) {
+                StreamLoadTask streamLoadTask = idToStreamLoadTask.get(label);
+                if (streamLoadTask == null || getExpiryBucket(streamLoadTask) != bucket) {
+                    // the label has been removed or reused by a newer task
+                    removeStaleLabel(bucket, label);
+                    continue;
+                }
+                if (streamLoadTask.checkNeedRemove(currentMs, isForce) && removeLoadTask(streamLoadTask)) {
                     LOG.info(new LogBuilder(LogKey.STREAM_LOAD_TASK, streamLoadTask.getId())
                             .add("label", streamLoadTask.getLabel())
                             .add("end_timestamp", streamLoadTask.endTimeMs())
@@ -437,52 +413,75 @@ public class StreamLoadMgr implements MemoryTrackable {
                     );
                 }
             }
-
-        } finally {
-            writeUnlock();
         }
     }
 
     // There maybe many streamLoadTasks in memory when enable_load_profile = true,
     // StreamLoadTask which type is SyncStreamLoad should be clean up firstly
     public void cleanSyncStreamLoadTasks() {
-        writeLock();
-        try {
-            Iterator<Map.Entry<String, StreamLoadTask>> iterator = idToStreamLoadTask.entrySet().iterator();
-            long currentMs = System.currentTimeMillis();
-            while (iterator.hasNext()) {
-                StreamLoadTask streamLoadTask = iterator.next().getValue();
-                if (streamLoadTask.isSyncStreamLoad() && streamLoadTask.isFinalState()) {
-                    unprotectedRemoveTaskFromDb(streamLoadTask);
-                    iterator.remove();
-                    txnIdToSyncStreamLoadTasks.remove(streamLoadTask.getTxnId());
-                    LOG.info(new LogBuilder(LogKey.STREAM_LOAD_TASK, streamLoadTask.getId())
-                            .add("label", streamLoadTask.getLabel())
-                            .add("end_timestamp", streamLoadTask.endTimeMs())
-                            .add("current_timestamp", currentMs)
-                            .add("task_state", streamLoadTask.getStateName())
-                            .add("msg", "old task has been cleaned")
-                    );
-                }
+        long currentMs = System.currentTimeMillis();
+        for (StreamLoadTask streamLoadTask : idToStreamLoadTask.values()) {
+            if (streamLoadTask.isSyncStreamLoad() && streamLoadTask.isFinalState() && removeLoadTask(streamLoadTask)) {
+                LOG.info(new LogBuilder(LogKey.STREAM_LOAD_TASK, streamLoadTask.getId())
+                        .add("label", streamLoadTask.getLabel())
+                        .add("end_timestamp", streamLoadTask.endTimeMs())
+                        .add("current_timestamp", currentMs)
+                        .add("task_state", streamLoadTask.getStateName())
+                        .add("msg", "old task has been cleaned")
+                );
             }
-
-        } finally {
-            writeUnlock();
         }
     }
 
-    private void unprotectedRemoveTaskFromDb(StreamLoadTask streamLoadTask) {
-        long dbId = streamLoadTask.getDBId();
+    // Returns false if the task has been removed or replaced by another task of the same label
+    private boolean removeLoadTask(StreamLoadTask streamLoadTask) {
         String label = streamLoadTask.getLabel();
+        Lock labelLock = labelLocks.get(label);
+        labelLock.lock();
+        try {
+            if (!idToStreamLoadTask.remove(label, streamLoadTask)) {
+                return false;
+            }
+            dbToLabelToStreamLoadTask.computeIfPresent(streamLoadTask.getDBId(), (k, labelToStreamLoadTask) -> {
+                labelToStreamLoadTask.remove(label, streamLoadTask);
+                return labelToStreamLoadTask.isEmpty() ? null : labelToStreamLoadTask;
+            });
+            removeFromExpiryBucket(getExpiryBucket(streamLoadTask), label);
+            if (streamLoadTask.isSyncStreamLoad()) {
+                txnIdToSyncStreamLoadTasks.remove(streamLoadTask.getTxnId(), streamLoadTask);
+            }
+            return true;
+        } finally {
+            labelLock.unlock();
+        }
+    }
 
-        if (dbToLabelToStreamLoadTask.containsKey(dbId)) {
-            dbToLabelToStreamLoadTask.get(dbId).remove(label);
-            if (dbToLabelToStreamLoadTask.get(dbId).isEmpty()) {
-                dbToLabelToStreamLoadTask.remove(dbId);
+    // The label may be reused by a new task of the same bucket meanwhile, so it is checked again under the label lock
+    private void removeStaleLabel(long bucket, String label) {
+        Lock labelLock = labelLocks.get(label);
+        labelLock.lock();
+        try {
+            StreamLoadTask streamLoadTask = idToStreamLoadTask.get(label);
+            if (streamLoadTask == null || getExpiryBucket(streamLoadTask) != bucket) {
+                removeFromExpiryBucket(bucket, label);
             }
+        } finally {
+            labelLock.unlock();
         }
     }
 
+    // Must be called with the lock of the label held
+    private void removeFromExpiryBucket(long bucket, String label) {
+        createTimeBucketToLabels.computeIfPresent(bucket, (k, labels) -> {
+            labels.remove(label);
+            return labels.isEmpty() ? null : labels;
+        });
+    }
+
+    private static long getExpiryBucket(StreamLoadTask streamLoadTask) {
+        return streamLoadTask.createTimeMs() / EXPIRY_BUCKET_MS;
+    }
+
     /*
       if dbFullName is null, result = all of stream load task in all of db
       else if label is null, result =  all of stream load task in dbFullName
@@ -492,49 +491,46 @@ public class StreamLoadMgr implements MemoryTrackable {
      */
     public List<StreamLoadTask> getTask(String dbFullName, String label, boolean includeHistory)
             throws MetaNotFoundException {
-        readLock();
-        try {
-            // return all of stream load task
-            List<StreamLoadTask> result;
-            RESULT:
-            {
-                if (dbFullName == null) {
-                    result = new ArrayList<>(idToStreamLoadTask.values());
-                    sortStreamLoadTask(result);
-                    break RESULT;
-                }
-
-                long dbId = 0L;
-                Database database = GlobalStateMgr.getCurrentState().getLocalMetastore().getDb(dbFullName);
-                if (database == null) {
-                    throw new MetaNotFoundException("failed to find database by dbFullName " + dbFullName);
-                }
-                dbId = database.getId();
-                if (!dbToLabelToStreamLoadTask.containsKey(dbId)) {
-                    result = new ArrayList<>();
-                    break RESULT;
-                }
-                if (label == null) {
-                    result = Lists.newArrayList(dbToLabelToStreamLoadTask.get(dbId).values());
-                    sortStreamLoadTask(result);
-                    break RESULT;
-                }
-                if (dbToLabelToStreamLoadTask.get(dbId).containsKey(label)) {
-                    result = new ArrayList<>();
-                    result.add(dbToLabelToStreamLoadTask.get(dbId).get(label));
-                    break RESULT;
-                }
-                return null;
+        // return all of stream load task
+        List<StreamLoadTask> result;
+        RESULT:
+        {
+            if (dbFullName == null) {
+                result = new ArrayList<>(idToStreamLoadTask.values());
+                sortStreamLoadTask(result);
+                break RESULT;
             }
 
-            if (!includeHistory) {
-                result = result.stream().filter(entity -> !entity.isFinalState())
-                        .collect(Collectors.toList());
+            long dbId = 0L;
+            Database database = GlobalStateMgr.getCurrentState().getLocalMetastore().getDb(dbFullName);
+            if (database == null) {
+                throw new MetaNotFoundException("failed to find database by dbFullName " + dbFullName);
             }
-            return result;
-        } finally {
-            readUnlock();
+            dbId = database.getId();
+            Map<String, StreamLoadTask> labelToStreamLoadTask = dbToLabelToStreamLoadTask.get(dbId);
+            if (labelToStreamLoadTask == null) {
+                result = new ArrayList<>();
+                break RESULT;
+            }
+            if (label == null) {
+                result = Lists.newArrayList(labelToStreamLoadTask.values());
+                sortStreamLoadTask(result);
+                break RESULT;
+            }
+            StreamLoadTask task = labelToStreamLoadTask.get(label);
+            if (task != null) {
+                result = new ArrayList<>();
+                result.add(task);
+                break RESULT;
+            }
+            return null;
+        }
+
+        if (!includeHistory) {
+            result = result.stream().filter(entity -> !entity.isFinalState())
+                    .collect(Collectors.toList());
         }
+        return result;
     }
 
     public StreamLoadTask getSyncSteamLoadTaskByTxnId(long txnId) {
@@ -560,34 +556,24 @@ public class StreamLoadMgr implements MemoryTrackable {
     }
 
     public StreamLoadTask getTaskById(long id) {
-        readLock();
-        try {
-            List<StreamLoadTask> taskList =
-                    idToStreamLoadTask.values().stream().filter(streamLoadTask -> id == streamLoadTask.getId())
-                            .collect(Collectors.toList());
-            return taskList.isEmpty() ? null : taskList.get(0);
-        } finally {
-            readUnlock();
-        }
+        return idToStreamLoadTask.values().stream()
+                .filter(streamLoadTask -> id == streamLoadTask.getId())
+                .findFirst()
+                .orElse(null);
     }
 
     // return all of stream load task named label in all of db
     // return all tasks if label is null
     public List<StreamLoadTask> getTaskByName(String label) {
         List<StreamLoadTask> result = Lists.newArrayList();
-        readLock();
-        try {
-            if (label != null) {
-                StreamLoadTask task = idToStreamLoadTask.get(label);
-                if (task != null) {
-                    result.add(task);
-                }
-            } else {
-                // return all stream load tasks
-                result.addAll(idToStreamLoadTask.values());
+        if (label != null) {
+            StreamLoadTask task = idToStreamLoadTask.get(label);
+            if (task != null) {
+                result.add(task);
             }
-        } finally {
-            readUnlock();
+        } else {
+            // return all stream load tasks
+            result.addAll(idToStreamLoadTask.values());
         }
         return result;
     }
@@ -600,7 +586,7 @@ public class StreamLoadMgr implements MemoryTrackable {
         }
     }
 
-    public synchronized long saveStreamLoadManager(DataOutputStream out, long checksum) throws IOException {
+    public long saveStreamLoadManager(DataOutputStream out, long checksum) throws IOException {
         List<StreamLoadTask> loadTasks = idToStreamLoadTask.values().stream().collect(Collectors.toList());
 
         out.writeInt(loadTasks.size());
@@ -611,7 +597,7 @@ public class StreamLoadMgr implements MemoryTrackable {
         return checksum;
     }
 
-    public synchronized long getChecksum() {
+    public long getChecksum() {
         return (long) idToStreamLoadTask.size() + (long) dbToLabelToStreamLoadTask.size();
     }
 
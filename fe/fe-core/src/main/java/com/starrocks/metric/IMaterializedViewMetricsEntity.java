@@ -73,5 +73,11 @@ public interface IMaterializedViewMetricsEntity {
      * @param duration: mv refresh duration
      */
     void updateRefreshDuration(long duration);
+
+    /**
+     * Update the pending duration which is the time from the refresh job created to its execution
+     * @param duration: mv refresh job's pending duration
+     */
+    void updateRefreshPendingDuration(long duration);
 }
 
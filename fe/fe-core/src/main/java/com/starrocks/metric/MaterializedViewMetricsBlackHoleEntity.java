@@ -64,5 +64,10 @@ public class MaterializedViewMetricsBlackHoleEntity implements IMaterializedView
     public void updateRefreshDuration(long duration) {
 
     }
+
+    @Override
+    public void updateRefreshPendingDuration(long duration) {
+
+    }
 }
 
@@ -87,6 +87,8 @@ public final class MaterializedViewMetricsEntity implements IMaterializedViewMet
     // histogram(ms)
     // record the materialized view's refresh job duration only if it's refreshed successfully.
     public Histogram histRefreshJobDuration;
+    // record the materialized view's refresh job pending duration before it's executed.
+    public Histogram histRefreshJobPendingDuration;
 
     public Optional<String> dbNameOpt = Optional.empty();
     public Optional<String> mvNameOpt = Optional.empty();
@@ -164,6 +166,8 @@ public final class MaterializedViewMetricsEntity implements IMaterializedViewMet
                         .getTable(db.getId(), mvId.getId());
             histRefreshJobDuration = metricRegistry.histogram(MetricRegistry.name("mv_refresh_duration",
                         db.getFullName(), mv.getName()));
+            histRefreshJobPendingDuration = metricRegistry.histogram(MetricRegistry.name("mv_refresh_pending_duration",
+                        db.getFullName(), mv.getName()));
         } catch (Exception e) {
             LOG.warn("Ignore histogram metrics for materialized view: {}", mvId);
         }
@@ -359,5 +363,10 @@ public final class MaterializedViewMetricsEntity implements IMaterializedViewMet
     public void updateRefreshDuration(long duration) {
         this.histRefreshJobDuration.update(duration);
     }
+
+    @Override
+    public void updateRefreshPendingDuration(long duration) {
+        this.histRefreshJobPendingDuration.update(duration);
+    }
 }
 
@@ -38,6 +38,7 @@ import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.starrocks.alter.AlterJobMgr;
 import com.starrocks.alter.AlterJobV2;
@@ -76,6 +77,8 @@ import com.starrocks.staros.StarMgrServer;
 import com.starrocks.system.Backend;
 import com.starrocks.system.SystemInfoService;
 import com.starrocks.transaction.DatabaseTransactionMgr;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -83,6 +86,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -97,6 +102,14 @@ public final class MetricRepo {
     public static volatile boolean hasInit = false;
     public static final SystemMetrics SYSTEM_METRICS = new SystemMetrics();
 
+    // connection_total metrics of each user, which are reused between scrapes
+    private static final Map<String, GaugeMetricImpl<Integer>> USER_CONNECTION_METRICS = Maps.newConcurrentMap();
+    // the prometheus output of the latest scrape for each kind of request params, it's only kept after the scrape
+    // when prometheus_metric_snapshot_ttl_ms is positive
+    private static final ConcurrentMap<String, PrometheusSnapshot> PROMETHEUS_SNAPSHOTS = Maps.newConcurrentMap();
+    // the size of the latest prometheus output for each kind of request params
+    private static final ConcurrentMap<String, Integer> PROMETHEUS_OUTPUT_SIZES = Maps.newConcurrentMap();
+
     public static final String TABLET_NUM = "tablet_num";
     public static final String TABLET_MAX_COMPACTION_SCORE = "tablet_max_compaction_score";
 
@@ -110,6 +123,7 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_QUERY_QUEUE_PENDING;
     public static LongCounterMetric COUNTER_QUERY_QUEUE_TOTAL;
     public static LongCounterMetric COUNTER_QUERY_QUEUE_TIMEOUT;
+    public static LongCounterMetric COUNTER_AUDIT_EVENT_DROPPED;
 
     public static LongCounterMetric COUNTER_QUERY_QUEUE_SLOT_PENDING;
     public static LongCounterMetric COUNTER_QUERY_QUEUE_SLOT_RUNNING;
@@ -142,6 +156,19 @@ public final class MetricRepo {
                     () -> new LongCounterMetric("query_queue_v2_category_state", MetricUnit.REQUESTS,
                             "the current state of each category"));
 
+    public static final MetricWithLabelGroup<LongCounterMetric> COUNTER_REMOTE_FILE_CACHE_HIT =
+            new MetricWithLabelGroup<>("tier",
+                    () -> new LongCounterMetric("remote_file_cache_hit_total", MetricUnit.REQUESTS,
+                            "the number of remote file listing lookups served by each cache tier"));
+    public static final MetricWithLabelGroup<LongCounterMetric> COUNTER_REMOTE_FILE_CACHE_MISS =
+            new MetricWithLabelGroup<>("tier",
+                    () -> new LongCounterMetric("remote_file_cache_miss_total", MetricUnit.REQUESTS,
+                            "the number of remote file listing lookups missed by each cache tier"));
+    public static final MetricWithLabelGroup<GaugeMetricImpl<Double>> GAUGE_REMOTE_FILE_CACHE_HIT_RATIO =
+            new MetricWithLabelGroup<>("tier",
+                    () -> new GaugeMetricImpl<>("remote_file_cache_hit_ratio", MetricUnit.PERCENT,
+                            "the hit ratio of remote file listing lookups of each cache tier"));
+
     public static LongCounterMetric COUNTER_UNFINISHED_BACKUP_JOB;
     public static LongCounterMetric COUNTER_UNFINISHED_RESTORE_JOB;
 
@@ -169,6 +196,10 @@ public final class MetricRepo {
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
     public static Histogram HISTO_JOURNAL_WRITE_BYTES;
     public static Histogram HISTO_SHORTCIRCUIT_RPC_LATENCY;
+    public static Histogram HISTO_TASK_RUN_PENDING_LATENCY;
+    public static Histogram HISTO_TASK_RUN_LATENCY;
+    public static Histogram HISTO_HEARTBEAT_LATENCY;
+    public static Histogram HISTO_HEARTBEAT_FAILURE_DETECTION_LATENCY;
 
     // following metrics will be updated by metric calculator
     public static GaugeMetricImpl<Double> GAUGE_QUERY_PER_SECOND;
@@ -289,6 +320,25 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(metaLogCount);
 
+        // audit events waiting to be handed to audit plugins
+        GaugeMetric<Long> auditEventQueueSize = new GaugeMetric<Long>(
+                "audit_event_queue_size", MetricUnit.NOUNIT, "number of audit events waiting for audit plugins") {
+            @Override
+            public Long getValue() {
+                return GlobalStateMgr.getCurrentState().getAuditEventProcessor().getQueueSize();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(auditEventQueueSize);
+        GaugeMetric<Long> auditEventLag = new GaugeMetric<Long>(
+                "audit_event_lag_ms", MetricUnit.MILLISECONDS,
+                "max time the audit events have been waiting for audit plugins, 0 if there is no waiting event") {
+            @Override
+            public Long getValue() {
+                return GlobalStateMgr.getCurrentState().getAuditEventProcessor().getLagMs();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(auditEventLag);
+
         // scheduled tablet num
         GaugeMetric<Long> scheduledTabletNum = (GaugeMetric<Long>) new GaugeMetric<Long>(
                 "scheduled_tablet_num", MetricUnit.NOUNIT, "number of tablets being scheduled") {
@@ -425,6 +475,9 @@ public final class MetricRepo {
         COUNTER_QUERY_QUEUE_TIMEOUT = new LongCounterMetric("query_queue_timeout", MetricUnit.REQUESTS,
                 "total history query for timeout in queue");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_QUEUE_TIMEOUT);
+        COUNTER_AUDIT_EVENT_DROPPED = new LongCounterMetric("audit_event_dropped", MetricUnit.REQUESTS,
+                "total audit events dropped because the audit event queue is full");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_AUDIT_EVENT_DROPPED);
         COUNTER_LOAD_ADD = new LongCounterMetric("load_add", MetricUnit.REQUESTS, "total load submit");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOAD_ADD);
         COUNTER_ROUTINE_LOAD_PAUSED =
@@ -514,6 +567,12 @@ public final class MetricRepo {
         HISTO_JOURNAL_WRITE_BYTES =
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "bytes"));
         HISTO_SHORTCIRCUIT_RPC_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("shortcircuit", "latency", "ms"));
+        HISTO_TASK_RUN_PENDING_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("task_run", "pending", "latency", "ms"));
+        HISTO_TASK_RUN_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("task_run", "latency", "ms"));
+        HISTO_HEARTBEAT_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("heartbeat", "latency", "ms"));
+        HISTO_HEARTBEAT_FAILURE_DETECTION_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("heartbeat", "failure_detection", "latency", "ms"));
 
         // init system metrics
         initSystemMetrics();
@@ -751,10 +810,82 @@ public final class MetricRepo {
         }
     }
 
-    public static synchronized String getMetric(MetricVisitor visitor, MetricsAction.RequestParams requestParams) {
-        if (!hasInit) {
+    public static String getMetric(MetricVisitor visitor, MetricsAction.RequestParams requestParams) {
+        if (!visitMetrics(visitor, requestParams)) {
             return "";
         }
+        return visitor.build();
+    }
+
+    /**
+     * Get the prometheus output of all the metrics. Scrapes with the same params arriving while the output is being
+     * built wait for it and share the same output instead of collecting all the metrics again, and the output is
+     * reused until it is older than {@link Config#prometheus_metric_snapshot_ttl_ms}.
+     *
+     * @return a read only buffer of the output, which can be written to the response directly.
+     */
+    public static ByteBuf getPrometheusMetric(String prefix, MetricsAction.RequestParams requestParams) {
+        String key = prefix + ": " + requestParams;
+        while (true) {
+            PrometheusSnapshot snapshot = PROMETHEUS_SNAPSHOTS.get(key);
+            if (snapshot != null && snapshot.isReusable()) {
+                return snapshot.get().duplicate();
+            }
+            PrometheusSnapshot newSnapshot = new PrometheusSnapshot();
+            boolean isOwner = snapshot == null ? PROMETHEUS_SNAPSHOTS.putIfAbsent(key, newSnapshot) == null
+                    : PROMETHEUS_SNAPSHOTS.replace(key, snapshot, newSnapshot);
+            if (!isOwner) {
+                continue;
+            }
+            try {
+                // start with the size of last output to avoid growing the buffer
+                ByteBuf buffer = Unpooled.buffer(PROMETHEUS_OUTPUT_SIZES.getOrDefault(key, 0));
+                visitMetrics(new PrometheusMetricVisitor(prefix, buffer), requestParams);
+                PROMETHEUS_OUTPUT_SIZES.put(key, buffer.readableBytes());
+                ByteBuf output = newSnapshot.complete(buffer);
+                if (Config.prometheus_metric_snapshot_ttl_ms <= 0) {
+                    // never reused, only the scrapes which have been waiting for it share the output
+                    PROMETHEUS_SNAPSHOTS.remove(key, newSnapshot);
+                }
+                return output.duplicate();
+            } catch (RuntimeException e) {
+                newSnapshot.fail(e);
+                PROMETHEUS_SNAPSHOTS.remove(key, newSnapshot);
+                throw e;
+            }
+        }
+    }
+
+    private static final class PrometheusSnapshot {
+        private final CompletableFuture<ByteBuf> output = new CompletableFuture<>();
+        private volatile long finishTimeMs = 0;
+
+        private boolean isReusable() {
+            return !output.isDone() || (!output.isCompletedExceptionally()
+                    && System.currentTimeMillis() - finishTimeMs < Config.prometheus_metric_snapshot_ttl_ms);
+        }
+
+        private ByteBuf get() {
+            return output.join();
+        }
+
+        private ByteBuf complete(ByteBuf buffer) {
+            // shared by all the responses, each of them writes a duplicate and releases it after written
+            ByteBuf shared = Unpooled.unreleasableBuffer(buffer);
+            finishTimeMs = System.currentTimeMillis();
+            output.complete(shared);
+            return shared;
+        }
+
+        private void fail(Throwable t) {
+            output.completeExceptionally(t);
+        }
+    }
+
+    private static synchronized boolean visitMetrics(MetricVisitor visitor, MetricsAction.RequestParams requestParams) {
+        if (!hasInit) {
+            return false;
+        }
 
         // update the metrics first
         updateMetrics();
@@ -813,7 +944,7 @@ public final class MetricRepo {
 
         // node info
         visitor.getNodeInfo();
-        return visitor.build();
+        return true;
     }
 
     // update some metrics to make a ready to be visited
@@ -836,31 +967,21 @@ public final class MetricRepo {
                 long tableId = table.getId();
                 String tableName = table.getName();
 
+                // labels are cached in the entity, and only rebuilt if the table is renamed
+                TableMetricsEntity entity = TableMetricsRegistry.getInstance().getMetricsEntity(tableId);
+                entity.setTableLabels(dbName, tableName, tableId);
+
                 if (table.isNativeTableOrMaterializedView()) {
                     // table size metrics
-                    GaugeMetric<Long> tableSizeBytesTotal = new GaugeMetric<Long>("table_size_bytes",
-                            MetricUnit.BYTES, "total size of table in bytes") {
-                        @Override
-                        public Long getValue() {
-                            OlapTable olapTable = (OlapTable) table;
-                            return olapTable.getDataSize();
-                        }
-                    };
-                    tableSizeBytesTotal.addLabel(new MetricLabel("db_name", dbName))
-                            .addLabel(new MetricLabel("tbl_name", tableName))
-                            .addLabel(new MetricLabel("tbl_id", String.valueOf(tableId)));
-                    visitor.visit(tableSizeBytesTotal);
+                    entity.gaugeTableSizeBytes.setValue(((OlapTable) table).getDataSize());
+                    visitor.visit(entity.gaugeTableSizeBytes);
                 }
 
-                TableMetricsEntity entity = TableMetricsRegistry.getInstance().getMetricsEntity(tableId);
                 for (Metric m : entity.getMetrics()) {
                     if (minifyTableMetrics && (null == m.getValue() ||
                             (MetricType.COUNTER == m.type && (Long) m.getValue() == 0L))) {
                         continue;
                     }
-                    m.addLabel(new MetricLabel("db_name", dbName))
-                            .addLabel(new MetricLabel("tbl_name", tableName))
-                            .addLabel(new MetricLabel("tbl_id", String.valueOf(tableId)));
                     visitor.visit(m);
                 }
             }
@@ -919,11 +1040,15 @@ public final class MetricRepo {
 
         Map<String, AtomicInteger> userConnectionMap = ExecuteEnv.getInstance().getScheduler().getUserConnectionMap();
 
+        // the metrics are cached between scrapes, and removed once the user has no connection entry
+        USER_CONNECTION_METRICS.keySet().retainAll(userConnectionMap.keySet());
         userConnectionMap.forEach((username, connValue) -> {
-            GaugeMetricImpl<Integer> metricConnect =
-                    new GaugeMetricImpl<>("connection_total", MetricUnit.CONNECTIONS,
-                        "total connection");
-            metricConnect.addLabel(new MetricLabel("user", username));
+            GaugeMetricImpl<Integer> metricConnect = USER_CONNECTION_METRICS.computeIfAbsent(username, k -> {
+                GaugeMetricImpl<Integer> metric =
+                        new GaugeMetricImpl<>("connection_total", MetricUnit.CONNECTIONS, "total connection");
+                metric.addLabel(new MetricLabel("user", k));
+                return metric;
+            });
             metricConnect.setValue(connValue.get());
             visitor.visit(metricConnect);
         });
@@ -954,5 +1079,9 @@ public final class MetricRepo {
         init();
         STARROCKS_METRIC_REGISTER.addMetric(metric);
     }
+
+    public static void removeMetric(Metric<?> metric) {
+        STARROCKS_METRIC_REGISTER.removeMetric(metric);
+    }
 }
 
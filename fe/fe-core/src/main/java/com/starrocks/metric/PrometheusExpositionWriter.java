@@ -0,0 +1,84 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.metric;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+ * PrometheusExpositionWriter appends the text exposition format directly into a netty buffer,
+ * so that the output of a scrape can be sent as the response body without building the whole
+ * output as a String first. Numbers are encoded in place without allocating intermediate strings.
+ */
+public final class PrometheusExpositionWriter {
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteBuf buf;
+    private final byte[] digits = new byte[20];
+
+    public PrometheusExpositionWriter(ByteBuf buf) {
+        this.buf = buf;
+    }
+
+    public ByteBuf getBuffer() {
+        return buf;
+    }
+
+    public PrometheusExpositionWriter append(CharSequence value) {
+        ByteBufUtil.writeUtf8(buf, value == null ? "null" : value);
+        return this;
+    }
+
+    public PrometheusExpositionWriter append(char value) {
+        if (value < 0x80) {
+            buf.writeByte(value);
+        } else {
+            ByteBufUtil.writeUtf8(buf, String.valueOf(value));
+        }
+        return this;
+    }
+
+    public PrometheusExpositionWriter append(long value) {
+        if (value == Long.MIN_VALUE) {
+            buf.writeBytes(MIN_LONG);
+            return this;
+        }
+        if (value < 0) {
+            buf.writeByte('-');
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buf.writeBytes(digits, pos, digits.length - pos);
+        return this;
+    }
+
+    public PrometheusExpositionWriter append(double value) {
+        ByteBufUtil.writeAscii(buf, Double.toString(value));
+        return this;
+    }
+
+    public PrometheusExpositionWriter append(Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return append(((Number) value).longValue());
+        }
+        return append(String.valueOf(value));
+    }
+}
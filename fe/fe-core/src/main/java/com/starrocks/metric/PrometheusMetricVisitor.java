@@ -36,7 +36,6 @@ package com.starrocks.metric;
 
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Snapshot;
-import com.google.common.base.Joiner;
 import com.starrocks.monitor.jvm.JvmStats;
 import com.starrocks.monitor.jvm.JvmStats.BufferPool;
 import com.starrocks.monitor.jvm.JvmStats.GarbageCollector;
@@ -45,11 +44,13 @@ import com.starrocks.monitor.jvm.JvmStats.Threads;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.NodeMgr;
 import com.starrocks.system.SystemInfoService;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /*
  * Like this:
@@ -71,31 +72,36 @@ public class PrometheusMetricVisitor extends MetricVisitor {
     private static final String HELP = "# HELP ";
     private static final String TYPE = "# TYPE ";
 
-    private final StringBuilder sb;
+    private final PrometheusExpositionWriter out;
     private final Set<String> metricNames = new HashSet<>();
 
     public PrometheusMetricVisitor(String prefix) {
+        this(prefix, Unpooled.buffer());
+    }
+
+    // Write the output into the given buffer, which can be sent as the response body directly
+    public PrometheusMetricVisitor(String prefix, ByteBuf buffer) {
         super(prefix);
-        sb = new StringBuilder();
+        out = new PrometheusExpositionWriter(buffer);
     }
 
     @Override
     public void visitJvm(JvmStats jvmStats) {
         // heap
-        sb.append(Joiner.on(" ").join(HELP, JVM_HEAP_SIZE_BYTES, "jvm heap stat\n"));
-        sb.append(Joiner.on(" ").join(TYPE, JVM_HEAP_SIZE_BYTES, "gauge\n"));
-        sb.append(JVM_HEAP_SIZE_BYTES).append("{type=\"max\"} ").append(jvmStats.getMem().getHeapMax())
+        out.append(HELP).append(' ').append(JVM_HEAP_SIZE_BYTES).append(' ').append("jvm heap stat\n");
+        out.append(TYPE).append(' ').append(JVM_HEAP_SIZE_BYTES).append(' ').append("gauge\n");
+        out.append(JVM_HEAP_SIZE_BYTES).append("{type=\"max\"} ").append(jvmStats.getMem().getHeapMax())
                 .append("\n");
-        sb.append(JVM_HEAP_SIZE_BYTES).append("{type=\"committed\"} ")
+        out.append(JVM_HEAP_SIZE_BYTES).append("{type=\"committed\"} ")
                 .append(jvmStats.getMem().getHeapCommitted()).append("\n");
-        sb.append(JVM_HEAP_SIZE_BYTES).append("{type=\"used\"} ").append(jvmStats.getMem().getHeapUsed())
+        out.append(JVM_HEAP_SIZE_BYTES).append("{type=\"used\"} ").append(jvmStats.getMem().getHeapUsed())
                 .append("\n");
         // non heap
-        sb.append(Joiner.on(" ").join(HELP, JVM_NON_HEAP_SIZE_BYTES, "jvm non heap stat\n"));
-        sb.append(Joiner.on(" ").join(TYPE, JVM_NON_HEAP_SIZE_BYTES, "gauge\n"));
-        sb.append(JVM_NON_HEAP_SIZE_BYTES).append("{type=\"committed\"} ")
+        out.append(HELP).append(' ').append(JVM_NON_HEAP_SIZE_BYTES).append(' ').append("jvm non heap stat\n");
+        out.append(TYPE).append(' ').append(JVM_NON_HEAP_SIZE_BYTES).append(' ').append("gauge\n");
+        out.append(JVM_NON_HEAP_SIZE_BYTES).append("{type=\"committed\"} ")
                 .append(jvmStats.getMem().getNonHeapCommitted()).append("\n");
-        sb.append(JVM_NON_HEAP_SIZE_BYTES).append("{type=\"used\"} ")
+        out.append(JVM_NON_HEAP_SIZE_BYTES).append("{type=\"used\"} ")
                 .append(jvmStats.getMem().getNonHeapUsed()).append("\n");
 
         // mem pool
@@ -110,14 +116,14 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         // direct buffer pool
         for (BufferPool pool : jvmStats.getBufferPools()) {
             if (pool.getName().equalsIgnoreCase("direct")) {
-                sb.append(Joiner.on(" ").join(HELP, JVM_DIRECT_BUFFER_POOL_SIZE_BYTES,
-                        "jvm direct buffer pool stat\n"));
-                sb.append(Joiner.on(" ").join(TYPE, JVM_DIRECT_BUFFER_POOL_SIZE_BYTES, "gauge\n"));
-                sb.append(JVM_DIRECT_BUFFER_POOL_SIZE_BYTES).append("{type=\"count\"} ").append(pool.getCount())
+                out.append(HELP).append(' ').append(JVM_DIRECT_BUFFER_POOL_SIZE_BYTES).append(' ')
+                        .append("jvm direct buffer pool stat\n");
+                out.append(TYPE).append(' ').append(JVM_DIRECT_BUFFER_POOL_SIZE_BYTES).append(' ').append("gauge\n");
+                out.append(JVM_DIRECT_BUFFER_POOL_SIZE_BYTES).append("{type=\"count\"} ").append(pool.getCount())
                         .append("\n");
-                sb.append(JVM_DIRECT_BUFFER_POOL_SIZE_BYTES).append("{type=\"used\"} ")
+                out.append(JVM_DIRECT_BUFFER_POOL_SIZE_BYTES).append("{type=\"used\"} ")
                         .append(pool.getUsed()).append("\n");
-                sb.append(JVM_DIRECT_BUFFER_POOL_SIZE_BYTES).append("{type=\"capacity\"} ")
+                out.append(JVM_DIRECT_BUFFER_POOL_SIZE_BYTES).append("{type=\"capacity\"} ")
                         .append(pool.getTotalCapacity()).append("\n");
             }
         }
@@ -133,31 +139,31 @@ public class PrometheusMetricVisitor extends MetricVisitor {
 
         // threads
         Threads threads = jvmStats.getThreads();
-        sb.append(Joiner.on(" ").join(HELP, JVM_THREAD, "jvm thread stat\n"));
-        sb.append(Joiner.on(" ").join(TYPE, JVM_THREAD, "gauge\n"));
-        sb.append(JVM_THREAD).append("{type=\"count\"} ").append(threads.getCount()).append("\n");
-        sb.append(JVM_THREAD).append("{type=\"peak_count\"} ").append(threads.getPeakCount()).append("\n");
+        out.append(HELP).append(' ').append(JVM_THREAD).append(' ').append("jvm thread stat\n");
+        out.append(TYPE).append(' ').append(JVM_THREAD).append(' ').append("gauge\n");
+        out.append(JVM_THREAD).append("{type=\"count\"} ").append(threads.getCount()).append("\n");
+        out.append(JVM_THREAD).append("{type=\"peak_count\"} ").append(threads.getPeakCount()).append("\n");
     }
 
     private void addGcMetrics(GarbageCollector gc, String metricName, String desc) {
-        sb.append(Joiner.on(" ").join(HELP, metricName, desc));
-        sb.append(Joiner.on(" ").join(TYPE, metricName, "gauge\n"));
-        sb.append(metricName).append("{type=\"count\"} ").append(gc.getCollectionCount()).append("\n");
-        sb.append(metricName).append("{type=\"time\"} ").append(gc.getCollectionTime().getMillis())
+        out.append(HELP).append(' ').append(metricName).append(' ').append(desc);
+        out.append(TYPE).append(' ').append(metricName).append(' ').append("gauge\n");
+        out.append(metricName).append("{type=\"count\"} ").append(gc.getCollectionCount()).append("\n");
+        out.append(metricName).append("{type=\"time\"} ").append(gc.getCollectionTime().getMillis())
                 .append("\n");
 
     }
 
     private void addMemPoolMetrics(MemoryPool memPool, String metricName, String desc) {
-        sb.append(Joiner.on(" ").join(HELP, metricName, desc));
-        sb.append(Joiner.on(" ").join(TYPE, metricName, "gauge\n"));
-        sb.append(metricName).append("{type=\"committed\"} ").append(memPool.getCommitted())
+        out.append(HELP).append(' ').append(metricName).append(' ').append(desc);
+        out.append(TYPE).append(' ').append(metricName).append(' ').append("gauge\n");
+        out.append(metricName).append("{type=\"committed\"} ").append(memPool.getCommitted())
                 .append("\n");
-        sb.append(metricName).append("{type=\"used\"} ").append(memPool.getUsed())
+        out.append(metricName).append("{type=\"used\"} ").append(memPool.getUsed())
                 .append("\n");
-        sb.append(metricName).append("{type=\"peak_used\"} ").append(memPool.getPeakUsed())
+        out.append(metricName).append("{type=\"peak_used\"} ").append(memPool.getPeakUsed())
                 .append("\n");
-        sb.append(metricName).append("{type=\"max\"} ").append(memPool.getMax())
+        out.append(metricName).append("{type=\"max\"} ").append(memPool.getMax())
                 .append("\n");
     }
 
@@ -167,41 +173,45 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         final String fullName = prefix + "_" + metric.getName();
         // SR-57 : Fix prometheus parse error : 'second HELP line for metric name ...'
         if (!metricNames.contains(fullName)) {
-            sb.append(HELP).append(fullName).append(" ").append(metric.getDescription()).append("\n");
-            sb.append(TYPE).append(fullName).append(" ").append(metric.getType().name().toLowerCase()).append("\n");
+            out.append(HELP).append(fullName).append(" ").append(metric.getDescription()).append("\n");
+            out.append(TYPE).append(fullName).append(" ").append(metric.getType().name().toLowerCase()).append("\n");
             metricNames.add(fullName);
         }
-        sb.append(fullName);
+        out.append(fullName);
 
         // name
         @SuppressWarnings("unchecked")
         List<MetricLabel> labels = metric.getLabels();
         if (!labels.isEmpty()) {
-            sb.append("{");
-            List<String> labelStrings = labels.stream().map(l -> l.getKey() + "=\"" + l.getValue()
-                    + "\"").collect(Collectors.toList());
-            sb.append(Joiner.on(", ").join(labelStrings));
-            sb.append("}");
+            out.append('{');
+            for (int i = 0; i < labels.size(); i++) {
+                if (i > 0) {
+                    out.append(", ");
+                }
+                MetricLabel label = labels.get(i);
+                out.append(label.getKey()).append("=\"").append(label.getValue()).append('"');
+            }
+            out.append('}');
         }
 
         // value
-        sb.append(" ").append(metric.getValue().toString()).append("\n");
+        out.append(' ').append(metric.getValue()).append('\n');
     }
 
     @Override
     public void visitHistogram(String name, Histogram histogram) {
         final String fullName = prefix + "_" + name.replaceAll("\\.", "_");
-        sb.append(HELP).append(fullName).append(" ").append("\n");
-        sb.append(TYPE).append(fullName).append(" ").append("summary\n");
+        out.append(HELP).append(fullName).append(" ").append("\n");
+        out.append(TYPE).append(fullName).append(" ").append("summary\n");
 
         Snapshot snapshot = histogram.getSnapshot();
-        sb.append(fullName).append("{quantile=\"0.75\"} ").append(snapshot.get75thPercentile()).append("\n");
-        sb.append(fullName).append("{quantile=\"0.95\"} ").append(snapshot.get95thPercentile()).append("\n");
-        sb.append(fullName).append("{quantile=\"0.98\"} ").append(snapshot.get98thPercentile()).append("\n");
-        sb.append(fullName).append("{quantile=\"0.99\"} ").append(snapshot.get99thPercentile()).append("\n");
-        sb.append(fullName).append("{quantile=\"0.999\"} ").append(snapshot.get999thPercentile()).append("\n");
-        sb.append(fullName).append("_sum ").append(histogram.getCount() * snapshot.getMean()).append("\n");
-        sb.append(fullName).append("_count ").append(histogram.getCount()).append("\n");
+        out.append(fullName).append("{quantile=\"0.75\"} ").append(snapshot.get75thPercentile()).append("\n");
+        out.append(fullName).append("{quantile=\"0.95\"} ").append(snapshot.get95thPercentile()).append("\n");
+        out.append(fullName).append("{quantile=\"0.98\"} ").append(snapshot.get98thPercentile()).append("\n");
+        out.append(fullName).append("{quantile=\"0.99\"} ").append(snapshot.get99thPercentile()).append("\n");
+        out.append(fullName).append("{quantile=\"0.999\"} ").append(snapshot.get999thPercentile()).append("\n");
+        out.append(fullName).append("_sum ").append(histogram.getCount() * snapshot.getMean()).append("\n");
+        out.append(fullName).append("_count ").append(histogram.getCount()).append("\n");
     }
 
     @Override
@@ -209,35 +219,35 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         final String NODE_INFO = "node_info";
         final NodeMgr nodeMgr = GlobalStateMgr.getCurrentState().getNodeMgr();
         final SystemInfoService systemInfoService = nodeMgr.getClusterInfo();
-        sb.append(Joiner.on(" ").join(TYPE, NODE_INFO, "gauge\n"));
-        sb.append(NODE_INFO).append("{type=\"fe_node_num\", state=\"total\"} ")
+        out.append(TYPE).append(' ').append(NODE_INFO).append(' ').append("gauge\n");
+        out.append(NODE_INFO).append("{type=\"fe_node_num\", state=\"total\"} ")
                 .append(nodeMgr.getFrontends(null).size()).append("\n");
-        sb.append(NODE_INFO).append("{type=\"be_node_num\", state=\"total\"} ")
+        out.append(NODE_INFO).append("{type=\"be_node_num\", state=\"total\"} ")
                 .append(systemInfoService.getTotalBackendNumber()).append("\n");
-        sb.append(NODE_INFO).append("{type=\"be_node_num\", state=\"alive\"} ")
+        out.append(NODE_INFO).append("{type=\"be_node_num\", state=\"alive\"} ")
                 .append(systemInfoService.getAliveBackendNumber()).append("\n");
-        sb.append(NODE_INFO).append("{type=\"be_node_num\", state=\"decommissioned\"} ")
+        out.append(NODE_INFO).append("{type=\"be_node_num\", state=\"decommissioned\"} ")
                 .append(systemInfoService.getDecommissionedBackendIds().size())
                 .append("\n");
-        sb.append(NODE_INFO).append("{type=\"broker_node_num\", state=\"dead\"} ").append(
+        out.append(NODE_INFO).append("{type=\"broker_node_num\", state=\"dead\"} ").append(
                         GlobalStateMgr.getCurrentState().getBrokerMgr().getAllBrokers().stream().filter(b -> !b.isAlive)
                                 .count())
                 .append("\n");
 
-        sb.append(NODE_INFO).append("{type=\"cn_node_num\", state=\"total\"} ")
+        out.append(NODE_INFO).append("{type=\"cn_node_num\", state=\"total\"} ")
             .append(systemInfoService.getTotalComputeNodeNumber()).append("\n");
-        sb.append(NODE_INFO).append("{type=\"cn_node_num\", state=\"alive\"} ")
+        out.append(NODE_INFO).append("{type=\"cn_node_num\", state=\"alive\"} ")
             .append(systemInfoService.getAliveComputeNodeNumber()).append("\n");
 
         // only master FE has this metrics, to help the Grafana knows who is the leader
         if (GlobalStateMgr.getCurrentState().isLeader()) {
-            sb.append(NODE_INFO).append("{type=\"is_master\"} ").append(1).append("\n");
+            out.append(NODE_INFO).append("{type=\"is_master\"} ").append(1).append("\n");
         }
     }
 
     @Override
     public String build() {
-        return sb.toString();
+        return out.getBuffer().toString(StandardCharsets.UTF_8);
     }
 }
 
@@ -63,6 +63,10 @@ public class StarRocksMetricRegistry {
         return metrics.stream().filter(m -> m.getName().equals(name)).collect(Collectors.toList());
     }
 
+    public synchronized void removeMetric(Metric metric) {
+        metrics.remove(metric);
+    }
+
     public synchronized void removeMetrics(String name) {
         metrics = metrics.stream().filter(m -> !(m.getName().equals(name))).collect(Collectors.toList());
     }
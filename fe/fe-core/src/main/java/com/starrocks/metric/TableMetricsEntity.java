@@ -19,9 +19,12 @@ import com.google.common.collect.Lists;
 import com.starrocks.metric.Metric.MetricUnit;
 
 import java.util.List;
+import java.util.Objects;
 
 public final class TableMetricsEntity {
 
+    protected static final String TABLE_SIZE_BYTES = "table_size_bytes";
+    protected static final String TABLE_SIZE_BYTES_COMMENT = "total size of table in bytes";
     protected static final String TABLE_SCAN_BYTES = "table_scan_bytes";
     protected static final String TABLE_SCAN_BYTES_COMMENT = "total scanned bytes of a table";
     protected static final String TABLE_SCAN_ROWS = "table_scan_rows";
@@ -74,10 +77,32 @@ public final class TableMetricsEntity {
     public LongCounterMetric counterSparkLoadRowsTotal;
     public LongCounterMetric counterSparkLoadFinishedTotal;
 
+    // only visited for native tables and materialized views, so it is not in the metrics list
+    public GaugeMetricImpl<Long> gaugeTableSizeBytes;
+
+    // the db and table name the labels are built with, labels are only rebuilt if they are renamed
+    private String labeledDbName;
+    private String labeledTableName;
+
     public TableMetricsEntity() {
         initTableMetrics();
     }
 
+    public void setTableLabels(String dbName, String tableName, long tableId) {
+        if (Objects.equals(dbName, labeledDbName) && Objects.equals(tableName, labeledTableName)) {
+            return;
+        }
+        MetricLabel dbLabel = new MetricLabel("db_name", dbName);
+        MetricLabel tableLabel = new MetricLabel("tbl_name", tableName);
+        MetricLabel tableIdLabel = new MetricLabel("tbl_id", String.valueOf(tableId));
+        gaugeTableSizeBytes.addLabel(dbLabel).addLabel(tableLabel).addLabel(tableIdLabel);
+        for (Metric metric : metrics) {
+            metric.addLabel(dbLabel).addLabel(tableLabel).addLabel(tableIdLabel);
+        }
+        labeledDbName = dbName;
+        labeledTableName = tableName;
+    }
+
     public List<Metric> getMetrics() {
         return metrics;
     }
@@ -85,6 +110,8 @@ public final class TableMetricsEntity {
     protected void initTableMetrics() {
         metrics = Lists.newArrayList();
 
+        gaugeTableSizeBytes = new GaugeMetricImpl<>(TABLE_SIZE_BYTES, MetricUnit.BYTES, TABLE_SIZE_BYTES_COMMENT);
+
         // scan metrics
         counterScanBytesTotal = new LongCounterMetric(TABLE_SCAN_BYTES, MetricUnit.BYTES, TABLE_SCAN_BYTES_COMMENT);
         metrics.add(counterScanBytesTotal);
@@ -44,6 +44,11 @@ public final class TableMetricsRegistry {
         return idToTableMetrics.computeIfAbsent(tableId, k -> new TableMetricsEntity());
     }
 
+    // Unlike getMetricsEntity, do not create the entity if the table has no metrics yet
+    public TableMetricsEntity getMetricsEntityIfPresent(long tableId) {
+        return idToTableMetrics.get(tableId);
+    }
+
     private class MetricsCleaner extends TimerTask {
         @Override
         public void run() {
@@ -43,6 +43,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This class used to read/write MySQL logical packet.
@@ -75,6 +76,8 @@ public class MysqlChannel {
     protected String remoteIp;
     protected boolean isSend;
     protected boolean closed;
+    // a lock instead of the monitor, not to pin virtual threads while closing the connection
+    protected final ReentrantLock closeLock = new ReentrantLock();
 
     protected MysqlChannel() {
         this(null);
@@ -133,16 +136,21 @@ public class MysqlChannel {
     }
 
     // Close channel
-    public synchronized void close() {
-        if (closed) {
-            return;
-        }
+    public void close() {
+        closeLock.lock();
         try {
-            channel.close();
-        } catch (IOException e) {
-            LOG.warn("Close channel exception, ignore.");
+            if (closed) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.warn("Close channel exception, ignore.");
+            } finally {
+                closed = true;
+            }
         } finally {
-            closed = true;
+            closeLock.unlock();
         }
     }
 
@@ -73,16 +73,21 @@ public class NMysqlChannel extends MysqlChannel {
     }
 
     @Override
-    public synchronized void close() {
-        if (closed) {
-            return;
-        }
+    public void close() {
+        closeLock.lock();
         try {
-            conn.close();
-        } catch (IOException e) {
-            LOG.warn("Close channel exception, ignore.");
+            if (closed) {
+                return;
+            }
+            try {
+                conn.close();
+            } catch (IOException e) {
+                LOG.warn("Close channel exception, ignore.");
+            } finally {
+                closed = true;
+            }
         } finally {
-            closed = true;
+            closeLock.unlock();
         }
     }
 
@@ -48,6 +48,7 @@ import org.xnio.XnioWorker;
 import org.xnio.channels.AcceptingChannel;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import javax.net.ssl.SSLContext;
 
@@ -64,8 +65,7 @@ public class NMysqlServer extends MysqlServer {
     private AcceptingChannel<StreamConnection> server;
 
     // default task service.
-    private ExecutorService taskService = ThreadPoolManager
-            .newDaemonCacheThreadPool(Config.max_mysql_service_task_threads_num, "starrocks-mysql-nio-pool", true);
+    private ExecutorService taskService = createTaskService();
 
     public NMysqlServer(int port, ConnectScheduler connectScheduler, SSLContext sslContext) {
         this.port = port;
@@ -108,6 +108,20 @@ public class NMysqlServer extends MysqlServer {
         }
     }
 
+    private static ExecutorService createTaskService() {
+        if (Config.mysql_service_use_virtual_threads) {
+            Optional<ExecutorService> executor =
+                    ThreadPoolManager.newVirtualThreadPerTaskExecutor("starrocks-mysql-nio-virtual");
+            if (executor.isPresent()) {
+                LOG.info("Process mysql connections on virtual threads");
+                return executor.get();
+            }
+            LOG.warn("Failed to create virtual threads, process mysql connections on platform threads");
+        }
+        return ThreadPoolManager.newDaemonCacheThreadPool(Config.max_mysql_service_task_threads_num,
+                "starrocks-mysql-nio-pool", true);
+    }
+
     public void setTaskService(ExecutorService taskService) {
         this.taskService = taskService;
     }
@@ -197,6 +197,8 @@ public class EsScanNode extends ScanNode {
     public List<TScanRangeLocations> computeShardLocations(List<EsShardPartitions> selectedIndex) {
         int size = nodeList.size();
         int nodeIndex = random.nextInt(size);
+        // the limit is pushed down to ES by a single search request, which can't be sliced
+        int numSlices = hasLimit() ? 1 : table.scrollSlices();
         List<TScanRangeLocations> result = Lists.newArrayList();
         for (EsShardPartitions indexState : selectedIndex) {
             for (List<EsShardRouting> shardRouting : indexState.getShardRoutings().values()) {
@@ -229,30 +231,38 @@ public class EsScanNode extends ScanNode {
                     }
                 }
 
-                // Locations
-                TScanRangeLocations locations = new TScanRangeLocations();
-                for (int i = 0; i < numNode && i < candidateNodeList.size(); ++i) {
-                    TScanRangeLocation location = new TScanRangeLocation();
-                    ComputeNode be = candidateNodeList.get(i);
-                    location.setBackend_id(be.getId());
-                    location.setServer(new TNetworkAddress(be.getHost(), be.getBePort()));
-                    locations.addToLocations(location);
-                }
+                // Each slice of the shard is a scan range, slices are placed on the candidate nodes in turn,
+                // so that they are read by different nodes.
+                for (int slice = 0; slice < numSlices; slice++) {
+                    // Locations
+                    TScanRangeLocations locations = new TScanRangeLocations();
+                    for (int i = 0; i < numNode && i < candidateNodeList.size(); ++i) {
+                        TScanRangeLocation location = new TScanRangeLocation();
+                        ComputeNode be = candidateNodeList.get((i + slice) % candidateNodeList.size());
+                        location.setBackend_id(be.getId());
+                        location.setServer(new TNetworkAddress(be.getHost(), be.getBePort()));
+                        locations.addToLocations(location);
+                    }
 
-                // Generate on es scan range
-                TEsScanRange esScanRange = new TEsScanRange();
-                esScanRange.setEs_hosts(shardAllocations);
-                esScanRange.setIndex(shardRouting.get(0).getIndexName());
-                if (table.getMappingType() != null) {
-                    esScanRange.setType(table.getMappingType());
+                    // Generate on es scan range
+                    TEsScanRange esScanRange = new TEsScanRange();
+                    esScanRange.setEs_hosts(shardAllocations);
+                    esScanRange.setIndex(shardRouting.get(0).getIndexName());
+                    if (table.getMappingType() != null) {
+                        esScanRange.setType(table.getMappingType());
+                    }
+                    esScanRange.setShard_id(shardRouting.get(0).getShardId());
+                    if (numSlices > 1) {
+                        esScanRange.setSlice_id(slice);
+                        esScanRange.setSlice_max(numSlices);
+                    }
+                    // Scan range
+                    TScanRange scanRange = new TScanRange();
+                    scanRange.setEs_scan_range(esScanRange);
+                    locations.setScan_range(scanRange);
+                    // result
+                    result.add(locations);
                 }
-                esScanRange.setShard_id(shardRouting.get(0).getShardId());
-                // Scan range
-                TScanRange scanRange = new TScanRange();
-                scanRange.setEs_scan_range(esScanRange);
-                locations.setScan_range(scanRange);
-                // result
-                result.add(locations);
             }
 
         }
@@ -309,6 +319,9 @@ public class EsScanNode extends ScanNode {
                     .append(String.format("ES index/type: %s/%s", indexName, typeName))
                     .append("\n");
         }
+        if (table.scrollSlices() > 1 && !hasLimit()) {
+            output.append(prefix).append("SCROLL SLICES: ").append(table.scrollSlices()).append("\n");
+        }
         return output.toString();
     }
 
@@ -28,12 +28,19 @@ import com.starrocks.catalog.Column;
 import com.starrocks.catalog.JDBCResource;
 import com.starrocks.catalog.JDBCTable;
 import com.starrocks.common.UserException;
+import com.starrocks.connector.GetRemoteFilesParams;
+import com.starrocks.connector.RemoteFileInfo;
+import com.starrocks.connector.jdbc.JDBCRemoteFileDesc;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.analyzer.AstToStringBuilder;
+import com.starrocks.system.SystemInfoService;
 import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.thrift.TJDBCScanNode;
+import com.starrocks.thrift.TJDBCScanRange;
 import com.starrocks.thrift.TPlanNode;
 import com.starrocks.thrift.TPlanNodeType;
+import com.starrocks.thrift.TScanRange;
+import com.starrocks.thrift.TScanRangeLocation;
 import com.starrocks.thrift.TScanRangeLocations;
 
 import java.util.ArrayList;
@@ -48,6 +55,8 @@ public class JDBCScanNode extends ScanNode {
     private final List<String> filters = new ArrayList<>();
     private String tableName;
     private JDBCTable table;
+    // not null if the scan is split into ranges of the split column
+    private List<TScanRangeLocations> scanRangeLocationsList = null;
 
     public JDBCScanNode(PlanNodeId id, TupleDescriptor desc, JDBCTable tbl) {
         super(id, desc, "SCAN JDBC");
@@ -79,6 +88,9 @@ public class JDBCScanNode extends ScanNode {
         StringBuilder output = new StringBuilder();
         output.append(prefix).append("TABLE: ").append(tableName).append("\n");
         output.append(prefix).append("QUERY: ").append(getJDBCQueryStr()).append("\n");
+        if (scanRangeLocationsList != null) {
+            output.append(prefix).append("SPLITS: ").append(scanRangeLocationsList.size()).append("\n");
+        }
         return output.toString();
     }
 
@@ -95,6 +107,57 @@ public class JDBCScanNode extends ScanNode {
         return sql.toString();
     }
 
+    /**
+     * Split the scan into ranges of the split column if jdbc_scan_split_num is set, each range is read by its own
+     * query on a backend chosen round-robin. Only called for splittable scans, see
+     * {@link com.starrocks.sql.optimizer.operator.physical.PhysicalJDBCScanOperator#isScanSplittable()}.
+     */
+    public void setupScanRangeLocations() {
+        GetRemoteFilesParams params = GetRemoteFilesParams.newBuilder().build();
+        List<RemoteFileInfo> fileInfos = GlobalStateMgr.getCurrentState().getMetadataMgr().getRemoteFiles(table, params);
+        if (fileInfos == null || fileInfos.isEmpty()) {
+            return;
+        }
+        JDBCRemoteFileDesc remoteFileDesc = (JDBCRemoteFileDesc) fileInfos.get(0).getFiles().get(0);
+        List<String> splitPredicates = remoteFileDesc.getSplitPredicates();
+        if (splitPredicates.isEmpty()) {
+            return;
+        }
+        List<Long> nodeIds = getAllAvailableBackendOrComputeIds();
+        if (nodeIds.isEmpty()) {
+            return;
+        }
+        scanRangeLocationsList = new ArrayList<>();
+        for (int i = 0; i < splitPredicates.size(); i++) {
+            addScanRangeLocations(splitPredicates.get(i), nodeIds.get(i % nodeIds.size()));
+        }
+    }
+
+    private void addScanRangeLocations(String splitPredicate, long nodeId) {
+        TJDBCScanRange jdbcScanRange = new TJDBCScanRange();
+        jdbcScanRange.setSplit_predicate(splitPredicate);
+        TScanRange scanRange = new TScanRange();
+        scanRange.setJdbc_scan_range(jdbcScanRange);
+
+        TScanRangeLocations scanRangeLocations = new TScanRangeLocations();
+        scanRangeLocations.setScan_range(scanRange);
+        TScanRangeLocation scanRangeLocation = new TScanRangeLocation();
+        scanRangeLocation.setBackend_id(nodeId);
+        scanRangeLocations.addToLocations(scanRangeLocation);
+        scanRangeLocationsList.add(scanRangeLocations);
+    }
+
+    private List<Long> getAllAvailableBackendOrComputeIds() {
+        SystemInfoService infoService = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo();
+        List<Long> allNodes = infoService.getAvailableBackendIds();
+        allNodes.addAll(infoService.getAvailableComputeNodeIds());
+        return allNodes;
+    }
+
+    public boolean isSplit() {
+        return scanRangeLocationsList != null;
+    }
+
     private void createJDBCTableColumns() {
         String objectIdentifier = getIdentifierSymbol();
         for (SlotDescriptor slot : desc.getSlots()) {
@@ -158,11 +221,14 @@ public class JDBCScanNode extends ScanNode {
         msg.jdbc_scan_node.setColumns(columns);
         msg.jdbc_scan_node.setFilters(filters);
         msg.jdbc_scan_node.setLimit(limit);
+        if (scanRangeLocationsList != null) {
+            msg.jdbc_scan_node.setNum_splits(scanRangeLocationsList.size());
+        }
     }
 
     @Override
     public List<TScanRangeLocations> getScanRangeLocations(long maxScanRangeLength) {
-        return null;
+        return scanRangeLocationsList;
     }
 
     @Override
@@ -17,6 +17,8 @@
 
 package com.starrocks.plugin;
 
+import java.util.List;
+
 /**
  * Audit plugin interface describe.
  */
@@ -32,4 +34,14 @@ public interface AuditPlugin {
      * Because it will be called after each query. So it must be efficient.
      */
     public void exec(AuditEvent event);
+
+    /**
+     * process a batch of events, which all pass the event filter.
+     * Plugins writing to external systems can override this to write the batch at once.
+     */
+    default void execBatch(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            exec(event);
+        }
+    }
 }
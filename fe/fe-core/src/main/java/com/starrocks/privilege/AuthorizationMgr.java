@@ -36,6 +36,7 @@ import com.starrocks.persist.metablock.SRMetaBlockException;
 import com.starrocks.persist.metablock.SRMetaBlockID;
 import com.starrocks.persist.metablock.SRMetaBlockReader;
 import com.starrocks.persist.metablock.SRMetaBlockWriter;
+import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.analyzer.AstToSQLBuilder;
 import com.starrocks.sql.analyzer.Authorizer;
@@ -64,6 +65,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class AuthorizationMgr {
@@ -101,6 +103,9 @@ public class AuthorizationMgr {
     private final ReentrantReadWriteLock userLock;
     private final ReentrantReadWriteLock roleLock;
 
+    // bumped on every change of users, roles or privileges, invalidates all the PrivilegeCheckSnapshot built before
+    private final AtomicLong privilegeVersion = new AtomicLong();
+
     // set by load() to distinguish brand-new environment with upgraded environment
     private boolean isLoaded = false;
 
@@ -315,6 +320,7 @@ public class AuthorizationMgr {
     }
 
     private void userWriteUnlock() {
+        privilegeVersion.incrementAndGet();
         userLock.writeLock().unlock();
     }
 
@@ -331,6 +337,7 @@ public class AuthorizationMgr {
     }
 
     private void roleWriteUnlock() {
+        privilegeVersion.incrementAndGet();
         roleLock.writeLock().unlock();
     }
 
@@ -723,6 +730,60 @@ public class AuthorizationMgr {
         }
     }
 
+    /**
+     * check with the privilege snapshot of the current session, fall back to the merged privilege collection
+     * if there is no session or the snapshot is disabled.
+     */
+    protected boolean checkAction(UserIdentity userIdentity, Set<Long> roleIds, ObjectType objectType,
+                                  PrivilegeType privilegeType, List<String> objectNames) throws PrivilegeException {
+        PrivilegeCheckSnapshot snapshot = getPrivilegeCheckSnapshot(userIdentity, roleIds);
+        if (snapshot == null) {
+            return checkAction(mergePrivilegeCollection(userIdentity, roleIds), objectType, privilegeType, objectNames);
+        }
+        PEntryObject object =
+                objectNames == null ? null : provider.generateObject(objectType, objectNames, globalStateMgr);
+        return snapshot.check(provider, objectType, privilegeType, object);
+    }
+
+    protected boolean searchAnyActionOnObject(UserIdentity userIdentity, Set<Long> roleIds, ObjectType objectType,
+                                              List<String> objectNames) throws PrivilegeException {
+        PrivilegeCheckSnapshot snapshot = getPrivilegeCheckSnapshot(userIdentity, roleIds);
+        if (snapshot == null) {
+            PrivilegeCollectionV2 collection = mergePrivilegeCollection(userIdentity, roleIds);
+            PEntryObject object = provider.generateObject(objectType, objectNames, globalStateMgr);
+            return provider.searchAnyActionOnObject(objectType, object, collection);
+        }
+        PEntryObject object = provider.generateObject(objectType, objectNames, globalStateMgr);
+        return snapshot.searchAnyActionOnObject(provider, objectType, object);
+    }
+
+    public long getPrivilegeVersion() {
+        return privilegeVersion.get();
+    }
+
+    /**
+     * get the privilege snapshot of the current session, rebuild it if the session switched user or roles,
+     * or the privileges changed since it was built. Return null if there is no session.
+     */
+    protected PrivilegeCheckSnapshot getPrivilegeCheckSnapshot(UserIdentity userIdentity, Set<Long> roleIds)
+            throws PrivilegeException {
+        ConnectContext context = ConnectContext.get();
+        if (context == null || !Config.authorization_enable_priv_check_snapshot
+                || !Config.authorization_enable_priv_collection_cache) {
+            return null;
+        }
+        // read the version before merging, a concurrent change makes the new snapshot stale immediately
+        long version = privilegeVersion.get();
+        PrivilegeCheckSnapshot snapshot = context.getPrivilegeCheckSnapshot();
+        if (snapshot != null && snapshot.isValid(this, version, userIdentity, roleIds)) {
+            return snapshot;
+        }
+        snapshot = new PrivilegeCheckSnapshot(
+                this, version, userIdentity, roleIds, mergePrivilegeCollection(userIdentity, roleIds));
+        context.setPrivilegeCheckSnapshot(snapshot);
+        return snapshot;
+    }
+
     public boolean canExecuteAs(UserIdentity currentUser, Set<Long> roleIds, UserIdentity impersonateUser) {
         try {
             PrivilegeCollectionV2 collection = mergePrivilegeCollection(currentUser, roleIds);
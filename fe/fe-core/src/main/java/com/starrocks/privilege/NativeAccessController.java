@@ -310,8 +310,7 @@ public class NativeAccessController implements AccessController {
                                                 ObjectType objectType, List<String> objectTokens) throws AccessDeniedException {
         AuthorizationMgr manager = GlobalStateMgr.getCurrentState().getAuthorizationMgr();
         try {
-            PrivilegeCollectionV2 collection = manager.mergePrivilegeCollection(userIdentity, roleIds);
-            boolean checkResult = manager.checkAction(collection, objectType, privilegeType, objectTokens);
+            boolean checkResult = manager.checkAction(userIdentity, roleIds, objectType, privilegeType, objectTokens);
             if (!checkResult) {
                 throw new AccessDeniedException();
             }
@@ -340,10 +339,7 @@ public class NativeAccessController implements AccessController {
                                                  List<String> objectTokens) throws AccessDeniedException {
         AuthorizationMgr manager = GlobalStateMgr.getCurrentState().getAuthorizationMgr();
         try {
-            PrivilegeCollectionV2 collection = manager.mergePrivilegeCollection(currentUser, roleIds);
-            PEntryObject pEntryObject = manager.provider.generateObject(
-                    objectType, objectTokens, GlobalStateMgr.getCurrentState());
-            boolean checkResult = manager.provider.searchAnyActionOnObject(objectType, pEntryObject, collection);
+            boolean checkResult = manager.searchAnyActionOnObject(currentUser, roleIds, objectType, objectTokens);
             if (!checkResult) {
                 throw new AccessDeniedException();
             }
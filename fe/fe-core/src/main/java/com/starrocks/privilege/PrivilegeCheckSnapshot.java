@@ -0,0 +1,128 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.privilege;
+
+import com.starrocks.sql.ast.UserIdentity;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PrivilegeCheckSnapshot is the privilege collection of a session, i.e. a user with its activated roles, compiled
+ * for repeated checks. The outcome of every check is memoized per object into a bitmask, so that analyzing a
+ * statement touching the same objects again and again only costs a hash lookup, without taking the user and role
+ * locks of {@link AuthorizationMgr} or scanning the privilege entries.
+ * <p>
+ * A snapshot is bound to the privilege version of the {@link AuthorizationMgr} it is built from. Every change of
+ * users, roles or privileges bumps the version, and the snapshot is thrown away and rebuilt on the next check.
+ */
+public class PrivilegeCheckSnapshot {
+    // bits [0, 31) of the memoized state record which actions have been checked,
+    // bits [32, 63) whether they are granted, and bit 31 / 63 the outcome of searching any action.
+    private static final int ANY_ACTION_BIT = 31;
+    private static final int GRANTED_SHIFT = 32;
+    // bound the memory of long-lived sessions scanning lots of objects
+    private static final int MAX_MEMOIZED_OBJECTS_PER_TYPE = 10000;
+    // key of the objects that are not specified, such as SYSTEM
+    private static final Object NO_OBJECT = new Object();
+
+    private final AuthorizationMgr owner;
+    private final long version;
+    private final UserIdentity userIdentity;
+    private final Set<Long> roleIds;
+    private final PrivilegeCollectionV2 collection;
+
+    private final Map<ObjectType, Map<Object, AtomicLong>> typeToObjectStates = new ConcurrentHashMap<>();
+
+    public PrivilegeCheckSnapshot(AuthorizationMgr owner, long version, UserIdentity userIdentity, Set<Long> roleIds,
+                                  PrivilegeCollectionV2 collection) {
+        this.owner = owner;
+        this.version = version;
+        this.userIdentity = userIdentity;
+        this.roleIds = roleIds;
+        this.collection = collection;
+    }
+
+    public boolean isValid(AuthorizationMgr mgr, long currentVersion, UserIdentity userIdentity, Set<Long> roleIds) {
+        return owner == mgr && version == currentVersion && this.userIdentity.equals(userIdentity)
+                && (this.roleIds == roleIds || Objects.equals(this.roleIds, roleIds));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public PrivilegeCollectionV2 getCollection() {
+        return collection;
+    }
+
+    public boolean check(AuthorizationProvider provider, ObjectType objectType, PrivilegeType want, PEntryObject object) {
+        int bit = want.getId();
+        AtomicLong state = bit < ANY_ACTION_BIT ? getState(objectType, object) : null;
+        if (state == null) {
+            return provider.check(objectType, want, object, collection);
+        }
+        long bits = state.get();
+        if (isMemoized(bits, bit)) {
+            return isGranted(bits, bit);
+        }
+        return memoize(state, bit, provider.check(objectType, want, object, collection));
+    }
+
+    public boolean searchAnyActionOnObject(AuthorizationProvider provider, ObjectType objectType, PEntryObject object) {
+        AtomicLong state = getState(objectType, object);
+        if (state == null) {
+            return provider.searchAnyActionOnObject(objectType, object, collection);
+        }
+        long bits = state.get();
+        if (isMemoized(bits, ANY_ACTION_BIT)) {
+            return isGranted(bits, ANY_ACTION_BIT);
+        }
+        return memoize(state, ANY_ACTION_BIT, provider.searchAnyActionOnObject(objectType, object, collection));
+    }
+
+    private AtomicLong getState(ObjectType objectType, PEntryObject object) {
+        Map<Object, AtomicLong> objectStates = typeToObjectStates.get(objectType);
+        if (objectStates == null) {
+            objectStates = typeToObjectStates.computeIfAbsent(objectType, k -> new ConcurrentHashMap<>());
+        }
+        Object key = object == null ? NO_OBJECT : object;
+        AtomicLong state = objectStates.get(key);
+        if (state == null) {
+            if (objectStates.size() >= MAX_MEMOIZED_OBJECTS_PER_TYPE) {
+                return null;
+            }
+            state = objectStates.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        return state;
+    }
+
+    private static boolean isMemoized(long bits, int bit) {
+        return (bits & (1L << bit)) != 0;
+    }
+
+    private static boolean isGranted(long bits, int bit) {
+        return (bits & (1L << (bit + GRANTED_SHIFT))) != 0;
+    }
+
+    private static boolean memoize(AtomicLong state, int bit, boolean granted) {
+        long update = (1L << bit) | (granted ? 1L << (bit + GRANTED_SHIFT) : 0L);
+        state.accumulateAndGet(update, (prev, x) -> prev | x);
+        return granted;
+    }
+}
@@ -17,7 +17,10 @@
 
 package com.starrocks.qe;
 
-import com.google.common.collect.Queues;
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.concurrent.MpscRingBuffer;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.plugin.AuditEvent;
 import com.starrocks.plugin.AuditPlugin;
 import com.starrocks.plugin.Plugin;
@@ -26,61 +29,186 @@ import com.starrocks.plugin.PluginMgr;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Class for processing all audit events.
  * It will receive audit events and handle them to all AUDIT type plugins.
+ * <p>
+ * Events are buffered in lock-free ring buffers, one for each of the audit_event_processor_threads_num workers,
+ * and the workers hand them to the plugins in batches. The capacity of each buffer is audit_event_queue_capacity
+ * divided by the number of workers, rounded down to a power of 2. When a buffer is full, audit_event_queue_overflow_policy
+ * decides whether the query finishing thread waits, or the event is dropped.
  */
 public class AuditEventProcessor {
     private static final Logger LOG = LogManager.getLogger(AuditEventProcessor.class);
     private static final long UPDATE_PLUGIN_INTERVAL_MS = 60L * 1000L; // 1min
+    // how long an idle worker parks before checking its buffer again, it's woken up by new events anyway
+    private static final long IDLE_PARK_NS = TimeUnit.SECONDS.toNanos(1);
+    // how long a producer parks before retrying a full buffer under the block policy
+    private static final long FULL_PARK_NS = TimeUnit.MICROSECONDS.toNanos(100);
 
-    private PluginMgr pluginMgr;
+    public static final String OVERFLOW_POLICY_BLOCK = "block";
+    public static final String OVERFLOW_POLICY_DROP = "drop";
+    public static final String OVERFLOW_POLICY_SAMPLE = "sample";
 
-    private List<Plugin> auditPlugins;
-    private long lastUpdateTime = 0;
+    private PluginMgr pluginMgr;
 
-    private BlockingQueue<AuditEvent> eventQueue = Queues.newLinkedBlockingDeque(10000);
-    private Thread workerThread;
+    private final Worker[] workers;
+    private final AtomicLong sampleCounter = new AtomicLong(0);
+    private final AtomicLong droppedEventNum = new AtomicLong(0);
 
     private volatile boolean isStopped = false;
 
     public AuditEventProcessor(PluginMgr pluginMgr) {
         this.pluginMgr = pluginMgr;
+        int workerNum = Math.max(1, Config.audit_event_processor_threads_num);
+        // the ring buffer rounds its capacity up to a power of 2, round it down here to not exceed the config
+        int capacity = Integer.highestOneBit(Math.max(1, Config.audit_event_queue_capacity / workerNum));
+        this.workers = new Worker[workerNum];
+        for (int i = 0; i < workerNum; i++) {
+            workers[i] = new Worker(capacity);
+        }
     }
 
     public void start() {
-        workerThread = new Thread(new Worker(), "AuditEventProcessor");
-        workerThread.setDaemon(true);
-        workerThread.start();
+        for (int i = 0; i < workers.length; i++) {
+            Thread workerThread = new Thread(workers[i], workers.length == 1 ? "AuditEventProcessor" :
+                    "AuditEventProcessor-" + i);
+            workerThread.setDaemon(true);
+            workers[i].thread = workerThread;
+            workerThread.start();
+        }
     }
 
     public void stop() {
         isStopped = true;
-        if (workerThread != null) {
-            try {
-                workerThread.join();
-            } catch (InterruptedException e) {
-                LOG.warn("join worker join failed.", e);
+        for (Worker worker : workers) {
+            if (worker.thread != null) {
+                LockSupport.unpark(worker.thread);
+                try {
+                    worker.thread.join();
+                } catch (InterruptedException e) {
+                    LOG.warn("join worker join failed.", e);
+                }
             }
         }
     }
 
     public void handleAuditEvent(AuditEvent auditEvent) {
-        try {
-            eventQueue.put(auditEvent);
-        } catch (InterruptedException e) {
-            LOG.warn("encounter exception when handle audit event, ignore", e);
+        Worker worker = workers[(int) (Thread.currentThread().getId() % workers.length)];
+        if (worker.offer(auditEvent)) {
+            return;
+        }
+        // try the other buffers before overflowing
+        for (Worker other : workers) {
+            if (other != worker && other.offer(auditEvent)) {
+                return;
+            }
+        }
+
+        switch (Config.audit_event_queue_overflow_policy) {
+            case OVERFLOW_POLICY_DROP:
+                dropEvent();
+                break;
+            case OVERFLOW_POLICY_SAMPLE:
+                // keep one of every audit_event_queue_sample_ratio overflowed events, waiting for it
+                if (sampleCounter.getAndIncrement() % Math.max(1, Config.audit_event_queue_sample_ratio) == 0) {
+                    waitToOffer(worker, auditEvent);
+                } else {
+                    dropEvent();
+                }
+                break;
+            default:
+                waitToOffer(worker, auditEvent);
+                break;
+        }
+    }
+
+    private void waitToOffer(Worker worker, AuditEvent auditEvent) {
+        while (!worker.offer(auditEvent)) {
+            if (isStopped) {
+                dropEvent();
+                return;
+            }
+            LockSupport.parkNanos(FULL_PARK_NS);
         }
     }
 
+    private void dropEvent() {
+        droppedEventNum.incrementAndGet();
+        if (MetricRepo.hasInit) {
+            MetricRepo.COUNTER_AUDIT_EVENT_DROPPED.increase(1L);
+        }
+    }
+
+    /**
+     * @return the number of events waiting to be handed to the plugins
+     */
+    public long getQueueSize() {
+        long size = 0;
+        for (Worker worker : workers) {
+            size += worker.buffer.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return how long the oldest event not handed to the plugins yet has been waiting at most, 0 if there is none
+     */
+    public long getLagMs() {
+        long now = System.currentTimeMillis();
+        long lagMs = 0;
+        for (Worker worker : workers) {
+            lagMs = Math.max(lagMs, worker.getLagMs(now));
+        }
+        return lagMs;
+    }
+
+    @VisibleForTesting
+    long getDroppedEventNum() {
+        return droppedEventNum.get();
+    }
+
     public class Worker implements Runnable {
+        private final MpscRingBuffer<AuditEvent> buffer;
+        private volatile Thread thread;
+        private volatile boolean parked = false;
+        // all the events offered before this time have been handed to the plugins
+        private volatile long caughtUpTimeMs = System.currentTimeMillis();
+        private volatile boolean delivering = false;
+
+        private List<Plugin> auditPlugins;
+        private long lastUpdateTime = 0;
+
+        Worker(int capacity) {
+            this.buffer = new MpscRingBuffer<>(capacity);
+        }
+
+        boolean offer(AuditEvent auditEvent) {
+            if (!buffer.offer(auditEvent)) {
+                return false;
+            }
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+
+        long getLagMs(long now) {
+            if (!delivering && buffer.size() == 0) {
+                return 0;
+            }
+            return Math.max(0, now - caughtUpTimeMs);
+        }
+
         @Override
         public void run() {
-            AuditEvent auditEvent;
+            List<AuditEvent> batch = new ArrayList<>();
             while (!isStopped) {
                 // update audit plugin list every UPDATE_PLUGIN_INTERVAL_MS.
                 // because some of plugins may be installed or uninstalled at runtime.
@@ -90,27 +218,53 @@ public class AuditEventProcessor {
                     LOG.debug("update audit plugins. num: {}", auditPlugins.size());
                 }
 
-                try {
-                    auditEvent = eventQueue.poll(5, TimeUnit.SECONDS);
-                    if (auditEvent == null) {
-                        continue;
+                batch.clear();
+                // taken before draining, so every event offered before it is either drained or still buffered
+                long drainTimeMs = System.currentTimeMillis();
+                if (buffer.drainTo(batch, Math.max(1, Config.audit_event_batch_size)) == 0) {
+                    caughtUpTimeMs = drainTimeMs;
+                    parked = true;
+                    // recheck after publishing parked, so that an event offered meanwhile is not missed
+                    if (buffer.size() == 0 && !isStopped) {
+                        LockSupport.parkNanos(IDLE_PARK_NS);
                     }
-                } catch (InterruptedException e) {
-                    LOG.warn("encounter exception when getting audit event from queue, ignore", e);
+                    parked = false;
                     continue;
                 }
+                delivering = true;
+                boolean drainedAll = buffer.size() == 0;
+                deliver(batch);
+                if (drainedAll) {
+                    caughtUpTimeMs = drainTimeMs;
+                }
+                delivering = false;
+            }
 
-                try {
-                    for (Plugin plugin : auditPlugins) {
-                        if (((AuditPlugin) plugin).eventFilter(auditEvent.type)) {
-                            ((AuditPlugin) plugin).exec(auditEvent);
-                        }
+            // hand the buffered events to the plugins before exiting
+            batch.clear();
+            if (auditPlugins != null && buffer.drainTo(batch, buffer.capacity()) > 0) {
+                deliver(batch);
+            }
+        }
+
+        private void deliver(List<AuditEvent> batch) {
+            for (Plugin plugin : auditPlugins) {
+                AuditPlugin auditPlugin = (AuditPlugin) plugin;
+                List<AuditEvent> events = new ArrayList<>(batch.size());
+                for (AuditEvent auditEvent : batch) {
+                    if (auditPlugin.eventFilter(auditEvent.type)) {
+                        events.add(auditEvent);
                     }
+                }
+                if (events.isEmpty()) {
+                    continue;
+                }
+                try {
+                    auditPlugin.execBatch(events);
                 } catch (Exception e) {
                     LOG.warn("encounter exception when processing audit event.", e);
                 }
             }
         }
-
     }
 }
@@ -57,6 +57,7 @@ import com.starrocks.mysql.ssl.SSLChannelImpClassLoader;
 import com.starrocks.plugin.AuditEvent.AuditEventBuilder;
 import com.starrocks.privilege.AccessDeniedException;
 import com.starrocks.privilege.ObjectType;
+import com.starrocks.privilege.PrivilegeCheckSnapshot;
 import com.starrocks.privilege.PrivilegeException;
 import com.starrocks.privilege.PrivilegeType;
 import com.starrocks.server.CatalogMgr;
@@ -97,6 +98,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.net.ssl.SSLContext;
 
 // When one client connect in, we create a connection context for it.
@@ -163,12 +165,20 @@ public class ConnectContext {
     // `execute as` will modify currentRoleIds and assign the active role of the impersonate user to currentRoleIds.
     // For specific logic, please refer to setCurrentRoleIds.
     protected Set<Long> currentRoleIds = new HashSet<>();
+    // privileges of the session compiled for repeated checks, see AuthorizationMgr#getPrivilegeCheckSnapshot
+    protected volatile PrivilegeCheckSnapshot privilegeCheckSnapshot;
     // Serializer used to pack MySQL packet.
     protected MysqlSerializer serializer;
     // Variables belong to this session.
     protected SessionVariable sessionVariable;
     // all the modified session variables, will forward to leader
     protected Map<String, SystemVariable> modifiedSessionVariables = new HashMap<>();
+    // bumped whenever the session variables are changed, identifies the session state forwarded to leader
+    private long sessionStateVersion = 0;
+    private SessionStateSnapshot sessionStateSnapshot;
+    // the leader which has received the session state of forwardedSessionStateVersion
+    private String forwardedSessionStateLeader;
+    private long forwardedSessionStateVersion = -1;
     // user define variable in this session
     protected Map<String, UserVariable> userVariables;
     protected Map<String, UserVariable> userVariablesCopyInWrite;
@@ -193,6 +203,8 @@ public class ConnectContext {
     protected String remoteIP;
 
     protected volatile boolean closed;
+    // a lock instead of the monitor, not to pin virtual threads while closing the connection
+    protected final ReentrantLock cleanupLock = new ReentrantLock();
 
     // set with the randomstring extracted from the handshake data at connecting stage
     // used for authdata(password) salting
@@ -400,11 +412,20 @@ public class ConnectContext {
         this.currentRoleIds = roleIds;
     }
 
+    public PrivilegeCheckSnapshot getPrivilegeCheckSnapshot() {
+        return privilegeCheckSnapshot;
+    }
+
+    public void setPrivilegeCheckSnapshot(PrivilegeCheckSnapshot privilegeCheckSnapshot) {
+        this.privilegeCheckSnapshot = privilegeCheckSnapshot;
+    }
+
     public void modifySystemVariable(SystemVariable setVar, boolean onlySetSessionVar) throws DdlException {
         GlobalStateMgr.getCurrentState().getVariableMgr().setSystemVariable(sessionVariable, setVar, onlySetSessionVar);
         if (!SetType.GLOBAL.equals(setVar.getType()) && GlobalStateMgr.getCurrentState().getVariableMgr()
                 .shouldForwardToLeader(setVar.getVariable())) {
             modifiedSessionVariables.put(setVar.getVariable(), setVar);
+            sessionStateVersion++;
         }
     }
 
@@ -466,8 +487,20 @@ public class ConnectContext {
     }
 
     public SetStmt getModifiedSessionVariables() {
+        return getModifiedVariables(true);
+    }
+
+    /**
+     * @return the user variables to forward to leader when session variables are forwarded by
+     * {@link #getSessionStateSnapshot()}.
+     */
+    public SetStmt getModifiedUserVariables() {
+        return getModifiedVariables(false);
+    }
+
+    private SetStmt getModifiedVariables(boolean includeSessionVariables) {
         List<SetListItem> sessionVariables = new ArrayList<>();
-        if (MapUtils.isNotEmpty(modifiedSessionVariables)) {
+        if (includeSessionVariables && MapUtils.isNotEmpty(modifiedSessionVariables)) {
             sessionVariables.addAll(modifiedSessionVariables.values());
         }
         if (MapUtils.isNotEmpty(userVariables)) {
@@ -500,6 +533,27 @@ public class ConnectContext {
     public void resetSessionVariable() {
         this.sessionVariable = GlobalStateMgr.getCurrentState().getVariableMgr().newSessionVariable();
         modifiedSessionVariables.clear();
+        sessionStateVersion++;
+    }
+
+    /**
+     * @return the snapshot of the modified session variables, which is cached until the session variables change.
+     */
+    public SessionStateSnapshot getSessionStateSnapshot() {
+        if (sessionStateSnapshot == null || sessionStateSnapshot.getVersion() != sessionStateVersion) {
+            sessionStateSnapshot = SessionStateSnapshot.create(sessionVariable, modifiedSessionVariables.keySet(),
+                    sessionStateVersion);
+        }
+        return sessionStateSnapshot;
+    }
+
+    public boolean isSessionStateForwarded(String leader, long version) {
+        return version == forwardedSessionStateVersion && leader.equals(forwardedSessionStateLeader);
+    }
+
+    public void setSessionStateForwarded(String leader, long version) {
+        this.forwardedSessionStateLeader = leader;
+        this.forwardedSessionStateVersion = version;
     }
 
     public UserVariable getUserVariableCopyInWrite(String variable) {
@@ -520,6 +574,7 @@ public class ConnectContext {
 
     public void setSessionVariable(SessionVariable sessionVariable) {
         this.sessionVariable = sessionVariable;
+        sessionStateVersion++;
     }
 
     public ConnectScheduler getConnectScheduler() {
@@ -644,14 +699,19 @@ public class ConnectContext {
         this.executor = executor;
     }
 
-    public synchronized void cleanup() {
-        if (closed) {
-            return;
+    public void cleanup() {
+        cleanupLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            mysqlChannel.close();
+            threadLocalInfo.remove();
+            returnRows = 0;
+        } finally {
+            cleanupLock.unlock();
         }
-        closed = true;
-        mysqlChannel.close();
-        threadLocalInfo.remove();
-        returnRows = 0;
     }
 
     public boolean isKilled() {
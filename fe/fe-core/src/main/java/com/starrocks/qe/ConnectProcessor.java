@@ -793,9 +793,29 @@ public class ConnectProcessor {
             return result;
         }
 
+        SessionStateSnapshot sessionState = null;
+        if (request.isSetSession_state_version() && !request.isSetSession_state()) {
+            sessionState = SessionStateSnapshot.getForwarded(request.getSession_id(), request.getSession_state_version());
+            if (sessionState == null) {
+                // let the follower send the session state again
+                TMasterOpResult result = new TMasterOpResult();
+                result.setMaxJournalId(GlobalStateMgr.getCurrentState().getMaxJournalId());
+                result.setPacket(new byte[0]);
+                result.setSession_state_missing(true);
+                return result;
+            }
+        }
+
         StmtExecutor executor = null;
         try {
             // set session variables first
+            if (request.isSetSession_state()) {
+                sessionState = SessionStateSnapshot.decode(request.getSession_state_version(), request.getSession_state());
+                SessionStateSnapshot.putForwarded(request.getSession_id(), sessionState);
+            }
+            if (sessionState != null) {
+                sessionState.restore(ctx);
+            }
             if (request.isSetModified_variables_sql()) {
                 LOG.info("Set session variables first: {}", request.modified_variables_sql);
 
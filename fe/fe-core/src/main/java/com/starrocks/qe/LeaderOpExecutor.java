@@ -185,6 +185,21 @@ public class LeaderOpExecutor {
                 thriftAddress,
                 thriftTimeoutMs,
                 client -> client.forward(params));
+
+        if (params.isSetSession_state_version()) {
+            if (result.isSetSession_state_missing() && result.isSession_state_missing()) {
+                // the leader restarted, changed or evicted the session state, send it again
+                LOG.info("Leader {} has no session state of {}, forward statement {} again with it",
+                        thriftAddress, ctx.getSessionId(), ctx.getStmtId());
+                params.setSession_state(ctx.getSessionStateSnapshot().encode());
+                result = ThriftRPCRequestExecutor.call(
+                        ThriftConnectionPool.frontendPool,
+                        thriftAddress,
+                        thriftTimeoutMs,
+                        client -> client.forward(params));
+            }
+            ctx.setSessionStateForwarded(ipAndPort.toString(), params.getSession_state_version());
+        }
     }
 
     public TMasterOpResult getResult() {
@@ -259,7 +274,19 @@ public class LeaderOpExecutor {
 
         params.setQueryId(UUIDUtil.toTUniqueId(ctx.getQueryId()));
         // forward all session variables
-        SetStmt setStmt = ctx.getModifiedSessionVariables();
+        SetStmt setStmt;
+        if (Config.forward_session_state_snapshot_enable) {
+            SessionStateSnapshot snapshot = ctx.getSessionStateSnapshot();
+            if (!snapshot.isEmpty()) {
+                params.setSession_state_version(snapshot.getVersion());
+                if (ipAndPort == null || !ctx.isSessionStateForwarded(ipAndPort.toString(), snapshot.getVersion())) {
+                    params.setSession_state(snapshot.encode());
+                }
+            }
+            setStmt = ctx.getModifiedUserVariables();
+        } else {
+            setStmt = ctx.getModifiedSessionVariables();
+        }
         if (setStmt != null) {
             params.setModified_variables_sql(AstToSQLBuilder.toSQL(setStmt));
         }
@@ -0,0 +1,173 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.starrocks.analysis.StringLiteral;
+import com.starrocks.analysis.VariableExpr;
+import com.starrocks.common.Config;
+import com.starrocks.common.DdlException;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.ast.SetType;
+import com.starrocks.sql.ast.SystemVariable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionStateSnapshot is a compact, versioned binary encoding of the session variables a connection has set
+ * explicitly. A follower sends it to the leader when forwarding a statement instead of the `SET` sql of
+ * all the modified variables, and only when the leader may not have this version yet: the leader keeps the last
+ * snapshot of each forwarding session, so later statements only carry the version.
+ * <p>
+ * The snapshot is also enough to restore the session variables of a connection on another FE, e.g. a new leader
+ * after failover, without replaying any sql.
+ */
+public class SessionStateSnapshot {
+    private static final byte FORMAT_VERSION = 1;
+    private static final long MAX_CACHED_SESSIONS = 100000;
+
+    // session id -> the last snapshot forwarded by the session, only used on the leader
+    private static final Cache<String, SessionStateSnapshot> LEADER_CACHE = CacheBuilder.newBuilder()
+            .expireAfterAccess(Config.forward_session_state_cache_expire_second, TimeUnit.SECONDS)
+            .maximumSize(MAX_CACHED_SESSIONS)
+            .build();
+
+    private final long version;
+    // variable name -> value, sorted to make the encoding deterministic
+    private final Map<String, String> variables;
+    private volatile byte[] encoded;
+
+    @VisibleForTesting
+    SessionStateSnapshot(long version, Map<String, String> variables) {
+        this.version = version;
+        this.variables = Collections.unmodifiableMap(new TreeMap<>(variables));
+    }
+
+    /**
+     * Take a snapshot of the given modified variables of the session. Variables equal to the global values are kept
+     * too, the global values of the FE restoring the snapshot may differ or change later.
+     */
+    public static SessionStateSnapshot create(SessionVariable sessionVariable, Collection<String> modifiedVariables,
+                                              long version) {
+        VariableMgr variableMgr = GlobalStateMgr.getCurrentState().getVariableMgr();
+        Map<String, String> variables = new TreeMap<>();
+        for (String name : modifiedVariables) {
+            // deprecated variables are accepted by SET but don't exist any more
+            if (variableMgr.getField(name) == null) {
+                continue;
+            }
+            variables.put(name, variableMgr.getValue(sessionVariable, new VariableExpr(name, SetType.SESSION)));
+        }
+        return new SessionStateSnapshot(version, variables);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Map<String, String> getVariables() {
+        return variables;
+    }
+
+    public boolean isEmpty() {
+        return variables.isEmpty();
+    }
+
+    public byte[] encode() {
+        byte[] bytes = encoded;
+        if (bytes == null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                out.writeByte(FORMAT_VERSION);
+                out.writeInt(variables.size());
+                for (Map.Entry<String, String> entry : variables.entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeString(out, entry.getValue());
+                }
+            } catch (IOException e) {
+                // never happens on a byte array
+                throw new IllegalStateException(e);
+            }
+            bytes = buffer.toByteArray();
+            encoded = bytes;
+        }
+        return bytes;
+    }
+
+    public static SessionStateSnapshot decode(long version, byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte formatVersion = in.readByte();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("unknown session state format version " + formatVersion);
+            }
+            int num = in.readInt();
+            Map<String, String> variables = new TreeMap<>();
+            for (int i = 0; i < num; i++) {
+                String name = readString(in);
+                variables.put(name, readString(in));
+            }
+            SessionStateSnapshot snapshot = new SessionStateSnapshot(version, variables);
+            snapshot.encoded = bytes;
+            return snapshot;
+        }
+    }
+
+    /**
+     * Set the session variables of the snapshot to the connection.
+     */
+    public void restore(ConnectContext ctx) throws DdlException {
+        for (Map.Entry<String, String> entry : variables.entrySet()) {
+            ctx.modifySystemVariable(
+                    new SystemVariable(SetType.SESSION, entry.getKey(), new StringLiteral(entry.getValue())), true);
+        }
+    }
+
+    /**
+     * @return the snapshot of the version forwarded by the session before, or null if the leader doesn't have it.
+     */
+    public static SessionStateSnapshot getForwarded(String sessionId, long version) {
+        SessionStateSnapshot snapshot = LEADER_CACHE.getIfPresent(sessionId);
+        return snapshot != null && snapshot.version == version ? snapshot : null;
+    }
+
+    public static void putForwarded(String sessionId, SessionStateSnapshot snapshot) {
+        LEADER_CACHE.put(sessionId, snapshot);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // values may exceed the 64KB limit of writeUTF
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
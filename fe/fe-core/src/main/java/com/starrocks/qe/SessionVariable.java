@@ -508,6 +508,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String CONNECTOR_SINK_TARGET_MAX_FILE_SIZE = "connector_sink_target_max_file_size";
     public static final String ENABLE_CONNECTOR_SPLIT_IO_TASKS = "enable_connector_split_io_tasks";
+    public static final String JDBC_SCAN_SPLIT_NUM = "jdbc_scan_split_num";
+    public static final String JDBC_SCAN_SPLIT_COLUMN = "jdbc_scan_split_column";
     public static final String ENABLE_QUERY_CACHE = "enable_query_cache";
     public static final String QUERY_CACHE_FORCE_POPULATE = "query_cache_force_populate";
     public static final String QUERY_CACHE_ENTRY_MAX_BYTES = "query_cache_entry_max_bytes";
@@ -1743,6 +1745,16 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CONNECTOR_IO_TASKS_SLOW_IO_LATENCY_MS, flag = VariableMgr.INVISIBLE)
     private int connectorIoTasksSlowIoLatency = 50;
 
+    // Number of ranges a JDBC catalog table scan is split into, each range is read by its own query and connection.
+    // 1 means reading the whole table by a single query.
+    @VariableMgr.VarAttr(name = JDBC_SCAN_SPLIT_NUM)
+    private int jdbcScanSplitNum = 1;
+
+    // Column used to split JDBC table scans, the first column of the primary key is used if it is empty.
+    // Only integer, date and datetime columns can be used.
+    @VariableMgr.VarAttr(name = JDBC_SCAN_SPLIT_COLUMN)
+    private String jdbcScanSplitColumn = "";
+
     @VariableMgr.VarAttr(name = SCAN_USE_QUERY_MEM_RATIO)
     private double scanUseQueryMemRatio = 0.3;
 
@@ -2463,6 +2475,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.connectorIoTasksPerScanOperator = connectorIoTasksPerScanOperator;
     }
 
+    public int getJdbcScanSplitNum() {
+        return jdbcScanSplitNum;
+    }
+
+    public void setJdbcScanSplitNum(int jdbcScanSplitNum) {
+        this.jdbcScanSplitNum = jdbcScanSplitNum;
+    }
+
+    public String getJdbcScanSplitColumn() {
+        return jdbcScanSplitColumn;
+    }
+
+    public void setJdbcScanSplitColumn(String jdbcScanSplitColumn) {
+        this.jdbcScanSplitColumn = jdbcScanSplitColumn;
+    }
+
     public boolean isCboUseDBLock() {
         return cboUseDBLock;
     }
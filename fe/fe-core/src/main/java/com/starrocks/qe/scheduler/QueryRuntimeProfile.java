@@ -24,6 +24,7 @@ import com.starrocks.common.Status;
 import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.Counter;
 import com.starrocks.common.util.DebugUtil;
+import com.starrocks.common.util.IsomorphicProfileMerger;
 import com.starrocks.common.util.ProfileManager;
 import com.starrocks.common.util.ProfilingExecPlan;
 import com.starrocks.common.util.RuntimeProfile;
@@ -425,6 +426,8 @@ public class QueryRuntimeProfile {
             Set<String> backendAddresses = Sets.newHashSet();
             Set<String> instanceIds = Sets.newHashSet();
             Set<String> missingInstanceIds = Sets.newHashSet();
+            IsomorphicProfileMerger instanceProfileMerger =
+                    new IsomorphicProfileMerger(instanceProfiles.get(0).getName(), Sets.newHashSet("Address", "InstanceId"));
             for (RuntimeProfile instanceProfile : instanceProfiles) {
                 // Setup backend meta infos
                 backendAddresses.add(instanceProfile.getInfoString("Address"));
@@ -458,6 +461,8 @@ public class QueryRuntimeProfile {
                     sumQuerySpillBytes += toBeRemove.getValue();
                 }
                 instanceProfile.removeCounter("QuerySpillBytes");
+
+                instanceProfileMerger.add(instanceProfile);
             }
             newFragmentProfile.addInfoString("BackendAddresses", String.join(",", backendAddresses));
             newFragmentProfile.addInfoString("InstanceIds", String.join(",", instanceIds));
@@ -471,8 +476,7 @@ public class QueryRuntimeProfile {
             Counter counter = newFragmentProfile.addCounter("InstanceNum", TUnit.UNIT, null);
             counter.setValue(instanceProfiles.size());
 
-            RuntimeProfile mergedInstanceProfile =
-                    RuntimeProfile.mergeIsomorphicProfiles(instanceProfiles, Sets.newHashSet("Address", "InstanceId"));
+            RuntimeProfile mergedInstanceProfile = instanceProfileMerger.build();
             Preconditions.checkState(mergedInstanceProfile != null);
 
             newFragmentProfile.copyAllInfoStringsFrom(mergedInstanceProfile, null);
@@ -49,6 +49,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 /**
@@ -69,11 +70,13 @@ import java.util.stream.Collectors;
  * </pre>
  * <p>
  * All the methods are thead-safe.
- * The {@link #state} and {@link #profile} are protected by {@code synchronized(this)}.
+ * The {@link #state} and {@link #profile} are protected by {@link #lock}, which unlike the monitor doesn't pin
+ * virtual threads when cancelling with RPC.
  */
 public class FragmentInstanceExecState {
     private static final Logger LOG = LogManager.getLogger(FragmentInstanceExecState.class);
 
+    private final ReentrantLock lock = new ReentrantLock();
     private State state = State.CREATED;
 
     private final JobSpec jobSpec;
@@ -315,27 +318,32 @@ public class FragmentInstanceExecState {
      * @param params The report RPC request.
      * @return true if the state is updated. Otherwise, return false.
      */
-    public synchronized boolean updateExecStatus(TReportExecStatusParams params) {
-        switch (state) {
-            case CREATED:
-            case FINISHED: // duplicate packet
-            case FAILED:
-                return false;
-            case DEPLOYING:
-            case EXECUTING:
-            case CANCELLING:
-            default:
-                if (params.isSetProfile()) {
-                    profile.update(params.profile);
-                }
-                if (params.isDone()) {
-                    if (params.getStatus() == null || params.getStatus().getStatus_code() == TStatusCode.OK) {
-                        transitionState(State.FINISHED);
-                    } else {
-                        transitionState(State.FAILED);
+    public boolean updateExecStatus(TReportExecStatusParams params) {
+        lock.lock();
+        try {
+            switch (state) {
+                case CREATED:
+                case FINISHED: // duplicate packet
+                case FAILED:
+                    return false;
+                case DEPLOYING:
+                case EXECUTING:
+                case CANCELLING:
+                default:
+                    if (params.isSetProfile()) {
+                        profile.update(params.profile);
                     }
-                }
-                return true;
+                    if (params.isDone()) {
+                        if (params.getStatus() == null || params.getStatus().getStatus_code() == TStatusCode.OK) {
+                            transitionState(State.FINISHED);
+                        } else {
+                            transitionState(State.FAILED);
+                        }
+                    }
+                    return true;
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -345,37 +353,43 @@ public class FragmentInstanceExecState {
      * @param cancelReason The cancel reason.
      * @return true if cancel succeeds. Otherwise, return false.
      */
-    public synchronized boolean cancelFragmentInstance(PPlanFragmentCancelReason cancelReason) {
-        if (LOG.isDebugEnabled()) {
-            LOG.debug(
-                    "cancelRemoteFragments state={}  backend: {}, fragment instance id={}, reason: {}",
-                    state, worker.getId(), DebugUtil.printId(instanceId), cancelReason.name());
-        }
+    public boolean cancelFragmentInstance(PPlanFragmentCancelReason cancelReason) {
+        lock.lock();
+        try {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(
+                        "cancelRemoteFragments state={}  backend: {}, fragment instance id={}, reason: {}",
+                        state, worker.getId(), DebugUtil.printId(instanceId), cancelReason.name());
+            }
 
-        switch (state) {
-            case CREATED:
-            case CANCELLING:
-            case FINISHED:
-            case FAILED:
+            switch (state) {
+                case CREATED:
+                case CANCELLING:
+                case FINISHED:
+                case FAILED:
+                    return false;
+                case DEPLOYING: // The cancelling request may arrive earlier than the deployed response.
+                case EXECUTING:
+                default:
+                    transitionState(State.CANCELLING);
+            }
+
+            TNetworkAddress brpcAddress = worker.getBrpcAddress();
+            try {
+                BackendServiceClient.getInstance().cancelPlanFragmentAsync(brpcAddress,
+                        jobSpec.getQueryId(), instanceId, cancelReason,
+                        jobSpec.isEnablePipeline());
+            } catch (RpcException e) {
+                LOG.warn("cancel plan fragment get a exception, address={}:{}", brpcAddress.getHostname(),
+                        brpcAddress.getPort(), e);
+                SimpleScheduler.addToBlocklist(worker.getId());
                 return false;
-            case DEPLOYING: // The cancelling request may arrive earlier than the deployed response.
-            case EXECUTING:
-            default:
-                transitionState(State.CANCELLING);
-        }
+            }
 
-        TNetworkAddress brpcAddress = worker.getBrpcAddress();
-        try {
-            BackendServiceClient.getInstance().cancelPlanFragmentAsync(brpcAddress,
-                    jobSpec.getQueryId(), instanceId, cancelReason,
-                    jobSpec.isEnablePipeline());
-        } catch (RpcException e) {
-            LOG.warn("cancel plan fragment get a exception, address={}:{}", brpcAddress.getHostname(), brpcAddress.getPort(), e);
-            SimpleScheduler.addToBlocklist(worker.getId());
-            return false;
+            return true;
+        } finally {
+            lock.unlock();
         }
-
-        return true;
     }
 
     public boolean hasBeenDeployed() {
@@ -414,18 +428,28 @@ public class FragmentInstanceExecState {
         return profile;
     }
 
-    public synchronized void printProfile(StringBuilder builder) {
-        profile.computeTimeInProfile();
-        profile.prettyPrint(builder, "");
+    public void printProfile(StringBuilder builder) {
+        lock.lock();
+        try {
+            profile.computeTimeInProfile();
+            profile.prettyPrint(builder, "");
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized boolean computeTimeInProfile(int maxFragmentId) {
-        if (this.fragmentIndex < 0 || this.fragmentIndex > maxFragmentId) {
-            LOG.warn("profileFragmentId {} should be in [0, {})", fragmentIndex, maxFragmentId);
-            return false;
+    public boolean computeTimeInProfile(int maxFragmentId) {
+        lock.lock();
+        try {
+            if (this.fragmentIndex < 0 || this.fragmentIndex > maxFragmentId) {
+                LOG.warn("profileFragmentId {} should be in [0, {})", fragmentIndex, maxFragmentId);
+                return false;
+            }
+            profile.computeTimeInProfile();
+            return true;
+        } finally {
+            lock.unlock();
         }
-        profile.computeTimeInProfile();
-        return true;
     }
 
     public boolean isBackendStateHealthy() {
@@ -462,13 +486,23 @@ public class FragmentInstanceExecState {
         return Collections.emptyList();
     }
 
-    private synchronized void transitionState(State to) {
-        state = to;
+    private void transitionState(State to) {
+        lock.lock();
+        try {
+            state = to;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private synchronized void transitionState(State from, State to) {
-        if (state == from) {
-            state = to;
+    private void transitionState(State from, State to) {
+        lock.lock();
+        try {
+            if (state == from) {
+                state = to;
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -0,0 +1,484 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.rpc;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.metric.GaugeMetric;
+import com.starrocks.metric.LongCounterMetric;
+import com.starrocks.metric.Metric;
+import com.starrocks.metric.MetricLabel;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.thrift.TNetworkAddress;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.apache.thrift.TFieldIdEnum;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolUtil;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransportException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ThriftMultiplexedClient sends the thrift rpcs of an endpoint over one shared connection, instead of borrowing an
+ * exclusive connection from {@link ThriftConnectionPool} for every call. Each request is tagged with a request id,
+ * i.e. the thrift sequence id, and written as soon as the endpoint has less than
+ * {@link Config#thrift_rpc_multiplexed_max_in_flight_per_endpoint} requests in flight. The caller gets a future,
+ * which is completed by the reader of the connection once the response with the same request id arrives.
+ * <p>
+ * The thrift servers of BE are blocking servers answering the requests of a connection in order, so a slow request
+ * delays those pipelined after it. When a request times out, only that request fails, but it's still counted as in
+ * flight until its late response arrives and is skipped, so a slow endpoint doesn't get more requests written to
+ * the stuck connection. Once the timed out requests take up half of the in-flight limit, or a request times out
+ * before it's completely written, the connection is considered stuck and closed. When a connection breaks or is
+ * cleared, e.g. because the heartbeat of the endpoint fails, the requests in flight on it fail and the next request
+ * reconnects.
+ */
+public class ThriftMultiplexedClient {
+    private static final Logger LOG = LogManager.getLogger(ThriftMultiplexedClient.class);
+
+    public static final ThriftMultiplexedClient BE_HEARTBEAT_CLIENT =
+            new ThriftMultiplexedClient("HeartbeatService", Config.heartbeat_timeout_second * 1000);
+    public static final ThriftMultiplexedClient BACKEND_CLIENT =
+            new ThriftMultiplexedClient("BackendService", Config.thrift_rpc_timeout_ms);
+
+    private static final ScheduledThreadPoolExecutor TIMEOUT_CHECKER = createTimeoutChecker();
+    // readers block on the sockets most of the time, one per connection
+    private static final ExecutorService READERS =
+            ThreadPoolManager.newVirtualThreadPerTaskExecutor("thrift-multiplexed-reader")
+                    .orElseGet(() -> ThreadPoolManager.newDaemonCacheThreadPool(Integer.MAX_VALUE,
+                            "thrift-multiplexed-reader", true));
+
+    private final String serviceName;
+    private final int defaultTimeoutMs;
+    private final Map<TNetworkAddress, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public ThriftMultiplexedClient(String serviceName, int defaultTimeoutMs) {
+        this.serviceName = serviceName;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    private static ScheduledThreadPoolExecutor createTimeoutChecker() {
+        ScheduledThreadPoolExecutor executor =
+                ThreadPoolManager.newDaemonScheduledThreadPool(1, "thrift-multiplexed-timeout", true);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    public int getDefaultTimeoutMs() {
+        return defaultTimeoutMs;
+    }
+
+    public <T> CompletableFuture<T> call(TNetworkAddress address, String method, TBase<?, ?> args,
+                                         TBase<?, ?> result) {
+        return call(address, method, args, result, defaultTimeoutMs);
+    }
+
+    /**
+     * Send the request of {@code method} to the endpoint.
+     *
+     * @param args   the generated {@code <method>_args} struct of the request.
+     * @param result an empty generated {@code <method>_result} struct to read the response into.
+     * @return the future of the success value of the response, or null for void methods.
+     */
+    public <T> CompletableFuture<T> call(TNetworkAddress address, String method, TBase<?, ?> args,
+                                         TBase<?, ?> result, int timeoutMs) {
+        Endpoint endpoint = endpoints.computeIfAbsent(address, Endpoint::new);
+        PendingCall<T> call = new PendingCall<>(endpoint, method, args, result, timeoutMs);
+        endpoint.waiting.add(call);
+        endpoint.dispatch();
+        return call.future;
+    }
+
+    /**
+     * Close the connection to the endpoint, the requests in flight fail.
+     */
+    public void clearEndpoint(TNetworkAddress address) {
+        Endpoint endpoint = endpoints.get(address);
+        if (endpoint != null) {
+            endpoint.closeConnection(new TTransportException(TTransportException.NOT_OPEN,
+                    "connection to " + address + " is cleared"));
+        }
+    }
+
+    /**
+     * Close the connection to the endpoint and forget it along with its metrics, e.g. when the backend is dropped.
+     * The requests in flight and waiting fail.
+     */
+    public void removeEndpoint(TNetworkAddress address) {
+        Endpoint endpoint = endpoints.remove(address);
+        if (endpoint != null) {
+            TTransportException e = new TTransportException(TTransportException.NOT_OPEN,
+                    "endpoint " + address + " is removed");
+            endpoint.closeConnection(e);
+            endpoint.failWaiting(e);
+            endpoint.unregisterMetrics();
+        }
+    }
+
+    @VisibleForTesting
+    int getInFlightCount(TNetworkAddress address) {
+        Endpoint endpoint = endpoints.get(address);
+        return endpoint == null ? 0 : endpoint.getInFlightCount();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, F extends TFieldIdEnum> T getSuccess(String method, TBase<?, F> result) throws TException {
+        // generated results keep the return value in field 0 and the declared exceptions in the following fields
+        for (short id = 1; result.fieldForId(id) != null; id++) {
+            F field = result.fieldForId(id);
+            if (result.isSet(field) && result.getFieldValue(field) instanceof TException) {
+                throw (TException) result.getFieldValue(field);
+            }
+        }
+        F success = result.fieldForId(0);
+        if (success == null) {
+            return null;
+        }
+        if (!result.isSet(success)) {
+            throw new TApplicationException(TApplicationException.MISSING_RESULT, method + " failed: unknown result");
+        }
+        return (T) result.getFieldValue(success);
+    }
+
+    private static class PendingCall<T> {
+        private final Endpoint endpoint;
+        private final String method;
+        private final TBase<?, ?> args;
+        private final TBase<?, ?> result;
+        private final long startNs = System.nanoTime();
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final ScheduledFuture<?> timeoutFuture;
+        // the connection the request is written to, and its id on the connection
+        private volatile Connection connection;
+        private volatile int requestId;
+        // whether the request has been completely written to the connection
+        private volatile boolean sent = false;
+
+        PendingCall(Endpoint endpoint, String method, TBase<?, ?> args, TBase<?, ?> result, int timeoutMs) {
+            this.endpoint = endpoint;
+            this.method = method;
+            this.args = args;
+            this.result = result;
+            this.timeoutFuture = TIMEOUT_CHECKER.schedule(() -> endpoint.onTimeout(this, timeoutMs),
+                    timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        void complete() {
+            try {
+                T value = getSuccess(method, result);
+                if (future.complete(value)) {
+                    endpoint.onFinished(this, false);
+                }
+            } catch (TException e) {
+                fail(e);
+            }
+        }
+
+        void fail(Throwable e) {
+            if (future.completeExceptionally(e)) {
+                endpoint.onFinished(this, true);
+            }
+        }
+    }
+
+    private class Endpoint {
+        private final TNetworkAddress address;
+        private final Queue<PendingCall<?>> waiting = new ConcurrentLinkedQueue<>();
+        // protects writing requests and switching connections
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private volatile Connection connection;
+
+        private final Histogram latencyMs = new Histogram(new ExponentiallyDecayingReservoir());
+        private final LongCounterMetric requestCounter =
+                new LongCounterMetric("thrift_rpc_multiplexed_requests_total", Metric.MetricUnit.REQUESTS,
+                        "the number of multiplexed thrift rpcs sent to each endpoint");
+        private final LongCounterMetric failureCounter =
+                new LongCounterMetric("thrift_rpc_multiplexed_failures_total", Metric.MetricUnit.REQUESTS,
+                        "the number of failed multiplexed thrift rpcs of each endpoint, including timeouts");
+        private final LongCounterMetric timeoutCounter =
+                new LongCounterMetric("thrift_rpc_multiplexed_timeouts_total", Metric.MetricUnit.REQUESTS,
+                        "the number of timed out multiplexed thrift rpcs of each endpoint");
+        private final List<Metric<?>> metrics = new ArrayList<>();
+
+        Endpoint(TNetworkAddress address) {
+            this.address = address;
+            registerMetrics();
+        }
+
+        private void registerMetrics() {
+            for (LongCounterMetric counter : new LongCounterMetric[] {requestCounter, failureCounter, timeoutCounter}) {
+                addLabels(counter);
+                MetricRepo.addMetric(counter);
+                metrics.add(counter);
+            }
+            addGauge("thrift_rpc_multiplexed_in_flight", "the number of multiplexed thrift rpcs in flight",
+                    endpoint -> endpoint.getInFlightCount());
+            for (double quantile : new double[] {0.5, 0.99}) {
+                addGauge("thrift_rpc_multiplexed_latency_ms", "the latency percentiles of multiplexed thrift rpcs",
+                        endpoint -> endpoint.latencyMs.getSnapshot().getValue(quantile),
+                        new MetricLabel("quantile", String.valueOf(quantile)));
+            }
+        }
+
+        private void addGauge(String metricName, String description, ToDoubleFunction<Endpoint> getter,
+                              MetricLabel... labels) {
+            GaugeMetric<Double> gauge = new GaugeMetric<Double>(metricName, Metric.MetricUnit.NOUNIT, description) {
+                @Override
+                public Double getValue() {
+                    return getter.applyAsDouble(Endpoint.this);
+                }
+            };
+            addLabels(gauge);
+            for (MetricLabel label : labels) {
+                gauge.addLabel(label);
+            }
+            MetricRepo.addMetric(gauge);
+            metrics.add(gauge);
+        }
+
+        private void unregisterMetrics() {
+            for (Metric<?> metric : metrics) {
+                MetricRepo.removeMetric(metric);
+            }
+        }
+
+        private void addLabels(Metric<?> metric) {
+            metric.addLabel(new MetricLabel("service", serviceName));
+            metric.addLabel(new MetricLabel("endpoint", address.hostname + ":" + address.port));
+        }
+
+        int getInFlightCount() {
+            Connection current = connection;
+            return current == null ? 0 : current.inFlight.size();
+        }
+
+        /**
+         * Write the waiting requests while the in-flight limit allows. Whoever fails to get the lock leaves the
+         * requests to the holder, which checks the queue again after releasing the lock.
+         */
+        void dispatch() {
+            while (!waiting.isEmpty() && sendLock.tryLock()) {
+                try {
+                    sendWaiting();
+                } finally {
+                    sendLock.unlock();
+                }
+                if (getInFlightCount() >= Config.thrift_rpc_multiplexed_max_in_flight_per_endpoint) {
+                    return;
+                }
+            }
+        }
+
+        private void sendWaiting() {
+            PendingCall<?> call;
+            while (getInFlightCount() < Config.thrift_rpc_multiplexed_max_in_flight_per_endpoint
+                    && (call = waiting.poll()) != null) {
+                if (call.future.isDone()) {
+                    // timed out while waiting
+                    continue;
+                }
+                Connection current;
+                try {
+                    current = getOrCreateConnection();
+                } catch (TTransportException e) {
+                    LOG.warn("failed to connect {} at {}", serviceName, address, e);
+                    call.fail(e);
+                    failWaiting(e);
+                    return;
+                }
+                current.send(call);
+            }
+        }
+
+        private Connection getOrCreateConnection() throws TTransportException {
+            Connection current = connection;
+            if (current != null && !current.closed) {
+                return current;
+            }
+            TSocket socket = new TSocket(address.hostname, address.port, 0, defaultTimeoutMs);
+            socket.open();
+            current = new Connection(this, socket);
+            connection = current;
+            READERS.submit(current::readLoop);
+            return current;
+        }
+
+        private void failWaiting(Throwable e) {
+            PendingCall<?> call;
+            while ((call = waiting.poll()) != null) {
+                call.fail(e);
+            }
+        }
+
+        void closeConnection(TException cause) {
+            Connection current = connection;
+            if (current != null) {
+                current.close(cause);
+            }
+        }
+
+        void onTimeout(PendingCall<?> call, int timeoutMs) {
+            if (call.future.isDone()) {
+                return;
+            }
+            TTransportException e = new TTransportException(TTransportException.TIMED_OUT,
+                    String.format("%s.%s to %s timed out after %d ms", serviceName, call.method, address, timeoutMs));
+            if (!call.future.completeExceptionally(e)) {
+                return;
+            }
+            timeoutCounter.increase(1L);
+            onFinished(call, true);
+            Connection sentTo = call.connection;
+            if (sentTo == null) {
+                return;
+            }
+            // keep the connection for the requests pipelined after it, the late response is skipped. The request is
+            // still in flight until then, so no more requests are written to a connection that isn't answered.
+            int timedOutNum = sentTo.timedOutNum.incrementAndGet();
+            if (!call.sent || timedOutNum >= Math.max(1, Config.thrift_rpc_multiplexed_max_in_flight_per_endpoint / 2)) {
+                LOG.warn("close the stuck thrift multiplexed connection to {} at {}, {} requests timed out",
+                        serviceName, address, timedOutNum);
+                // don't block the timeout checker with connecting, the waiting requests are sent by a reader
+                READERS.execute(() -> sentTo.close(e));
+            }
+        }
+
+        void onFinished(PendingCall<?> call, boolean failed) {
+            call.timeoutFuture.cancel(false);
+            requestCounter.increase(1L);
+            latencyMs.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - call.startNs));
+            if (failed) {
+                failureCounter.increase(1L);
+            }
+        }
+    }
+
+    private static class Connection {
+        private final Endpoint endpoint;
+        private final TSocket socket;
+        private final TProtocol outputProtocol;
+        private final TProtocol inputProtocol;
+        // including the timed out requests whose responses haven't arrived
+        private final Map<Integer, PendingCall<?>> inFlight = new ConcurrentHashMap<>();
+        private final AtomicInteger timedOutNum = new AtomicInteger(0);
+        // guarded by the send lock of the endpoint
+        private int nextRequestId = 0;
+        private volatile boolean closed = false;
+
+        Connection(Endpoint endpoint, TSocket socket) {
+            this.endpoint = endpoint;
+            this.socket = socket;
+            this.outputProtocol = new TBinaryProtocol(socket);
+            this.inputProtocol = new TBinaryProtocol(socket);
+        }
+
+        void send(PendingCall<?> call) {
+            int requestId = nextRequestId++;
+            call.requestId = requestId;
+            call.connection = this;
+            inFlight.put(requestId, call);
+            try {
+                outputProtocol.writeMessageBegin(new TMessage(call.method, TMessageType.CALL, requestId));
+                call.args.write(outputProtocol);
+                outputProtocol.writeMessageEnd();
+                outputProtocol.getTransport().flush();
+                call.sent = true;
+            } catch (TException e) {
+                close(e);
+            }
+            if (closed) {
+                // closed by a concurrent timeout before the request was registered
+                failInFlight(new TTransportException(TTransportException.NOT_OPEN, "connection is closed"));
+            }
+        }
+
+        void readLoop() {
+            try {
+                while (!closed) {
+                    TMessage message = inputProtocol.readMessageBegin();
+                    PendingCall<?> call = inFlight.remove(message.seqid);
+                    if (call == null || call.future.isDone()) {
+                        // the request has been failed already, e.g. timed out
+                        TProtocolUtil.skip(inputProtocol, TType.STRUCT);
+                        inputProtocol.readMessageEnd();
+                        if (call != null) {
+                            timedOutNum.decrementAndGet();
+                        }
+                    } else if (message.type == TMessageType.EXCEPTION) {
+                        TApplicationException e = TApplicationException.readFrom(inputProtocol);
+                        inputProtocol.readMessageEnd();
+                        call.fail(e);
+                    } else {
+                        call.result.read(inputProtocol);
+                        inputProtocol.readMessageEnd();
+                        call.complete();
+                    }
+                    endpoint.dispatch();
+                }
+            } catch (TException | RuntimeException e) {
+                close(e instanceof TException ? (TException) e : new TException(e));
+            }
+        }
+
+        void close(TException cause) {
+            if (!closed) {
+                closed = true;
+                socket.close();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("close thrift multiplexed connection to {}", endpoint.address, cause);
+                }
+            }
+            failInFlight(cause);
+            // the waiting requests go to a new connection, unless we are the sender which goes on by itself
+            if (!endpoint.sendLock.isHeldByCurrentThread()) {
+                endpoint.dispatch();
+            }
+        }
+
+        private void failInFlight(Throwable cause) {
+            for (Integer requestId : inFlight.keySet()) {
+                PendingCall<?> call = inFlight.remove(requestId);
+                if (call != null) {
+                    call.fail(cause);
+                }
+            }
+        }
+    }
+}
@@ -18,10 +18,13 @@ import com.starrocks.common.Config;
 import com.starrocks.thrift.TNetworkAddress;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 import org.apache.thrift.transport.TTransportException;
 
 import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 public class ThriftRPCRequestExecutor {
     private static final Logger LOG = LogManager.getLogger(ThriftRPCRequestExecutor.class);
@@ -95,6 +98,33 @@ public class ThriftRPCRequestExecutor {
         throw new TException("Call thrift rpc failed");
     }
 
+    /**
+     * call through the multiplexed client and wait for the response, the timeout is enforced by the client.
+     */
+    public static <RESULT> RESULT callMultiplexed(ThriftMultiplexedClient client,
+                                                  TNetworkAddress address,
+                                                  int timeoutMs,
+                                                  String method,
+                                                  TBase<?, ?> args,
+                                                  TBase<?, ?> result) throws TException {
+        CompletableFuture<RESULT> future = client.call(address, method, args, result, timeoutMs);
+        return waitMultiplexed(future);
+    }
+
+    public static <RESULT> RESULT waitMultiplexed(CompletableFuture<RESULT> future) throws TException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TException) {
+                throw (TException) e.getCause();
+            }
+            throw new TException(e.getCause());
+        }
+    }
+
     @FunctionalInterface
     public interface MethodCallable<T, R> {
         R apply(T client) throws TException;
@@ -315,6 +315,10 @@ public class PartitionBasedMvRefreshProcessor extends BaseTaskRunProcessor {
 
     private RefreshJobStatus doMvRefresh(TaskRunContext context, IMaterializedViewMetricsEntity mvEntity) {
         long startRefreshTs = System.currentTimeMillis();
+        TaskRunStatus taskRunStatus = mvContext.getTaskRun().getStatus();
+        if (taskRunStatus != null) {
+            mvEntity.updateRefreshPendingDuration(Math.max(0, startRefreshTs - taskRunStatus.getCreateTime()));
+        }
 
         // log mv basic info, it may throw exception if mv is invalid since base table has dropped
         try {
@@ -29,6 +29,7 @@ import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.load.loadv2.InsertLoadJob;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.QueryState;
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.qe.StmtExecutor;
 import com.starrocks.scheduler.persist.TaskRunStatus;
 import com.starrocks.server.GlobalStateMgr;
@@ -297,6 +298,23 @@ public class TaskRun implements Comparable<TaskRun> {
         return runCtx;
     }
 
+    /**
+     * The owner of the task run which is used to schedule task runs fairly, it's the resource group of the task run
+     * if set, otherwise the user who creates the task.
+     */
+    public String getOwner() {
+        if (properties != null) {
+            String resourceGroup = properties.get(SessionVariable.RESOURCE_GROUP);
+            if (StringUtils.isNotEmpty(resourceGroup)) {
+                return resourceGroup;
+            }
+        }
+        if (status != null && status.getUser() != null) {
+            return status.getUser();
+        }
+        return "";
+    }
+
     public TaskRunStatus getStatus() {
         if (status == null) {
             return null;
@@ -20,6 +20,7 @@ import com.google.gson.annotations.SerializedName;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -216,6 +217,39 @@ public class TaskRunFIFOQueue {
         }
     }
 
+    /**
+     * Poll the best task run by the comparator from the task runs which satisfy the predicate, the default order
+     * is used if task runs are equal by the comparator.
+     * @param predicate: predicate to filter task run
+     * @param comparator: comparator to choose the best task run, the smaller is better
+     * @return: task run if found, null if not found
+     */
+    public TaskRun poll(Predicate<TaskRun> predicate, Comparator<TaskRun> comparator) {
+        if (isEmpty()) {
+            return null;
+        }
+        wLock.lock();
+        try {
+            TaskRun best = null;
+            for (TaskRun taskRun : gTaskRunQueue) {
+                if (!predicate.test(taskRun)) {
+                    continue;
+                }
+                if (best == null || comparator.compare(taskRun, best) < 0) {
+                    best = taskRun;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            gTaskRunQueue.remove(best);
+            removeFromMapUnlock(best);
+            return best;
+        } finally {
+            wLock.unlock();
+        }
+    }
+
     /**
      * Poll a task run from the queue by a predicate iterating by the default order.
      * @param predicate: predicate to filter task run
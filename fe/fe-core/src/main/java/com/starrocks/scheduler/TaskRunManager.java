@@ -23,6 +23,7 @@ import com.starrocks.common.util.LogUtil;
 import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.common.util.concurrent.QueryableReentrantLock;
 import com.starrocks.memory.MemoryTrackable;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.scheduler.history.TaskRunHistory;
 import com.starrocks.scheduler.persist.TaskRunStatus;
@@ -226,6 +227,10 @@ public class TaskRunManager implements MemoryTrackable {
                 taskRunScheduler.removeRunningTask(taskId);
                 LOG.info("Task run is done from state RUNNING to {}, {}", taskRun.getStatus().getState(), taskRun);
 
+                if (MetricRepo.hasInit && taskRun.getStatus().getFinishTime() > 0) {
+                    MetricRepo.HISTO_TASK_RUN_LATENCY.update(
+                            taskRun.getStatus().getFinishTime() - taskRun.getStatus().getProcessStartTime());
+                }
                 taskRunHistory.addHistory(taskRun.getStatus());
                 TaskRunStatusChange statusChange = new TaskRunStatusChange(taskRun.getTaskId(), taskRun.getStatus(),
                         Constants.TaskRunState.RUNNING, taskRun.getStatus().getState());
@@ -239,6 +244,10 @@ public class TaskRunManager implements MemoryTrackable {
         taskRunScheduler.scheduledPendingTaskRun(pendingTaskRun -> {
             if (taskRunExecutor.executeTaskRun(pendingTaskRun)) {
                 LOG.info("start to schedule pending task run to execute: {}", pendingTaskRun);
+                if (MetricRepo.hasInit) {
+                    MetricRepo.HISTO_TASK_RUN_PENDING_LATENCY.update(
+                            pendingTaskRun.getStatus().getProcessStartTime() - pendingTaskRun.getStatus().getCreateTime());
+                }
                 long taskId = pendingTaskRun.getTaskId();
                 // RUNNING state persistence is for FE FOLLOWER update state
                 TaskRunStatusChange statusChange = new TaskRunStatusChange(taskId, pendingTaskRun.getStatus(),
@@ -14,15 +14,19 @@
 
 package com.starrocks.scheduler;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.gson.annotations.SerializedName;
 import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
 import com.starrocks.persist.gson.GsonUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +35,8 @@ import java.util.function.Consumer;
 /**
  * Schedule pending task runs to running task runs, it uses priority queue to schedule task runs.
  * The task run with higher priority or older created time will be scheduled first.
+ * If fair schedule or priority aging is enabled, the next task run is chosen by the owners' running task runs and
+ * the aged priority instead.
  */
 public class TaskRunScheduler {
     private static final Logger LOG = LogManager.getLogger(TaskRunScheduler.class);
@@ -47,6 +53,9 @@ public class TaskRunScheduler {
     @SerializedName("runningSyncTaskRunMap")
     private final Map<Long, TaskRun> runningSyncTaskRunMap = Maps.newConcurrentMap();
 
+    // parsed owner weights of fair schedule and its config string
+    private volatile Pair<String, Map<String, Integer>> ownerWeights;
+
     ////////// pending task run map //////////
     /**
      * Get the count of pending task run
@@ -130,7 +139,10 @@ public class TaskRunScheduler {
             if (currentRunning >= Config.task_runs_concurrency) {
                 break;
             }
-            TaskRun taskRun = pendingTaskRunQueue.poll(this::canTaskRunBeScheduled);
+            TaskRun taskRun = isDefaultScheduleOrder() ?
+                    pendingTaskRunQueue.poll(this::canTaskRunBeScheduled) :
+                    pendingTaskRunQueue.poll(this::canTaskRunBeScheduled,
+                            buildScheduleComparator(System.currentTimeMillis()));
             if (taskRun == null) {
                 break;
             }
@@ -142,6 +154,67 @@ public class TaskRunScheduler {
         }
     }
 
+    private static boolean isDefaultScheduleOrder() {
+        return !Config.task_runs_fair_schedule_enable && Config.task_runs_priority_aging_interval_second <= 0;
+    }
+
+    /**
+     * Build the comparator to choose the next task run to schedule, the smaller is better:
+     * 1. if fair schedule is enabled, prefer the owner which has the least running task runs per weight.
+     * 2. prefer the higher priority after aging.
+     * 3. prefer the older task run.
+     */
+    @VisibleForTesting
+    Comparator<TaskRun> buildScheduleComparator(long now) {
+        Comparator<TaskRun> comparator = Comparator.comparingLong(taskRun -> -getAgedPriority(taskRun, now));
+        comparator = comparator.thenComparingLong(taskRun -> taskRun.getStatus().getCreateTime());
+        if (!Config.task_runs_fair_schedule_enable) {
+            return comparator;
+        }
+        Map<String, Integer> ownerRunningCounts = Maps.newHashMap();
+        for (TaskRun taskRun : runningTaskRunMap.values()) {
+            ownerRunningCounts.merge(taskRun.getOwner(), 1, Integer::sum);
+        }
+        Map<String, Integer> ownerWeights = getOwnerWeights();
+        Comparator<TaskRun> fairComparator = Comparator.comparingDouble(taskRun -> {
+            String owner = taskRun.getOwner();
+            return (double) ownerRunningCounts.getOrDefault(owner, 0) / ownerWeights.getOrDefault(owner, 1);
+        });
+        return fairComparator.thenComparing(comparator);
+    }
+
+    private static long getAgedPriority(TaskRun taskRun, long now) {
+        long priority = taskRun.getStatus().getPriority();
+        long agingIntervalMs = Config.task_runs_priority_aging_interval_second * 1000L;
+        if (agingIntervalMs <= 0) {
+            return priority;
+        }
+        return priority + Math.max(0, now - taskRun.getStatus().getCreateTime()) / agingIntervalMs;
+    }
+
+    private Map<String, Integer> getOwnerWeights() {
+        String weightsConfig = Config.task_runs_fair_schedule_weights;
+        Pair<String, Map<String, Integer>> cached = ownerWeights;
+        if (cached != null && cached.first.equals(weightsConfig)) {
+            return cached.second;
+        }
+        Map<String, Integer> weights = Maps.newHashMap();
+        for (String item : Splitter.on(",").trimResults().omitEmptyStrings().split(weightsConfig)) {
+            List<String> ownerAndWeight = Splitter.on(":").trimResults().splitToList(item);
+            try {
+                if (ownerAndWeight.size() == 2 && Integer.parseInt(ownerAndWeight.get(1)) > 0) {
+                    weights.put(ownerAndWeight.get(0), Integer.parseInt(ownerAndWeight.get(1)));
+                    continue;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to log the invalid item
+            }
+            LOG.warn("ignore invalid task run fair schedule weight: {}", item);
+        }
+        ownerWeights = Pair.create(weightsConfig, weights);
+        return weights;
+    }
+
     public long getTaskIdPendingTaskRunCount(long taskId) {
         Set<TaskRun> pendingTaskRuns = getPendingTaskRunsByTaskId(taskId);
         return  pendingTaskRuns == null ? 0L : pendingTaskRuns.size();
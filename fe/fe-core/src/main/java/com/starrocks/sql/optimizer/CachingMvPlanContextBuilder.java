@@ -125,7 +125,9 @@ public class CachingMvPlanContextBuilder {
      */
     private List<MvPlanContext> loadMvPlanContext(MaterializedView mv) {
         try {
-            return MvPlanContextBuilder.getPlanContext(mv);
+            List<MvPlanContext> planContexts = MvPlanContextBuilder.getPlanContext(mv);
+            MvPlanSignatureIndex.getInstance().put(mv, planContexts);
+            return planContexts;
         } catch (Throwable e) {
             LOG.warn("load mv plan cache failed: {}", mv.getName(), e);
             return Lists.newArrayList();
@@ -139,6 +141,7 @@ public class CachingMvPlanContextBuilder {
 
     public void invalidateFromCache(MaterializedView mv, boolean isActive) {
         mvPlanContextCache.invalidate(mv);
+        MvPlanSignatureIndex.getInstance().remove(mv);
         invalidateAstFromCache(mv);
 
         // if transfer to active, put it into cache
@@ -0,0 +1,332 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.BinaryType;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.MvPlanContext;
+import com.starrocks.catalog.Table;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalScanOperator;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A light-weight index of materialized view plan signatures which is used to prune the related mvs that can never
+ * rewrite the query before their {@link MvPlanContext}s are loaded or scored.
+ *
+ * <p>
+ * A signature is derived from one mv plan context when it's built (see {@link CachingMvPlanContextBuilder}) and
+ * removed when the mv is altered, inactivated or dropped. Unlike the plan cache, signatures are not evicted by
+ * access time since they are only a few small sets per mv.
+ * </p>
+ *
+ * <p>
+ * NOTE: pruning must be conservative: an mv is pruned only if every plan signature of it cannot match the query, and
+ * an mv without signature is always kept.
+ * </p>
+ */
+public class MvPlanSignatureIndex {
+    private static final Logger LOG = LogManager.getLogger(MvPlanSignatureIndex.class);
+    private static final MvPlanSignatureIndex INSTANCE = new MvPlanSignatureIndex();
+
+    // mv id -> signatures of all valid plan contexts of the mv
+    private final Map<Long, List<Signature>> mvSignatures = Maps.newConcurrentMap();
+
+    /**
+     * Signature of one logical plan: number of scans, aggregation and the value ranges of filter predicates.
+     */
+    public static class Signature {
+        private final int scanOpNum;
+        private final boolean hasAggregation;
+        // `tableId.columnName` -> value range, only collected for tables which are scanned once
+        private final Map<String, Range<ConstantOperator>> columnRanges;
+
+        public Signature(int scanOpNum,
+                         boolean hasAggregation,
+                         Map<String, Range<ConstantOperator>> columnRanges) {
+            this.scanOpNum = scanOpNum;
+            this.hasAggregation = hasAggregation;
+            this.columnRanges = ImmutableMap.copyOf(columnRanges);
+        }
+
+        public static Signature of(OptExpression plan) {
+            List<LogicalScanOperator> scanOperators = Lists.newArrayList();
+            List<ScalarOperator> predicates = Lists.newArrayList();
+            boolean hasAggregation = collect(plan, scanOperators, predicates);
+
+            Map<Long, Integer> tableScanCounts = Maps.newHashMap();
+            for (LogicalScanOperator scanOperator : scanOperators) {
+                tableScanCounts.merge(scanOperator.getTable().getId(), 1, Integer::sum);
+            }
+            // column ranges of self-joined tables are ambiguous, only keep columns of tables which are scanned once
+            Map<ColumnRefOperator, String> columnKeys = Maps.newHashMap();
+            for (LogicalScanOperator scanOperator : scanOperators) {
+                Table table = scanOperator.getTable();
+                if (tableScanCounts.get(table.getId()) != 1) {
+                    continue;
+                }
+                for (Map.Entry<ColumnRefOperator, Column> e : scanOperator.getColRefToColumnMetaMap().entrySet()) {
+                    columnKeys.put(e.getKey(), table.getId() + "." + e.getValue().getName());
+                }
+            }
+            Map<String, Range<ConstantOperator>> columnRanges = Maps.newHashMap();
+            for (ScalarOperator predicate : predicates) {
+                collectColumnRanges(predicate, columnKeys, columnRanges);
+            }
+            return new Signature(scanOperators.size(), hasAggregation, columnRanges);
+        }
+
+        /**
+         * Collect scans and predicates which filter rows(scan predicates and filters) of the plan, join
+         * on-predicates are not collected since they do not filter the preserved side of outer joins.
+         */
+        private static boolean collect(OptExpression root,
+                                       List<LogicalScanOperator> scanOperators,
+                                       List<ScalarOperator> predicates) {
+            Operator op = root.getOp();
+            if (op instanceof LogicalScanOperator) {
+                scanOperators.add((LogicalScanOperator) op);
+                if (op.getPredicate() != null) {
+                    predicates.add(op.getPredicate());
+                }
+                return false;
+            }
+            if (op instanceof LogicalFilterOperator && op.getPredicate() != null) {
+                predicates.add(op.getPredicate());
+            }
+            boolean hasAggregation = op instanceof LogicalAggregationOperator;
+            for (OptExpression child : root.getInputs()) {
+                hasAggregation |= collect(child, scanOperators, predicates);
+            }
+            return hasAggregation;
+        }
+
+        private static void collectColumnRanges(ScalarOperator predicate,
+                                                Map<ColumnRefOperator, String> columnKeys,
+                                                Map<String, Range<ConstantOperator>> columnRanges) {
+            for (ScalarOperator conjunct : Utils.extractConjuncts(predicate)) {
+                if (!(conjunct instanceof BinaryPredicateOperator)) {
+                    continue;
+                }
+                BinaryPredicateOperator binary = (BinaryPredicateOperator) conjunct;
+                if (binary.getChild(1) instanceof ColumnRefOperator && binary.getChild(0) instanceof ConstantOperator) {
+                    binary = binary.commutative();
+                }
+                if (!(binary.getChild(0) instanceof ColumnRefOperator) ||
+                        !(binary.getChild(1) instanceof ConstantOperator)) {
+                    continue;
+                }
+                String key = columnKeys.get((ColumnRefOperator) binary.getChild(0));
+                Range<ConstantOperator> range = toRange(binary.getBinaryType(), (ConstantOperator) binary.getChild(1));
+                if (key == null || range == null) {
+                    continue;
+                }
+                try {
+                    Range<ConstantOperator> existed = columnRanges.get(key);
+                    if (existed == null) {
+                        columnRanges.put(key, range);
+                    } else if (existed.isConnected(range)) {
+                        columnRanges.put(key, existed.intersection(range));
+                    }
+                } catch (Exception e) {
+                    // constants of different types are not comparable, ignore the range of this column
+                    LOG.debug("ignore range of column {}: {}", key, e.getMessage());
+                }
+            }
+        }
+
+        private static Range<ConstantOperator> toRange(BinaryType binaryType, ConstantOperator value) {
+            if (value.isNull()) {
+                return null;
+            }
+            switch (binaryType) {
+                case EQ:
+                    return Range.singleton(value);
+                case LT:
+                    return Range.lessThan(value);
+                case LE:
+                    return Range.atMost(value);
+                case GT:
+                    return Range.greaterThan(value);
+                case GE:
+                    return Range.atLeast(value);
+                default:
+                    return null;
+            }
+        }
+
+        public int getScanOpNum() {
+            return scanOpNum;
+        }
+
+        public boolean hasAggregation() {
+            return hasAggregation;
+        }
+
+        public Map<String, Range<ConstantOperator>> getColumnRanges() {
+            return columnRanges;
+        }
+
+        /**
+         * Whether the mv plan with this signature may be used to rewrite the query, return the reason if not.
+         *
+         * @param query              signature of the query plan
+         * @param enableUnionRewrite union rewrite can compensate disjoint predicate ranges, so ranges are only
+         *                           checked when it's disabled
+         */
+        public String getMismatchReason(Signature query, boolean enableUnionRewrite) {
+            // an aggregate mv can not rewrite a query without any aggregation
+            if (hasAggregation && !query.hasAggregation) {
+                return "mv has aggregation but query has not";
+            }
+            // NOTE: tables and joins are not compared: nested mvs are based on other mvs rather than query tables, and
+            // mvs with extra or fewer tables and derivable join types may still rewrite the query.
+            if (!enableUnionRewrite) {
+                for (Map.Entry<String, Range<ConstantOperator>> e : columnRanges.entrySet()) {
+                    Range<ConstantOperator> queryRange = query.columnRanges.get(e.getKey());
+                    if (queryRange != null && !isConnected(e.getValue(), queryRange)) {
+                        return String.format("mv range %s of column %s is disjoint with query range %s",
+                                e.getValue(), e.getKey(), queryRange);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static boolean isConnected(Range<ConstantOperator> left, Range<ConstantOperator> right) {
+            try {
+                return left.isConnected(right) && !left.intersection(right).isEmpty();
+            } catch (Exception e) {
+                // not comparable, treat as connected to be conservative
+                return true;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Signature: scanOpNum=%s, hasAgg=%s, ranges=%s",
+                    scanOpNum, hasAggregation, columnRanges);
+        }
+    }
+
+    private MvPlanSignatureIndex() {
+    }
+
+    public static MvPlanSignatureIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Add or replace signatures of the mv from its plan contexts, invalid plan contexts are ignored.
+     */
+    public void put(MaterializedView mv, List<MvPlanContext> planContexts) {
+        if (mv == null || CollectionUtils.isEmpty(planContexts)) {
+            return;
+        }
+        try {
+            List<Signature> signatures = Lists.newArrayList();
+            for (MvPlanContext planContext : planContexts) {
+                if (planContext.isValidMvPlan() && planContext.getLogicalPlan() != null) {
+                    signatures.add(Signature.of(planContext.getLogicalPlan()));
+                }
+            }
+            if (signatures.isEmpty()) {
+                mvSignatures.remove(mv.getId());
+            } else {
+                mvSignatures.put(mv.getId(), ImmutableList.copyOf(signatures));
+            }
+        } catch (Exception e) {
+            // never fail the plan building because of the index
+            LOG.warn("build plan signature failed: {}", mv.getName(), e);
+            mvSignatures.remove(mv.getId());
+        }
+    }
+
+    public void remove(MaterializedView mv) {
+        if (mv != null && mvSignatures.remove(mv.getId()) != null) {
+            LOG.info("Remove mv {} from plan signature index", mv.getName());
+        }
+    }
+
+    /**
+     * @return signatures of the mv, or null if the mv's plan has not been built yet.
+     */
+    public List<Signature> get(MaterializedView mv) {
+        return mvSignatures.get(mv.getId());
+    }
+
+    /**
+     * Return the mvs which may be used to rewrite the query, the pruned mvs and their reasons are put into
+     * `prunedReasons`.
+     */
+    public Set<MaterializedView> prune(Set<MaterializedView> mvs,
+                                       Signature query,
+                                       boolean enableUnionRewrite,
+                                       Map<String, String> prunedReasons) {
+        Set<MaterializedView> result = Sets.newHashSet();
+        for (MaterializedView mv : mvs) {
+            List<Signature> signatures = mvSignatures.get(mv.getId());
+            if (CollectionUtils.isEmpty(signatures)) {
+                result.add(mv);
+                continue;
+            }
+            List<String> reasons = Lists.newArrayList();
+            for (Signature signature : signatures) {
+                String reason = signature.getMismatchReason(query, enableUnionRewrite);
+                if (reason == null) {
+                    break;
+                }
+                reasons.add(reason);
+            }
+            if (reasons.size() < signatures.size()) {
+                result.add(mv);
+            } else {
+                prunedReasons.put(mv.getName(), Joiner.on(";").join(reasons));
+            }
+        }
+        return result;
+    }
+
+    @VisibleForTesting
+    public void clear() {
+        mvSignatures.clear();
+    }
+
+    @VisibleForTesting
+    public int size() {
+        return mvSignatures.size();
+    }
+}
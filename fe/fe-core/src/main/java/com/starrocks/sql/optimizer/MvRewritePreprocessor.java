@@ -198,6 +198,22 @@ public class MvRewritePreprocessor {
                     .orElse(diff);
         }
 
+        /**
+         * Same as {@link #getMvQueryScanOpDiff} but uses the plan signatures which outlive the mv plan cache.
+         */
+        public static int getMvQueryScanOpDiffBySignature(List<MvPlanSignatureIndex.Signature> signatures,
+                                                          int mvBaseTableSize,
+                                                          int queryScanOpNum) {
+            int diff = Math.abs(queryScanOpNum - mvBaseTableSize);
+            if (signatures == null || signatures.isEmpty()) {
+                return diff;
+            }
+            return signatures.stream()
+                    .map(signature -> Math.abs(queryScanOpNum - signature.getScanOpNum()))
+                    .min(Comparator.comparing(Integer::intValue))
+                    .orElse(diff);
+        }
+
         @Override
         public int compareTo(@NotNull MVCorrelation other) {
             // 1. compare intersected table nums, larger is better.
@@ -234,24 +250,30 @@ public class MvRewritePreprocessor {
                 // add into queryMaterializationContext for later use
                 this.queryMaterializationContext.addRelatedMVs(relatedMVs);
 
-                // 2. choose best related mvs by user's config or related mv limit
+                // 2. prune related mvs which can never rewrite the query by plan signatures
+                Set<MaterializedView> signatureMatchedMVs;
+                try (Timer t0 = Tracers.watchScope("MVPruneBySignature")) {
+                    signatureMatchedMVs = pruneRelatedMVsBySignature(relatedMVs, queryOptExpression);
+                }
+
+                // 3. choose best related mvs by user's config or related mv limit
                 Set<MaterializedView> selectedRelatedMVs;
                 try (Timer t1 = Tracers.watchScope("MVChooseCandidates")) {
-                    selectedRelatedMVs = chooseBestRelatedMVs(queryTables, relatedMVs, queryOptExpression);
+                    selectedRelatedMVs = chooseBestRelatedMVs(queryTables, signatureMatchedMVs, queryOptExpression);
                 }
 
-                // 3. convert to mv with planContext, skip if mv has no valid plan(not SPJG)
+                // 4. convert to mv with planContext, skip if mv has no valid plan(not SPJG)
                 Set<MvWithPlanContext> mvWithPlanContexts;
                 try (Timer t2 = Tracers.watchScope("MVGenerateMvPlan")) {
                     mvWithPlanContexts = getMvWithPlanContext(selectedRelatedMVs);
                 }
 
-                // 4. process related mvs to candidates
+                // 5. process related mvs to candidates
                 try (Timer t3 = Tracers.watchScope("MVValidateMv")) {
                     prepareRelatedMVs(queryTables, mvWithPlanContexts);
                 }
 
-                // 5. process relate mvs with views
+                // 6. process relate mvs with views
                 try (Timer t4 = Tracers.watchScope("MVProcessWithView")) {
                     processPlanWithView(queryMaterializationContext, connectContext, queryOptExpression,
                             queryColumnRefFactory, requiredColumns);
@@ -424,6 +446,30 @@ public class MvRewritePreprocessor {
         }
     }
 
+    /**
+     * Prune related mvs which can never be used to rewrite the query by their plan signatures, mvs whose plans have not
+     * been built yet are always kept.
+     */
+    @VisibleForTesting
+    public Set<MaterializedView> pruneRelatedMVsBySignature(Set<MaterializedView> relatedMVs,
+                                                            OptExpression queryOptExpression) {
+        if (relatedMVs.isEmpty()) {
+            return relatedMVs;
+        }
+        MvPlanSignatureIndex.Signature querySignature = MvPlanSignatureIndex.Signature.of(queryOptExpression);
+        boolean enableUnionRewrite = connectContext.getSessionVariable().isEnableMaterializedViewUnionRewrite();
+        Map<String, String> prunedReasons = Maps.newHashMap();
+        Set<MaterializedView> result = MvPlanSignatureIndex.getInstance().prune(relatedMVs, querySignature,
+                enableUnionRewrite, prunedReasons);
+        for (Map.Entry<String, String> e : prunedReasons.entrySet()) {
+            OptimizerTraceUtil.logMVRewriteFailReason(e.getKey(), "pruned by plan signature: {}", e.getValue());
+        }
+        Tracers.count(Tracers.Module.MV, "MVPrunedBySignature", prunedReasons.size());
+        logMVPrepare(connectContext, "Choose {}/{} mvs after pruning by plan signature",
+                result.size(), relatedMVs.size());
+        return result;
+    }
+
     private static Set<String> splitQueryMVNamesConfig(String str) {
         if (Strings.isNullOrEmpty(str)) {
             return Sets.newHashSet();
@@ -556,7 +602,10 @@ public class MvRewritePreprocessor {
             long mvQueryInteractedTableNum = MVCorrelation.getMvQueryIntersectedTableNum(baseTableInfos, queryTableNames);
             List<MvPlanContext> planContexts =
                     CachingMvPlanContextBuilder.getInstance().getPlanContextFromCacheIfPresent(mv);
-            int mvQueryScanOpDiff = MVCorrelation.getMvQueryScanOpDiff(planContexts, baseTableInfos.size(), queryScanOpNum);
+            int mvQueryScanOpDiff = planContexts == null ?
+                    MVCorrelation.getMvQueryScanOpDiffBySignature(MvPlanSignatureIndex.getInstance().get(mv),
+                            baseTableInfos.size(), queryScanOpNum) :
+                    MVCorrelation.getMvQueryScanOpDiff(planContexts, baseTableInfos.size(), queryScanOpNum);
             MVCorrelation mvCorrelation = new MVCorrelation(mv, mvQueryInteractedTableNum,
                     mvQueryScanOpDiff, mv.getLastRefreshTime());
             if (bestRelatedMVs.size() < maxRelatedMVsLimit) {
@@ -187,6 +187,9 @@ public class LogicalProperty implements Property {
                     return OneTabletProperty.supportWithoutChangeDistribution(new ColumnRefSet(bucketColumns));
                 }
                 return OneTabletProperty.notSupport();
+            } else if (node instanceof LogicalJDBCScanOperator &&
+                    ((LogicalJDBCScanOperator) node).isScanSplittable()) {
+                return OneTabletProperty.notSupport();
             } else if (node instanceof LogicalMysqlScanOperator || node instanceof LogicalJDBCScanOperator) {
                 return OneTabletProperty.supportWithoutChangeDistribution(new ColumnRefSet());
             }
@@ -27,6 +27,8 @@ import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import java.util.Map;
 
 public class LogicalJDBCScanOperator extends LogicalScanOperator {
+    // decided once when the scan is created, see JDBCTable#getScanSplitNum
+    private int scanSplitNum = 1;
 
     public LogicalJDBCScanOperator(Table table,
                                    Map<ColumnRefOperator, Column> columnRefOperatorColumnMap,
@@ -40,12 +42,25 @@ public class LogicalJDBCScanOperator extends LogicalScanOperator {
                 columnMetaToColRefMap,
                 limit, predicate, projection);
         Preconditions.checkState(table instanceof JDBCTable);
+        this.scanSplitNum = ((JDBCTable) table).getScanSplitNum();
     }
 
     private LogicalJDBCScanOperator() {
         super(OperatorType.LOGICAL_JDBC_SCAN);
     }
 
+    public int getScanSplitNum() {
+        return scanSplitNum;
+    }
+
+    /**
+     * Whether the scan may be split into ranges which are read in parallel,
+     * scans with limit are always read by a single query.
+     */
+    public boolean isScanSplittable() {
+        return scanSplitNum > 1 && getLimit() < 0;
+    }
+
     @Override
     public <R, C> R accept(OperatorVisitor<R, C> visitor, C context) {
         return visitor.visitLogicalJDBCScan(this, context);
@@ -57,5 +72,12 @@ public class LogicalJDBCScanOperator extends LogicalScanOperator {
         protected LogicalJDBCScanOperator newInstance() {
             return new LogicalJDBCScanOperator();
         }
+
+        @Override
+        public Builder withOperator(LogicalJDBCScanOperator scanOperator) {
+            super.withOperator(scanOperator);
+            builder.scanSplitNum = scanOperator.scanSplitNum;
+            return this;
+        }
     }
 }
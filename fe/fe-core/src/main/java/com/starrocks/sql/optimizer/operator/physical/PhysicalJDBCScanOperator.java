@@ -21,8 +21,18 @@ import com.starrocks.sql.optimizer.operator.OperatorVisitor;
 import com.starrocks.sql.optimizer.operator.logical.LogicalJDBCScanOperator;
 
 public class PhysicalJDBCScanOperator extends PhysicalScanOperator {
+    private final int scanSplitNum;
+
     public PhysicalJDBCScanOperator(LogicalJDBCScanOperator scanOperator) {
         super(OperatorType.PHYSICAL_JDBC_SCAN, scanOperator);
+        this.scanSplitNum = scanOperator.getScanSplitNum();
+    }
+
+    /**
+     * See {@link LogicalJDBCScanOperator#isScanSplittable()}.
+     */
+    public boolean isScanSplittable() {
+        return scanSplitNum > 1 && getLimit() < 0;
     }
 
     @Override
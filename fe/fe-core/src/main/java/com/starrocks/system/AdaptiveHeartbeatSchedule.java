@@ -0,0 +1,121 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.system;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.system.HeartbeatResponse.AliveStatus;
+import com.starrocks.system.HeartbeatResponse.HbStatus;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The per node heartbeat intervals of {@link HeartbeatMgr} when heartbeat_adaptive_fanout_enable is true.
+ * A node failing heartbeats is checked more often, so that it is marked dead, or alive again, sooner. A node which
+ * answered {@link #STABLE_ROUNDS} heartbeats in a row is checked every heartbeat_stable_interval_second.
+ * All the intervals are jittered, so the heartbeats of a large cluster spread out instead of firing together.
+ * <p>
+ * The state of a node is only updated by the thread handling its heartbeat response, and there is at most one
+ * heartbeat of a node in flight.
+ */
+class AdaptiveHeartbeatSchedule {
+    static final int STABLE_ROUNDS = 10;
+    static final long MIN_SUSPECT_INTERVAL_MS = 500L;
+    private static final double JITTER = 0.1;
+
+    private static class NodeState {
+        volatile long nextHeartbeatMs = 0;
+        int consecutiveOk = 0;
+        long lastOkMs = 0;
+        boolean alive = true;
+    }
+
+    private final Map<String, NodeState> nodes = new ConcurrentHashMap<>();
+
+    boolean isDue(String node, long nowMs) {
+        NodeState state = nodes.get(node);
+        return state == null || state.nextHeartbeatMs <= nowMs;
+    }
+
+    /**
+     * Update the state of the node with its handled heartbeat response, and schedule its next heartbeat.
+     *
+     * @return the time from the last successful heartbeat to now if the node is detected as dead by this response,
+     * or -1 otherwise.
+     */
+    long onResponse(String node, HeartbeatResponse response, long nowMs) {
+        NodeState state = nodes.computeIfAbsent(node, k -> new NodeState());
+        boolean ok = response.getStatus() == HbStatus.OK;
+        // backends keep being alive for heartbeat_retry_times failed heartbeats
+        boolean alive = response.aliveStatus != null ? response.aliveStatus == AliveStatus.ALIVE : ok;
+
+        long detectionLatencyMs = -1;
+        if (state.alive && !alive && state.lastOkMs > 0) {
+            detectionLatencyMs = nowMs - state.lastOkMs;
+        }
+        state.alive = alive;
+        if (ok) {
+            state.consecutiveOk++;
+            state.lastOkMs = nowMs;
+        } else {
+            state.consecutiveOk = 0;
+        }
+        state.nextHeartbeatMs = nowMs + jitter(intervalMs(state));
+        return detectionLatencyMs;
+    }
+
+    /**
+     * @return the earliest time a known node is due, or now + heartbeat_timeout_second if there is no node.
+     */
+    long nextDueMs(long nowMs) {
+        long next = nowMs + Config.heartbeat_timeout_second * 1000L;
+        for (NodeState state : nodes.values()) {
+            next = Math.min(next, state.nextHeartbeatMs);
+        }
+        return next;
+    }
+
+    /**
+     * Forget the nodes dropped from the cluster.
+     */
+    void retain(Collection<String> currentNodes) {
+        nodes.keySet().retainAll(currentNodes);
+    }
+
+    @VisibleForTesting
+    long getNextHeartbeatMs(String node) {
+        NodeState state = nodes.get(node);
+        return state == null ? 0 : state.nextHeartbeatMs;
+    }
+
+    private static long intervalMs(NodeState state) {
+        long baseMs = Config.heartbeat_timeout_second * 1000L;
+        if (state.consecutiveOk == 0) {
+            return Math.max(baseMs / 4, MIN_SUSPECT_INTERVAL_MS);
+        }
+        if (state.consecutiveOk >= STABLE_ROUNDS) {
+            return Math.max(baseMs, Config.heartbeat_stable_interval_second * 1000L);
+        }
+        return baseMs;
+    }
+
+    private static long jitter(long intervalMs) {
+        double factor = 1 + JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return (long) (intervalMs * factor);
+    }
+}
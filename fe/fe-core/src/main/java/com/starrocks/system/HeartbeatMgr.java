@@ -47,13 +47,16 @@ import com.starrocks.common.util.NetUtils;
 import com.starrocks.common.util.Util;
 import com.starrocks.encryption.KeyMgr;
 import com.starrocks.http.rest.BootstrapFinishAction;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.persist.HbPackage;
 import com.starrocks.rpc.ThriftConnectionPool;
+import com.starrocks.rpc.ThriftMultiplexedClient;
 import com.starrocks.rpc.ThriftRPCRequestExecutor;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.RunMode;
 import com.starrocks.service.FrontendOptions;
 import com.starrocks.system.HeartbeatResponse.HbStatus;
+import com.starrocks.thrift.HeartbeatService;
 import com.starrocks.thrift.TBackendInfo;
 import com.starrocks.thrift.TBrokerOperationStatus;
 import com.starrocks.thrift.TBrokerOperationStatusCode;
@@ -69,11 +72,20 @@ import org.json.JSONObject;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Heartbeat manager run as a daemon at a fix interval.
@@ -83,7 +95,14 @@ public class HeartbeatMgr extends FrontendDaemon {
     private static final Logger LOG = LogManager.getLogger(HeartbeatMgr.class);
     private static final AtomicReference<TMasterInfo> MASTER_INFO = new AtomicReference<>();
 
+    // the shortest sleep between two rounds in adaptive mode, so that nodes due at close times share a round
+    private static final long MIN_ADAPTIVE_ROUND_INTERVAL_MS = 100L;
+
     private final ExecutorService executor;
+    private final AdaptiveHeartbeatSchedule adaptiveSchedule = new AdaptiveHeartbeatSchedule();
+    // the last heartbeat sent to each node in adaptive mode, only accessed by the heartbeat mgr thread
+    private final Map<String, HeartbeatAttempt> lastAttempts = Maps.newHashMap();
+    private long lastLogHeartbeatMs = 0;
 
     public HeartbeatMgr(boolean needRegisterMetric) {
         super("heartbeat mgr", Config.heartbeat_timeout_second * 1000L);
@@ -106,7 +125,7 @@ public class HeartbeatMgr extends FrontendDaemon {
 
     /**
      * At each round:
-     * 1. send heartbeat to all nodes
+     * 1. send heartbeat to all nodes, or only to the due nodes if heartbeat_adaptive_fanout_enable is true
      * 2. collect the heartbeat response from all nodes, and handle them
      */
     @Override
@@ -117,20 +136,19 @@ public class HeartbeatMgr extends FrontendDaemon {
             return;
         }
 
-        List<Future<HeartbeatResponse>> hbResponses = Lists.newArrayList();
-
         long startTime = System.currentTimeMillis();
+        List<HeartbeatTask> tasks = Lists.newArrayList();
         // send backend heartbeat
         for (Backend backend : idToBackendRef.values()) {
-            BackendHeartbeatHandler handler = new BackendHeartbeatHandler(backend);
-            hbResponses.add(executor.submit(handler));
+            tasks.add(new HeartbeatTask("be-" + backend.getId(), new BackendHeartbeatHandler(backend),
+                    msg -> new BackendHbResponse(backend.getId(), TStatusCode.TIMEOUT, msg)));
         }
 
         // send compute node heartbeat
         for (ComputeNode computeNode : GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getIdComputeNode()
                 .values()) {
-            BackendHeartbeatHandler handler = new BackendHeartbeatHandler(computeNode);
-            hbResponses.add(executor.submit(handler));
+            tasks.add(new HeartbeatTask("be-" + computeNode.getId(), new BackendHeartbeatHandler(computeNode),
+                    msg -> new BackendHbResponse(computeNode.getId(), TStatusCode.TIMEOUT, msg)));
         }
 
         // send frontend heartbeat
@@ -143,20 +161,66 @@ public class HeartbeatMgr extends FrontendDaemon {
             FrontendHeartbeatHandler handler = new FrontendHeartbeatHandler(frontend,
                     GlobalStateMgr.getCurrentState().getNodeMgr().getClusterId(),
                     GlobalStateMgr.getCurrentState().getNodeMgr().getToken());
-            hbResponses.add(executor.submit(handler));
+            tasks.add(new HeartbeatTask("fe-" + frontend.getNodeName(), handler,
+                    msg -> new FrontendHbResponse(frontend.getNodeName(), msg)));
         }
 
         // send broker heartbeat;
         Map<String, List<FsBroker>> brokerMap = Maps.newHashMap(
                 GlobalStateMgr.getCurrentState().getBrokerMgr().getBrokerListMap());
         for (Map.Entry<String, List<FsBroker>> entry : brokerMap.entrySet()) {
+            String brokerName = entry.getKey();
             for (FsBroker brokerAddress : entry.getValue()) {
-                BrokerHeartbeatHandler handler = new BrokerHeartbeatHandler(entry.getKey(), brokerAddress,
+                BrokerHeartbeatHandler handler = new BrokerHeartbeatHandler(brokerName, brokerAddress,
                         MASTER_INFO.get().getNetwork_address().getHostname());
-                hbResponses.add(executor.submit(handler));
+                tasks.add(new HeartbeatTask("broker-" + brokerName + "-" + brokerAddress.ip + ":" + brokerAddress.port,
+                        handler, msg -> new BrokerHbResponse(brokerName, brokerAddress.ip, brokerAddress.port, msg)));
             }
         }
 
+        boolean adaptive = Config.heartbeat_adaptive_fanout_enable;
+        HbPackage hbPackage = adaptive ? sendAdaptiveHeartbeats(tasks, startTime) : sendHeartbeats(tasks);
+
+        long heartbeatIntervalMs = Config.heartbeat_timeout_second * 1000L;
+        // in adaptive mode, only the due nodes are checked in a round, we still write an edit log at least once
+        // every heartbeat_timeout_second to synchronize the master info to other Frontends.
+        boolean needLog = !adaptive || !hbPackage.getHbResults().isEmpty()
+                || System.currentTimeMillis() - lastLogHeartbeatMs >= heartbeatIntervalMs;
+        if (needLog) {
+            // we also add a 'mocked' master Frontend heartbeat response to synchronize master info to other Frontends.
+            hbPackage.addHbResponse(new FrontendHbResponse(masterFeNodeName, Config.query_port, Config.rpc_port,
+                    GlobalStateMgr.getCurrentState().getMaxJournalId(),
+                    System.currentTimeMillis(), GlobalStateMgr.getCurrentState().getFeStartTime(),
+                    Version.STARROCKS_VERSION + "-" + Version.STARROCKS_COMMIT_HASH));
+
+            // write edit log
+            GlobalStateMgr.getCurrentState().getEditLog().logHeartbeat(hbPackage);
+            lastLogHeartbeatMs = System.currentTimeMillis();
+
+            GlobalStateMgr.getCurrentState().getResourceGroupMgr().createBuiltinResourceGroupsIfNotExist();
+        }
+
+        if (adaptive) {
+            // wake up when the next node is due
+            long now = System.currentTimeMillis();
+            long nextRoundMs = Math.min(adaptiveSchedule.nextDueMs(now), lastLogHeartbeatMs + heartbeatIntervalMs);
+            setInterval(Math.max(MIN_ADAPTIVE_ROUND_INTERVAL_MS, nextRoundMs - now));
+        } else {
+            // set sleep time to (heartbeat_timeout - timeUsed),
+            // so that the frequency of calling the heartbeat rpc can be stabilized at heartbeat_timeout
+            setInterval(Math.max(1L, heartbeatIntervalMs - (System.currentTimeMillis() - startTime)));
+        }
+    }
+
+    /**
+     * Send heartbeat to all nodes, and wait for all the responses to handle them one by one.
+     */
+    private HbPackage sendHeartbeats(List<HeartbeatTask> tasks) {
+        List<Future<HeartbeatResponse>> hbResponses = Lists.newArrayList();
+        for (HeartbeatTask task : tasks) {
+            hbResponses.add(executor.submit(task.handler));
+        }
+
         // collect all heartbeat responses and handle them.
         // and we also find the node whose info has been changed, if changed, we need to collect them and write
         // an edit log to synchronize the info to fe followers.
@@ -178,21 +242,45 @@ public class HeartbeatMgr extends FrontendDaemon {
                 LOG.warn("got exception when doing heartbeat", e);
             }
         } // end for all results
+        return hbPackage;
+    }
 
-        // we also add a 'mocked' master Frontend heartbeat response to synchronize master info to other Frontends.
-        hbPackage.addHbResponse(new FrontendHbResponse(masterFeNodeName, Config.query_port, Config.rpc_port,
-                GlobalStateMgr.getCurrentState().getMaxJournalId(),
-                System.currentTimeMillis(), GlobalStateMgr.getCurrentState().getFeStartTime(),
-                Version.STARROCKS_VERSION + "-" + Version.STARROCKS_COMMIT_HASH));
-
-        // write edit log
-        GlobalStateMgr.getCurrentState().getEditLog().logHeartbeat(hbPackage);
+    /**
+     * Send heartbeat to the nodes which are due according to {@link AdaptiveHeartbeatSchedule}.
+     * Each response is handled by the pool thread which received it, and a node which does not answer within
+     * heartbeat_timeout_second is handled as a timeout, without waiting for its rpc to fail.
+     */
+    private HbPackage sendAdaptiveHeartbeats(List<HeartbeatTask> tasks, long startTime) {
+        adaptiveSchedule.retain(tasks.stream().map(task -> task.node).collect(Collectors.toList()));
+        lastAttempts.keySet().retainAll(tasks.stream().map(task -> task.node).collect(Collectors.toSet()));
+
+        Queue<HeartbeatResponse> changedResponses = new ConcurrentLinkedQueue<>();
+        List<HeartbeatAttempt> attempts = Lists.newArrayList();
+        for (HeartbeatTask task : tasks) {
+            HeartbeatAttempt lastAttempt = lastAttempts.get(task.node);
+            // the rpc of a timed out heartbeat may be still running, don't pile up heartbeats of a hanging node
+            if (!adaptiveSchedule.isDue(task.node, startTime) || (lastAttempt != null && !lastAttempt.finished)) {
+                continue;
+            }
+            HeartbeatAttempt attempt = new HeartbeatAttempt(task, startTime, changedResponses);
+            try {
+                attempt.future = executor.submit(attempt);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("heartbeat of {} is rejected, retry it in the next round", task.node);
+                continue;
+            }
+            lastAttempts.put(task.node, attempt);
+            attempts.add(attempt);
+        }
 
-        GlobalStateMgr.getCurrentState().getResourceGroupMgr().createBuiltinResourceGroupsIfNotExist();
+        long deadlineMs = startTime + Config.heartbeat_timeout_second * 1000L;
+        for (HeartbeatAttempt attempt : attempts) {
+            attempt.await(deadlineMs);
+        }
 
-        // set sleep time to (heartbeat_timeout - timeUsed),
-        // so that the frequency of calling the heartbeat rpc can be stabilized at heartbeat_timeout
-        setInterval(Math.max(1L, Config.heartbeat_timeout_second * 1000L - (System.currentTimeMillis() - startTime)));
+        HbPackage hbPackage = new HbPackage();
+        changedResponses.forEach(hbPackage::addHbResponse);
+        return hbPackage;
     }
 
     private boolean handleHbResponse(HeartbeatResponse response, boolean isReplay) {
@@ -219,6 +307,12 @@ public class HeartbeatMgr extends FrontendDaemon {
                         // invalid all connections cached in ClientPool
                         ThriftConnectionPool.backendPool.clearPool(
                                 new TNetworkAddress(computeNode.getHost(), computeNode.getBePort()));
+                        if (Config.thrift_rpc_multiplexed_enable) {
+                            ThriftMultiplexedClient.BACKEND_CLIENT.clearEndpoint(
+                                    new TNetworkAddress(computeNode.getHost(), computeNode.getBePort()));
+                            ThriftMultiplexedClient.BE_HEARTBEAT_CLIENT.clearEndpoint(
+                                    new TNetworkAddress(computeNode.getHost(), computeNode.getHeartbeatPort()));
+                        }
                         if (!isReplay && !computeNode.isAlive()) {
                             GlobalStateMgr.getCurrentState().getGlobalTransactionMgr()
                                     .abortTxnWhenCoordinateBeDown(computeNode.getHost(), 100);
@@ -260,6 +354,111 @@ public class HeartbeatMgr extends FrontendDaemon {
         return false;
     }
 
+    private static class HeartbeatTask {
+        private final String node;
+        private final Callable<HeartbeatResponse> handler;
+        // builds a failed response of the node with the given message
+        private final Function<String, HeartbeatResponse> failedResponse;
+
+        private HeartbeatTask(String node, Callable<HeartbeatResponse> handler,
+                              Function<String, HeartbeatResponse> failedResponse) {
+            this.node = node;
+            this.handler = handler;
+            this.failedResponse = failedResponse;
+        }
+    }
+
+    /**
+     * A heartbeat sent in adaptive mode. The response is handled by whoever claims the attempt first: the pool thread
+     * which received the response, or the heartbeat mgr thread when the deadline passes, with a timeout response.
+     */
+    private class HeartbeatAttempt implements Runnable {
+        private final HeartbeatTask task;
+        private final long startTime;
+        private final Queue<HeartbeatResponse> changedResponses;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private final CompletableFuture<Void> handled = new CompletableFuture<>();
+        private volatile boolean finished = false;
+        private Future<?> future;
+
+        private HeartbeatAttempt(HeartbeatTask task, long startTime, Queue<HeartbeatResponse> changedResponses) {
+            this.task = task;
+            this.startTime = startTime;
+            this.changedResponses = changedResponses;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (claimed.get()) {
+                    // timed out before being scheduled
+                    return;
+                }
+                HeartbeatResponse response;
+                try {
+                    response = task.handler.call();
+                } catch (Exception e) {
+                    response = task.failedResponse.apply(
+                            Strings.isNullOrEmpty(e.getMessage()) ? "got exception" : e.getMessage());
+                }
+                if (claimed.compareAndSet(false, true)) {
+                    handle(response);
+                }
+            } finally {
+                finished = true;
+            }
+        }
+
+        private void await(long deadlineMs) {
+            try {
+                handled.get(Math.max(0L, deadlineMs - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    future.cancel(false);
+                    handle(task.failedResponse.apply(
+                            "heartbeat timeout after " + (System.currentTimeMillis() - startTime) + "ms"));
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                LOG.warn("got exception when doing heartbeat", e);
+                return;
+            }
+            // the response arrived right at the deadline and is being handled
+            handled.join();
+        }
+
+        private void handle(HeartbeatResponse response) {
+            try {
+                if (response.getStatus() != HbStatus.OK) {
+                    LOG.warn("get bad heartbeat response: {}", response);
+                }
+                if (handleHbResponse(response, false)) {
+                    changedResponses.add(response);
+                }
+                long now = System.currentTimeMillis();
+                long detectionLatencyMs = adaptiveSchedule.onResponse(task.node, response, now);
+                if (detectionLatencyMs >= 0) {
+                    LOG.warn("{} is detected as dead {}ms after its last successful heartbeat",
+                            task.node, detectionLatencyMs);
+                }
+                if (MetricRepo.hasInit) {
+                    MetricRepo.HISTO_HEARTBEAT_LATENCY.update(now - startTime);
+                    if (detectionLatencyMs >= 0) {
+                        MetricRepo.HISTO_HEARTBEAT_FAILURE_DETECTION_LATENCY.update(detectionLatencyMs);
+                    }
+                }
+            } catch (Exception e) {
+                LOG.warn("got exception when handling heartbeat response: {}", response, e);
+            } finally {
+                handled.complete(null);
+            }
+        }
+    }
+
     // backend heartbeat
     public static class BackendHeartbeatHandler implements Callable<HeartbeatResponse> {
         private ComputeNode computeNode;
@@ -286,10 +485,21 @@ public class HeartbeatMgr extends FrontendDaemon {
                     copiedMasterInfo.setDisabled_disks(((Backend) computeNode).getDisabledDisks());
                     copiedMasterInfo.setDecommissioned_disks(((Backend) computeNode).getDecommissionedDisks());
                 }
-                THeartbeatResult result = ThriftRPCRequestExecutor.callNoRetry(
-                        ThriftConnectionPool.beHeartbeatPool,
-                        beAddr,
-                        client -> client.heartbeat(copiedMasterInfo));
+                THeartbeatResult result;
+                if (Config.thrift_rpc_multiplexed_enable) {
+                    result = ThriftRPCRequestExecutor.callMultiplexed(
+                            ThriftMultiplexedClient.BE_HEARTBEAT_CLIENT,
+                            beAddr,
+                            Config.heartbeat_timeout_second * 1000,
+                            "heartbeat",
+                            new HeartbeatService.heartbeat_args(copiedMasterInfo),
+                            new HeartbeatService.heartbeat_result());
+                } else {
+                    result = ThriftRPCRequestExecutor.callNoRetry(
+                            ThriftConnectionPool.beHeartbeatPool,
+                            beAddr,
+                            client -> client.heartbeat(copiedMasterInfo));
+                }
 
                 ok = true;
                 if (result.getStatus().getStatus_code() == TStatusCode.OK) {
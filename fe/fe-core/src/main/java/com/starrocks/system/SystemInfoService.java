@@ -69,6 +69,7 @@ import com.starrocks.persist.DropComputeNodeLog;
 import com.starrocks.persist.gson.GsonPostProcessable;
 import com.starrocks.qe.ShowResultSet;
 import com.starrocks.qe.ShowResultSetMetaData;
+import com.starrocks.rpc.ThriftMultiplexedClient;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.RunMode;
 import com.starrocks.server.WarehouseManager;
@@ -77,6 +78,7 @@ import com.starrocks.sql.analyzer.SemanticException;
 import com.starrocks.sql.ast.DropBackendClause;
 import com.starrocks.sql.ast.ModifyBackendClause;
 import com.starrocks.system.Backend.BackendState;
+import com.starrocks.task.AgentTaskDispatcher;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TResourceGroupUsage;
 import com.starrocks.thrift.TStatusCode;
@@ -371,6 +373,7 @@ public class SystemInfoService implements GsonPostProcessable {
 
         // remove from BackendCoreStat
         BackendResourceStat.getInstance().removeBe(dropComputeNode.getId());
+        releaseNodeState(dropComputeNode);
 
         // remove worker
         if (RunMode.isSharedDataMode()) {
@@ -480,6 +483,7 @@ public class SystemInfoService implements GsonPostProcessable {
 
         // remove from BackendCoreStat
         BackendResourceStat.getInstance().removeBe(droppedBackend.getId());
+        releaseNodeState(droppedBackend);
 
         // remove worker
         if (RunMode.isSharedDataMode()) {
@@ -1037,6 +1041,17 @@ public class SystemInfoService implements GsonPostProcessable {
         idToReportVersionRef = ImmutableMap.copyOf(copiedReportVersions);
     }
 
+    /**
+     * Release the per node state kept for a dropped node, i.e. the connections and metrics of the rpc clients,
+     * and the agent task queue.
+     */
+    private void releaseNodeState(ComputeNode node) {
+        AgentTaskDispatcher.INSTANCE.removeBackend(node.getId());
+        ThriftMultiplexedClient.BACKEND_CLIENT.removeEndpoint(new TNetworkAddress(node.getHost(), node.getBePort()));
+        ThriftMultiplexedClient.BE_HEARTBEAT_CLIENT.removeEndpoint(
+                new TNetworkAddress(node.getHost(), node.getHeartbeatPort()));
+    }
+
     public void replayDropComputeNode(long computeNodeId) {
         LOG.debug("replayDropComputeNode: {}", computeNodeId);
         // update idToComputeNode
@@ -1046,6 +1061,9 @@ public class SystemInfoService implements GsonPostProcessable {
         if (!GlobalStateMgr.isCheckpointThread()) {
             // remove from BackendCoreStat
             BackendResourceStat.getInstance().removeBe(computeNodeId);
+            if (cn != null) {
+                releaseNodeState(cn);
+            }
         }
 
         // clear map in starosAgent
@@ -1073,6 +1091,7 @@ public class SystemInfoService implements GsonPostProcessable {
         if (!GlobalStateMgr.isCheckpointThread()) {
             // remove from BackendCoreStat
             BackendResourceStat.getInstance().removeBe(backend.getId());
+            releaseNodeState(backend);
         }
 
         // clear map in starosAgent
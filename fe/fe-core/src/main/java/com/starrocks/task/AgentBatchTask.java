@@ -35,11 +35,16 @@
 package com.starrocks.task;
 
 import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
 import com.starrocks.rpc.ThriftConnectionPool;
+import com.starrocks.rpc.ThriftMultiplexedClient;
 import com.starrocks.rpc.ThriftRPCRequestExecutor;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.RunMode;
 import com.starrocks.system.ComputeNode;
+import com.starrocks.thrift.BackendService;
+import com.starrocks.thrift.TAgentResult;
 import com.starrocks.thrift.TAgentServiceVersion;
 import com.starrocks.thrift.TAgentTaskRequest;
 import com.starrocks.thrift.TAlterTabletReqV2;
@@ -67,12 +72,14 @@ import com.starrocks.thrift.TUpdateTabletMetaInfoReq;
 import com.starrocks.thrift.TUploadReq;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.thrift.transport.TTransportException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /*
  * This class group tasks by backend
@@ -109,6 +116,10 @@ public class AgentBatchTask implements Runnable {
         tasks.addAll(agentTasks);
     }
 
+    Map<Long, List<AgentTask>> getBackendIdToTasks() {
+        return backendIdToTasks;
+    }
+
     public List<AgentTask> getAllTasks() {
         List<AgentTask> tasks = new ArrayList<>(getTaskNum());
         for (Map.Entry<Long, List<AgentTask>> entry : this.backendIdToTasks.entrySet()) {
@@ -170,6 +181,10 @@ public class AgentBatchTask implements Runnable {
 
     @Override
     public void run() {
+        // with the multiplexed client, tasks are sent to all the backends first and then waited for,
+        // so that a slow backend doesn't hold up the others
+        Map<Long, CompletableFuture<TAgentResult>> multiplexedCalls = new HashMap<>();
+        Map<Long, Pair<TNetworkAddress, List<TAgentTaskRequest>>> multiplexedRequests = new HashMap<>();
         for (Long backendId : this.backendIdToTasks.keySet()) {
             try {
                 ComputeNode computeNode = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getBackend(backendId);
@@ -190,10 +205,19 @@ public class AgentBatchTask implements Runnable {
                     agentTaskRequests.add(toAgentTaskRequest(task));
                 }
 
-                ThriftRPCRequestExecutor.call(
-                        ThriftConnectionPool.backendPool,
-                        new TNetworkAddress(host, port),
-                        client -> client.submit_tasks(agentTaskRequests));
+                if (Config.thrift_rpc_multiplexed_enable) {
+                    multiplexedCalls.put(backendId, ThriftMultiplexedClient.BACKEND_CLIENT.call(
+                            new TNetworkAddress(host, port),
+                            "submit_tasks",
+                            new BackendService.submit_tasks_args(agentTaskRequests),
+                            new BackendService.submit_tasks_result()));
+                    multiplexedRequests.put(backendId, Pair.create(new TNetworkAddress(host, port), agentTaskRequests));
+                } else {
+                    ThriftRPCRequestExecutor.call(
+                            ThriftConnectionPool.backendPool,
+                            new TNetworkAddress(host, port),
+                            client -> client.submit_tasks(agentTaskRequests));
+                }
 
                 if (LOG.isDebugEnabled()) {
                     for (AgentTask task : tasks) {
@@ -205,6 +229,33 @@ public class AgentBatchTask implements Runnable {
                 LOG.warn("task exec error. backend[{}]", backendId, e);
             }
         } // end for compute node
+
+        for (Map.Entry<Long, CompletableFuture<TAgentResult>> entry : multiplexedCalls.entrySet()) {
+            Long backendId = entry.getKey();
+            try {
+                ThriftRPCRequestExecutor.waitMultiplexed(entry.getValue());
+            } catch (TTransportException e) {
+                // same as the pooled call, which doesn't retry timeouts since the backend may be running slow
+                if (e.getType() == TTransportException.TIMED_OUT) {
+                    LOG.warn("task exec error. backend[{}]", backendId, e);
+                    continue;
+                }
+                // the connection failed, resend with the connection pool, which reopens broken connections and retries
+                LOG.warn("failed to send tasks to backend[{}] over multiplexed connection, retry with connection pool",
+                        backendId, e);
+                Pair<TNetworkAddress, List<TAgentTaskRequest>> request = multiplexedRequests.get(backendId);
+                try {
+                    ThriftRPCRequestExecutor.call(
+                            ThriftConnectionPool.backendPool,
+                            request.first,
+                            client -> client.submit_tasks(request.second));
+                } catch (Exception retryException) {
+                    LOG.warn("task exec error. backend[{}]", backendId, retryException);
+                }
+            } catch (Exception e) {
+                LOG.warn("task exec error. backend[{}]", backendId, e);
+            }
+        }
     }
 
     public static TAgentTaskRequest toAgentTaskRequest(AgentTask task) {
@@ -0,0 +1,287 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.task;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.metric.GaugeMetric;
+import com.starrocks.metric.Metric;
+import com.starrocks.metric.MetricLabel;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.thrift.TTaskType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * AgentTaskDispatcher coalesces the agent tasks submitted by {@link AgentTaskExecutor#submit} into fewer
+ * submit_tasks rpcs, if agent_task_dispatcher_enable is true.
+ * <p>
+ * Tasks are buffered per backend for agent_task_dispatch_window_ms, and then sent in batches of at most
+ * agent_task_dispatch_max_batch_size tasks, with at most agent_task_dispatch_max_in_flight_per_backend batches in
+ * flight to a backend. Tasks are drained by {@link Lane}, so that publish and clone tasks are not queued behind
+ * bulk create and drop tasks. Urgent tasks are sent in batches of their own, a backend with urgent tasks is flushed
+ * at once, and one of its in-flight slots is kept for urgent tasks.
+ */
+public class AgentTaskDispatcher {
+    private static final Logger LOG = LogManager.getLogger(AgentTaskDispatcher.class);
+
+    public static final AgentTaskDispatcher INSTANCE =
+            new AgentTaskDispatcher(AgentTaskExecutor.EXECUTOR, AgentBatchTask::run, true);
+
+    enum Lane {
+        URGENT,
+        NORMAL,
+        BULK
+    }
+
+    private final ScheduledExecutorService flusher;
+    // runs the sender
+    private final Executor executor;
+    // sends a batch of tasks to its backend
+    private final Consumer<AgentBatchTask> sender;
+    private final boolean registerMetrics;
+    private final Map<Long, BackendQueue> backendQueues = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    AgentTaskDispatcher(Executor executor, Consumer<AgentBatchTask> sender, boolean registerMetrics) {
+        this.executor = executor;
+        this.sender = sender;
+        this.registerMetrics = registerMetrics;
+        this.flusher = ThreadPoolManager.newDaemonScheduledThreadPool(1, "agent-task-dispatcher", registerMetrics);
+    }
+
+    static Lane laneOf(TTaskType taskType) {
+        switch (taskType) {
+            case PUBLISH_VERSION:
+            case CLONE:
+                return Lane.URGENT;
+            case CREATE:
+            case DROP:
+                return Lane.BULK;
+            default:
+                return Lane.NORMAL;
+        }
+    }
+
+    public void submit(AgentBatchTask batchTask) {
+        for (Map.Entry<Long, List<AgentTask>> entry : batchTask.getBackendIdToTasks().entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                backendQueues.computeIfAbsent(entry.getKey(), BackendQueue::new).add(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Forget the queue of a dropped backend along with its metrics, the tasks still queued are discarded.
+     */
+    public void removeBackend(long backendId) {
+        BackendQueue queue = backendQueues.remove(backendId);
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    @VisibleForTesting
+    int getQueuedTaskNum(long backendId, TTaskType taskType) {
+        BackendQueue queue = backendQueues.get(backendId);
+        return queue == null ? 0 : queue.getDepth(taskType).get();
+    }
+
+    @VisibleForTesting
+    int getInFlightBatchNum(long backendId) {
+        BackendQueue queue = backendQueues.get(backendId);
+        return queue == null ? 0 : queue.inFlight;
+    }
+
+    private class BackendQueue {
+        private final long backendId;
+        // guarded by this
+        private final Map<Lane, ArrayDeque<AgentTask>> lanes = new EnumMap<>(Lane.class);
+        private final Map<TTaskType, AtomicInteger> depths = new ConcurrentHashMap<>();
+        // guarded by this, volatile for metrics
+        private volatile int inFlight = 0;
+        // guarded by this
+        private boolean flushScheduled = false;
+        private final List<Metric<?>> metrics = new ArrayList<>();
+
+        BackendQueue(long backendId) {
+            this.backendId = backendId;
+            for (Lane lane : Lane.values()) {
+                lanes.put(lane, new ArrayDeque<>());
+            }
+            if (registerMetrics) {
+                addGauge("agent_task_dispatch_in_flight", "the number of agent task batches in flight to each backend",
+                        () -> inFlight);
+            }
+        }
+
+        void add(List<AgentTask> tasks) {
+            boolean urgent = false;
+            boolean scheduleFlush = false;
+            synchronized (this) {
+                for (AgentTask task : tasks) {
+                    Lane lane = laneOf(task.getTaskType());
+                    lanes.get(lane).add(task);
+                    getDepth(task.getTaskType()).incrementAndGet();
+                    urgent |= lane == Lane.URGENT;
+                }
+                if (!urgent && !flushScheduled) {
+                    flushScheduled = true;
+                    scheduleFlush = true;
+                }
+            }
+            if (urgent) {
+                flush();
+            } else if (scheduleFlush) {
+                flusher.schedule(this::scheduledFlush, Config.agent_task_dispatch_window_ms, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void scheduledFlush() {
+            synchronized (this) {
+                flushScheduled = false;
+            }
+            flush();
+        }
+
+        private void flush() {
+            List<List<AgentTask>> batches = new ArrayList<>();
+            synchronized (this) {
+                int maxInFlight = Math.max(1, Config.agent_task_dispatch_max_in_flight_per_backend);
+                while (inFlight < maxInFlight) {
+                    // keep the last slot for urgent tasks
+                    List<AgentTask> batch = drain(inFlight < Math.max(1, maxInFlight - 1));
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    inFlight++;
+                    batches.add(batch);
+                }
+            }
+            for (List<AgentTask> batch : batches) {
+                send(batch);
+            }
+        }
+
+        private List<AgentTask> drain(boolean includeNonUrgent) {
+            int maxBatchSize = Math.max(1, Config.agent_task_dispatch_max_batch_size);
+            List<AgentTask> batch = new ArrayList<>();
+            // urgent tasks are not mixed with the others, so that their batches stay small and fast
+            if (!lanes.get(Lane.URGENT).isEmpty() || !includeNonUrgent) {
+                drain(Lane.URGENT, batch, maxBatchSize);
+                return batch;
+            }
+            drain(Lane.NORMAL, batch, maxBatchSize);
+            drain(Lane.BULK, batch, maxBatchSize);
+            return batch;
+        }
+
+        private void drain(Lane lane, List<AgentTask> batch, int maxBatchSize) {
+            ArrayDeque<AgentTask> queue = lanes.get(lane);
+            while (batch.size() < maxBatchSize && !queue.isEmpty()) {
+                AgentTask task = queue.poll();
+                getDepth(task.getTaskType()).decrementAndGet();
+                batch.add(task);
+            }
+        }
+
+        private void send(List<AgentTask> batch) {
+            AgentBatchTask batchTask = new AgentBatchTask();
+            batchTask.addTasks(backendId, batch);
+            try {
+                executor.execute(() -> {
+                    try {
+                        sender.accept(batchTask);
+                    } catch (Exception e) {
+                        LOG.warn("failed to send {} agent tasks to backend {}", batch.size(), backendId, e);
+                    } finally {
+                        onBatchDone();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                LOG.warn("failed to send {} agent tasks to backend {}", batch.size(), backendId, e);
+                onBatchDone();
+            }
+        }
+
+        private void onBatchDone() {
+            synchronized (this) {
+                inFlight--;
+            }
+            flush();
+        }
+
+        private AtomicInteger getDepth(TTaskType taskType) {
+            AtomicInteger depth = depths.get(taskType);
+            if (depth != null) {
+                return depth;
+            }
+            return depths.computeIfAbsent(taskType, type -> {
+                AtomicInteger newDepth = new AtomicInteger();
+                if (registerMetrics) {
+                    addGauge("agent_task_dispatch_queue_depth", "the number of agent tasks waiting to be sent",
+                            newDepth::get, new MetricLabel("task_type", type.name()));
+                }
+                return newDepth;
+            });
+        }
+
+        private void addGauge(String name, String description, IntSupplier getter,
+                              MetricLabel... labels) {
+            GaugeMetric<Integer> gauge = new GaugeMetric<Integer>(name, Metric.MetricUnit.NOUNIT, description) {
+                @Override
+                public Integer getValue() {
+                    return getter.getAsInt();
+                }
+            };
+            gauge.addLabel(new MetricLabel("backend", String.valueOf(backendId)));
+            for (MetricLabel label : labels) {
+                gauge.addLabel(label);
+            }
+            MetricRepo.addMetric(gauge);
+            metrics.add(gauge);
+        }
+
+        private void close() {
+            int discarded;
+            synchronized (this) {
+                discarded = lanes.values().stream().mapToInt(ArrayDeque::size).sum();
+                lanes.values().forEach(ArrayDeque::clear);
+                depths.values().forEach(depth -> depth.set(0));
+            }
+            if (discarded > 0) {
+                LOG.info("discard {} agent tasks queued for dropped backend {}", discarded, backendId);
+            }
+            for (Metric<?> metric : metrics) {
+                MetricRepo.removeMetric(metric);
+            }
+        }
+    }
+}
@@ -35,6 +35,10 @@ public class AgentTaskExecutor {
         if (task == null) {
             return;
         }
+        if (Config.agent_task_dispatcher_enable) {
+            AgentTaskDispatcher.INSTANCE.submit(task);
+            return;
+        }
         EXECUTOR.submit(task);
     }
 
@@ -34,97 +34,184 @@
 
 package com.starrocks.task;
 
-import com.google.common.collect.HashBasedTable;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Table;
+import com.starrocks.common.Config;
 import com.starrocks.thrift.TPushType;
 import com.starrocks.thrift.TTaskType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Task queue
+ * Task queue.
+ * <p>
+ * The tasks of each backend are kept in their own concurrent maps, so that report handling, publish and task
+ * submission of different backends, or of different tasks of the same backend, don't contend on a global lock.
+ * The tasks of a backend are also bucketed by create time, so that the report handler only looks at the tasks
+ * old enough to be resent, see {@link #getDiffTasksToResend}.
  */
 public class AgentTaskQueue {
     private static final Logger LOG = LogManager.getLogger(AgentTaskQueue.class);
 
-    // backend id -> (task type -> (signature -> agent task))
-    public static Table<Long, TTaskType, Map<Long, AgentTask>> tasks = HashBasedTable.create();
-    private static int taskNum = 0;
+    // the width of the create time buckets
+    private static final long CREATE_TIME_BUCKET_MS = 10_000L;
+    // the bucket of tasks without create time, which are always resent
+    private static final long NO_CREATE_TIME_BUCKET = Long.MIN_VALUE;
 
-    public static synchronized void addBatchTask(AgentBatchTask batchTask) {
+    // backend id -> tasks of the backend
+    private static final Map<Long, BackendTasks> BACKEND_TASKS = new ConcurrentHashMap<>();
+    private static final AtomicInteger TASK_NUM = new AtomicInteger(0);
+
+    private static class BackendTasks {
+        // task type -> (signature -> agent task)
+        private final Map<TTaskType, Map<Long, AgentTask>> typeToTasks = new ConcurrentHashMap<>();
+        // create time bucket -> tasks created in it
+        private final Map<Long, Set<AgentTask>> createTimeBuckets = new ConcurrentHashMap<>();
+
+        Map<Long, AgentTask> getTasks(TTaskType type) {
+            return typeToTasks.computeIfAbsent(type, k -> new ConcurrentHashMap<>());
+        }
+
+        // A task is put into or removed from its signature map under the lock of its create time bucket, so that
+        // a concurrent add and remove can't leave a removed task in the bucket.
+        boolean add(AgentTask task) {
+            Map<Long, AgentTask> signatureMap = getTasks(task.getTaskType());
+            boolean[] added = new boolean[1];
+            createTimeBuckets.compute(bucketOf(task), (k, bucket) -> {
+                if (signatureMap.putIfAbsent(task.getSignature(), task) != null) {
+                    return bucket;
+                }
+                if (bucket == null) {
+                    bucket = ConcurrentHashMap.newKeySet();
+                }
+                bucket.add(task);
+                added[0] = true;
+                return bucket;
+            });
+            return added[0];
+        }
+
+        AgentTask remove(TTaskType type, long signature) {
+            Map<Long, AgentTask> signatureMap = typeToTasks.get(type);
+            if (signatureMap == null) {
+                return null;
+            }
+            while (true) {
+                AgentTask task = signatureMap.get(signature);
+                if (task == null || remove(task)) {
+                    return task;
+                }
+                // replaced by another task of the same signature, try again
+            }
+        }
+
+        // remove the task if it is still mapped to its signature
+        boolean remove(AgentTask task) {
+            Map<Long, AgentTask> signatureMap = typeToTasks.get(task.getTaskType());
+            if (signatureMap == null) {
+                return false;
+            }
+            boolean[] removed = new boolean[1];
+            createTimeBuckets.compute(bucketOf(task), (k, bucket) -> {
+                if (signatureMap.remove(task.getSignature(), task)) {
+                    removed[0] = true;
+                    if (bucket != null) {
+                        bucket.remove(task);
+                    }
+                }
+                return bucket == null || bucket.isEmpty() ? null : bucket;
+            });
+            return removed[0];
+        }
+
+        boolean isRemoved(AgentTask task) {
+            Map<Long, AgentTask> signatureMap = typeToTasks.get(task.getTaskType());
+            return signatureMap == null || signatureMap.get(task.getSignature()) != task;
+        }
+
+        // remove the task from its bucket if it's no longer mapped to its signature
+        void purgeRemoved(AgentTask task) {
+            createTimeBuckets.computeIfPresent(bucketOf(task), (k, bucket) -> {
+                if (isRemoved(task)) {
+                    bucket.remove(task);
+                }
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+
+        private static long bucketOf(AgentTask task) {
+            return task.createTime == -1 ? NO_CREATE_TIME_BUCKET : task.createTime / CREATE_TIME_BUCKET_MS;
+        }
+    }
+
+    private static BackendTasks getBackendTasks(long backendId) {
+        return BACKEND_TASKS.computeIfAbsent(backendId, k -> new BackendTasks());
+    }
+
+    private static Map<Long, AgentTask> getSignatureMap(long backendId, TTaskType type) {
+        BackendTasks backendTasks = BACKEND_TASKS.get(backendId);
+        return backendTasks == null ? null : backendTasks.typeToTasks.get(type);
+    }
+
+    public static void addBatchTask(AgentBatchTask batchTask) {
         for (AgentTask task : batchTask.getAllTasks()) {
             addTask(task);
         }
     }
 
-    public static synchronized void addTaskList(List<AgentTask> taskList) {
+    public static void addTaskList(List<AgentTask> taskList) {
         taskList.forEach(AgentTaskQueue::addTask);
     }
 
-    public static synchronized boolean addTask(AgentTask task) {
+    public static boolean addTask(AgentTask task) {
         long backendId = task.getBackendId();
-        TTaskType type = task.getTaskType();
-
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, type);
-        if (signatureMap == null) {
-            signatureMap = Maps.newHashMap();
-            tasks.put(backendId, type, signatureMap);
-        }
-
-        long signature = task.getSignature();
-        if (signatureMap.containsKey(signature)) {
+        if (!getBackendTasks(backendId).add(task)) {
             return false;
         }
-        signatureMap.put(signature, task);
-        ++taskNum;
-        LOG.debug("add task: type[{}], backend[{}], signature[{}]", type, backendId, signature);
+        TASK_NUM.incrementAndGet();
+        LOG.debug("add task: type[{}], backend[{}], signature[{}]", task.getTaskType(), backendId, task.getSignature());
         return true;
     }
 
     // remove all task in AgentBatchTask.
     // the caller should make sure all tasks in AgentBatchTask is type of 'type'
-    public static synchronized void removeBatchTask(AgentBatchTask batchTask, TTaskType type) {
+    public static void removeBatchTask(AgentBatchTask batchTask, TTaskType type) {
         for (AgentTask task : batchTask.getAllTasks()) {
             removeTask(task.getBackendId(), type, task.getSignature());
         }
     }
 
-    public static synchronized void removeTask(long backendId, TTaskType type, long signature) {
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, type);
-        if (signatureMap == null) {
+    public static void removeTask(long backendId, TTaskType type, long signature) {
+        BackendTasks backendTasks = BACKEND_TASKS.get(backendId);
+        if (backendTasks == null || backendTasks.remove(type, signature) == null) {
             return;
         }
-        if (!signatureMap.containsKey(signature)) {
-            return;
-        }
-        signatureMap.remove(signature);
         LOG.debug("remove task: type[{}], backend[{}], signature[{}]", type, backendId, signature);
-        --taskNum;
+        TASK_NUM.decrementAndGet();
     }
 
     /*
      * we cannot define a push task with only 'backendId', 'signature' and 'TTaskType'
      * add version, and TPushType to help
      */
-    public static synchronized void removePushTask(long backendId, long signature, long version,
-                                                   TPushType pushType, TTaskType taskType) {
-        if (!tasks.contains(backendId, taskType)) {
+    public static void removePushTask(long backendId, long signature, long version,
+                                      TPushType pushType, TTaskType taskType) {
+        Map<Long, AgentTask> signatureMap = getSignatureMap(backendId, taskType);
+        if (signatureMap == null) {
             return;
         }
-
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, taskType);
         AgentTask task = signatureMap.get(signature);
         if (task == null) {
             return;
@@ -135,36 +222,31 @@ public class AgentTaskQueue {
             return;
         }
 
-        signatureMap.remove(signature);
-        LOG.debug("remove task: type[{}], backend[{}], signature[{}]", taskType, backendId, signature);
-        --taskNum;
+        if (BACKEND_TASKS.get(backendId).remove(task)) {
+            LOG.debug("remove task: type[{}], backend[{}], signature[{}]", taskType, backendId, signature);
+            TASK_NUM.decrementAndGet();
+        }
     }
 
     /*
      * we cannot define a push task with only 'backendId', 'signature' and 'TTaskType'
      * add version, and TPushType to help
      */
-    public static synchronized void removePushTaskByTransactionId(long backendId, long transactionId,
-                                                                  TPushType pushType, TTaskType taskType) {
-        if (!tasks.contains(backendId, taskType)) {
-            return;
-        }
-
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, taskType);
+    public static void removePushTaskByTransactionId(long backendId, long transactionId,
+                                                     TPushType pushType, TTaskType taskType) {
+        Map<Long, AgentTask> signatureMap = getSignatureMap(backendId, taskType);
         if (signatureMap == null) {
             return;
         }
 
         int numOfRemove = 0;
-        Iterator<Long> signatureIt = signatureMap.keySet().iterator();
-        while (signatureIt.hasNext()) {
-            Long signature = signatureIt.next();
-            AgentTask agentTask = signatureMap.get(signature);
+        BackendTasks backendTasks = BACKEND_TASKS.get(backendId);
+        for (AgentTask agentTask : signatureMap.values()) {
             if (agentTask instanceof PushTask) {
                 PushTask pushTask = (PushTask) agentTask;
-                if (pushTask.getPushType() == pushType && pushTask.getTransactionId() == transactionId) {
-                    signatureIt.remove();
-                    --taskNum;
+                if (pushTask.getPushType() == pushType && pushTask.getTransactionId() == transactionId
+                        && backendTasks.remove(pushTask)) {
+                    TASK_NUM.decrementAndGet();
                     ++numOfRemove;
                 }
             }
@@ -175,16 +257,14 @@ public class AgentTaskQueue {
 
     }
 
-    public static synchronized void removeTaskOfType(TTaskType type, long signature) {
-        // be id -> (signature -> task)
-        Map<Long, Map<Long, AgentTask>> map = tasks.column(type);
-        for (Map<Long, AgentTask> innerMap : map.values()) {
-            innerMap.remove(signature);
+    public static void removeTaskOfType(TTaskType type, long signature) {
+        for (BackendTasks backendTasks : BACKEND_TASKS.values()) {
+            backendTasks.remove(type, signature);
         }
     }
 
-    public static synchronized AgentTask getTask(long backendId, TTaskType type, long signature) {
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, type);
+    public static AgentTask getTask(long backendId, TTaskType type, long signature) {
+        Map<Long, AgentTask> signatureMap = getSignatureMap(backendId, type);
         if (signatureMap == null) {
             return null;
         }
@@ -192,34 +272,29 @@ public class AgentTaskQueue {
     }
 
     // this is just for unit test
-    public static synchronized List<AgentTask> getTask(TTaskType type) {
+    public static List<AgentTask> getTask(TTaskType type) {
         List<AgentTask> res = Lists.newArrayList();
-        for (Map<Long, AgentTask> agentTasks : tasks.column(TTaskType.ALTER).values()) {
-            res.addAll(agentTasks.values());
+        for (BackendTasks backendTasks : BACKEND_TASKS.values()) {
+            Map<Long, AgentTask> signatureMap = backendTasks.typeToTasks.get(type);
+            if (signatureMap != null) {
+                res.addAll(signatureMap.values());
+            }
         }
         return res;
     }
 
-    public static synchronized List<AgentTask> getDiffTasks(long backendId, Map<TTaskType, Set<Long>> runningTasks) {
+    public static List<AgentTask> getDiffTasks(long backendId, Map<TTaskType, Set<Long>> runningTasks) {
         List<AgentTask> diffTasks = new ArrayList<AgentTask>();
-        if (!tasks.containsRow(backendId)) {
+        BackendTasks backendTasks = BACKEND_TASKS.get(backendId);
+        if (backendTasks == null) {
             return diffTasks;
         }
 
-        Map<TTaskType, Map<Long, AgentTask>> backendAllTasks = tasks.row(backendId);
-        for (Map.Entry<TTaskType, Map<Long, AgentTask>> entry : backendAllTasks.entrySet()) {
-            TTaskType taskType = entry.getKey();
-            Map<Long, AgentTask> tasks = entry.getValue();
-            Set<Long> excludeSignatures = new HashSet<Long>();
-            if (runningTasks.containsKey(taskType)) {
-                excludeSignatures = runningTasks.get(taskType);
-            }
-
-            for (Map.Entry<Long, AgentTask> taskEntry : tasks.entrySet()) {
-                long signature = taskEntry.getKey();
-                AgentTask task = taskEntry.getValue();
-                if (!excludeSignatures.contains(signature)) {
-                    diffTasks.add(task);
+        for (Map.Entry<TTaskType, Map<Long, AgentTask>> entry : backendTasks.typeToTasks.entrySet()) {
+            Set<Long> excludeSignatures = runningTasks.getOrDefault(entry.getKey(), Collections.emptySet());
+            for (Map.Entry<Long, AgentTask> taskEntry : entry.getValue().entrySet()) {
+                if (!excludeSignatures.contains(taskEntry.getKey())) {
+                    diffTasks.add(taskEntry.getValue());
                 }
             } // end for tasks
         } // end for backendAllTasks
@@ -227,49 +302,76 @@ public class AgentTaskQueue {
         return diffTasks;
     }
 
-    public static synchronized void removeReplicaRelatedTasks(long backendId, long tabletId) {
-        if (!tasks.containsRow(backendId)) {
+    /**
+     * Same as {@link #getDiffTasks}, but only returns the tasks which {@link AgentTask#shouldResend} at
+     * currentTimeMillis. Only the create time buckets old enough are visited, so the tasks sent recently,
+     * mostly publish tasks, are skipped without being looked at.
+     */
+    public static List<AgentTask> getDiffTasksToResend(long backendId, Map<TTaskType, Set<Long>> runningTasks,
+                                                       long currentTimeMillis) {
+        List<AgentTask> diffTasks = new ArrayList<>();
+        BackendTasks backendTasks = BACKEND_TASKS.get(backendId);
+        if (backendTasks == null) {
+            return diffTasks;
+        }
+
+        long maxBucket = (currentTimeMillis - Config.agent_task_resend_wait_time_ms) / CREATE_TIME_BUCKET_MS;
+        for (Map.Entry<Long, Set<AgentTask>> entry : backendTasks.createTimeBuckets.entrySet()) {
+            if (entry.getKey() > maxBucket) {
+                continue;
+            }
+            for (AgentTask task : entry.getValue()) {
+                if (backendTasks.isRemoved(task)) {
+                    backendTasks.purgeRemoved(task);
+                    continue;
+                }
+                Set<Long> excludeSignatures = runningTasks.getOrDefault(task.getTaskType(), Collections.emptySet());
+                if (!excludeSignatures.contains(task.getSignature()) && task.shouldResend(currentTimeMillis)) {
+                    diffTasks.add(task);
+                }
+            }
+        }
+        return diffTasks;
+    }
+
+    public static void removeReplicaRelatedTasks(long backendId, long tabletId) {
+        BackendTasks backendTasks = BACKEND_TASKS.get(backendId);
+        if (backendTasks == null) {
             return;
         }
 
-        Map<TTaskType, Map<Long, AgentTask>> backendTasks = tasks.row(backendId);
-        for (TTaskType type : TTaskType.values()) {
-            if (backendTasks.containsKey(type)) {
-                Map<Long, AgentTask> typeTasks = backendTasks.get(type);
-                if (type == TTaskType.REALTIME_PUSH) {
-                    Iterator<AgentTask> taskIterator = typeTasks.values().iterator();
-                    while (taskIterator.hasNext()) {
-                        PushTask realTimePushTask = (PushTask) taskIterator.next();
-                        if (tabletId == realTimePushTask.getTabletId()) {
-                            taskIterator.remove();
-                        }
-                    }
-                } else {
-                    if (typeTasks.containsKey(tabletId)) {
-                        typeTasks.remove(tabletId);
-                        LOG.debug("remove task: type[{}], backend[{}], signature[{}]", type, backendId, tabletId);
-                        --taskNum;
+        for (Map.Entry<TTaskType, Map<Long, AgentTask>> entry : backendTasks.typeToTasks.entrySet()) {
+            TTaskType type = entry.getKey();
+            if (type == TTaskType.REALTIME_PUSH) {
+                Iterator<AgentTask> taskIterator = entry.getValue().values().iterator();
+                while (taskIterator.hasNext()) {
+                    PushTask realTimePushTask = (PushTask) taskIterator.next();
+                    if (tabletId == realTimePushTask.getTabletId()) {
+                        backendTasks.remove(realTimePushTask);
                     }
                 }
+            } else if (backendTasks.remove(type, tabletId) != null) {
+                LOG.debug("remove task: type[{}], backend[{}], signature[{}]", type, backendId, tabletId);
+                TASK_NUM.decrementAndGet();
             }
         } // end for types
     }
 
     // only for test now
-    public static synchronized void clearAllTasks() {
-        tasks.clear();
-        taskNum = 0;
+    public static void clearAllTasks() {
+        BACKEND_TASKS.clear();
+        TASK_NUM.set(0);
     }
 
-    public static synchronized int getTaskNum() {
-        return taskNum;
+    public static int getTaskNum() {
+        return TASK_NUM.get();
     }
 
-    public static synchronized Multimap<Long, Long> getTabletIdsByType(TTaskType type) {
+    public static Multimap<Long, Long> getTabletIdsByType(TTaskType type) {
         Multimap<Long, Long> tabletIds = HashMultimap.create();
-        Map<Long, Map<Long, AgentTask>> taskMap = tasks.column(type);
-        if (taskMap != null) {
-            for (Map<Long, AgentTask> signatureMap : taskMap.values()) {
+        for (BackendTasks backendTasks : BACKEND_TASKS.values()) {
+            Map<Long, AgentTask> signatureMap = backendTasks.typeToTasks.get(type);
+            if (signatureMap != null) {
                 for (AgentTask task : signatureMap.values()) {
                     tabletIds.put(task.getDbId(), task.getTabletId());
                 }
@@ -278,34 +380,18 @@ public class AgentTaskQueue {
         return tabletIds;
     }
 
-    public static synchronized int getTaskNum(long backendId, TTaskType type, boolean isFailed) {
+    public static int getTaskNum(long backendId, TTaskType type, boolean isFailed) {
         int taskNum = 0;
         if (backendId != -1) {
-            Map<Long, AgentTask> taskMap = tasks.get(backendId, type);
+            Map<Long, AgentTask> taskMap = getSignatureMap(backendId, type);
             if (taskMap != null) {
-                if (isFailed) {
-                    for (AgentTask task : taskMap.values()) {
-                        if (task.getFailedTimes() > 0) {
-                            ++taskNum;
-                        }
-                    }
-                } else {
-                    taskNum += taskMap.size();
-                }
+                taskNum += countTasks(taskMap, isFailed);
             }
         } else {
-            Map<Long, Map<Long, AgentTask>> taskMap = tasks.column(type);
-            if (taskMap != null) {
-                for (Map<Long, AgentTask> signatureMap : taskMap.values()) {
-                    if (isFailed) {
-                        for (AgentTask task : signatureMap.values()) {
-                            if (task.getFailedTimes() > 0) {
-                                ++taskNum;
-                            }
-                        }
-                    } else {
-                        taskNum += signatureMap.size();
-                    }
+            for (BackendTasks backendTasks : BACKEND_TASKS.values()) {
+                Map<Long, AgentTask> signatureMap = backendTasks.typeToTasks.get(type);
+                if (signatureMap != null) {
+                    taskNum += countTasks(signatureMap, isFailed);
                 }
             }
         }
@@ -315,8 +401,21 @@ public class AgentTaskQueue {
         return taskNum;
     }
 
-    public static synchronized List<AgentTask> getFailedTask(long backendId, TTaskType type) {
-        Map<Long, AgentTask> taskMap = tasks.get(backendId, type);
+    private static int countTasks(Map<Long, AgentTask> signatureMap, boolean isFailed) {
+        if (!isFailed) {
+            return signatureMap.size();
+        }
+        int taskNum = 0;
+        for (AgentTask task : signatureMap.values()) {
+            if (task.getFailedTimes() > 0) {
+                ++taskNum;
+            }
+        }
+        return taskNum;
+    }
+
+    public static List<AgentTask> getFailedTask(long backendId, TTaskType type) {
+        Map<Long, AgentTask> taskMap = getSignatureMap(backendId, type);
         List<AgentTask> tasks = Lists.newArrayList();
         if (taskMap != null) {
             for (AgentTask task : taskMap.values()) {
@@ -328,17 +427,26 @@ public class AgentTaskQueue {
         return tasks;
     }
 
-    public static synchronized List<Object> getSamplesForMemoryTracker() {
+    public static List<Object> getSamplesForMemoryTracker() {
         List<Object> result = new ArrayList<>();
         // Get one task of each type
         for (TTaskType type : TTaskType.values()) {
-            Map<Long, Map<Long, AgentTask>> tasksForType = tasks.column(type);
-            Optional<Map<Long, AgentTask>> beTasks = tasksForType.values().stream().findAny();
-            if (beTasks.isPresent()) {
-                Optional<AgentTask> task = beTasks.get().values().stream().findAny();
-                task.ifPresent(result::add);
+            for (BackendTasks backendTasks : BACKEND_TASKS.values()) {
+                Map<Long, AgentTask> signatureMap = backendTasks.typeToTasks.get(type);
+                Optional<AgentTask> task = signatureMap == null ? Optional.empty() :
+                        signatureMap.values().stream().findAny();
+                if (task.isPresent()) {
+                    result.add(task.get());
+                    break;
+                }
             }
         }
         return result;
     }
+
+    @VisibleForTesting
+    static int getCreateTimeBucketNum(long backendId) {
+        BackendTasks backendTasks = BACKEND_TASKS.get(backendId);
+        return backendTasks == null ? 0 : backendTasks.createTimeBuckets.size();
+    }
 }
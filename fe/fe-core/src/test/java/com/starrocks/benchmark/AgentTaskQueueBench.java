@@ -0,0 +1,121 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.task.AgentTask;
+import com.starrocks.task.AgentTaskQueue;
+import com.starrocks.task.PublishVersionTask;
+import com.starrocks.thrift.TTaskType;
+import com.starrocks.transaction.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark the AgentTaskQueue with publish tasks added and removed while backends report their running tasks
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Group)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+public class AgentTaskQueueBench {
+    private static final int BACKEND_NUM = 10;
+
+    @Param({"1000", "20000"})
+    private int tasksPerBackend;
+
+    private final AtomicLong nextTxnId = new AtomicLong();
+    // the oldest txn id which may be still in the queue
+    private final AtomicLong oldestTxnId = new AtomicLong();
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(AgentTaskQueueBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        AgentTaskQueue.clearAllTasks();
+        // half of the tasks are old enough to be resent
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < tasksPerBackend; i++) {
+            long createTime = i % 2 == 0 ? now - TimeUnit.MINUTES.toMillis(10) : now;
+            addPublishTasks(nextTxnId.getAndIncrement(), createTime);
+        }
+    }
+
+    private static void addPublishTasks(long txnId, long createTime) {
+        for (long backendId = 0; backendId < BACKEND_NUM; backendId++) {
+            AgentTaskQueue.addTask(new PublishVersionTask(backendId, txnId, txnId, 1L, 0L, new ArrayList<>(),
+                    null, null, createTime, null, false, TransactionType.TXN_NORMAL));
+        }
+    }
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(4)
+    public void publish() {
+        addPublishTasks(nextTxnId.getAndIncrement(), System.currentTimeMillis());
+        // the queue keeps its size, as the finished publish tasks are removed
+        long txnId = oldestTxnId.getAndIncrement();
+        for (long backendId = 0; backendId < BACKEND_NUM; backendId++) {
+            AgentTaskQueue.removeTask(backendId, TTaskType.PUBLISH_VERSION, txnId);
+        }
+    }
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(2)
+    public List<AgentTask> report() {
+        long backendId = ThreadLocalRandom.current().nextInt(BACKEND_NUM);
+        return AgentTaskQueue.getDiffTasksToResend(backendId, Map.of(TTaskType.PUBLISH_VERSION, Set.of()),
+                System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(2)
+    public AgentTask getTask() {
+        long backendId = ThreadLocalRandom.current().nextInt(BACKEND_NUM);
+        long txnId = oldestTxnId.get() + ThreadLocalRandom.current().nextInt(tasksPerBackend);
+        return AgentTaskQueue.getTask(backendId, TTaskType.PUBLISH_VERSION, txnId);
+    }
+}
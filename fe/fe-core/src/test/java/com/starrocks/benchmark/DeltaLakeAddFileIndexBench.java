@@ -0,0 +1,110 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.catalog.Type;
+import com.starrocks.connector.delta.DeltaLakeAddFileIndex;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import io.delta.kernel.types.DoubleType;
+import io.delta.kernel.types.LongType;
+import io.delta.kernel.types.StringType;
+import io.delta.kernel.types.StructType;
+import io.delta.kernel.utils.FileStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the file pruning of DeltaLakeAddFileIndex
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class DeltaLakeAddFileIndexBench {
+
+    @Param({"100000", "1000000"})
+    private int numFiles;
+
+    private DeltaLakeAddFileIndex index;
+    private List<ScalarOperator> partitionPredicates;
+    private List<ScalarOperator> statsPredicates;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(DeltaLakeAddFileIndexBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        StructType schema = new StructType()
+                .add("dt", StringType.STRING)
+                .add("id", LongType.LONG)
+                .add("price", DoubleType.DOUBLE);
+        DeltaLakeAddFileIndex.Builder builder = new DeltaLakeAddFileIndex.Builder(schema, Set.of("dt"));
+        for (int i = 0; i < numFiles; i++) {
+            String dt = String.format("2024-%02d-%02d", i / 28 % 12 + 1, i % 28 + 1);
+            long minId = i * 1000L;
+            String stats = String.format("{\"numRecords\":1000,\"minValues\":{\"id\":%d,\"price\":%d.5}," +
+                    "\"maxValues\":{\"id\":%d,\"price\":%d.5},\"nullCount\":{\"id\":0,\"price\":0}}",
+                    minId, i % 100, minId + 999, i % 100 + 10);
+            builder.add(FileStatus.of("s3://bucket/db/tbl/dt=" + dt + "/part-" + i + ".parquet", 128 << 20, i),
+                    Map.of("dt", dt), stats);
+        }
+        index = builder.build();
+
+        ColumnRefOperator dt = new ColumnRefOperator(1, Type.VARCHAR, "dt", true);
+        ColumnRefOperator id = new ColumnRefOperator(2, Type.BIGINT, "id", true);
+        ColumnRefOperator price = new ColumnRefOperator(3, Type.DOUBLE, "price", true);
+        partitionPredicates = List.of(BinaryPredicateOperator.eq(dt, ConstantOperator.createVarchar("2024-03-15")));
+        statsPredicates = List.of(
+                BinaryPredicateOperator.ge(id, ConstantOperator.createBigint(numFiles * 500L)),
+                BinaryPredicateOperator.lt(price, ConstantOperator.createDouble(20)));
+    }
+
+    @Benchmark
+    public int[] selectByPartition() {
+        return index.select(partitionPredicates);
+    }
+
+    @Benchmark
+    public int[] selectByStats() {
+        return index.select(statsPredicates);
+    }
+}
@@ -0,0 +1,154 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.benchmark;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.UniformReservoir;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the mysql server of a running FE with a large number of mostly idle connections, like the pooled
+ * connections of BI tools, while a few clients keep running short and long queries on them.
+ * <p>
+ * Usage: MysqlConnectionLoadBench host port user password [connections] [active clients] [long query seconds]
+ * [duration seconds]. Defaults to 50000 connections, 200 active clients, 10s long queries and 60s. `qe_max_connection`
+ * and `max_connection` of the user must be raised above the number of connections, as well as the open file limit
+ * of both sides. Compare `jvm_thread` and `jvm_heap_size_bytes` metrics of the FE with
+ * `mysql_service_use_virtual_threads` on and off.
+ */
+public class MysqlConnectionLoadBench {
+    // one of ten queries is a long one
+    private static final int LONG_QUERY_RATIO = 10;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: MysqlConnectionLoadBench host port user password [connections] " +
+                    "[active clients] [long query seconds] [duration seconds]");
+            System.exit(1);
+        }
+        String url = String.format("jdbc:mysql://%s:%s/?useSSL=false&connectTimeout=60000", args[0], args[1]);
+        String user = args[2];
+        String password = args[3];
+        int numConnections = args.length > 4 ? Integer.parseInt(args[4]) : 50000;
+        int numActiveClients = args.length > 5 ? Integer.parseInt(args[5]) : 200;
+        int longQuerySeconds = args.length > 6 ? Integer.parseInt(args[6]) : 10;
+        int durationSeconds = args.length > 7 ? Integer.parseInt(args[7]) : 60;
+
+        // connect
+        List<Connection> connections = Collections.synchronizedList(new ArrayList<>(numConnections));
+        Histogram connectLatency = new Histogram(new UniformReservoir());
+        AtomicLong connectFailures = new AtomicLong();
+        ExecutorService connectExecutor = Executors.newFixedThreadPool(64);
+        long startMs = System.currentTimeMillis();
+        for (int i = 0; i < numConnections; i++) {
+            connectExecutor.execute(() -> {
+                long begin = System.nanoTime();
+                try {
+                    connections.add(DriverManager.getConnection(url, user, password));
+                    connectLatency.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+                } catch (SQLException e) {
+                    if (connectFailures.incrementAndGet() <= 10) {
+                        System.err.println("Failed to connect: " + e.getMessage());
+                    }
+                }
+            });
+        }
+        connectExecutor.shutdown();
+        connectExecutor.awaitTermination(1, TimeUnit.HOURS);
+        System.out.printf("connected %d connections in %d ms, failures: %d%n", connections.size(),
+                System.currentTimeMillis() - startMs, connectFailures.get());
+        print("connect latency", connectLatency);
+        if (connections.isEmpty()) {
+            return;
+        }
+
+        // query on random connections, each connection is used by at most one client at a time
+        Histogram shortQueryLatency = new Histogram(new UniformReservoir());
+        Histogram longQueryLatency = new Histogram(new UniformReservoir());
+        AtomicLong queryFailures = new AtomicLong();
+        List<Connection> idleConnections = new ArrayList<>(connections);
+        ExecutorService queryExecutor = Executors.newFixedThreadPool(numActiveClients);
+        long deadlineMs = System.currentTimeMillis() + durationSeconds * 1000L;
+        for (int i = 0; i < numActiveClients; i++) {
+            queryExecutor.execute(() -> {
+                while (System.currentTimeMillis() < deadlineMs) {
+                    Connection connection;
+                    synchronized (idleConnections) {
+                        if (idleConnections.isEmpty()) {
+                            return;
+                        }
+                        int index = ThreadLocalRandom.current().nextInt(idleConnections.size());
+                        connection = idleConnections.set(index, idleConnections.get(idleConnections.size() - 1));
+                        idleConnections.remove(idleConnections.size() - 1);
+                    }
+                    boolean longQuery = ThreadLocalRandom.current().nextInt(LONG_QUERY_RATIO) == 0;
+                    String sql = longQuery ? "SELECT sleep(" + longQuerySeconds + ")" : "SELECT 1";
+                    long begin = System.nanoTime();
+                    try (Statement statement = connection.createStatement();
+                            ResultSet resultSet = statement.executeQuery(sql)) {
+                        while (resultSet.next()) {
+                            resultSet.getString(1);
+                        }
+                        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                        (longQuery ? longQueryLatency : shortQueryLatency).update(elapsedMs);
+                    } catch (SQLException e) {
+                        if (queryFailures.incrementAndGet() <= 10) {
+                            System.err.println("Failed to query: " + e.getMessage());
+                        }
+                    }
+                    synchronized (idleConnections) {
+                        idleConnections.add(connection);
+                    }
+                }
+            });
+        }
+        queryExecutor.shutdown();
+        queryExecutor.awaitTermination(durationSeconds + longQuerySeconds + 60L, TimeUnit.SECONDS);
+        System.out.printf("short queries: %d, long queries: %d, failures: %d, short query qps: %.1f%n",
+                shortQueryLatency.getCount(), longQueryLatency.getCount(), queryFailures.get(),
+                shortQueryLatency.getCount() / (double) durationSeconds);
+        print("short query latency", shortQueryLatency);
+        print("long query latency", longQueryLatency);
+
+        for (Connection connection : connections) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static void print(String name, Histogram histogram) {
+        Snapshot snapshot = histogram.getSnapshot();
+        System.out.printf("%s(ms): p50=%.0f p90=%.0f p99=%.0f max=%d%n", name, snapshot.getMedian(),
+                snapshot.getValue(0.9), snapshot.get99thPercentile(), snapshot.getMax());
+    }
+}
@@ -0,0 +1,188 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.privilege.AuthorizationProvider;
+import com.starrocks.privilege.DefaultAuthorizationProvider;
+import com.starrocks.privilege.ObjectType;
+import com.starrocks.privilege.PEntryObject;
+import com.starrocks.privilege.PrivilegeCheckSnapshot;
+import com.starrocks.privilege.PrivilegeCollectionV2;
+import com.starrocks.privilege.PrivilegeException;
+import com.starrocks.privilege.PrivilegeType;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.ast.UserIdentity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the privilege checks of a statement touching 50 tables, for a user with a large role graph,
+ * against the merged privilege collection and the compiled privilege snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Threads(8)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+public class PrivilegeCheckBench {
+    private static final int NUM_TABLES_PER_STATEMENT = 50;
+
+    @Param({"50", "500"})
+    private int numRoles;
+
+    @Param({"10"})
+    private int numGrantsPerRole;
+
+    private final AuthorizationProvider provider = new DefaultAuthorizationProvider();
+    private PrivilegeCollectionV2 collection;
+    private PrivilegeCheckSnapshot snapshot;
+    private PEntryObject[] tables;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PrivilegeCheckBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws PrivilegeException {
+        collection = new PrivilegeCollectionV2();
+        for (int role = 0; role < numRoles; role++) {
+            PrivilegeCollectionV2 roleCollection = new PrivilegeCollectionV2();
+            for (int i = 0; i < numGrantsPerRole; i++) {
+                String table = i == 0 ? TableObject.ALL : "t" + (role * numGrantsPerRole + i);
+                roleCollection.grant(ObjectType.TABLE, List.of(PrivilegeType.SELECT, PrivilegeType.INSERT),
+                        List.of(new TableObject("db" + role, table)), false);
+            }
+            collection.merge(roleCollection);
+        }
+        // half of the tables are granted by the roles merged last, the others are not granted at all
+        tables = new PEntryObject[NUM_TABLES_PER_STATEMENT];
+        for (int i = 0; i < tables.length; i++) {
+            int role = numRoles - 1 - i / 2;
+            tables[i] = i % 2 == 0
+                    ? new TableObject("db" + role, "t" + (role * numGrantsPerRole + 1))
+                    : new TableObject("db_not_granted", "t" + i);
+        }
+        snapshot = new PrivilegeCheckSnapshot(null, 0, UserIdentity.ROOT, Set.of(), collection);
+    }
+
+    @Benchmark
+    public int checkMergedCollection() {
+        int granted = 0;
+        for (PEntryObject table : tables) {
+            if (provider.check(ObjectType.TABLE, PrivilegeType.SELECT, table, collection)) {
+                granted++;
+            }
+        }
+        return granted;
+    }
+
+    @Benchmark
+    public int checkSnapshot() {
+        int granted = 0;
+        for (PEntryObject table : tables) {
+            if (snapshot.check(provider, ObjectType.TABLE, PrivilegeType.SELECT, table)) {
+                granted++;
+            }
+        }
+        return granted;
+    }
+
+    /**
+     * Table object of db and table names, matching like TablePEntryObject without resolving the metadata.
+     */
+    private static class TableObject implements PEntryObject {
+        static final String ALL = "*";
+
+        private final String db;
+        private final String table;
+
+        TableObject(String db, String table) {
+            this.db = db;
+            this.table = table;
+        }
+
+        @Override
+        public boolean match(Object obj) {
+            if (!(obj instanceof TableObject)) {
+                return false;
+            }
+            TableObject other = (TableObject) obj;
+            return db.equals(other.db) && (ALL.equals(other.table) || table.equals(other.table));
+        }
+
+        @Override
+        public boolean isFuzzyMatching() {
+            return ALL.equals(table);
+        }
+
+        @Override
+        public boolean validate(GlobalStateMgr globalStateMgr) {
+            return true;
+        }
+
+        @Override
+        public int compareTo(PEntryObject obj) {
+            TableObject other = (TableObject) obj;
+            int result = db.compareTo(other.db);
+            return result != 0 ? result : table.compareTo(other.table);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TableObject)) {
+                return false;
+            }
+            TableObject other = (TableObject) obj;
+            return db.equals(other.db) && table.equals(other.table);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(db, table);
+        }
+
+        @Override
+        public PEntryObject clone() {
+            return new TableObject(db, table);
+        }
+    }
+}
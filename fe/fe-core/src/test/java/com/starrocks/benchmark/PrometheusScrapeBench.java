@@ -0,0 +1,107 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.metric.Metric;
+import com.starrocks.metric.PrometheusMetricVisitor;
+import com.starrocks.metric.TableMetricsEntity;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the latency and allocation of exposing the table metrics in prometheus format
+ * as the number of tables grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+public class PrometheusScrapeBench {
+
+    @Param({"1000", "20000"})
+    private int numTables;
+
+    private List<TableMetricsEntity> entities;
+    private int lastSize = 0;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PrometheusScrapeBench.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        entities = new ArrayList<>(numTables);
+        for (int i = 0; i < numTables; i++) {
+            TableMetricsEntity entity = new TableMetricsEntity();
+            entity.counterScanBytesTotal.increase(i * 1024L);
+            entity.counterScanRowsTotal.increase((long) i);
+            entity.counterStreamLoadRowsTotal.increase((long) i);
+            entities.add(entity);
+        }
+    }
+
+    private void visitTables(PrometheusMetricVisitor visitor) {
+        for (int i = 0; i < entities.size(); i++) {
+            TableMetricsEntity entity = entities.get(i);
+            entity.setTableLabels("db_" + (i % 100), "table_" + i, i);
+            entity.gaugeTableSizeBytes.setValue(i * 4096L);
+            visitor.visit(entity.gaugeTableSizeBytes);
+            for (Metric metric : entity.getMetrics()) {
+                visitor.visit(metric);
+            }
+        }
+    }
+
+    @Benchmark
+    public ByteBuf scrapeToBuffer() {
+        ByteBuf buffer = Unpooled.buffer(lastSize);
+        visitTables(new PrometheusMetricVisitor("starrocks_fe", buffer));
+        lastSize = buffer.readableBytes();
+        return buffer;
+    }
+
+    @Benchmark
+    public String scrapeToString() {
+        PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("starrocks_fe");
+        visitTables(visitor);
+        return visitor.build();
+    }
+}
@@ -0,0 +1,106 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.common.util.RuntimeProfile;
+import com.starrocks.thrift.TUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark merging the instance profiles of one fragment for large fan-out queries,
+ * the allocation per merge is reported by the gc profiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+public class RuntimeProfileMergeBench {
+
+    @Param({"200", "2000"})
+    private int numInstances;
+
+    @Param({"20"})
+    private int numOperators;
+
+    private List<RuntimeProfile> instanceProfiles;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RuntimeProfileMergeBench.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        instanceProfiles = new ArrayList<>(numInstances);
+        for (int i = 0; i < numInstances; i++) {
+            RuntimeProfile instance = new RuntimeProfile("Instance " + i);
+            instance.addInfoString("Address", "127.0.0." + (i % 256) + ":9060");
+            instance.addInfoString("InstanceId", "instance-" + i);
+            for (int p = 0; p < 4; p++) {
+                RuntimeProfile pipeline = new RuntimeProfile("Pipeline (id=" + p + ")");
+                pipeline.addCounter("DriverTotalTime", TUnit.TIME_NS, null).setValue(i * 1000L + p);
+                pipeline.addCounter("ActiveTime", TUnit.TIME_NS, null, "DriverTotalTime").setValue(i * 100L);
+                for (int o = 0; o < numOperators / 4; o++) {
+                    RuntimeProfile operator = new RuntimeProfile("OPERATOR (plan_node_id=" + o + ")");
+                    RuntimeProfile commonMetrics = new RuntimeProfile("CommonMetrics");
+                    commonMetrics.addCounter("OperatorTotalTime", TUnit.TIME_NS, null).setValue(i + o);
+                    commonMetrics.addCounter("PullChunkNum", TUnit.UNIT, null).setValue(i);
+                    commonMetrics.addCounter("PullRowNum", TUnit.UNIT, null).setValue(i * 4096L);
+                    commonMetrics.addCounter("PushRowNum", TUnit.UNIT, null).setValue(i * 4096L);
+                    RuntimeProfile uniqueMetrics = new RuntimeProfile("UniqueMetrics");
+                    for (int c = 0; c < 20; c++) {
+                        uniqueMetrics.addCounter("Counter" + c, c % 2 == 0 ? TUnit.UNIT : TUnit.BYTES, null)
+                                .setValue(i * c);
+                    }
+                    operator.addChild(commonMetrics);
+                    operator.addChild(uniqueMetrics);
+                    pipeline.addChild(operator);
+                }
+                instance.addChild(pipeline);
+            }
+            instanceProfiles.add(instance);
+        }
+    }
+
+    @Benchmark
+    public RuntimeProfile mergeInstanceProfiles() {
+        return RuntimeProfile.mergeIsomorphicProfiles(instanceProfiles, Set.of("Address", "InstanceId"));
+    }
+}
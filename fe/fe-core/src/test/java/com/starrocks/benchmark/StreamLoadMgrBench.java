@@ -0,0 +1,124 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.load.streamload.StreamLoadMgr;
+import com.starrocks.load.streamload.StreamLoadTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark the StreamLoadMgr with a mix of begin, commit and label lookup requests
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Group)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+public class StreamLoadMgrBench {
+
+    @Param({"1000", "20000"})
+    private int existingTasks;
+
+    private StreamLoadMgr streamLoadMgr;
+    private Database db;
+    private OlapTable table;
+    private final AtomicLong nextId = new AtomicLong();
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(StreamLoadMgrBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        streamLoadMgr = new StreamLoadMgr();
+        db = new Database(1, "bench_db");
+        table = new OlapTable();
+        for (int i = 0; i < existingTasks; i++) {
+            streamLoadMgr.addLoadTask(newTask());
+        }
+    }
+
+    private StreamLoadTask newTask() {
+        long id = nextId.getAndIncrement();
+        return new StreamLoadTask(id, db, table, "label_" + id, "", "", 100000, 1, 0,
+                System.currentTimeMillis(), 0);
+    }
+
+    private StreamLoadTask randomTask() {
+        return streamLoadMgr.getTaskByLabel("label_" + ThreadLocalRandom.current().nextLong(nextId.get()));
+    }
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(2)
+    public StreamLoadTask begin() {
+        StreamLoadTask task = newTask();
+        streamLoadMgr.addLoadTask(task);
+        return task;
+    }
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(2)
+    public boolean commit() {
+        // the txn of the task is not really committed, only the task state changes
+        StreamLoadTask task = randomTask();
+        if (task == null) {
+            return false;
+        }
+        task.cancelAfterRestart();
+        return task.isFinalState();
+    }
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(4)
+    public StreamLoadTask labelLookup() {
+        return randomTask();
+    }
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(1)
+    public void clean() {
+        streamLoadMgr.cleanOldStreamLoadTasks(false);
+    }
+}
@@ -23,6 +23,9 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 
 public class ThreadPoolManagerTest {
@@ -118,4 +121,16 @@ public class ThreadPoolManagerTest {
         Assert.assertThrows(IllegalArgumentException.class, () -> ThreadPoolManager.setFixedThreadPoolSize(testPool, 0));
         Assert.assertThrows(IllegalArgumentException.class, () -> ThreadPoolManager.setFixedThreadPoolSize(testPool, -1));
     }
+
+    @Test
+    public void testVirtualThreadPerTaskExecutor() throws Exception {
+        Optional<ExecutorService> executor = ThreadPoolManager.newVirtualThreadPerTaskExecutor("test_virtual");
+        // virtual threads are only supported since JDK 21
+        Assert.assertEquals(Runtime.version().feature() >= 21, executor.isPresent());
+        if (executor.isPresent()) {
+            Future<String> name = executor.get().submit(() -> Thread.currentThread().getName());
+            Assert.assertEquals("test_virtual-0", name.get());
+            executor.get().shutdown();
+        }
+    }
 }
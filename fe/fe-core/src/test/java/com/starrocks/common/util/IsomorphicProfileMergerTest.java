@@ -0,0 +1,133 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.starrocks.thrift.TCounterAggregateType;
+import com.starrocks.thrift.TCounterMergeType;
+import com.starrocks.thrift.TCounterStrategy;
+import com.starrocks.thrift.TUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class IsomorphicProfileMergerTest {
+
+    private static RuntimeProfile createInstanceProfile(int idx, boolean withScan) {
+        RuntimeProfile instance = new RuntimeProfile("Instance");
+        instance.addInfoString("InstanceId", "instance-" + idx);
+        instance.addInfoString("IsFinal", "true");
+        RuntimeProfile pipeline = new RuntimeProfile("Pipeline (id=0)");
+        instance.addChild(pipeline);
+        pipeline.addCounter("DriverTotalTime", TUnit.TIME_NS, null).setValue(1000L * (idx + 1));
+        pipeline.addCounter("PullRowNum", TUnit.UNIT, null, "DriverTotalTime").setValue(idx + 1);
+        if (withScan) {
+            RuntimeProfile scan = new RuntimeProfile("OLAP_SCAN (id=0)");
+            scan.addCounter("RawRowsRead", TUnit.UNIT, null).setValue(10);
+            pipeline.addChild(scan);
+        }
+        RuntimeProfile sink = new RuntimeProfile("RESULT_SINK (id=-1)");
+        sink.addCounter("PushRowNum", TUnit.UNIT, null).setValue(idx);
+        pipeline.addChild(sink);
+        return instance;
+    }
+
+    @Test
+    public void testStreamingMerge() {
+        IsomorphicProfileMerger merger = new IsomorphicProfileMerger("Instance", Sets.newHashSet("InstanceId"));
+        Assert.assertNull(merger.build());
+        for (int i = 0; i < 4; i++) {
+            merger.add(createInstanceProfile(i, true));
+        }
+        Assert.assertEquals(4, merger.getNumProfiles());
+        RuntimeProfile merged = merger.build();
+        Assert.assertSame(merged, merger.build());
+
+        Assert.assertNull(merged.getInfoString("InstanceId"));
+        Assert.assertEquals("true", merged.getInfoString("IsFinal"));
+        Assert.assertEquals(1, merged.getChildList().size());
+
+        RuntimeProfile pipeline = merged.getChild("Pipeline (id=0)");
+        // time counters are averaged, others are summed up
+        Assert.assertEquals(2500L, pipeline.getCounter("DriverTotalTime").getValue());
+        Assert.assertEquals(1000L, pipeline.getCounter("__MIN_OF_DriverTotalTime").getValue());
+        Assert.assertEquals(4000L, pipeline.getCounter("__MAX_OF_DriverTotalTime").getValue());
+        Assert.assertEquals(10L, pipeline.getCounter("PullRowNum").getValue());
+        Assert.assertEquals("DriverTotalTime", pipeline.getCounterPair("PullRowNum").second);
+        Assert.assertEquals("PullRowNum", pipeline.getCounterPair("__MIN_OF_PullRowNum").second);
+
+        Assert.assertEquals(2, pipeline.getChildList().size());
+        Assert.assertEquals("OLAP_SCAN (id=0)", pipeline.getChildList().get(0).first.getName());
+        Assert.assertEquals(40L, pipeline.getChild("OLAP_SCAN (id=0)").getCounter("RawRowsRead").getValue());
+        Assert.assertEquals(6L, pipeline.getChild("RESULT_SINK (id=-1)").getCounter("PushRowNum").getValue());
+        Assert.assertNull(pipeline.getInfoString("NotIdentical"));
+    }
+
+    @Test
+    public void testNonIsomorphicChildren() {
+        List<RuntimeProfile> profiles = Lists.newArrayList();
+        // the prototype of children is the first profile with the most children
+        profiles.add(createInstanceProfile(0, false));
+        profiles.add(createInstanceProfile(1, true));
+        profiles.add(createInstanceProfile(2, true));
+        RuntimeProfile merged = IsomorphicProfileMerger.merge(profiles, null);
+
+        RuntimeProfile pipeline = merged.getChild("Pipeline (id=0)");
+        Assert.assertEquals("", pipeline.getInfoString("NotIdentical"));
+        Assert.assertEquals(2, pipeline.getChildList().size());
+        Assert.assertEquals("OLAP_SCAN (id=0)", pipeline.getChildList().get(0).first.getName());
+        Assert.assertEquals(20L, pipeline.getChild("OLAP_SCAN (id=0)").getCounter("RawRowsRead").getValue());
+        Assert.assertEquals(3L, pipeline.getChild("RESULT_SINK (id=-1)").getCounter("PushRowNum").getValue());
+        // instance id differs, so it is kept as duplicated info strings
+        Assert.assertEquals("instance-0", merged.getInfoString("InstanceId"));
+        Assert.assertEquals("instance-1", merged.getInfoString("InstanceId__DUP(0)"));
+        Assert.assertEquals("instance-2", merged.getInfoString("InstanceId__DUP(1)"));
+    }
+
+    @Test
+    public void testMergeStrategy() {
+        TCounterStrategy skipMerge = Counter.createStrategy(TCounterAggregateType.SUM);
+        skipMerge.merge_type = TCounterMergeType.SKIP_ALL;
+        TCounterStrategy avg = Counter.createStrategy(TCounterAggregateType.AVG);
+
+        IsomorphicProfileMerger merger = new IsomorphicProfileMerger("profile", null);
+        for (int i = 1; i <= 3; i++) {
+            RuntimeProfile profile = new RuntimeProfile("profile");
+            profile.addCounter("Skipped", TUnit.UNIT, skipMerge).setValue(i);
+            profile.addCounter("Avg", TUnit.UNIT, avg).setValue(i * 10);
+            // counters with a conflict type are ignored
+            profile.addCounter("Conflict", i == 2 ? TUnit.BYTES : TUnit.UNIT, null).setValue(i);
+            // already merged counters
+            profile.addCounter("Merged", TUnit.UNIT, null).setValue(i);
+            profile.addCounter("__MIN_OF_Merged", TUnit.UNIT, null, "Merged").setValue(-i);
+            profile.addCounter("__MAX_OF_Merged", TUnit.UNIT, null, "Merged").setValue(i * 100);
+            merger.add(profile);
+        }
+        RuntimeProfile merged = merger.build();
+
+        Assert.assertEquals(1L, merged.getCounter("Skipped").getValue());
+        Assert.assertNull(merged.getCounter("__MIN_OF_Skipped"));
+        Assert.assertEquals(20L, merged.getCounter("Avg").getValue());
+        Assert.assertEquals(10L, merged.getCounter("__MIN_OF_Avg").getValue());
+        Assert.assertEquals(30L, merged.getCounter("__MAX_OF_Avg").getValue());
+        Assert.assertEquals(TUnit.UNIT, merged.getCounter("Conflict").getType());
+        Assert.assertEquals(4L, merged.getCounter("Conflict").getValue());
+        Assert.assertEquals(6L, merged.getCounter("Merged").getValue());
+        Assert.assertEquals(-3L, merged.getCounter("__MIN_OF_Merged").getValue());
+        Assert.assertEquals(300L, merged.getCounter("__MAX_OF_Merged").getValue());
+    }
+}
@@ -0,0 +1,84 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void testOfferAndDrain() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        Assert.assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(buffer.offer(i));
+        }
+        Assert.assertFalse(buffer.offer(4));
+        Assert.assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        Assert.assertEquals(3, buffer.drainTo(drained, 3));
+        Assert.assertEquals(List.of(0, 1, 2), drained);
+        // wraps around
+        Assert.assertTrue(buffer.offer(4));
+        Assert.assertTrue(buffer.offer(5));
+        Assert.assertEquals(3, buffer.drainTo(drained, 10));
+        Assert.assertEquals(List.of(0, 1, 2, 3, 4, 5), drained);
+        Assert.assertEquals(0, buffer.size());
+        Assert.assertEquals(0, buffer.drainTo(drained, 10));
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(64);
+        int producerNum = 4;
+        int perProducer = 10000;
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerNum; p++) {
+            int base = p * perProducer;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        Set<Integer> consumed = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 60000;
+        while (consumed.size() < producerNum * perProducer && System.currentTimeMillis() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 16);
+            for (Integer element : batch) {
+                Assert.assertTrue(consumed.add(element));
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        Assert.assertEquals(producerNum * perProducer, consumed.size());
+        Assert.assertEquals(0, buffer.size());
+    }
+}
@@ -15,19 +15,27 @@
 
 package com.starrocks.connector;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.starrocks.common.FeConstants;
 import com.starrocks.connector.hive.HiveRemoteFileIO;
 import com.starrocks.connector.hive.MockedRemoteFileSystem;
+import com.starrocks.metric.MetricRepo;
+import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static com.starrocks.connector.hive.MockedRemoteFileSystem.HDFS_HIVE_TABLE;
 
@@ -73,4 +81,102 @@ public class CachingRemoteFileIOTest {
         queryLevelCache.updateRemoteFiles(pathKey);
         queryLevelCache.invalidatePartition(pathKey);
     }
+
+    @Test
+    public void testDiskCache() throws Exception {
+        Path dir = Files.createTempDirectory("remote_file_disk_cache");
+        FeConstants.runningUnitTest = true;
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            String tableLocation = "hdfs://127.0.0.1:10000/hive.db/hive_tbl";
+            RemotePathKey pathKey = RemotePathKey.of(tableLocation, false);
+
+            HiveRemoteFileIO hiveRemoteFileIO = new HiveRemoteFileIO(new Configuration());
+            hiveRemoteFileIO.setFileSystem(new MockedRemoteFileSystem(HDFS_HIVE_TABLE));
+            CachingRemoteFileIO cachingFileIO = new CachingRemoteFileIO(hiveRemoteFileIO, executor, 10, 10, 10);
+            cachingFileIO.setDiskCache(new RemoteFileDiskCache(dir, hiveRemoteFileIO, 10));
+            Assert.assertEquals(1, cachingFileIO.getRemoteFiles(pathKey).get(pathKey).size());
+
+            // another FE sharing the directory is served from disk
+            long diskHits = MetricRepo.COUNTER_REMOTE_FILE_CACHE_HIT.getMetric(RemoteFileDiskCache.TIER_NAME).getValue();
+            HiveRemoteFileIO peerRemoteFileIO = new HiveRemoteFileIO(new Configuration());
+            peerRemoteFileIO.setFileSystem(new MockedRemoteFileSystem(HDFS_HIVE_TABLE));
+            CachingRemoteFileIO peerFileIO = new CachingRemoteFileIO(peerRemoteFileIO, executor, 10, 10, 10);
+            RemoteFileDiskCache peerDiskCache = new RemoteFileDiskCache(dir, peerRemoteFileIO, 10);
+            peerFileIO.setDiskCache(peerDiskCache);
+            List<RemoteFileDesc> fileDescs = peerFileIO.getRemoteFiles(pathKey).get(pathKey);
+            Assert.assertEquals(diskHits + 1,
+                    (long) MetricRepo.COUNTER_REMOTE_FILE_CACHE_HIT.getMetric(RemoteFileDiskCache.TIER_NAME).getValue());
+            Assert.assertEquals(1, fileDescs.size());
+            Assert.assertEquals("000000_0", fileDescs.get(0).getFileName());
+            Assert.assertEquals(20, fileDescs.get(0).getLength());
+            RemoteFileBlockDesc blockDesc = fileDescs.get(0).getBlockDescs().get(0);
+            Assert.assertEquals(20, blockDesc.getLength());
+            Assert.assertEquals(2, blockDesc.getReplicaHostIds().length);
+            Assert.assertNotNull(MetricRepo.GAUGE_REMOTE_FILE_CACHE_HIT_RATIO
+                    .getMetric(RemoteFileDiskCache.TIER_NAME).getValue());
+
+            // invalidate single path
+            cachingFileIO.invalidatePartition(pathKey);
+            Assert.assertNull(peerDiskCache.get(pathKey));
+
+            // invalidate all by bumping the version
+            cachingFileIO.getRemoteFiles(pathKey);
+            Assert.assertNotNull(peerDiskCache.get(pathKey));
+            cachingFileIO.invalidateAll();
+            Assert.assertNull(new RemoteFileDiskCache(dir, peerRemoteFileIO, 10).get(pathKey));
+        } finally {
+            executor.shutdown();
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    @Test
+    public void testDiskCacheEviction() throws Exception {
+        Path dir = Files.createTempDirectory("remote_file_disk_cache");
+        try {
+            HiveRemoteFileIO hiveRemoteFileIO = new HiveRemoteFileIO(new Configuration());
+            List<RemoteFileDesc> files = Lists.newArrayList(
+                    new RemoteFileDesc("000000_0", "", 20, 1, ImmutableList.of()));
+            RemotePathKey pathKey1 = RemotePathKey.of("hdfs://127.0.0.1:10000/hive.db/hive_tbl/p=1", false);
+            RemotePathKey pathKey2 = RemotePathKey.of("hdfs://127.0.0.1:10000/hive.db/hive_tbl/p=2", false);
+            RemotePathKey pathKey3 = RemotePathKey.of("hdfs://127.0.0.1:10000/hive.db/hive_tbl/p=3", false);
+
+            RemoteFileDiskCache diskCache = new RemoteFileDiskCache(dir, hiveRemoteFileIO, 10, Long.MAX_VALUE);
+            diskCache.put(pathKey1, files);
+            long entrySize = diskCache.getTotalSizeBytes();
+            Assert.assertTrue(entrySize > 0);
+            diskCache.invalidate(pathKey1);
+            Assert.assertEquals(0, diskCache.getTotalSizeBytes());
+
+            // room for two entries, the least recently used one is evicted
+            diskCache = new RemoteFileDiskCache(dir, hiveRemoteFileIO, 10, entrySize * 2);
+            diskCache.put(pathKey1, files);
+            diskCache.put(pathKey2, files);
+            Assert.assertNotNull(diskCache.get(pathKey1));
+            diskCache.put(pathKey3, files);
+            Assert.assertEquals(entrySize * 2, diskCache.getTotalSizeBytes());
+            Assert.assertNull(diskCache.get(pathKey2));
+            Assert.assertNotNull(diskCache.get(pathKey1));
+            Assert.assertNotNull(diskCache.get(pathKey3));
+
+            // the entries on disk are tracked when the cache is loaded
+            Assert.assertEquals(entrySize * 2,
+                    new RemoteFileDiskCache(dir, hiveRemoteFileIO, 10, entrySize * 2).getTotalSizeBytes());
+
+            // entries of older versions and leftover temp files are purged when the cache is loaded
+            Path tmpFile = dir.resolve("leftover.files.tmp");
+            Files.write(tmpFile, new byte[] {1});
+            Files.setLastModifiedTime(tmpFile, FileTime.fromMillis(System.currentTimeMillis() - 3600 * 1000L));
+            Files.write(dir.resolve("VERSION"), "100".getBytes(StandardCharsets.UTF_8));
+            diskCache = new RemoteFileDiskCache(dir, hiveRemoteFileIO, 10, entrySize * 2);
+            Assert.assertEquals(0, diskCache.getTotalSizeBytes());
+            Assert.assertFalse(Files.exists(tmpFile));
+            try (Stream<Path> paths = Files.walk(dir)) {
+                Assert.assertEquals(0, paths.filter(path -> path.toString().endsWith(".files")).count());
+            }
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
 }
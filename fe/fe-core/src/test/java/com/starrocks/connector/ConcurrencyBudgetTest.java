@@ -0,0 +1,194 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.connector;
+
+import com.starrocks.common.Config;
+import com.starrocks.connector.exception.StarRocksConnectorException;
+import com.starrocks.metric.MetricLabel;
+import com.starrocks.metric.MetricRepo;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrencyBudgetTest {
+    private int maxConcurrency;
+    private long latencyTargetMs;
+
+    @Before
+    public void setUp() {
+        maxConcurrency = Config.connector_remote_file_listing_max_concurrency;
+        latencyTargetMs = Config.connector_remote_file_listing_latency_target_ms;
+    }
+
+    @After
+    public void tearDown() {
+        Config.connector_remote_file_listing_max_concurrency = maxConcurrency;
+        Config.connector_remote_file_listing_latency_target_ms = latencyTargetMs;
+    }
+
+    @Test
+    public void testAdjustLimit() {
+        Config.connector_remote_file_listing_max_concurrency = 8;
+        Config.connector_remote_file_listing_latency_target_ms = 100;
+        ConcurrencyBudget budget = new ConcurrencyBudget("test");
+        Assert.assertEquals(8, budget.getLimit());
+
+        Assert.assertTrue(budget.tryAcquire(ConcurrencyBudget.Priority.INTERACTIVE));
+        budget.release(10, true);
+        Assert.assertEquals(4, budget.getLimit());
+        // decreased at most once in an interval
+        Assert.assertTrue(budget.tryAcquire(ConcurrencyBudget.Priority.INTERACTIVE));
+        budget.release(10, true);
+        Assert.assertEquals(4, budget.getLimit());
+
+        // one slow task in a window of 4 neither decreases nor increases the limit
+        releaseTasks(budget, 1000, 1);
+        releaseTasks(budget, 10, 3);
+        Assert.assertEquals(4, budget.getLimit());
+
+        // increased by one after a window of fast tasks
+        releaseTasks(budget, 10, 4);
+        Assert.assertEquals(5, budget.getLimit());
+
+        // decreased by a quarter after a window with more than a quarter of slow tasks
+        releaseTasks(budget, 1000, 2);
+        releaseTasks(budget, 10, 3);
+        Assert.assertEquals(3, budget.getLimit());
+        Assert.assertEquals(0, budget.getRunningTaskCount());
+        Assert.assertEquals(15, budget.getLatencyMs().getCount());
+
+        // limited by config
+        Config.connector_remote_file_listing_max_concurrency = 2;
+        Assert.assertEquals(2, budget.getLimit());
+    }
+
+    private static void releaseTasks(ConcurrencyBudget budget, long elapsedMs, int num) {
+        for (int i = 0; i < num; i++) {
+            Assert.assertTrue(budget.tryAcquire(ConcurrencyBudget.Priority.INTERACTIVE));
+            budget.release(elapsedMs, false);
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        ConcurrencyBudget budget = ConcurrencyBudget.of("removed_catalog");
+        Assert.assertSame(budget, ConcurrencyBudget.of("removed_catalog"));
+        Assert.assertTrue(MetricRepo.getMetricsByName("connector_task_running").stream()
+                .anyMatch(metric -> metric.getLabels().contains(new MetricLabel("catalog", "removed_catalog"))));
+
+        ConcurrencyBudget.remove("removed_catalog");
+        Assert.assertTrue(MetricRepo.getMetricsByName("connector_task_running").stream()
+                .noneMatch(metric -> metric.getLabels().contains(new MetricLabel("catalog", "removed_catalog"))));
+        Assert.assertNotSame(budget, ConcurrencyBudget.of("removed_catalog"));
+        ConcurrencyBudget.remove("removed_catalog");
+    }
+
+    @Test
+    public void testPriority() {
+        Config.connector_remote_file_listing_max_concurrency = 4;
+        ConcurrencyBudget budget = new ConcurrencyBudget("test");
+        // background tasks use at most half of the limit
+        Assert.assertTrue(budget.tryAcquire(ConcurrencyBudget.Priority.BACKGROUND));
+        Assert.assertTrue(budget.tryAcquire(ConcurrencyBudget.Priority.BACKGROUND));
+        Assert.assertFalse(budget.tryAcquire(ConcurrencyBudget.Priority.BACKGROUND));
+        Assert.assertTrue(budget.tryAcquire(ConcurrencyBudget.Priority.INTERACTIVE));
+        Assert.assertTrue(budget.tryAcquire(ConcurrencyBudget.Priority.INTERACTIVE));
+        Assert.assertFalse(budget.tryAcquire(ConcurrencyBudget.Priority.INTERACTIVE));
+        budget.cancel();
+        budget.cancel();
+        budget.cancel();
+        budget.cancel();
+        Assert.assertEquals(0, budget.getRunningTaskCount());
+    }
+
+    @Test
+    public void testIsThrottled() {
+        Assert.assertTrue(ConcurrencyBudget.isThrottled(new StarRocksConnectorException(
+                "Failed to get hive remote file's metadata on path: %s. msg: %s", "s3://bucket/a",
+                "Status Code: 503, Error Code: SlowDown")));
+        Assert.assertTrue(ConcurrencyBudget.isThrottled(
+                new RuntimeException(new RuntimeException("429 Too Many Requests"))));
+        Assert.assertFalse(ConcurrencyBudget.isThrottled(new RuntimeException("file not found")));
+    }
+
+    @Test
+    public void testThrottledRetryDelay() {
+        for (int retries = 1; retries <= AsyncTaskQueue.MAX_THROTTLED_RETRIES; retries++) {
+            long maxDelayMs = AsyncTaskQueue.THROTTLED_RETRY_BASE_DELAY_MS << (retries - 1);
+            for (int i = 0; i < 100; i++) {
+                long delayMs = AsyncTaskQueue.throttledRetryDelayMs(retries);
+                Assert.assertTrue(delayMs >= maxDelayMs / 2 && delayMs <= maxDelayMs);
+            }
+        }
+    }
+
+    @Test
+    public void testSharedBudget() {
+        Config.connector_remote_file_listing_max_concurrency = 3;
+        ConcurrencyBudget budget = new ConcurrencyBudget("test");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger running = new AtomicInteger(0);
+        AtomicInteger maxRunning = new AtomicInteger(0);
+        AtomicInteger throttled = new AtomicInteger(0);
+
+        List<AsyncTaskQueue<Integer>> queues = new ArrayList<>();
+        for (int q = 0; q < 3; q++) {
+            AsyncTaskQueue<Integer> queue = new AsyncTaskQueue<>(executor);
+            queue.setMaxRunningTaskCount(8);
+            queue.setConcurrencyBudget(budget, q == 0 ?
+                    ConcurrencyBudget.Priority.BACKGROUND : ConcurrencyBudget.Priority.INTERACTIVE);
+            List<AsyncTaskQueue.Task<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                final int value = i;
+                tasks.add(() -> {
+                    int count = running.incrementAndGet();
+                    maxRunning.accumulateAndGet(count, Math::max);
+                    try {
+                        Thread.sleep(2);
+                        // the first task of each queue is throttled once
+                        if (value == 0 && throttled.getAndIncrement() < 3) {
+                            throw new RuntimeException("Status Code: 503, Error Code: SlowDown");
+                        }
+                        return List.of(value);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+            }
+            queue.start(tasks);
+            queues.add(queue);
+        }
+
+        for (AsyncTaskQueue<Integer> queue : queues) {
+            List<Integer> outputs = new ArrayList<>();
+            while (queue.hasMoreOutput()) {
+                outputs.addAll(queue.getOutputs(5));
+            }
+            Assert.assertEquals(20, outputs.size());
+        }
+        executor.shutdown();
+        Assert.assertTrue(maxRunning.get() <= 3);
+        Assert.assertEquals(0, budget.getRunningTaskCount());
+        Assert.assertEquals(0, budget.getPendingTaskCount());
+    }
+}
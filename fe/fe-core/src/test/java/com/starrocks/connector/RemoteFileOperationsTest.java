@@ -30,6 +30,7 @@ import com.starrocks.connector.hive.Partition;
 import com.starrocks.connector.hive.RemoteFileInputFormat;
 import com.starrocks.connector.hive.TextFileFormatDesc;
 import com.starrocks.connector.hudi.HudiRemoteFileIO;
+import com.starrocks.qe.SessionVariable;
 import mockit.Mock;
 import mockit.MockUp;
 import org.apache.hadoop.conf.Configuration;
@@ -45,9 +46,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static com.starrocks.connector.hive.MockedRemoteFileSystem.HDFS_HIVE_TABLE;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
@@ -114,6 +119,59 @@ public class RemoteFileOperationsTest {
         ops.refreshPartitionFilesCache(new Path(tableLocation));
     }
 
+    @Test
+    public void testGetRemoteFilesAsyncByPartitionBatches() throws InterruptedException {
+        HiveRemoteFileIO hiveRemoteFileIO = new HiveRemoteFileIO(new Configuration());
+        FileSystem fs = new MockedRemoteFileSystem(HDFS_HIVE_TABLE);
+        hiveRemoteFileIO.setFileSystem(fs);
+        FeConstants.runningUnitTest = true;
+        ExecutorService executorToRefresh = Executors.newFixedThreadPool(4);
+        ExecutorService executorToLoad = Executors.newFixedThreadPool(4);
+        CachingRemoteFileIO cachingFileIO = new CachingRemoteFileIO(hiveRemoteFileIO, executorToRefresh, 10, 10, 10);
+        RemoteFileOperations ops = new RemoteFileOperations(cachingFileIO, executorToLoad, executorToLoad,
+                false, true, new Configuration());
+
+        List<String> partitionNames = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            partitionNames.add("col1=" + i);
+        }
+        // the batches after the ones queued ahead wait until the files of the first batches are listed
+        int lookahead = SessionVariable.DEFAULT_SESSION_VARIABLE.getConnectorRemoteFileAsyncTaskSize();
+        CountDownLatch firstOutput = new CountDownLatch(1);
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        AtomicInteger loadedBatches = new AtomicInteger(0);
+        Function<List<String>, Map<String, Partition>> partitionLoader = names -> {
+            if (loadedBatches.getAndIncrement() >= lookahead) {
+                try {
+                    if (!firstOutput.await(10, TimeUnit.SECONDS)) {
+                        timedOut.set(true);
+                    }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            Map<String, Partition> partitions = Maps.newHashMap();
+            for (String name : names) {
+                partitions.put(name, new Partition(Maps.newHashMap(), RemoteFileInputFormat.ORC,
+                        new TextFileFormatDesc("", "", "", ""), HDFS_HIVE_TABLE, true));
+            }
+            return partitions;
+        };
+
+        RemoteFileInfoSource source = ops.getRemoteFilesAsync(new HudiTable(), partitionNames, partitionLoader, 2,
+                GetRemoteFilesParams.newBuilder().build());
+        List<RemoteFileInfo> remoteFileInfos = new ArrayList<>();
+        while (source.hasMoreOutput()) {
+            remoteFileInfos.add(source.getOutput());
+            firstOutput.countDown();
+        }
+        Assert.assertFalse(timedOut.get());
+        Assert.assertEquals(20, remoteFileInfos.size());
+        Assert.assertEquals(10, loadedBatches.get());
+        executorToLoad.shutdown();
+        executorToRefresh.shutdown();
+    }
+
     @Test
     public void asyncRenameFilesTest() {
         HiveRemoteFileIO hiveRemoteFileIO = new HiveRemoteFileIO(new Configuration());
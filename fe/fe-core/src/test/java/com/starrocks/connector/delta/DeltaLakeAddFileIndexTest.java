@@ -0,0 +1,190 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.connector.delta;
+
+import com.starrocks.analysis.BinaryType;
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import io.delta.kernel.types.DateType;
+import io.delta.kernel.types.DoubleType;
+import io.delta.kernel.types.IntegerType;
+import io.delta.kernel.types.LongType;
+import io.delta.kernel.types.StringType;
+import io.delta.kernel.types.StructType;
+import io.delta.kernel.utils.FileStatus;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DeltaLakeAddFileIndexTest {
+    private static final String TABLE_PATH = "s3://bucket/db/tbl/";
+
+    private final ColumnRefOperator dtCol = new ColumnRefOperator(1, Type.VARCHAR, "dt", true);
+    private final ColumnRefOperator regionCol = new ColumnRefOperator(2, Type.INT, "region", true);
+    private final ColumnRefOperator idCol = new ColumnRefOperator(3, Type.BIGINT, "id", true);
+    private final ColumnRefOperator priceCol = new ColumnRefOperator(4, Type.DOUBLE, "price", true);
+
+    private DeltaLakeAddFileIndex index;
+
+    @Before
+    public void setUp() {
+        StructType schema = new StructType()
+                .add("dt", StringType.STRING)
+                .add("region", IntegerType.INTEGER)
+                .add("id", LongType.LONG)
+                .add("price", DoubleType.DOUBLE)
+                .add("name", StringType.STRING)
+                .add("event_date", DateType.DATE);
+        DeltaLakeAddFileIndex.Builder builder = new DeltaLakeAddFileIndex.Builder(schema, Set.of("dt", "region"));
+        // file 0: dt=2024-01-01/region=1, id [0, 99]
+        builder.add(file("dt=2024-01-01/region=1/f0.parquet"), partition("2024-01-01", "1"),
+                "{\"numRecords\":100,\"minValues\":{\"id\":0,\"price\":1.5},\"maxValues\":{\"id\":99,\"price\":9.5}," +
+                        "\"nullCount\":{\"id\":0,\"price\":0}}");
+        // file 1: dt=2024-01-01/region=2, id [100, 199]
+        builder.add(file("dt=2024-01-01/region=2/f1.parquet"), partition("2024-01-01", "2"),
+                "{\"numRecords\":100,\"minValues\":{\"id\":100,\"price\":10.0},\"maxValues\":{\"id\":199," +
+                        "\"price\":20.0},\"nullCount\":{\"id\":0,\"price\":0}}");
+        // file 2: dt=2024-01-02/region=1, no stats
+        builder.add(file("dt=2024-01-02/region=1/f2.parquet"), partition("2024-01-02", "1"), null);
+        // file 3: dt=null/region=3, id all null
+        builder.add(file("dt=__HIVE_DEFAULT_PARTITION__/region=3/f3.parquet"), partition(null, "3"),
+                "{\"numRecords\":10,\"minValues\":{},\"maxValues\":{},\"nullCount\":{\"id\":10}}");
+        index = builder.build();
+    }
+
+    private static FileStatus file(String name) {
+        return FileStatus.of(TABLE_PATH + name, 1024, 1000L);
+    }
+
+    private static Map<String, String> partition(String dt, String region) {
+        Map<String, String> values = new HashMap<>();
+        values.put("dt", dt);
+        values.put("region", region);
+        return values;
+    }
+
+    private int[] select(ScalarOperator... conjuncts) {
+        return index.select(Arrays.asList(conjuncts));
+    }
+
+    @Test
+    public void testFileScanTask() {
+        Assert.assertEquals(4, index.getNumFiles());
+        Assert.assertTrue(index.getEstimatedSize() > 0);
+        Assert.assertEquals(TABLE_PATH + "dt=2024-01-01/region=2/f1.parquet", index.getPath(1));
+
+        FileScanTask task = index.toFileScanTask(1, 10);
+        Assert.assertEquals(TABLE_PATH + "dt=2024-01-01/region=2/f1.parquet", task.getFileStatus().getPath());
+        Assert.assertEquals(1024, task.getFileSize());
+        Assert.assertEquals(100, task.getRecords());
+        Assert.assertEquals("2024-01-01", task.getPartitionValues().get("dt"));
+        Assert.assertEquals("2", task.getPartitionValues().get("region"));
+
+        // no stats, estimate records by file size
+        Assert.assertEquals(102, index.toFileScanTask(2, 10).getRecords());
+        Assert.assertNull(index.toFileScanTask(3, 10).getPartitionValues().get("dt"));
+    }
+
+    @Test
+    public void testPartitionPruning() {
+        Assert.assertArrayEquals(new int[] {0, 1, 2, 3}, select());
+        Assert.assertArrayEquals(new int[] {0, 1},
+                select(BinaryPredicateOperator.eq(dtCol, ConstantOperator.createVarchar("2024-01-01"))));
+        Assert.assertArrayEquals(new int[] {2},
+                select(BinaryPredicateOperator.gt(dtCol, ConstantOperator.createVarchar("2024-01-01"))));
+        Assert.assertArrayEquals(new int[] {1, 3},
+                select(BinaryPredicateOperator.ge(regionCol, ConstantOperator.createInt(2))));
+        // constant on the left side
+        Assert.assertArrayEquals(new int[] {1, 3},
+                select(new BinaryPredicateOperator(BinaryType.LE, ConstantOperator.createInt(2), regionCol)));
+        Assert.assertArrayEquals(new int[] {0, 1, 2},
+                select(new InPredicateOperator(false, regionCol, ConstantOperator.createInt(1),
+                        ConstantOperator.createInt(2))));
+        Assert.assertArrayEquals(new int[] {2},
+                select(new InPredicateOperator(false, regionCol, ConstantOperator.createInt(1),
+                                ConstantOperator.createInt(2)),
+                        new InPredicateOperator(false, dtCol, ConstantOperator.createVarchar("2024-01-02"))));
+        // NE and NOT IN can't prune
+        Assert.assertEquals(4, select(BinaryPredicateOperator.ne(dtCol, ConstantOperator.createVarchar("x"))).length);
+        Assert.assertEquals(4,
+                select(new InPredicateOperator(true, regionCol, ConstantOperator.createInt(1))).length);
+    }
+
+    @Test
+    public void testStatsPruning() {
+        Assert.assertArrayEquals(new int[] {1, 2},
+                select(BinaryPredicateOperator.eq(idCol, ConstantOperator.createBigint(150))));
+        Assert.assertArrayEquals(new int[] {0, 2},
+                select(BinaryPredicateOperator.lt(idCol, ConstantOperator.createBigint(100))));
+        Assert.assertArrayEquals(new int[] {1, 2},
+                select(BinaryPredicateOperator.ge(idCol, ConstantOperator.createBigint(100))));
+        // file 3 has neither min/max nor null count of price
+        Assert.assertArrayEquals(new int[] {0, 2, 3},
+                select(BinaryPredicateOperator.le(priceCol, ConstantOperator.createDouble(9.5))));
+        Assert.assertArrayEquals(new int[] {2, 3},
+                select(BinaryPredicateOperator.gt(priceCol, ConstantOperator.createDouble(20.0))));
+        // partition and stats conjuncts
+        Assert.assertArrayEquals(new int[] {0},
+                select(BinaryPredicateOperator.eq(dtCol, ConstantOperator.createVarchar("2024-01-01")),
+                        BinaryPredicateOperator.lt(idCol, ConstantOperator.createBigint(50))));
+        // column without index keeps all files
+        ColumnRefOperator nameCol = new ColumnRefOperator(5, Type.VARCHAR, "name", true);
+        Assert.assertEquals(4, select(BinaryPredicateOperator.eq(nameCol, ConstantOperator.createVarchar("a"))).length);
+    }
+
+    @Test
+    public void testCanEvaluate() {
+        Assert.assertTrue(index.canEvaluate(List.of()));
+        Assert.assertTrue(index.canEvaluate(List.of(
+                BinaryPredicateOperator.eq(dtCol, ConstantOperator.createVarchar("2024-01-01")),
+                new InPredicateOperator(false, regionCol, ConstantOperator.createInt(1), ConstantOperator.createInt(2)),
+                BinaryPredicateOperator.lt(idCol, ConstantOperator.createBigint(50)),
+                BinaryPredicateOperator.gt(priceCol, ConstantOperator.createDouble(20.0)))));
+
+        // the index keeps no stats of date columns, select can't prune on them while the kernel data skipping can,
+        // so the scan must fall back to the kernel to prune no worse than before
+        ColumnRefOperator eventDateCol = new ColumnRefOperator(6, Type.DATE, "event_date", true);
+        ScalarOperator datePredicate = BinaryPredicateOperator.ge(eventDateCol,
+                ConstantOperator.createDate(LocalDateTime.of(2024, 1, 2, 0, 0)));
+        Assert.assertEquals(4, select(datePredicate).length);
+        Assert.assertFalse(index.canEvaluate(List.of(datePredicate)));
+        Assert.assertFalse(index.canEvaluate(List.of(
+                BinaryPredicateOperator.eq(dtCol, ConstantOperator.createVarchar("2024-01-01")), datePredicate)));
+
+        // string and decimal stats are not kept either
+        ColumnRefOperator nameCol = new ColumnRefOperator(5, Type.VARCHAR, "name", true);
+        Assert.assertFalse(index.canEvaluate(
+                List.of(BinaryPredicateOperator.eq(nameCol, ConstantOperator.createVarchar("a")))));
+        Assert.assertFalse(index.canEvaluate(List.of(BinaryPredicateOperator.lt(priceCol,
+                ConstantOperator.createDecimal(new BigDecimal("9.5"), Type.DEFAULT_DECIMAL64)))));
+        // predicates the index doesn't understand
+        Assert.assertFalse(index.canEvaluate(
+                List.of(BinaryPredicateOperator.ne(dtCol, ConstantOperator.createVarchar("x")))));
+        Assert.assertFalse(index.canEvaluate(
+                List.of(new InPredicateOperator(false, idCol, ConstantOperator.createBigint(1)))));
+    }
+}
@@ -417,7 +417,81 @@ public class CachingHiveMetastoreTest {
         HivePartitionName hivePartitionName = HivePartitionName.of("db1", "unpartitioned_table", "col1=1");
         Partition partition = cachingHiveMetastore.getPartition(
                 "db1", "unpartitioned_table", Lists.newArrayList("col1"));
-        cachingHiveMetastore.refreshPartitionByEvent(hivePartitionName, stats, partition);
+        cachingHiveMetastore.refreshPartitionByEvent(hivePartitionName, stats, partition, 1);
+    }
+
+    @Test
+    public void testAddAndDropPartitionByEvent() {
+        CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(
+                metastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, true);
+        Assert.assertEquals(Lists.newArrayList("col1"), cachingHiveMetastore.getPartitionKeysByValue("db1", "tbl1",
+                HivePartitionValue.ALL_PARTITION_VALUES));
+
+        HivePartitionName hivePartitionName = HivePartitionName.of("db1", "tbl1", "col1=2");
+        Partition partition = cachingHiveMetastore.getPartition("db1", "tbl1", Lists.newArrayList("col1"));
+        cachingHiveMetastore.addPartitionByEvent(hivePartitionName, partition, 10);
+        // the partition keys are patched after the batch of events
+        Assert.assertEquals(Lists.newArrayList("col1"), cachingHiveMetastore.getPartitionKeysByValue("db1", "tbl1",
+                HivePartitionValue.ALL_PARTITION_VALUES));
+        cachingHiveMetastore.flushPartitionKeyPatches();
+        Assert.assertEquals(Lists.newArrayList("col1", "col1=2"), cachingHiveMetastore.getPartitionKeysByValue(
+                "db1", "tbl1", HivePartitionValue.ALL_PARTITION_VALUES));
+        Assert.assertTrue(cachingHiveMetastore.isPartitionPresent(hivePartitionName));
+
+        // replayed event older than the applied one is skipped
+        cachingHiveMetastore.dropPartitionByEvent(hivePartitionName, 9);
+        Assert.assertTrue(cachingHiveMetastore.isPartitionPresent(hivePartitionName));
+
+        cachingHiveMetastore.dropPartitionByEvent(hivePartitionName, 11);
+        cachingHiveMetastore.flushPartitionKeyPatches();
+        Assert.assertEquals(Lists.newArrayList("col1"), cachingHiveMetastore.getPartitionKeysByValue("db1", "tbl1",
+                HivePartitionValue.ALL_PARTITION_VALUES));
+        Assert.assertFalse(cachingHiveMetastore.isPartitionPresent(hivePartitionName));
+
+        // a batch of events on the same table patches the key list once, the last event of a partition wins
+        List<HivePartitionName> addedPartitions = Lists.newArrayList();
+        for (int i = 3; i < 1003; i++) {
+            addedPartitions.add(HivePartitionName.of("db1", "tbl1", "col1=" + i));
+        }
+        for (int i = 0; i < addedPartitions.size(); i++) {
+            cachingHiveMetastore.addPartitionByEvent(addedPartitions.get(i), partition, 20 + i);
+        }
+        cachingHiveMetastore.dropPartitionByEvent(addedPartitions.get(0), 2000);
+        cachingHiveMetastore.addPartitionByEvent(hivePartitionName, partition, 2001);
+        cachingHiveMetastore.dropPartitionByEvent(hivePartitionName, 2002);
+        cachingHiveMetastore.flushPartitionKeyPatches();
+        List<String> partitionKeys = cachingHiveMetastore.getPartitionKeysByValue("db1", "tbl1",
+                HivePartitionValue.ALL_PARTITION_VALUES);
+        Assert.assertEquals(1000, partitionKeys.size());
+        Assert.assertEquals("col1", partitionKeys.get(0));
+        Assert.assertEquals("col1=4", partitionKeys.get(1));
+        Assert.assertEquals("col1=1002", partitionKeys.get(999));
+    }
+
+    @Test
+    public void testSyncedEventId() {
+        CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(
+                metastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, false);
+        Assert.assertEquals(Long.MAX_VALUE, cachingHiveMetastore.getStalenessMs());
+
+        HiveCacheUpdateProcessor processor = new HiveCacheUpdateProcessor(
+                "hive_catalog", cachingHiveMetastore, null, null, false, true);
+        Assert.assertEquals(1L, cachingHiveMetastore.getSyncedEventId());
+        Assert.assertFalse(processor.isCacheStale(60 * 1000L));
+
+        cachingHiveMetastore.setSyncedEventId(1L, System.currentTimeMillis() - 120 * 1000L);
+        Assert.assertTrue(processor.isCacheStale(60 * 1000L));
+
+        // a capped batch behind the current event id of hms doesn't refresh the synced time
+        processor.setLastSyncedEventId(0L);
+        processor.updateSyncedEventId();
+        Assert.assertEquals(0L, cachingHiveMetastore.getSyncedEventId());
+        Assert.assertTrue(processor.isCacheStale(60 * 1000L));
+
+        processor.setLastSyncedEventId(1L);
+        processor.updateSyncedEventId();
+        Assert.assertEquals(1L, cachingHiveMetastore.getSyncedEventId());
+        Assert.assertFalse(processor.isCacheStale(60 * 1000L));
     }
 
     @Test
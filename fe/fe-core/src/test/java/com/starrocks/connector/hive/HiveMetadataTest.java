@@ -26,6 +26,7 @@ import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Type;
 import com.starrocks.common.AlreadyExistsException;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.ExceptionChecker;
 import com.starrocks.common.FeConstants;
@@ -36,9 +37,11 @@ import com.starrocks.connector.HdfsEnvironment;
 import com.starrocks.connector.MetastoreType;
 import com.starrocks.connector.PartitionInfo;
 import com.starrocks.connector.PartitionUtil;
+import com.starrocks.connector.PlanMode;
 import com.starrocks.connector.RemoteFileBlockDesc;
 import com.starrocks.connector.RemoteFileDesc;
 import com.starrocks.connector.RemoteFileInfo;
+import com.starrocks.connector.RemoteFileInfoSource;
 import com.starrocks.connector.RemoteFileOperations;
 import com.starrocks.connector.RemotePathKey;
 import com.starrocks.connector.TableVersionRange;
@@ -817,4 +820,45 @@ public class HiveMetadataTest {
         List<RemoteFileInfo> remoteFileInfos = hiveMetadata.getRemoteFiles(table, params);
         Assert.assertEquals(3, remoteFileInfos.size());
     }
+
+    @Test
+    public void testGetRemoteFilesAsyncWithBatchedPartitionListing(
+            @Mocked HiveTable table,
+            @Mocked HiveMetastoreOperations hmsOps) {
+        List<String> partitionNames = Lists.newArrayList("dt=20200101", "dt=20200102", "dt=20200103");
+        Map<String, Partition> partitionMap = Maps.newHashMap();
+        for (String name : partitionNames) {
+            Map<String, String> parameters = Maps.newHashMap();
+            TextFileFormatDesc formatDesc = new TextFileFormatDesc("a", "b", "c", "d");
+            String fullPath = HDFS_HIVE_TABLE;
+            Partition partition = new Partition(parameters, RemoteFileInputFormat.PARQUET, formatDesc, fullPath, true);
+            partitionMap.put(name, partition);
+        }
+
+        new Expectations() {
+            {
+                hmsOps.getPartitionByNames((Table) any, (List<String>) any);
+                result = partitionMap;
+                // partitions are resolved in 2 batches
+                minTimes = 2;
+            }
+        };
+
+        int batchSize = Config.hive_batched_partition_listing_batch_size;
+        String planMode = connectContext.getSessionVariable().getPlanMode();
+        try {
+            Config.hive_batched_partition_listing_batch_size = 2;
+            connectContext.getSessionVariable().setPlanMode(PlanMode.DISTRIBUTED.modeName());
+            GetRemoteFilesParams params = GetRemoteFilesParams.newBuilder().setPartitionNames(partitionNames).build();
+            RemoteFileInfoSource source = hiveMetadata.getRemoteFilesAsync(table, params);
+            List<RemoteFileInfo> remoteFileInfos = Lists.newArrayList();
+            while (source.hasMoreOutput()) {
+                remoteFileInfos.add(source.getOutput());
+            }
+            Assert.assertEquals(3, remoteFileInfos.size());
+        } finally {
+            Config.hive_batched_partition_listing_batch_size = batchSize;
+            connectContext.getSessionVariable().setPlanMode(planMode);
+        }
+    }
 }
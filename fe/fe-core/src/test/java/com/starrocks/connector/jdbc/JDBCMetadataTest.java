@@ -33,6 +33,7 @@ import org.junit.Test;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -266,4 +267,72 @@ public class JDBCMetadataTest {
         properties.put(JDBCResource.DRIVER_URL, "xxxx");
         new JDBCMetadata(properties, "catalog");
     }
+
+    @Test
+    public void testGetSplitBoundaries() {
+        Assert.assertEquals(Arrays.asList(25L, 50L, 75L), JDBCMetadata.getSplitBoundaries(0, 99, 4));
+        // fewer values than splits
+        Assert.assertEquals(Arrays.asList(2L, 3L), JDBCMetadata.getSplitBoundaries(1, 3, 8));
+        Assert.assertTrue(JDBCMetadata.getSplitBoundaries(5, 5, 4).isEmpty());
+        // no overflow on the whole long range
+        List<Long> boundaries = JDBCMetadata.getSplitBoundaries(Long.MIN_VALUE, Long.MAX_VALUE, 2);
+        Assert.assertEquals(Arrays.asList(0L), boundaries);
+    }
+
+    @Test
+    public void testBuildSplitPredicates() {
+        Assert.assertTrue(JDBCMetadata.buildSplitPredicates("`id`", Lists.newArrayList()).isEmpty());
+        List<String> predicates = JDBCMetadata.buildSplitPredicates("`id`", Arrays.asList("10", "20"));
+        Assert.assertEquals(Arrays.asList("`id` < 10 OR `id` IS NULL", "`id` >= 10 AND `id` < 20", "`id` >= 20"),
+                predicates);
+    }
+
+    @Test
+    public void testGetSplitPredicates() throws SQLException {
+        MockResultSet rangeResult = new MockResultSet("range");
+        rangeResult.addColumn("MIN", Arrays.asList(0));
+        rangeResult.addColumn("MAX", Arrays.asList(99));
+        new Expectations() {
+            {
+                connection.createStatement().executeQuery(anyString);
+                result = rangeResult;
+                times = 1;
+            }
+        };
+        JDBCMetadata jdbcMetadata = new JDBCMetadata(properties, "catalog", dataSource);
+        JDBCTable table = (JDBCTable) jdbcMetadata.getTable("test", "tbl1");
+        // explain doesn't query the range of the split column
+        Assert.assertTrue(jdbcMetadata.getSplitPredicates(table, 4, "a", true).isEmpty());
+
+        List<String> expected = Arrays.asList("a < 25 OR a IS NULL", "a >= 25 AND a < 50", "a >= 50 AND a < 75",
+                "a >= 75");
+        Assert.assertEquals(expected, jdbcMetadata.getSplitPredicates(table, 4, "a", false));
+        // the range is cached, the remote table is queried only once
+        Assert.assertEquals(expected, jdbcMetadata.getSplitPredicates(table, 4, "a", false));
+        Assert.assertEquals(expected, jdbcMetadata.getSplitPredicates(table, 4, "a", true));
+        Assert.assertEquals(Arrays.asList("a < 50 OR a IS NULL", "a >= 50"),
+                jdbcMetadata.getSplitPredicates(table, 2, "a", true));
+        // not an integer, date or datetime column
+        Assert.assertTrue(jdbcMetadata.getSplitPredicates(table, 4, "c", false).isEmpty());
+    }
+
+    @Test
+    public void testGetDateSplitPredicates() throws SQLException {
+        MockResultSet rangeResult = new MockResultSet("range");
+        rangeResult.addColumn("MIN", Arrays.asList(Timestamp.valueOf("2024-01-01 00:00:00")));
+        rangeResult.addColumn("MAX", Arrays.asList(Timestamp.valueOf("2024-01-04 00:00:00")));
+        new Expectations() {
+            {
+                connection.createStatement().executeQuery(anyString);
+                result = new SQLException("timeout");
+                result = rangeResult;
+            }
+        };
+        JDBCMetadata jdbcMetadata = new JDBCMetadata(properties, "catalog", dataSource);
+        JDBCTable table = (JDBCTable) jdbcMetadata.getTable("test", "tbl1");
+        // the failure is not cached
+        Assert.assertTrue(jdbcMetadata.getSplitPredicates(table, 2, "g1", false).isEmpty());
+        Assert.assertEquals(Arrays.asList("g1 < '2024-01-03' OR g1 IS NULL", "g1 >= '2024-01-03'"),
+                jdbcMetadata.getSplitPredicates(table, 2, "g1", false));
+    }
 }
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.collect.ImmutableMap;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.DiskInfo;
+import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.UserException;
 import com.starrocks.http.rest.ActionStatus;
@@ -242,6 +243,61 @@ public class TransactionLoadActionTest extends StarRocksHttpTestCase {
         }
     }
 
+    @Test
+    public void operateTransactionAsyncTest() throws Exception {
+        boolean oldValue = Config.enable_http_async_transaction_load;
+        Config.enable_http_async_transaction_load = true;
+        long pendingNum = HttpServerHandlerMetrics.getInstance().asyncRequestPendingLatencyMs.getCount();
+        try {
+            {
+                Request request = newRequest(TransactionOperation.TXN_BEGIN);
+                try (Response response = networkClient.newCall(request).execute()) {
+                    Map<String, Object> body = parseResponseBody(response);
+                    assertEquals(FAILED, body.get(TransactionResult.STATUS_KEY));
+                    assertTrue(Objects.toString(body.get(TransactionResult.MESSAGE_KEY)).contains("No database selected."));
+                }
+            }
+
+            {
+                Request request = newRequest(
+                        TransactionOperation.TXN_COMMIT,
+                        (uriBuilder, reqBuilder) -> reqBuilder.addHeader(DB_KEY, DB_NAME));
+                try (Response response = networkClient.newCall(request).execute()) {
+                    Map<String, Object> body = parseResponseBody(response);
+                    assertEquals(FAILED, body.get(TransactionResult.STATUS_KEY));
+                    assertTrue(Objects.toString(body.get(TransactionResult.MESSAGE_KEY)).contains("Empty label."));
+                }
+            }
+
+            // invalid requests are replied by the http worker thread without being submitted to the executor
+            assertEquals(pendingNum, HttpServerHandlerMetrics.getInstance().asyncRequestPendingLatencyMs.getCount());
+
+            new Expectations() {
+                {
+                    streamLoadMgr.beginLoadTask(
+                            anyString, anyString, anyString, anyString, anyString,
+                            anyLong, anyInt, anyInt, (TransactionResult) any);
+                    times = 1;
+                }
+            };
+            Request request = newRequest(TransactionOperation.TXN_BEGIN, (uriBuilder, reqBuilder) -> {
+                reqBuilder.addHeader(DB_KEY, DB_NAME);
+                reqBuilder.addHeader(TABLE_KEY, TABLE_NAME);
+                reqBuilder.addHeader(LABEL_KEY, RandomStringUtils.randomAlphanumeric(32));
+                reqBuilder.addHeader(CHANNEL_ID_STR, "0");
+                reqBuilder.addHeader(CHANNEL_NUM_STR, "2");
+            });
+            try (Response response = networkClient.newCall(request).execute()) {
+                Map<String, Object> body = parseResponseBody(response);
+                assertEquals(OK, body.get(TransactionResult.STATUS_KEY));
+            }
+            // the pending phase is recorded before the response is sent
+            assertEquals(pendingNum + 1, HttpServerHandlerMetrics.getInstance().asyncRequestPendingLatencyMs.getCount());
+        } finally {
+            Config.enable_http_async_transaction_load = oldValue;
+        }
+    }
+
     @Test
     public void beginTransactionWithChannelInfoTest() throws Exception {
         {
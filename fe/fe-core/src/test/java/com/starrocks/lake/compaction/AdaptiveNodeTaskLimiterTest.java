@@ -0,0 +1,86 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.lake.compaction;
+
+import com.starrocks.common.Config;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AdaptiveNodeTaskLimiterTest {
+
+    @Test
+    public void testAdjustLimit() {
+        AdaptiveNodeTaskLimiter limiter = new AdaptiveNodeTaskLimiter();
+        Assert.assertEquals(AdaptiveNodeTaskLimiter.INITIAL_NODE_TASK_LIMIT, limiter.getTaskLimit(1));
+
+        // additive increase while the latency is stable
+        limiter.update(1, 1000);
+        limiter.update(1, 1100);
+        Assert.assertEquals(AdaptiveNodeTaskLimiter.INITIAL_NODE_TASK_LIMIT + 2, limiter.getTaskLimit(1));
+
+        // multiplicative decrease when the latency is much worse
+        limiter.update(1, 5000);
+        Assert.assertEquals(AdaptiveNodeTaskLimiter.INITIAL_NODE_TASK_LIMIT + 2 - 4, limiter.getTaskLimit(1));
+
+        // other nodes are not affected
+        Assert.assertEquals(AdaptiveNodeTaskLimiter.INITIAL_NODE_TASK_LIMIT, limiter.getTaskLimit(2));
+
+        int oldValue = Config.lake_compaction_adaptive_node_max_tasks;
+        try {
+            Config.lake_compaction_adaptive_node_max_tasks = 3;
+            // the initial limit and the limits adjusted before are capped by the config too
+            Assert.assertEquals(3, limiter.getTaskLimit(3));
+            Assert.assertEquals(3, limiter.getTaskLimit(1));
+            limiter.update(3, 1000);
+            Assert.assertEquals(3, limiter.getTaskLimit(3));
+            limiter.update(1, 50000);
+            Assert.assertEquals(2, limiter.getTaskLimit(1));
+        } finally {
+            Config.lake_compaction_adaptive_node_max_tasks = oldValue;
+        }
+    }
+
+    @Test
+    public void testCanSchedule() {
+        AdaptiveNodeTaskLimiter limiter = new AdaptiveNodeTaskLimiter();
+        int limit = AdaptiveNodeTaskLimiter.INITIAL_NODE_TASK_LIMIT;
+        Map<Long, List<Long>> beToTablets = new HashMap<>();
+        beToTablets.put(1L, Arrays.asList(10L, 11L));
+        beToTablets.put(2L, Arrays.asList(12L));
+
+        Map<Long, Integer> running = new HashMap<>();
+        Assert.assertTrue(limiter.canSchedule(beToTablets, running));
+
+        running.put(1L, limit - 2);
+        Assert.assertTrue(limiter.canSchedule(beToTablets, running));
+
+        running.put(1L, limit - 1);
+        Assert.assertFalse(limiter.canSchedule(beToTablets, running));
+
+        // an idle node always accepts a job, no matter how many tablets it has
+        running.clear();
+        beToTablets.put(2L, new ArrayList<>());
+        for (long i = 0; i < limit * 2; i++) {
+            beToTablets.get(2L).add(100 + i);
+        }
+        Assert.assertTrue(limiter.canSchedule(beToTablets, running));
+    }
+}
@@ -0,0 +1,102 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.lake.compaction;
+
+import com.starrocks.metric.TableMetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+// A simple discrete time simulator to compare compaction sorters offline. Each partition receives loads which raise
+// its compaction score and reads which suffer from a high score, and compaction of a partition takes as long as the
+// average of its recorded compaction durations, e.g. `CompactionRecord.getFinishTs() - CompactionRecord.getStartTs()`.
+// The result of a run is the read weighted compaction score accumulated over time, the lower the better.
+// Sorters which depend on time are given the simulated clock.
+public class CompactionSimulator {
+    private final Sorter sorter;
+    private final int maxRunningJobs;
+    private final List<SimPartition> partitions = new ArrayList<>();
+    private long nowMs = 0;
+
+    private static class SimPartition {
+        private final PartitionStatistics statistics;
+        private final long readsPerSecond;
+        private final double scoreIncreasePerSecond;
+        private final long costMs;
+        private double score = 1;
+        private long finishTimeMs = -1;
+
+        SimPartition(PartitionIdentifier partition, long readsPerSecond, double scoreIncreasePerSecond, long costMs) {
+            this.statistics = new PartitionStatistics(partition);
+            this.readsPerSecond = readsPerSecond;
+            this.scoreIncreasePerSecond = scoreIncreasePerSecond;
+            this.costMs = costMs;
+        }
+
+        boolean isRunning() {
+            return finishTimeMs >= 0;
+        }
+    }
+
+    public CompactionSimulator(Function<LongSupplier, Sorter> sorterFactory, int maxRunningJobs) {
+        this.sorter = sorterFactory.apply(() -> nowMs);
+        this.maxRunningJobs = maxRunningJobs;
+    }
+
+    public void addPartition(PartitionIdentifier partition, long readsPerSecond, double scoreIncreasePerSecond,
+                             List<Long> recordedCostsMs) {
+        long costMs = (long) recordedCostsMs.stream().mapToLong(Long::longValue).average().orElse(1000);
+        partitions.add(new SimPartition(partition, readsPerSecond, scoreIncreasePerSecond, costMs));
+    }
+
+    public double run(int seconds) {
+        double readWeightedScore = 0;
+        for (int second = 0; second < seconds; second++) {
+            nowMs = second * 1000L;
+            for (SimPartition p : partitions) {
+                if (p.isRunning() && p.finishTimeMs <= nowMs) {
+                    p.finishTimeMs = -1;
+                    p.score = 1;
+                    p.statistics.updateCompactionCost(p.costMs);
+                }
+                p.score += p.scoreIncreasePerSecond;
+                p.statistics.setCompactionScore(new Quantiles(p.score, p.score, p.score));
+                TableMetricsRegistry.getInstance().getMetricsEntity(p.statistics.getPartition().getTableId())
+                        .counterScanFinishedTotal.increase(p.readsPerSecond);
+                readWeightedScore += p.readsPerSecond * (p.score - 1);
+            }
+
+            long running = partitions.stream().filter(SimPartition::isRunning).count();
+            List<PartitionStatisticsSnapshot> candidates = partitions.stream()
+                    .filter(p -> !p.isRunning())
+                    .map(p -> p.statistics.getSnapshot())
+                    .collect(Collectors.toList());
+            for (PartitionStatisticsSnapshot snapshot : sorter.sort(candidates)) {
+                if (running >= maxRunningJobs) {
+                    break;
+                }
+                SimPartition p = partitions.stream()
+                        .filter(sp -> sp.statistics.getPartition().equals(snapshot.getPartition()))
+                        .findFirst().orElseThrow();
+                p.finishTimeMs = nowMs + p.costMs;
+                running++;
+            }
+        }
+        return readWeightedScore;
+    }
+}
@@ -0,0 +1,143 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.lake.compaction;
+
+import com.starrocks.common.Config;
+import com.starrocks.metric.TableMetricsRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class CostSorterTest {
+
+    private static PartitionStatisticsSnapshot createSnapshot(PartitionIdentifier partition, double score, long costMs) {
+        PartitionStatistics statistics = new PartitionStatistics(partition);
+        statistics.setCompactionScore(Quantiles.compute(Arrays.asList(score, score)));
+        statistics.updateCompactionCost(costMs);
+        return new PartitionStatisticsSnapshot(statistics);
+    }
+
+    @Test
+    public void testSortByBenefitPerCost() {
+        List<PartitionStatisticsSnapshot> statisticsList = new ArrayList<>();
+        // highest score but expensive
+        statisticsList.add(createSnapshot(new PartitionIdentifier(1, 80001, 3), 20, 100000));
+        // cheap
+        statisticsList.add(createSnapshot(new PartitionIdentifier(1, 80001, 4), 10, 1000));
+        // nothing to improve
+        statisticsList.add(createSnapshot(new PartitionIdentifier(1, 80001, 5), 1, 1000));
+        // unknown cost, use the median cost 1000
+        statisticsList.add(createSnapshot(new PartitionIdentifier(1, 80001, 6), 5, 0));
+
+        List<PartitionStatisticsSnapshot> sortedList = new CostSorter().sort(statisticsList);
+        Assert.assertEquals(4, sortedList.size());
+        Assert.assertEquals(4, sortedList.get(0).getPartition().getPartitionId());
+        Assert.assertEquals(6, sortedList.get(1).getPartition().getPartitionId());
+        Assert.assertEquals(3, sortedList.get(2).getPartition().getPartitionId());
+        Assert.assertEquals(5, sortedList.get(3).getPartition().getPartitionId());
+    }
+
+    @Test
+    public void testReadFrequency() {
+        List<PartitionStatisticsSnapshot> statisticsList = new ArrayList<>();
+        statisticsList.add(createSnapshot(new PartitionIdentifier(1, 80011, 3), 10, 1000));
+        statisticsList.add(createSnapshot(new PartitionIdentifier(1, 80012, 4), 5, 1000));
+        // read a lot in the past, but not any more
+        TableMetricsRegistry.getInstance().getMetricsEntity(80011).counterScanFinishedTotal.increase(1000000L);
+
+        long[] nowMs = {0};
+        CostSorter sorter = new CostSorter(() -> nowMs[0]);
+        // the first sort only samples the baseline of the read counters
+        List<PartitionStatisticsSnapshot> sortedList = sorter.sort(statisticsList);
+        Assert.assertEquals(3, sortedList.get(0).getPartition().getPartitionId());
+        Assert.assertEquals(4, sortedList.get(1).getPartition().getPartitionId());
+
+        TableMetricsRegistry.getInstance().getMetricsEntity(80012).counterScanFinishedTotal.increase(100L);
+        // too early to sample again
+        nowMs[0] += 1000;
+        sortedList = sorter.sort(statisticsList);
+        Assert.assertEquals(3, sortedList.get(0).getPartition().getPartitionId());
+
+        // 100 reads per minute
+        nowMs[0] += 59000;
+        sortedList = sorter.sort(statisticsList);
+        Assert.assertEquals(4, sortedList.get(0).getPartition().getPartitionId());
+        Assert.assertEquals(3, sortedList.get(1).getPartition().getPartitionId());
+
+        // the rate decays once the reads stop
+        for (int i = 0; i < 20; i++) {
+            nowMs[0] += 60000;
+            sortedList = sorter.sort(statisticsList);
+        }
+        Assert.assertEquals(3, sortedList.get(0).getPartition().getPartitionId());
+        Assert.assertEquals(4, sortedList.get(1).getPartition().getPartitionId());
+    }
+
+    @Test
+    public void testPriorityAndHotPartition() {
+        int oldValue = Config.lake_compaction_hot_partition_loads_per_minute;
+        try {
+            List<PartitionStatisticsSnapshot> statisticsList = new ArrayList<>();
+            statisticsList.add(createSnapshot(new PartitionIdentifier(1, 80021, 3), 10, 1000));
+
+            PartitionStatistics hot = new PartitionStatistics(new PartitionIdentifier(1, 80021, 4));
+            hot.setCompactionScore(Quantiles.compute(Arrays.asList(2.0)));
+            for (int i = 0; i < 10; i++) {
+                hot.recordLoad(System.currentTimeMillis());
+            }
+            statisticsList.add(new PartitionStatisticsSnapshot(hot));
+
+            PartitionStatistics manual = new PartitionStatistics(new PartitionIdentifier(1, 80021, 5));
+            manual.setCompactionScore(Quantiles.compute(Arrays.asList(1.0)));
+            manual.setPriority(PartitionStatistics.CompactionPriority.MANUAL_COMPACT);
+            statisticsList.add(new PartitionStatisticsSnapshot(manual));
+
+            Config.lake_compaction_hot_partition_loads_per_minute = 0;
+            List<PartitionStatisticsSnapshot> sortedList = new CostSorter().sort(statisticsList);
+            Assert.assertEquals(5, sortedList.get(0).getPartition().getPartitionId());
+            Assert.assertEquals(3, sortedList.get(1).getPartition().getPartitionId());
+            Assert.assertEquals(4, sortedList.get(2).getPartition().getPartitionId());
+
+            Config.lake_compaction_hot_partition_loads_per_minute = 10;
+            sortedList = new CostSorter().sort(statisticsList);
+            Assert.assertEquals(5, sortedList.get(0).getPartition().getPartitionId());
+            Assert.assertEquals(4, sortedList.get(1).getPartition().getPartitionId());
+            Assert.assertEquals(3, sortedList.get(2).getPartition().getPartitionId());
+        } finally {
+            Config.lake_compaction_hot_partition_loads_per_minute = oldValue;
+        }
+    }
+
+    @Test
+    public void testSimulateAgainstScoreSorter() {
+        double[] results = new double[2];
+        List<Function<LongSupplier, Sorter>> sorters = Arrays.asList(clock -> new ScoreSorter(), CostSorter::new);
+        for (int i = 0; i < sorters.size(); i++) {
+            CompactionSimulator simulator = new CompactionSimulator(sorters.get(i), 1);
+            // frequently read and cheap to compact
+            simulator.addPartition(new PartitionIdentifier(1, 80031, 3), 100, 0.5, Arrays.asList(2000L, 2000L));
+            // rarely read, ingests fast and expensive to compact
+            simulator.addPartition(new PartitionIdentifier(1, 80032, 4), 1, 1, Arrays.asList(15000L, 25000L));
+            simulator.addPartition(new PartitionIdentifier(1, 80033, 5), 50, 0.3, Arrays.asList(3000L));
+            results[i] = simulator.run(600);
+        }
+        Assert.assertTrue(results[1] < results[0]);
+    }
+}
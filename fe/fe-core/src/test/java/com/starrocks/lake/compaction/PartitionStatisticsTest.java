@@ -64,4 +64,32 @@ public class PartitionStatisticsTest {
         PartitionStatistics statistics = new PartitionStatistics(new PartitionIdentifier(100, 200, 300));
         assertEquals(0, statistics.getCompactionVersion().getVersion());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCompactionCost() {
+        PartitionStatistics statistics = new PartitionStatistics(new PartitionIdentifier(100, 200, 300));
+        assertEquals(0, statistics.getAvgCompactionCostMs());
+        statistics.updateCompactionCost(0);
+        assertEquals(0, statistics.getAvgCompactionCostMs());
+        statistics.updateCompactionCost(1000);
+        assertEquals(1000, statistics.getAvgCompactionCostMs());
+        statistics.updateCompactionCost(2000);
+        assertEquals(1300, statistics.getAvgCompactionCostMs());
+    }
+
+    @Test
+    public void testIngestLoadsPerMinute() {
+        PartitionStatistics statistics = new PartitionStatistics(new PartitionIdentifier(100, 200, 300));
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            statistics.recordLoad(now);
+        }
+        assertEquals(5, statistics.getIngestLoadsPerMinute());
+        // the previous window is still counted
+        statistics.recordLoad(now + 61 * 1000);
+        assertEquals(5, statistics.getIngestLoadsPerMinute());
+        // no loads for a long time
+        statistics.recordLoad(now + 300 * 1000);
+        assertEquals(1, statistics.getIngestLoadsPerMinute());
+    }
+}
@@ -18,7 +18,9 @@ package com.starrocks.load.streamload;
 import com.google.common.collect.Lists;
 import com.starrocks.backup.CatalogMocker;
 import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
 import com.starrocks.common.UserException;
 import com.starrocks.common.jmockit.Deencapsulation;
@@ -42,6 +44,7 @@ import org.junit.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class StreamLoadManagerTest {
 
@@ -309,4 +312,58 @@ public class StreamLoadManagerTest {
         Assert.assertEquals(1, streamLoadManager.getStreamLoadTaskCount());
     }
 
+    @Test
+    public void testCleanOldStreamLoadTasksByExpiryBucket() {
+        StreamLoadMgr streamLoadManager = new StreamLoadMgr();
+        OlapTable table = (OlapTable) db.getTable(CatalogMocker.TEST_TBL_ID);
+        long now = System.currentTimeMillis();
+        long keepMs = Config.stream_load_task_keep_max_second * 1000L;
+
+        StreamLoadTask oldTask = new StreamLoadTask(1001L, db, table, "old_label", "", "", 100000, 1, 0,
+                now - 2 * keepMs, 0);
+        StreamLoadTask newTask = new StreamLoadTask(1002L, db, table, "new_label", "", "", 100000, 1, 0, now, 0);
+        streamLoadManager.addLoadTask(oldTask);
+        streamLoadManager.addLoadTask(newTask);
+        oldTask.cancelAfterRestart();
+        Deencapsulation.setField(oldTask, "endTimeMs", now - keepMs - 1000);
+        newTask.cancelAfterRestart();
+
+        Map<Long, ?> createTimeBucketToLabels =
+                Deencapsulation.getField(streamLoadManager, "createTimeBucketToLabels");
+        Assert.assertEquals(2, createTimeBucketToLabels.size());
+
+        // only the expired one is removed
+        streamLoadManager.cleanOldStreamLoadTasks(false);
+        Assert.assertEquals(1, streamLoadManager.getStreamLoadTaskCount());
+        Assert.assertNull(streamLoadManager.getTaskByLabel("old_label"));
+        Assert.assertNotNull(streamLoadManager.getTaskByLabel("new_label"));
+        Assert.assertEquals(1, createTimeBucketToLabels.size());
+
+        streamLoadManager.cleanOldStreamLoadTasks(true);
+        Assert.assertEquals(0, streamLoadManager.getStreamLoadTaskCount());
+        Assert.assertTrue(createTimeBucketToLabels.isEmpty());
+        Map<Long, ?> dbToLabelToStreamLoadTask =
+                Deencapsulation.getField(streamLoadManager, "dbToLabelToStreamLoadTask");
+        Assert.assertTrue(dbToLabelToStreamLoadTask.isEmpty());
+    }
+
+    @Test
+    public void testRemoveStaleLabelOfReusedLabel() {
+        StreamLoadMgr streamLoadManager = new StreamLoadMgr();
+        OlapTable table = (OlapTable) db.getTable(CatalogMocker.TEST_TBL_ID);
+        long now = System.currentTimeMillis();
+        long bucket = now / (60 * 1000L);
+
+        // the cleaner saw the label as stale, but it has been reused by a new task of the same bucket since then
+        StreamLoadTask task = new StreamLoadTask(1003L, db, table, "reused_label", "", "", 100000, 1, 0, now, 0);
+        streamLoadManager.addLoadTask(task);
+        Deencapsulation.invoke(streamLoadManager, "removeStaleLabel", bucket, "reused_label");
+
+        Map<Long, Set<String>> createTimeBucketToLabels =
+                Deencapsulation.getField(streamLoadManager, "createTimeBucketToLabels");
+        Assert.assertTrue(createTimeBucketToLabels.get(bucket).contains("reused_label"));
+
+        Deencapsulation.invoke(streamLoadManager, "removeStaleLabel", bucket - 1, "reused_label");
+        Assert.assertTrue(createTimeBucketToLabels.get(bucket).contains("reused_label"));
+    }
 }
@@ -15,14 +15,20 @@
 package com.starrocks.metric;
 
 import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
 import com.starrocks.http.rest.MetricsAction;
 import com.starrocks.sql.plan.PlanTestBase;
+import io.netty.buffer.ByteBuf;
+import mockit.Deencapsulation;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 public class MetricRepoTest extends PlanTestBase {
 
     @BeforeClass
@@ -63,4 +69,45 @@ public class MetricRepoTest extends PlanTestBase {
         Assert.assertTrue(json.contains("test_metric"));
     }
 
+    @Test
+    public void testGetPrometheusMetric() throws Exception {
+        starRocksAssert.useDatabase("test_metric")
+                .withTable("create table t2 (c1 int, c2 string)" +
+                        " distributed by hash(c1) " +
+                        " properties('replication_num'='1') ");
+        Table t2 = starRocksAssert.getTable("test_metric", "t2");
+        TableMetricsEntity entity = TableMetricsRegistry.getInstance().getMetricsEntity(t2.getId());
+        entity.counterScanRowsTotal.increase(10L);
+
+        MetricsAction.RequestParams params = new MetricsAction.RequestParams(true, false, false, false);
+        String expectedLine = "m_table_scan_rows{db_name=\"test_metric\", tbl_name=\"t2\", tbl_id=\"" + t2.getId()
+                + "\"} 10\n";
+        String output = MetricRepo.getPrometheusMetric("m", params).toString(StandardCharsets.UTF_8);
+        Assert.assertTrue(output, output.contains(expectedLine));
+        Assert.assertTrue(output.contains("m_table_size_bytes{db_name=\"test_metric\", tbl_name=\"t2\""));
+
+        long ttlMs = Config.prometheus_metric_snapshot_ttl_ms;
+        try {
+            // the output is shared by the following scrapes within ttl
+            Config.prometheus_metric_snapshot_ttl_ms = 60000;
+            ByteBuf snapshot = MetricRepo.getPrometheusMetric("m", params);
+            entity.counterScanRowsTotal.increase(10L);
+            ByteBuf shared = MetricRepo.getPrometheusMetric("m", params);
+            Assert.assertEquals(snapshot.toString(StandardCharsets.UTF_8), shared.toString(StandardCharsets.UTF_8));
+            // releasing the response buffer doesn't affect the shared output
+            shared.release();
+            Assert.assertEquals(snapshot.toString(StandardCharsets.UTF_8),
+                    MetricRepo.getPrometheusMetric("m", params).toString(StandardCharsets.UTF_8));
+        } finally {
+            Config.prometheus_metric_snapshot_ttl_ms = ttlMs;
+        }
+        output = MetricRepo.getPrometheusMetric("m", params).toString(StandardCharsets.UTF_8);
+        Assert.assertTrue(output.contains(expectedLine.replace("} 10", "} 20")));
+        // only the size of the output is kept without ttl
+        Map<String, ?> snapshots = Deencapsulation.getField(MetricRepo.class, "PROMETHEUS_SNAPSHOTS");
+        Assert.assertTrue(snapshots.isEmpty());
+        Map<String, Integer> outputSizes = Deencapsulation.getField(MetricRepo.class, "PROMETHEUS_OUTPUT_SIZES");
+        Assert.assertEquals(output.getBytes(StandardCharsets.UTF_8).length, (int) outputSizes.get("m: " + params));
+    }
+
 }
\ No newline at end of file
@@ -22,10 +22,12 @@ import com.starrocks.common.FeConstants;
 import com.starrocks.common.proc.JvmMonitorProcDir;
 import com.starrocks.monitor.jvm.JvmStatCollector;
 import com.starrocks.monitor.jvm.JvmStats;
+import io.netty.buffer.Unpooled;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
@@ -140,4 +142,29 @@ public class MetricsTest {
         Assert.assertEquals(m.getLabels().get(0).getValue(), "v1");
         Assert.assertEquals(m.getLabels().get(1).getValue(), "v2");
     }
+
+    @Test
+    public void testPrometheusExposition() {
+        LongCounterMetric counter = new LongCounterMetric("test_counter", Metric.MetricUnit.REQUESTS, "test counter");
+        counter.addLabel(new MetricLabel("k1", "v1")).addLabel(new MetricLabel("tbl_name", "表"));
+        counter.increase(-123L);
+        GaugeMetricImpl<Double> gauge = new GaugeMetricImpl<>("test_gauge", Metric.MetricUnit.NOUNIT, "test gauge");
+        gauge.setValue(0.5);
+
+        PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("sr");
+        visitor.visit(counter);
+        visitor.visit(gauge);
+        Assert.assertEquals("# HELP sr_test_counter test counter\n"
+                + "# TYPE sr_test_counter counter\n"
+                + "sr_test_counter{k1=\"v1\", tbl_name=\"表\"} -123\n"
+                + "# HELP sr_test_gauge test gauge\n"
+                + "# TYPE sr_test_gauge gauge\n"
+                + "sr_test_gauge 0.5\n", visitor.build());
+
+        PrometheusExpositionWriter writer = new PrometheusExpositionWriter(Unpooled.buffer());
+        writer.append(0L).append(' ').append(Long.MIN_VALUE).append(' ').append(Long.MAX_VALUE)
+                .append(' ').append(Integer.valueOf(42)).append(' ').append((Object) null);
+        Assert.assertEquals("0 " + Long.MIN_VALUE + " " + Long.MAX_VALUE + " 42 null",
+                writer.getBuffer().toString(StandardCharsets.UTF_8));
+    }
 }
@@ -22,20 +22,29 @@ import com.starrocks.analysis.TupleId;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.EsTable;
 import com.starrocks.catalog.Type;
+import com.starrocks.common.DdlException;
 import com.starrocks.connector.elasticsearch.EsShardPartitions;
 import com.starrocks.connector.elasticsearch.EsShardRouting;
 import com.starrocks.connector.elasticsearch.EsTestCase;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.ComputeNode;
 import com.starrocks.system.SystemInfoService;
+import com.starrocks.thrift.TEsScanRange;
+import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TScanRangeLocations;
 import mockit.Expectations;
 import mockit.Mocked;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 public class EsScanNodeTest extends EsTestCase {
@@ -50,6 +59,10 @@ public class EsScanNodeTest extends EsTestCase {
     public void setUp() {
         ComputeNode node1 = new ComputeNode(1, "127.0.0.1", 1000);
         node1.setAlive(true);
+        ComputeNode node2 = new ComputeNode(2, "127.0.0.2", 1000);
+        node2.setAlive(true);
+        ComputeNode node3 = new ComputeNode(3, "127.0.0.3", 1000);
+        node3.setAlive(true);
 
         new Expectations() {
             {
@@ -58,7 +71,7 @@ public class EsScanNodeTest extends EsTestCase {
                 minTimes = 0;
 
                 systemInfoService.backendAndComputeNodeStream();
-                result = Stream.of(node1);
+                result = Stream.of(node1, node2, node3);
             }
         };
 
@@ -95,4 +108,108 @@ public class EsScanNodeTest extends EsTestCase {
         esShardPartitions.addShardRouting(5, singleShardRouting);
         scanNode.computeShardLocations(selectedIndex);
     }
+
+    private EsTable createEsTable(String scrollSlices) throws DdlException {
+        List<Column> columns = Lists.newArrayList(new Column("k1", Type.BIGINT));
+        Map<String, String> props = new HashMap<>();
+        props.put(EsTable.KEY_HOSTS, "http://127.0.0.1:8200");
+        props.put(EsTable.KEY_INDEX, "doe");
+        props.put(EsTable.KEY_VERSION, "6.5.3");
+        props.put(EsTable.KEY_SCROLL_SLICES, scrollSlices);
+        return new EsTable(1L, "doe", columns, props, null);
+    }
+
+    private EsScanNode createScanNode(Analyzer analyzer, String scrollSlices) throws Exception {
+        TupleDescriptor td = new TupleDescriptor(new TupleId(0));
+        td.setTable(createEsTable(scrollSlices));
+        EsScanNode scanNode = new EsScanNode(new PlanNodeId(11), td, "EsScanNode");
+        scanNode.init(analyzer);
+        return scanNode;
+    }
+
+    // two shards, each has a replica on every node
+    private List<EsShardPartitions> createShardPartitions() {
+        EsShardPartitions esShardPartitions = new EsShardPartitions("doe");
+        for (int shardId = 0; shardId < 2; shardId++) {
+            List<EsShardRouting> shardRouting = Lists.newArrayList();
+            for (int i = 1; i <= 3; i++) {
+                EsShardRouting routing = new EsShardRouting("doe", shardId, i == 1, null, "node" + i);
+                routing.setHttpAddress(new TNetworkAddress("127.0.0." + i, 9200));
+                shardRouting.add(routing);
+            }
+            esShardPartitions.addShardRouting(shardId, shardRouting);
+        }
+        return Lists.newArrayList(esShardPartitions);
+    }
+
+    @Test
+    public void testComputeShardLocationsWithScrollSlices(@Mocked Analyzer analyzer) throws Exception {
+        EsScanNode scanNode = createScanNode(analyzer, "4");
+        List<TScanRangeLocations> result = scanNode.computeShardLocations(createShardPartitions());
+        Assert.assertEquals(8, result.size());
+
+        for (int shard = 0; shard < 2; shard++) {
+            List<TScanRangeLocations> slices = result.subList(shard * 4, shard * 4 + 4);
+            int shardId = slices.get(0).getScan_range().getEs_scan_range().getShard_id();
+            Set<Long> firstBackends = new HashSet<>();
+            for (int slice = 0; slice < 4; slice++) {
+                TEsScanRange esScanRange = slices.get(slice).getScan_range().getEs_scan_range();
+                Assert.assertEquals(shardId, esScanRange.getShard_id());
+                Assert.assertEquals(slice, esScanRange.getSlice_id());
+                Assert.assertEquals(4, esScanRange.getSlice_max());
+                Assert.assertEquals(3, slices.get(slice).getLocationsSize());
+                firstBackends.add(slices.get(slice).getLocations().get(0).getBackend_id());
+            }
+            // the slices of a shard rotate over its 3 co-located nodes
+            Assert.assertEquals(3, firstBackends.size());
+            Assert.assertEquals(slices.get(0).getLocations().get(0).getBackend_id(),
+                    slices.get(3).getLocations().get(0).getBackend_id());
+            Assert.assertEquals(slices.get(0).getLocations().get(1).getBackend_id(),
+                    slices.get(1).getLocations().get(0).getBackend_id());
+        }
+    }
+
+    @Test
+    public void testComputeShardLocationsWithLimit(@Mocked Analyzer analyzer) throws Exception {
+        EsScanNode scanNode = createScanNode(analyzer, "4");
+        scanNode.setLimit(10);
+        List<TScanRangeLocations> result = scanNode.computeShardLocations(createShardPartitions());
+        // a scan with limit is never sliced
+        Assert.assertEquals(2, result.size());
+        for (TScanRangeLocations locations : result) {
+            TEsScanRange esScanRange = locations.getScan_range().getEs_scan_range();
+            Assert.assertFalse(esScanRange.isSetSlice_id());
+            Assert.assertFalse(esScanRange.isSetSlice_max());
+        }
+    }
+
+    @Test
+    public void testComputeShardLocationsWithoutScrollSlices(@Mocked Analyzer analyzer) throws Exception {
+        EsScanNode scanNode = createScanNode(analyzer, "1");
+        List<TScanRangeLocations> result = scanNode.computeShardLocations(createShardPartitions());
+        Assert.assertEquals(2, result.size());
+        for (TScanRangeLocations locations : result) {
+            Assert.assertFalse(locations.getScan_range().getEs_scan_range().isSetSlice_id());
+        }
+        Assert.assertFalse(scanNode.getNodeExplainString("", TExplainLevel.VERBOSE).contains("SCROLL SLICES"));
+    }
+
+    @Test
+    public void testScrollSlicesExplain(@Mocked Analyzer analyzer) throws Exception {
+        EsScanNode scanNode = createScanNode(analyzer, "4");
+        Assert.assertTrue(scanNode.getNodeExplainString("", TExplainLevel.VERBOSE).contains("SCROLL SLICES: 4\n"));
+        scanNode.setLimit(10);
+        Assert.assertFalse(scanNode.getNodeExplainString("", TExplainLevel.VERBOSE).contains("SCROLL SLICES"));
+    }
+
+    @Test
+    public void testScrollSlicesProperty() throws Exception {
+        Assert.assertEquals(1, fakeEsTable("doe", "doe", "doc", Lists.newArrayList()).scrollSlices());
+        Assert.assertEquals(1, createEsTable("1").scrollSlices());
+        Assert.assertEquals(1024, createEsTable(" 1024 ").scrollSlices());
+        for (String invalid : new String[] {"0", "-1", "1025", "abc"}) {
+            DdlException e = Assert.assertThrows(DdlException.class, () -> createEsTable(invalid));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(EsTable.KEY_SCROLL_SLICES));
+        }
+    }
 }
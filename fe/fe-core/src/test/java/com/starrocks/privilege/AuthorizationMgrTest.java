@@ -1924,6 +1924,59 @@ public class AuthorizationMgrTest {
         }
     }
 
+    @Test
+    public void testPrivilegeCheckSnapshot() throws Exception {
+        AuthorizationMgr manager = ctx.getGlobalStateMgr().getAuthorizationMgr();
+        DDLStmtExecutor.execute(UtFrameUtils.parseStmtWithNewParser("create role snapshot_role", ctx), ctx);
+        DDLStmtExecutor.execute(UtFrameUtils.parseStmtWithNewParser("grant snapshot_role to test_user", ctx), ctx);
+
+        setCurrentUserAndRoles(ctx, testUser);
+        Assert.assertThrows(AccessDeniedException.class, () -> Authorizer.checkTableAction(
+                ctx.getCurrentUserIdentity(), ctx.getCurrentRoleIds(), DB_NAME, TABLE_NAME_1, PrivilegeType.SELECT));
+        PrivilegeCheckSnapshot snapshot = ctx.getPrivilegeCheckSnapshot();
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(manager.getPrivilegeVersion(), snapshot.getVersion());
+        // memoized denial, the snapshot is reused
+        Assert.assertThrows(AccessDeniedException.class, () -> Authorizer.checkTableAction(
+                ctx.getCurrentUserIdentity(), ctx.getCurrentRoleIds(), DB_NAME, TABLE_NAME_1, PrivilegeType.SELECT));
+        Assert.assertSame(snapshot, ctx.getPrivilegeCheckSnapshot());
+
+        // privilege granted to the role takes effect in the same session
+        setCurrentUserAndRoles(ctx, UserIdentity.ROOT);
+        DDLStmtExecutor.execute(UtFrameUtils.parseStmtWithNewParser(
+                "grant select on table db.tbl1 to role snapshot_role", ctx), ctx);
+        setCurrentUserAndRoles(ctx, testUser);
+        Authorizer.checkTableAction(
+                ctx.getCurrentUserIdentity(), ctx.getCurrentRoleIds(), DB_NAME, TABLE_NAME_1, PrivilegeType.SELECT);
+        Authorizer.checkAnyActionOnTable(ctx.getCurrentUserIdentity(), ctx.getCurrentRoleIds(),
+                new TableName(DB_NAME, TABLE_NAME_1));
+        Assert.assertNotSame(snapshot, ctx.getPrivilegeCheckSnapshot());
+        snapshot = ctx.getPrivilegeCheckSnapshot();
+        Assert.assertThrows(AccessDeniedException.class, () -> Authorizer.checkTableAction(
+                ctx.getCurrentUserIdentity(), ctx.getCurrentRoleIds(), DB_NAME, TABLE_NAME_1, PrivilegeType.DROP));
+        Assert.assertThrows(AccessDeniedException.class, () -> Authorizer.checkAnyActionOnTable(
+                ctx.getCurrentUserIdentity(), ctx.getCurrentRoleIds(), new TableName(DB_NAME, TABLE_NAME_0)));
+        Assert.assertSame(snapshot, ctx.getPrivilegeCheckSnapshot());
+
+        // so does revoking the role from the user
+        setCurrentUserAndRoles(ctx, UserIdentity.ROOT);
+        DDLStmtExecutor.execute(UtFrameUtils.parseStmtWithNewParser("revoke snapshot_role from test_user", ctx), ctx);
+        setCurrentUserAndRoles(ctx, testUser);
+        Assert.assertThrows(AccessDeniedException.class, () -> Authorizer.checkTableAction(
+                ctx.getCurrentUserIdentity(), ctx.getCurrentRoleIds(), DB_NAME, TABLE_NAME_1, PrivilegeType.SELECT));
+
+        // checks without snapshot still work
+        Config.authorization_enable_priv_check_snapshot = false;
+        try {
+            ctx.setPrivilegeCheckSnapshot(null);
+            Assert.assertThrows(AccessDeniedException.class, () -> Authorizer.checkTableAction(
+                    ctx.getCurrentUserIdentity(), ctx.getCurrentRoleIds(), DB_NAME, TABLE_NAME_1, PrivilegeType.SELECT));
+            Assert.assertNull(ctx.getPrivilegeCheckSnapshot());
+        } finally {
+            Config.authorization_enable_priv_check_snapshot = true;
+        }
+    }
+
     @Test(expected = AccessDeniedException.class)
     public void testSystemPrivExec() throws AccessDeniedException {
         new MockUp<AuthorizationMgr>() {
@@ -38,7 +38,11 @@ import com.starrocks.common.Config;
 import com.starrocks.common.util.DigitalVersion;
 import com.starrocks.plugin.AuditEvent;
 import com.starrocks.plugin.AuditEvent.EventType;
+import com.starrocks.plugin.AuditPlugin;
+import com.starrocks.plugin.Plugin;
 import com.starrocks.plugin.PluginInfo;
+import com.starrocks.plugin.PluginInfo.PluginType;
+import com.starrocks.plugin.PluginMgr;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.utframe.UtFrameUtils;
 import org.junit.Assert;
@@ -46,6 +50,8 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class AuditEventProcessorTest {
 
@@ -184,4 +190,94 @@ public class AuditEventProcessorTest {
         long total = System.currentTimeMillis() - start;
         System.out.println("total(ms): " + total + ", avg: " + total / 10000.0);
     }
+
+    private static class CollectingAuditPlugin extends Plugin implements AuditPlugin {
+        private final List<List<AuditEvent>> batches = new ArrayList<>();
+
+        @Override
+        public boolean eventFilter(EventType type) {
+            return type == EventType.AFTER_QUERY;
+        }
+
+        @Override
+        public void exec(AuditEvent event) {
+            execBatch(List.of(event));
+        }
+
+        @Override
+        public synchronized void execBatch(List<AuditEvent> events) {
+            batches.add(new ArrayList<>(events));
+        }
+
+        synchronized List<List<AuditEvent>> getBatches() {
+            return new ArrayList<>(batches);
+        }
+    }
+
+    @Test
+    public void testQueueCapacityRoundedDown() {
+        int capacity = Config.audit_event_queue_capacity;
+        String policy = Config.audit_event_queue_overflow_policy;
+        Config.audit_event_queue_capacity = 10;
+        Config.audit_event_queue_overflow_policy = AuditEventProcessor.OVERFLOW_POLICY_DROP;
+        try {
+            AuditEventProcessor processor = new AuditEventProcessor(new PluginMgr());
+            for (int i = 0; i < 10; i++) {
+                processor.handleAuditEvent(new AuditEvent.AuditEventBuilder().setEventType(EventType.AFTER_QUERY)
+                        .build());
+            }
+            Assert.assertEquals(8, processor.getQueueSize());
+            Assert.assertEquals(2, processor.getDroppedEventNum());
+        } finally {
+            Config.audit_event_queue_capacity = capacity;
+            Config.audit_event_queue_overflow_policy = policy;
+        }
+    }
+
+    @Test
+    public void testBatchDeliveryAndOverflow() throws Exception {
+        int capacity = Config.audit_event_queue_capacity;
+        String policy = Config.audit_event_queue_overflow_policy;
+        Config.audit_event_queue_capacity = 4;
+        Config.audit_event_queue_overflow_policy = AuditEventProcessor.OVERFLOW_POLICY_DROP;
+        AuditEventProcessor processor = null;
+        try {
+            PluginMgr pluginMgr = new PluginMgr();
+            CollectingAuditPlugin plugin = new CollectingAuditPlugin();
+            pluginMgr.registerBuiltinPlugin(new PluginInfo("collecting_audit_plugin", PluginType.AUDIT, ""), plugin);
+            processor = new AuditEventProcessor(pluginMgr);
+
+            // not started yet, the queue overflows
+            for (int i = 0; i < 6; i++) {
+                EventType type = i == 0 ? EventType.CONNECTION : EventType.AFTER_QUERY;
+                processor.handleAuditEvent(new AuditEvent.AuditEventBuilder().setEventType(type)
+                        .setReturnRows(i).build());
+            }
+            Assert.assertEquals(4, processor.getQueueSize());
+            Assert.assertEquals(2, processor.getDroppedEventNum());
+            Thread.sleep(20);
+            Assert.assertTrue(processor.getLagMs() >= 20);
+
+            processor.start();
+            for (int i = 0; i < 100 && plugin.getBatches().isEmpty(); i++) {
+                Thread.sleep(50);
+            }
+            // the queued events are handed at once, without the filtered connection event
+            List<List<AuditEvent>> batches = plugin.getBatches();
+            Assert.assertEquals(1, batches.size());
+            Assert.assertEquals(3, batches.get(0).size());
+            Assert.assertEquals(1, batches.get(0).get(0).returnRows);
+            Assert.assertEquals(0, processor.getQueueSize());
+            for (int i = 0; i < 100 && processor.getLagMs() > 0; i++) {
+                Thread.sleep(50);
+            }
+            Assert.assertEquals(0, processor.getLagMs());
+        } finally {
+            if (processor != null) {
+                processor.stop();
+            }
+            Config.audit_event_queue_capacity = capacity;
+            Config.audit_event_queue_overflow_policy = policy;
+        }
+    }
 }
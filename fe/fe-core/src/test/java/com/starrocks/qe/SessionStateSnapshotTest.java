@@ -0,0 +1,128 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe;
+
+import com.starrocks.analysis.StringLiteral;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.ast.SetType;
+import com.starrocks.sql.ast.SystemVariable;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class SessionStateSnapshotTest {
+    @Mocked
+    private GlobalStateMgr globalStateMgr;
+
+    private final VariableMgr variableMgr = new VariableMgr();
+
+    @Before
+    public void setUp() {
+        new Expectations() {
+            {
+                globalStateMgr.getVariableMgr();
+                minTimes = 0;
+                result = variableMgr;
+            }
+        };
+    }
+
+    private static void setVariable(ConnectContext ctx, String name, String value) throws Exception {
+        ctx.modifySystemVariable(new SystemVariable(SetType.SESSION, name, new StringLiteral(value)), true);
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        ConnectContext ctx = new ConnectContext();
+        Assert.assertTrue(ctx.getSessionStateSnapshot().isEmpty());
+
+        setVariable(ctx, SessionVariable.QUERY_TIMEOUT, "600");
+        setVariable(ctx, SessionVariable.ENABLE_PROFILE, "true");
+        setVariable(ctx, SessionVariable.SQL_MODE, "ONLY_FULL_GROUP_BY,STRICT_TRANS_TABLES");
+        // equal to the global value, still kept because the global value may change
+        String execMemLimit = String.valueOf(ctx.getSessionVariable().getMaxExecMemByte());
+        setVariable(ctx, SessionVariable.EXEC_MEM_LIMIT, execMemLimit);
+
+        SessionStateSnapshot snapshot = ctx.getSessionStateSnapshot();
+        Map<String, String> variables = snapshot.getVariables();
+        Assert.assertEquals(4, variables.size());
+        Assert.assertEquals("600", variables.get(SessionVariable.QUERY_TIMEOUT));
+        Assert.assertEquals("true", variables.get(SessionVariable.ENABLE_PROFILE));
+        Assert.assertEquals(execMemLimit, variables.get(SessionVariable.EXEC_MEM_LIMIT));
+        // cached until the session variables change
+        Assert.assertSame(snapshot, ctx.getSessionStateSnapshot());
+        Assert.assertSame(snapshot.encode(), snapshot.encode());
+
+        SessionStateSnapshot decoded = SessionStateSnapshot.decode(snapshot.getVersion(), snapshot.encode());
+        Assert.assertEquals(snapshot.getVersion(), decoded.getVersion());
+        Assert.assertEquals(variables, decoded.getVariables());
+
+        ConnectContext restored = new ConnectContext();
+        decoded.restore(restored);
+        Assert.assertEquals(600, restored.getSessionVariable().getQueryTimeoutS());
+        Assert.assertTrue(restored.getSessionVariable().isEnableProfile());
+        Assert.assertEquals(ctx.getSessionVariable().getSqlMode(), restored.getSessionVariable().getSqlMode());
+        Assert.assertEquals(variables, restored.getSessionStateSnapshot().getVariables());
+
+        setVariable(ctx, SessionVariable.QUERY_TIMEOUT, "700");
+        SessionStateSnapshot changed = ctx.getSessionStateSnapshot();
+        Assert.assertNotEquals(snapshot.getVersion(), changed.getVersion());
+        Assert.assertEquals("700", changed.getVariables().get(SessionVariable.QUERY_TIMEOUT));
+
+        // set back to the global value explicitly
+        setVariable(ctx, SessionVariable.ENABLE_PROFILE, "false");
+        Assert.assertEquals("false", ctx.getSessionStateSnapshot().getVariables().get(SessionVariable.ENABLE_PROFILE));
+
+        // a restored explicit value is not replaced by a different global value
+        variableMgr.getDefaultSessionVariable().setEnableProfile(true);
+        ConnectContext restoredAfterGlobalChange = new ConnectContext();
+        ctx.getSessionStateSnapshot().restore(restoredAfterGlobalChange);
+        Assert.assertFalse(restoredAfterGlobalChange.getSessionVariable().isEnableProfile());
+        variableMgr.getDefaultSessionVariable().setEnableProfile(false);
+
+        ctx.resetSessionVariable();
+        Assert.assertTrue(ctx.getSessionStateSnapshot().isEmpty());
+    }
+
+    @Test
+    public void testForwarded() throws Exception {
+        ConnectContext ctx = new ConnectContext();
+        setVariable(ctx, SessionVariable.QUERY_TIMEOUT, "600");
+        SessionStateSnapshot snapshot = ctx.getSessionStateSnapshot();
+        String sessionId = ctx.getSessionId().toString();
+
+        Assert.assertNull(SessionStateSnapshot.getForwarded(sessionId, snapshot.getVersion()));
+        SessionStateSnapshot.putForwarded(sessionId, snapshot);
+        Assert.assertSame(snapshot, SessionStateSnapshot.getForwarded(sessionId, snapshot.getVersion()));
+        Assert.assertNull(SessionStateSnapshot.getForwarded(sessionId, snapshot.getVersion() + 1));
+
+        Assert.assertFalse(ctx.isSessionStateForwarded("127.0.0.1:9020", snapshot.getVersion()));
+        ctx.setSessionStateForwarded("127.0.0.1:9020", snapshot.getVersion());
+        Assert.assertTrue(ctx.isSessionStateForwarded("127.0.0.1:9020", snapshot.getVersion()));
+        Assert.assertFalse(ctx.isSessionStateForwarded("127.0.0.2:9020", snapshot.getVersion()));
+        setVariable(ctx, SessionVariable.QUERY_TIMEOUT, "700");
+        Assert.assertFalse(ctx.isSessionStateForwarded("127.0.0.1:9020", ctx.getSessionStateSnapshot().getVersion()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeUnknownFormat() throws Exception {
+        SessionStateSnapshot.decode(1, new byte[] {100, 0, 0, 0, 0});
+    }
+}
@@ -0,0 +1,242 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.rpc;
+
+import com.starrocks.common.Config;
+import com.starrocks.metric.Metric;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.thrift.HeartbeatService;
+import com.starrocks.thrift.TBackendInfo;
+import com.starrocks.thrift.THeartbeatResult;
+import com.starrocks.thrift.TMasterInfo;
+import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TStatus;
+import com.starrocks.thrift.TStatusCode;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.server.ServerContext;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.server.TServerEventHandler;
+import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TServerSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ThriftMultiplexedClientTest {
+    private TServer server;
+    private Thread serverThread;
+    private TNetworkAddress address;
+    private final AtomicInteger numConnections = new AtomicInteger();
+    private final int maxInFlight = Config.thrift_rpc_multiplexed_max_in_flight_per_endpoint;
+
+    /**
+     * Replies the backend id of the request as be port, and sleeps -backend_id ms for negative ids.
+     */
+    private static class HeartbeatHandler implements HeartbeatService.Iface {
+        @Override
+        public THeartbeatResult heartbeat(TMasterInfo masterInfo) throws TException {
+            long backendId = masterInfo.getBackend_id();
+            if (backendId < 0) {
+                try {
+                    Thread.sleep(-backendId);
+                } catch (InterruptedException e) {
+                    throw new TException(e);
+                }
+            }
+            return new THeartbeatResult(new TStatus(TStatusCode.OK), new TBackendInfo((int) backendId, 0));
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        TServerSocket serverSocket = new TServerSocket(0);
+        TThreadPoolServer.Args args = new TThreadPoolServer.Args(serverSocket)
+                .processor(new HeartbeatService.Processor<>(new HeartbeatHandler()));
+        server = new TThreadPoolServer(args);
+        server.setServerEventHandler(new TServerEventHandler() {
+            @Override
+            public void preServe() {
+            }
+
+            @Override
+            public ServerContext createContext(TProtocol input, TProtocol output) {
+                numConnections.incrementAndGet();
+                return null;
+            }
+
+            @Override
+            public void deleteContext(ServerContext serverContext, TProtocol input, TProtocol output) {
+            }
+
+            @Override
+            public void processContext(ServerContext serverContext, TTransport inputTransport,
+                                       TTransport outputTransport) {
+            }
+        });
+        serverThread = new Thread(server::serve);
+        serverThread.setDaemon(true);
+        serverThread.start();
+        address = new TNetworkAddress("127.0.0.1", serverSocket.getServerSocket().getLocalPort());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Config.thrift_rpc_multiplexed_max_in_flight_per_endpoint = maxInFlight;
+        server.stop();
+        serverThread.join();
+    }
+
+    private static CompletableFuture<THeartbeatResult> heartbeat(ThriftMultiplexedClient client,
+                                                                 TNetworkAddress address, long backendId,
+                                                                 int timeoutMs) {
+        TMasterInfo masterInfo = new TMasterInfo(new TNetworkAddress("127.0.0.1", 9020), 1L);
+        masterInfo.setBackend_id(backendId);
+        return client.call(address, "heartbeat", new HeartbeatService.heartbeat_args(masterInfo),
+                new HeartbeatService.heartbeat_result(), timeoutMs);
+    }
+
+    @Test
+    public void testPipelinedCalls() throws Exception {
+        ThriftMultiplexedClient client = new ThriftMultiplexedClient("HeartbeatService", 5000);
+        Config.thrift_rpc_multiplexed_max_in_flight_per_endpoint = 4;
+        List<CompletableFuture<THeartbeatResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(heartbeat(client, address, i, 5000));
+        }
+        for (int i = 0; i < 100; i++) {
+            THeartbeatResult result = ThriftRPCRequestExecutor.waitMultiplexed(futures.get(i));
+            Assert.assertEquals(i, result.getBackend_info().getBe_port());
+        }
+        // all the requests share one connection
+        Assert.assertEquals(1, numConnections.get());
+        Assert.assertEquals(0, client.getInFlightCount(address));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        ThriftMultiplexedClient client = new ThriftMultiplexedClient("HeartbeatService", 5000);
+        CompletableFuture<THeartbeatResult> slow = heartbeat(client, address, -1000, 100);
+        // pipelined after the slow request on the same connection
+        CompletableFuture<THeartbeatResult> next = heartbeat(client, address, 7, 5000);
+        TTransportException e = Assert.assertThrows(TTransportException.class,
+                () -> ThriftRPCRequestExecutor.waitMultiplexed(slow));
+        Assert.assertEquals(TTransportException.TIMED_OUT, e.getType());
+        // the timed out request is in flight until its late response arrives
+        Assert.assertEquals(2, client.getInFlightCount(address));
+
+        // only the timed out request fails, the connection is kept for the others
+        Assert.assertEquals(7, ThriftRPCRequestExecutor.waitMultiplexed(next).getBackend_info().getBe_port());
+        THeartbeatResult result = ThriftRPCRequestExecutor.callMultiplexed(client, address, 5000, "heartbeat",
+                new HeartbeatService.heartbeat_args(new TMasterInfo(new TNetworkAddress("127.0.0.1", 9020), 1L)
+                        .setBackend_id(8)),
+                new HeartbeatService.heartbeat_result());
+        Assert.assertEquals(8, result.getBackend_info().getBe_port());
+        Assert.assertEquals(1, numConnections.get());
+        Assert.assertEquals(0, client.getInFlightCount(address));
+    }
+
+    @Test
+    public void testServerNeverResponds() throws Exception {
+        Config.thrift_rpc_multiplexed_max_in_flight_per_endpoint = 4;
+        AtomicInteger accepted = new AtomicInteger();
+        List<Socket> sockets = new CopyOnWriteArrayList<>();
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            // accepts the connections and never reads or responds
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        sockets.add(serverSocket.accept());
+                        accepted.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    // closed
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+            TNetworkAddress hungAddress = new TNetworkAddress("127.0.0.1", serverSocket.getLocalPort());
+            ThriftMultiplexedClient client = new ThriftMultiplexedClient("HungService", 5000);
+            List<CompletableFuture<THeartbeatResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(heartbeat(client, hungAddress, i, 200));
+            }
+            CompletableFuture<THeartbeatResult> waiting = heartbeat(client, hungAddress, 4, 60000);
+            Assert.assertEquals(4, client.getInFlightCount(hungAddress));
+
+            for (CompletableFuture<THeartbeatResult> future : futures) {
+                Assert.assertThrows(TTransportException.class, () -> ThriftRPCRequestExecutor.waitMultiplexed(future));
+            }
+            // the timed out requests keep the waiting one off the stuck connection, which is closed once they pile
+            // up, and the waiting request goes to a new connection
+            long deadline = System.currentTimeMillis() + 10000;
+            while (accepted.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(2, accepted.get());
+            Assert.assertFalse(waiting.isDone());
+            Assert.assertEquals(1, client.getInFlightCount(hungAddress));
+
+            client.removeEndpoint(hungAddress);
+            Assert.assertThrows(TTransportException.class, () -> ThriftRPCRequestExecutor.waitMultiplexed(waiting));
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveEndpoint() throws Exception {
+        ThriftMultiplexedClient client = new ThriftMultiplexedClient("RemovedService", 5000);
+        ThriftRPCRequestExecutor.waitMultiplexed(heartbeat(client, address, 1, 5000));
+        Assert.assertTrue(MetricRepo.getMetricsByName("thrift_rpc_multiplexed_requests_total").stream()
+                .anyMatch(metric -> isMetricOf(metric, "RemovedService")));
+
+        CompletableFuture<THeartbeatResult> slow = heartbeat(client, address, -1000, 5000);
+        client.removeEndpoint(address);
+        Assert.assertThrows(TTransportException.class, () -> ThriftRPCRequestExecutor.waitMultiplexed(slow));
+        Assert.assertEquals(0, client.getInFlightCount(address));
+        for (String name : new String[] {"thrift_rpc_multiplexed_requests_total", "thrift_rpc_multiplexed_in_flight",
+                "thrift_rpc_multiplexed_latency_ms"}) {
+            Assert.assertTrue(MetricRepo.getMetricsByName(name).stream()
+                    .noneMatch(metric -> isMetricOf(metric, "RemovedService")));
+        }
+    }
+
+    private static boolean isMetricOf(Metric<?> metric, String serviceName) {
+        return metric.getLabels().stream().anyMatch(label -> label.getValue().equals(serviceName));
+    }
+
+    @Test
+    public void testConnectFailure() {
+        ThriftMultiplexedClient client = new ThriftMultiplexedClient("HeartbeatService", 1000);
+        server.stop();
+        Assert.assertThrows(TTransportException.class,
+                () -> ThriftRPCRequestExecutor.waitMultiplexed(heartbeat(client, address, 1, 1000)));
+    }
+}
@@ -292,4 +292,98 @@ public class TaskRunSchedulerTest {
         System.out.println(taskRunScheduler);
         Assert.assertEquals(N, pendingTaskRunsCount + runningTaskRunsCount);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testScheduledPendingTaskRunWithFairSchedule() {
+        Task heavyTask = new Task("heavy");
+        heavyTask.setDefinition("select 1");
+        heavyTask.setCreateUser("heavy_user");
+        Task lightTask = new Task("light");
+        lightTask.setDefinition("select 2");
+        lightTask.setCreateUser("light_user");
+
+        TaskRunScheduler scheduler = new TaskRunScheduler();
+        // heavy user's task runs are older and have higher priority
+        for (int i = 0; i < N; i++) {
+            scheduler.addPendingTaskRun(makeTaskRun(i, heavyTask, makeExecuteOption(true, false, 1), i));
+        }
+        for (int i = N; i < 2 * N; i++) {
+            scheduler.addPendingTaskRun(makeTaskRun(i, lightTask, makeExecuteOption(true, false, 0), i));
+        }
+
+        boolean fairScheduleEnable = Config.task_runs_fair_schedule_enable;
+        int concurrency = Config.task_runs_concurrency;
+        try {
+            Config.task_runs_fair_schedule_enable = true;
+            Config.task_runs_concurrency = 4;
+            scheduler.scheduledPendingTaskRun(taskRun -> { });
+            Set<TaskRun> running = scheduler.getCopiedRunningTaskRuns();
+            Assert.assertEquals(4, running.size());
+            Assert.assertEquals(2, running.stream().filter(t -> t.getOwner().equals("heavy_user")).count());
+            Assert.assertEquals(2, running.stream().filter(t -> t.getOwner().equals("light_user")).count());
+        } finally {
+            Config.task_runs_fair_schedule_enable = fairScheduleEnable;
+            Config.task_runs_concurrency = concurrency;
+        }
+    }
+
+    @Test
+    public void testScheduledPendingTaskRunWithFairScheduleWeights() {
+        Task heavyTask = new Task("heavy");
+        heavyTask.setDefinition("select 1");
+        heavyTask.setCreateUser("heavy_user");
+        Task lightTask = new Task("light");
+        lightTask.setDefinition("select 2");
+        lightTask.setCreateUser("light_user");
+
+        TaskRunScheduler scheduler = new TaskRunScheduler();
+        for (int i = 0; i < N; i++) {
+            scheduler.addPendingTaskRun(makeTaskRun(i, heavyTask, makeExecuteOption(true, false, 0), i));
+            scheduler.addPendingTaskRun(makeTaskRun(N + i, lightTask, makeExecuteOption(true, false, 0), i));
+        }
+
+        boolean fairScheduleEnable = Config.task_runs_fair_schedule_enable;
+        String weights = Config.task_runs_fair_schedule_weights;
+        int concurrency = Config.task_runs_concurrency;
+        try {
+            Config.task_runs_fair_schedule_enable = true;
+            Config.task_runs_fair_schedule_weights = "light_user:3, invalid";
+            Config.task_runs_concurrency = 4;
+            scheduler.scheduledPendingTaskRun(taskRun -> { });
+            Set<TaskRun> running = scheduler.getCopiedRunningTaskRuns();
+            Assert.assertEquals(1, running.stream().filter(t -> t.getOwner().equals("heavy_user")).count());
+            Assert.assertEquals(3, running.stream().filter(t -> t.getOwner().equals("light_user")).count());
+        } finally {
+            Config.task_runs_fair_schedule_enable = fairScheduleEnable;
+            Config.task_runs_fair_schedule_weights = weights;
+            Config.task_runs_concurrency = concurrency;
+        }
+    }
+
+    @Test
+    public void testScheduledPendingTaskRunWithPriorityAging() {
+        Task task = new Task("test");
+        task.setDefinition("select 1");
+        long now = System.currentTimeMillis();
+        TaskRun oldTaskRun = makeTaskRun(1, task, makeExecuteOption(true, false, 0), now - 600 * 1000L);
+        TaskRun newTaskRun = makeTaskRun(2, task, makeExecuteOption(true, false, 5), now);
+
+        TaskRunScheduler scheduler = new TaskRunScheduler();
+        scheduler.addPendingTaskRun(oldTaskRun);
+        scheduler.addPendingTaskRun(newTaskRun);
+        // without aging, the higher priority is scheduled first
+        Assert.assertEquals(newTaskRun, scheduler.getCopiedPendingTaskRuns().get(0));
+
+        int agingInterval = Config.task_runs_priority_aging_interval_second;
+        int concurrency = Config.task_runs_concurrency;
+        try {
+            Config.task_runs_priority_aging_interval_second = 60;
+            Config.task_runs_concurrency = 1;
+            scheduler.scheduledPendingTaskRun(taskRun -> Assert.assertEquals(oldTaskRun, taskRun));
+            Assert.assertTrue(scheduler.isTaskRunning(1));
+        } finally {
+            Config.task_runs_priority_aging_interval_second = agingInterval;
+            Config.task_runs_concurrency = concurrency;
+        }
+    }
+}
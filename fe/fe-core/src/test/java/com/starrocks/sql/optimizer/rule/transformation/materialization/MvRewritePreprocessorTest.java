@@ -27,6 +27,7 @@ import com.starrocks.sql.optimizer.CachingMvPlanContextBuilder;
 import com.starrocks.sql.optimizer.MaterializationContext;
 import com.starrocks.sql.optimizer.MaterializedViewOptimizer;
 import com.starrocks.sql.optimizer.Memo;
+import com.starrocks.sql.optimizer.MvPlanSignatureIndex;
 import com.starrocks.sql.optimizer.MvRewritePreprocessor;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.Optimizer;
@@ -712,4 +713,66 @@ public class MvRewritePreprocessorTest extends MvRewriteTestBase {
             Assert.assertEquals(1, mvWithPlanContexts.size());
         });
     }
+
+    @Test
+    public void testPruneRelatedMVsBySignature() {
+        List<String> mvs = ImmutableList.of(
+                "create materialized view sig_mv_agg distributed by random as " +
+                        "select k1, sum(v1) as s from t1 group by k1;",
+                "create materialized view sig_mv_range distributed by random as " +
+                        "select k1, v1, v2 from t1 where v1 > 10;"
+        );
+        starRocksAssert.withMaterializedViews(mvs, (obj) -> {
+            MaterializedView mvAgg = getMv(DB_NAME, "sig_mv_agg");
+            MaterializedView mvRange = getMv(DB_NAME, "sig_mv_range");
+            // signatures are built with plan contexts
+            Assert.assertNull(MvPlanSignatureIndex.getInstance().get(mvAgg));
+            CachingMvPlanContextBuilder.getInstance().getPlanContext(mvAgg, true);
+            CachingMvPlanContextBuilder.getInstance().getPlanContext(mvRange, true);
+            Assert.assertNotNull(MvPlanSignatureIndex.getInstance().get(mvAgg));
+            Assert.assertNotNull(MvPlanSignatureIndex.getInstance().get(mvRange));
+            Set<MaterializedView> relatedMVs = Sets.newLinkedHashSet(mvAgg, mvRange);
+
+            boolean enableUnionRewrite = connectContext.getSessionVariable().isEnableMaterializedViewUnionRewrite();
+            try {
+                // aggregate mv can not rewrite the query without aggregation
+                {
+                    String query = "select k1, v1 from t1 where v1 > 20";
+                    Pair<MvRewritePreprocessor, OptExpression> result = buildMvProcessor(query);
+                    Set<MaterializedView> matched = result.first.pruneRelatedMVsBySignature(relatedMVs, result.second);
+                    Assert.assertEquals(1, matched.size());
+                    Assert.assertTrue(containsMV(matched, "sig_mv_range"));
+                }
+
+                // disjoint predicate ranges can only be compensated by union rewrite
+                {
+                    String query = "select k1, sum(v1) from t1 where v1 < 5 group by k1";
+                    Pair<MvRewritePreprocessor, OptExpression> result = buildMvProcessor(query);
+                    connectContext.getSessionVariable().setEnableMaterializedViewUnionRewrite(true);
+                    Set<MaterializedView> matched = result.first.pruneRelatedMVsBySignature(relatedMVs, result.second);
+                    Assert.assertEquals(2, matched.size());
+
+                    connectContext.getSessionVariable().setEnableMaterializedViewUnionRewrite(false);
+                    matched = result.first.pruneRelatedMVsBySignature(relatedMVs, result.second);
+                    Assert.assertEquals(1, matched.size());
+                    Assert.assertTrue(containsMV(matched, "sig_mv_agg"));
+                }
+
+                // signatures are removed when mv is inactive and mvs without signature are kept
+                {
+                    mvRange.setInactiveAndReason("test");
+                    Assert.assertNull(MvPlanSignatureIndex.getInstance().get(mvRange));
+                    mvRange.setActive();
+
+                    String query = "select k1, v1 from t1 where v1 < 5";
+                    Pair<MvRewritePreprocessor, OptExpression> result = buildMvProcessor(query);
+                    Set<MaterializedView> matched = result.first.pruneRelatedMVsBySignature(relatedMVs, result.second);
+                    Assert.assertEquals(1, matched.size());
+                    Assert.assertTrue(containsMV(matched, "sig_mv_range"));
+                }
+            } finally {
+                connectContext.getSessionVariable().setEnableMaterializedViewUnionRewrite(enableUnionRewrite);
+            }
+        });
+    }
 }
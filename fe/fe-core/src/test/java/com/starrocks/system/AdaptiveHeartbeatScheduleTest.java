@@ -0,0 +1,98 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.system;
+
+import com.starrocks.common.Config;
+import com.starrocks.system.HeartbeatResponse.AliveStatus;
+import com.starrocks.thrift.TStatusCode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class AdaptiveHeartbeatScheduleTest {
+    private final int heartbeatTimeoutSecond = Config.heartbeat_timeout_second;
+    private final int heartbeatStableIntervalSecond = Config.heartbeat_stable_interval_second;
+
+    @After
+    public void tearDown() {
+        Config.heartbeat_timeout_second = heartbeatTimeoutSecond;
+        Config.heartbeat_stable_interval_second = heartbeatStableIntervalSecond;
+    }
+
+    private static HeartbeatResponse ok() {
+        return new BackendHbResponse(1, 9060, 8040, 8060, 0, System.currentTimeMillis(), "v", 8, 1024L);
+    }
+
+    private static HeartbeatResponse failed(AliveStatus aliveStatus) {
+        HeartbeatResponse response = new BackendHbResponse(1, TStatusCode.TIMEOUT, "heartbeat timeout");
+        response.aliveStatus = aliveStatus;
+        return response;
+    }
+
+    @Test
+    public void testIntervals() {
+        Config.heartbeat_timeout_second = 4;
+        Config.heartbeat_stable_interval_second = 20;
+        AdaptiveHeartbeatSchedule schedule = new AdaptiveHeartbeatSchedule();
+        String node = "be-1";
+        long now = 100000L;
+        Assert.assertTrue(schedule.isDue(node, now));
+
+        // a new node is checked every heartbeat_timeout_second
+        schedule.onResponse(node, ok(), now);
+        long interval = schedule.getNextHeartbeatMs(node) - now;
+        Assert.assertTrue(interval >= 3600 && interval <= 4400);
+        Assert.assertFalse(schedule.isDue(node, now + 3000));
+        Assert.assertTrue(schedule.isDue(node, now + 4400));
+        Assert.assertEquals(schedule.getNextHeartbeatMs(node), schedule.nextDueMs(now));
+
+        // a stable node is checked every heartbeat_stable_interval_second
+        for (int i = 1; i < AdaptiveHeartbeatSchedule.STABLE_ROUNDS; i++) {
+            schedule.onResponse(node, ok(), now);
+        }
+        interval = schedule.getNextHeartbeatMs(node) - now;
+        Assert.assertTrue(interval >= 18000 && interval <= 22000);
+
+        // a suspect node is checked every heartbeat_timeout_second / 4
+        schedule.onResponse(node, failed(AliveStatus.ALIVE), now);
+        interval = schedule.getNextHeartbeatMs(node) - now;
+        Assert.assertTrue(interval >= 900 && interval <= 1100);
+
+        schedule.retain(List.of("be-2"));
+        Assert.assertTrue(schedule.isDue(node, now));
+    }
+
+    @Test
+    public void testFailureDetectionLatency() {
+        AdaptiveHeartbeatSchedule schedule = new AdaptiveHeartbeatSchedule();
+        String node = "be-1";
+        // never succeeded
+        Assert.assertEquals(-1, schedule.onResponse(node, failed(AliveStatus.NOT_ALIVE), 1000L));
+
+        Assert.assertEquals(-1, schedule.onResponse(node, ok(), 2000L));
+        // still alive during retries
+        Assert.assertEquals(-1, schedule.onResponse(node, failed(AliveStatus.ALIVE), 3000L));
+        Assert.assertEquals(2000L, schedule.onResponse(node, failed(AliveStatus.NOT_ALIVE), 4000L));
+        // only reported once
+        Assert.assertEquals(-1, schedule.onResponse(node, failed(AliveStatus.NOT_ALIVE), 5000L));
+
+        // frontends and brokers don't carry alive status
+        Assert.assertEquals(-1, schedule.onResponse("fe-1",
+                new FrontendHbResponse("fe-1", 9030, 9020, 1, 1000L, 1000L, "v"), 1000L));
+        Assert.assertEquals(500L, schedule.onResponse("fe-1", new FrontendHbResponse("fe-1", "not ready"), 1500L));
+    }
+}
@@ -0,0 +1,128 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.task;
+
+import com.starrocks.common.Config;
+import com.starrocks.thrift.TBackend;
+import com.starrocks.thrift.TStorageMedium;
+import com.starrocks.thrift.TTaskType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+public class AgentTaskDispatcherTest {
+    private static final long BACKEND_ID = 10001L;
+
+    private final long windowMs = Config.agent_task_dispatch_window_ms;
+    private final int maxBatchSize = Config.agent_task_dispatch_max_batch_size;
+    private final int maxInFlight = Config.agent_task_dispatch_max_in_flight_per_backend;
+
+    private final Queue<Runnable> pendingRpcs = new ArrayDeque<>();
+    private final List<List<AgentTask>> sentBatches = new ArrayList<>();
+    private AgentTaskDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        // buffered tasks are only flushed by urgent tasks or finished batches in this test
+        Config.agent_task_dispatch_window_ms = 60000L;
+        Config.agent_task_dispatch_max_batch_size = 2;
+        Config.agent_task_dispatch_max_in_flight_per_backend = 2;
+        dispatcher = new AgentTaskDispatcher(pendingRpcs::add,
+                batchTask -> sentBatches.add(batchTask.getAllTasks()), false);
+    }
+
+    @After
+    public void tearDown() {
+        Config.agent_task_dispatch_window_ms = windowMs;
+        Config.agent_task_dispatch_max_batch_size = maxBatchSize;
+        Config.agent_task_dispatch_max_in_flight_per_backend = maxInFlight;
+    }
+
+    private static AgentTask cloneTask(long tabletId) {
+        return new CloneTask(BACKEND_ID, "127.0.0.1", 1L, 2L, 3L, 4L, tabletId, 0,
+                List.of(new TBackend("host1", 8290, 8390)), TStorageMedium.HDD, -1, 3600);
+    }
+
+    @Test
+    public void testLanes() {
+        Assert.assertEquals(AgentTaskDispatcher.Lane.URGENT, AgentTaskDispatcher.laneOf(TTaskType.PUBLISH_VERSION));
+        Assert.assertEquals(AgentTaskDispatcher.Lane.URGENT, AgentTaskDispatcher.laneOf(TTaskType.CLONE));
+        Assert.assertEquals(AgentTaskDispatcher.Lane.BULK, AgentTaskDispatcher.laneOf(TTaskType.CREATE));
+        Assert.assertEquals(AgentTaskDispatcher.Lane.BULK, AgentTaskDispatcher.laneOf(TTaskType.DROP));
+        Assert.assertEquals(AgentTaskDispatcher.Lane.NORMAL, AgentTaskDispatcher.laneOf(TTaskType.ALTER));
+    }
+
+    @Test
+    public void testCoalesceAndPriority() {
+        AgentBatchTask dropBatch = new AgentBatchTask();
+        for (int i = 0; i < 5; i++) {
+            dropBatch.addTask(new DropReplicaTask(BACKEND_ID, 100L + i, 0, false));
+        }
+        dispatcher.submit(dropBatch);
+        // buffered
+        Assert.assertEquals(5, dispatcher.getQueuedTaskNum(BACKEND_ID, TTaskType.DROP));
+        Assert.assertTrue(pendingRpcs.isEmpty());
+
+        // an urgent task flushes the backend, and goes first in a batch of its own
+        dispatcher.submit(new AgentBatchTask(cloneTask(200L)));
+        Assert.assertEquals(1, pendingRpcs.size());
+        Assert.assertEquals(5, dispatcher.getQueuedTaskNum(BACKEND_ID, TTaskType.DROP));
+
+        // the last in-flight slot is kept for urgent tasks
+        dispatcher.submit(new AgentBatchTask(cloneTask(201L)));
+        Assert.assertEquals(2, pendingRpcs.size());
+        Assert.assertEquals(2, dispatcher.getInFlightBatchNum(BACKEND_ID));
+        Assert.assertEquals(5, dispatcher.getQueuedTaskNum(BACKEND_ID, TTaskType.DROP));
+
+        while (!pendingRpcs.isEmpty()) {
+            pendingRpcs.poll().run();
+        }
+        Assert.assertEquals(5, sentBatches.size());
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(1, sentBatches.get(i).size());
+            Assert.assertEquals(TTaskType.CLONE, sentBatches.get(i).get(0).getTaskType());
+        }
+        for (int i = 2; i < 5; i++) {
+            Assert.assertTrue(sentBatches.get(i).stream().allMatch(task -> task.getTaskType() == TTaskType.DROP));
+        }
+        Assert.assertEquals(2, sentBatches.get(2).size());
+        Assert.assertEquals(2, sentBatches.get(3).size());
+        Assert.assertEquals(1, sentBatches.get(4).size());
+        Assert.assertEquals(0, dispatcher.getQueuedTaskNum(BACKEND_ID, TTaskType.DROP));
+        Assert.assertEquals(0, dispatcher.getInFlightBatchNum(BACKEND_ID));
+    }
+
+    @Test
+    public void testRemoveBackend() {
+        AgentBatchTask dropBatch = new AgentBatchTask();
+        for (int i = 0; i < 3; i++) {
+            dropBatch.addTask(new DropReplicaTask(BACKEND_ID, 100L + i, 0, false));
+        }
+        dispatcher.submit(dropBatch);
+        Assert.assertEquals(3, dispatcher.getQueuedTaskNum(BACKEND_ID, TTaskType.DROP));
+
+        dispatcher.removeBackend(BACKEND_ID);
+        Assert.assertEquals(0, dispatcher.getQueuedTaskNum(BACKEND_ID, TTaskType.DROP));
+        Assert.assertEquals(0, dispatcher.getInFlightBatchNum(BACKEND_ID));
+        Assert.assertTrue(pendingRpcs.isEmpty());
+        Assert.assertTrue(sentBatches.isEmpty());
+    }
+}
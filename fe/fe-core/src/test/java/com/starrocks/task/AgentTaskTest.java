@@ -43,6 +43,7 @@ import com.starrocks.catalog.PrimitiveType;
 import com.starrocks.catalog.ScalarType;
 import com.starrocks.catalog.SchemaInfo;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
 import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.common.util.concurrent.MarkedCountDownLatch;
@@ -60,6 +61,7 @@ import com.starrocks.thrift.TStorageType;
 import com.starrocks.thrift.TTabletSchema;
 import com.starrocks.thrift.TTabletType;
 import com.starrocks.thrift.TTaskType;
+import com.starrocks.transaction.TransactionType;
 import mockit.Mock;
 import mockit.MockUp;
 import org.junit.Assert;
@@ -311,6 +313,93 @@ public class AgentTaskTest {
         Assert.assertEquals(2, AgentTaskQueue.getTaskNum(-1, TTaskType.DROP, true));
     }
 
+    @Test
+    public void testDiffTasksToResend() {
+        AgentTaskQueue.clearAllTasks();
+        long now = System.currentTimeMillis();
+        long waitMs = Config.agent_task_resend_wait_time_ms;
+        PublishVersionTask oldTask = new PublishVersionTask(backendId1, 1L, 1L, dbId, 0L, Lists.newArrayList(),
+                null, null, now - waitMs - 60000L, null, false, TransactionType.TXN_NORMAL);
+        PublishVersionTask newTask = new PublishVersionTask(backendId1, 2L, 2L, dbId, 0L, Lists.newArrayList(),
+                null, null, now, null, false, TransactionType.TXN_NORMAL);
+        AgentTaskQueue.addTask(oldTask);
+        AgentTaskQueue.addTask(newTask);
+        // no create time, always resent
+        AgentTaskQueue.addTask(dropTask);
+        Assert.assertEquals(3, AgentTaskQueue.getCreateTimeBucketNum(backendId1));
+
+        Map<TTaskType, Set<Long>> runningTasks = new HashMap<>();
+        Assert.assertEquals(3, AgentTaskQueue.getDiffTasks(backendId1, runningTasks).size());
+        List<AgentTask> resendTasks = AgentTaskQueue.getDiffTasksToResend(backendId1, runningTasks, now);
+        Assert.assertEquals(2, resendTasks.size());
+        Assert.assertTrue(resendTasks.contains(oldTask));
+        Assert.assertTrue(resendTasks.contains(dropTask));
+
+        runningTasks.put(TTaskType.PUBLISH_VERSION, new HashSet<>(Arrays.asList(1L)));
+        Assert.assertEquals(1, AgentTaskQueue.getDiffTasksToResend(backendId1, runningTasks, now).size());
+        Assert.assertEquals(3, AgentTaskQueue.getDiffTasksToResend(backendId1, new HashMap<>(), now + waitMs + 1).size());
+
+        // emptied buckets are dropped
+        AgentTaskQueue.removeTask(backendId1, TTaskType.PUBLISH_VERSION, 1L);
+        AgentTaskQueue.removeTask(backendId1, TTaskType.PUBLISH_VERSION, 2L);
+        AgentTaskQueue.removeTask(backendId1, TTaskType.DROP, dropTask.getSignature());
+        Assert.assertEquals(0, AgentTaskQueue.getCreateTimeBucketNum(backendId1));
+        Assert.assertEquals(0, AgentTaskQueue.getTaskNum());
+    }
+
+    @Test
+    public void testConcurrentAddAndRemoveTask() throws InterruptedException {
+        AgentTaskQueue.clearAllTasks();
+        long createTime = System.currentTimeMillis() - Config.agent_task_resend_wait_time_ms - 60000L;
+        int taskNum = 2000;
+        List<AgentTask> tasks = new ArrayList<>();
+        for (long i = 0; i < taskNum; i++) {
+            tasks.add(new PublishVersionTask(backendId1, i, i, dbId, 0L, Lists.newArrayList(),
+                    null, null, createTime, null, false, TransactionType.TXN_NORMAL));
+        }
+        Thread adder = new Thread(() -> tasks.forEach(AgentTaskQueue::addTask));
+        // removes the tasks while they are being added, like removeReplicaRelatedTasks does
+        Thread remover = new Thread(() -> {
+            while (adder.isAlive()) {
+                for (long i = 0; i < taskNum; i++) {
+                    AgentTaskQueue.removeTask(backendId1, TTaskType.PUBLISH_VERSION, i);
+                }
+            }
+        });
+        adder.start();
+        remover.start();
+        adder.join();
+        remover.join();
+
+        // a removed task is never left in its create time bucket
+        for (AgentTask task : AgentTaskQueue.getTask(TTaskType.PUBLISH_VERSION)) {
+            AgentTaskQueue.removeTask(backendId1, TTaskType.PUBLISH_VERSION, task.getSignature());
+        }
+        Assert.assertEquals(0, AgentTaskQueue.getCreateTimeBucketNum(backendId1));
+        Assert.assertEquals(0, AgentTaskQueue.getTaskNum());
+    }
+
+    @Test
+    public void testDiffTasksToResendPurgeRemovedTask() {
+        AgentTaskQueue.clearAllTasks();
+        long now = System.currentTimeMillis();
+        long createTime = now - Config.agent_task_resend_wait_time_ms - 60000L;
+        PublishVersionTask task = new PublishVersionTask(backendId1, 1L, 1L, dbId, 0L, Lists.newArrayList(),
+                null, null, createTime, null, false, TransactionType.TXN_NORMAL);
+        AgentTaskQueue.addTask(task);
+        Assert.assertEquals(1, AgentTaskQueue.getCreateTimeBucketNum(backendId1));
+
+        // the task is no longer mapped to its signature but left in its bucket
+        Map<Long, Object> backendTasks = Deencapsulation.getField(AgentTaskQueue.class, "BACKEND_TASKS");
+        Map<TTaskType, Map<Long, AgentTask>> typeToTasks =
+                Deencapsulation.getField(backendTasks.get(backendId1), "typeToTasks");
+        typeToTasks.get(TTaskType.PUBLISH_VERSION).remove(1L);
+
+        Assert.assertTrue(AgentTaskQueue.getDiffTasksToResend(backendId1, new HashMap<>(), now).isEmpty());
+        Assert.assertEquals(0, AgentTaskQueue.getCreateTimeBucketNum(backendId1));
+        AgentTaskQueue.clearAllTasks();
+    }
+
     @Test
     public void testBackendNoAlive() {
         LocalMetastore localMetastore = new LocalMetastore(GlobalStateMgr.getCurrentState(),
@@ -818,6 +818,9 @@ struct TMasterOpRequest {
     33: optional Types.TUserRoles user_roles
     34: optional i32 forward_times
     35: optional string session_id
+    // encoded SessionStateSnapshot, only sent when the leader may not have this version of the session state
+    36: optional binary session_state
+    37: optional i64 session_state_version
 
     101: optional i64 warehouse_id    // begin from 101, in case of conflict with other's change
 }
@@ -850,6 +853,8 @@ struct TMasterOpResult {
     6: optional string resource_group_name;
     7: optional TAuditStatistics audit_statistics;
     8: optional string errorMsg;
+    // the leader has no session state of the requested version, the request should be sent again with session_state
+    9: optional bool session_state_missing;
 }
 
 struct TIsMethodSupportedRequest {
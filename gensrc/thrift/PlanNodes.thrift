@@ -290,6 +290,15 @@ struct TEsScanRange {
   2: required string index
   3: optional string type
   4: required i32 shard_id
+  // the sliced scroll of the shard read by this range, set only if the shard is scanned by more than one slice
+  5: optional i32 slice_id
+  6: optional i32 slice_max
+}
+
+// JDBC scan range
+struct TJDBCScanRange {
+  // predicate on the split column, which selects the rows of this range
+  1: optional string split_predicate
 }
 
 enum TIcebergFileContent {
@@ -415,6 +424,8 @@ struct TScanRange {
   20: optional THdfsScanRange hdfs_scan_range
   
   30: optional TBinlogScanRange binlog_scan_range
+
+  40: optional TJDBCScanRange jdbc_scan_range
 }
 
 struct TMySQLScanNode {
@@ -578,6 +589,8 @@ struct TJDBCScanNode {
   3: optional list<string> columns
   4: optional list<string> filters
   5: optional i64 limit
+  // number of ranges the scan is split into, see TJDBCScanRange
+  6: optional i32 num_splits
 }
 
 // If you find yourself changing this struct, see also TOlapScanNode
@@ -0,0 +1,122 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.hive.reader;
+
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.OffHeapColumnVector;
+import com.starrocks.jni.connector.ScannerHelper;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.BooleanObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.ByteObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.DoubleObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.FloatObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.IntObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.LongObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.ShortObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.StringObjectInspector;
+import org.apache.hadoop.io.Text;
+
+/**
+ * Appends the non-null values of a hive column to its off-heap column vector.
+ * <p>
+ * Converters are resolved once when the scanner is opened. Primitive values are read by the primitive getters of
+ * the column's ObjectInspector and written to the vector directly, so there is neither boxing nor a
+ * {@link HiveColumnValue} allocated for each value. Other columns fall back to {@link HiveColumnValue}.
+ */
+@FunctionalInterface
+interface HiveColumnConverter {
+
+    void append(OffHeapColumnVector vector, Object fieldData);
+
+    static HiveColumnConverter create(ObjectInspector inspector, ColumnType type, String timeZone) {
+        HiveColumnConverter generic = (vector, fieldData) ->
+                vector.appendValue(new HiveColumnValue(inspector, fieldData, timeZone));
+        if (inspector.getCategory() != ObjectInspector.Category.PRIMITIVE) {
+            return generic;
+        }
+        ColumnType.TypeValue typeValue = type.getTypeValue();
+        switch (((PrimitiveObjectInspector) inspector).getPrimitiveCategory()) {
+            case BOOLEAN: {
+                if (typeValue != ColumnType.TypeValue.BOOLEAN) {
+                    return generic;
+                }
+                BooleanObjectInspector booleanInspector = (BooleanObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendBoolean(booleanInspector.get(fieldData));
+            }
+            case BYTE: {
+                if (typeValue != ColumnType.TypeValue.TINYINT) {
+                    return generic;
+                }
+                ByteObjectInspector byteInspector = (ByteObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendByte(byteInspector.get(fieldData));
+            }
+            case SHORT: {
+                if (typeValue != ColumnType.TypeValue.SHORT) {
+                    return generic;
+                }
+                ShortObjectInspector shortInspector = (ShortObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendShort(shortInspector.get(fieldData));
+            }
+            case INT: {
+                if (typeValue != ColumnType.TypeValue.INT) {
+                    return generic;
+                }
+                IntObjectInspector intInspector = (IntObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendInt(intInspector.get(fieldData));
+            }
+            case LONG: {
+                if (typeValue != ColumnType.TypeValue.LONG) {
+                    return generic;
+                }
+                LongObjectInspector longInspector = (LongObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendLong(longInspector.get(fieldData));
+            }
+            case FLOAT: {
+                if (typeValue != ColumnType.TypeValue.FLOAT) {
+                    return generic;
+                }
+                FloatObjectInspector floatInspector = (FloatObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendFloat(floatInspector.get(fieldData));
+            }
+            case DOUBLE: {
+                if (typeValue != ColumnType.TypeValue.DOUBLE) {
+                    return generic;
+                }
+                DoubleObjectInspector doubleInspector = (DoubleObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendDouble(doubleInspector.get(fieldData));
+            }
+            case STRING: {
+                if (typeValue != ColumnType.TypeValue.STRING) {
+                    return generic;
+                }
+                // copy the utf-8 bytes of Text directly instead of decoding them to String and encoding back.
+                // Malformed bytes still go through String, which replaces them with U+FFFD as the legacy path does.
+                StringObjectInspector stringInspector = (StringObjectInspector) inspector;
+                return (vector, fieldData) -> {
+                    Text text = stringInspector.getPrimitiveWritableObject(fieldData);
+                    if (ScannerHelper.isValidUtf8(text.getBytes(), text.getLength())) {
+                        vector.appendBinary(text.getBytes(), 0, text.getLength());
+                    } else {
+                        vector.appendString(text.toString());
+                    }
+                };
+            }
+            default:
+                return generic;
+        }
+    }
+}
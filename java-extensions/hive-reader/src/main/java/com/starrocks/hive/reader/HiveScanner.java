@@ -17,6 +17,7 @@ package com.starrocks.hive.reader;
 import com.starrocks.jni.connector.ColumnType;
 import com.starrocks.jni.connector.ColumnValue;
 import com.starrocks.jni.connector.ConnectorScanner;
+import com.starrocks.jni.connector.OffHeapColumnVector;
 import com.starrocks.jni.connector.ScannerHelper;
 import com.starrocks.jni.connector.SelectedFields;
 import com.starrocks.utils.loader.ThreadContextClassLoader;
@@ -88,6 +89,11 @@ public class HiveScanner extends ConnectorScanner {
 
     private final String timeZone;
 
+    // Decode the rows of a chunk by the converters resolved when opening, instead of allocating a HiveColumnValue
+    // and boxing each value.
+    private final boolean batchDecode;
+    private HiveColumnConverter[] converters;
+
     public HiveScanner(int fetchSize, Map<String, String> params) {
         this.fetchSize = fetchSize;
         this.hiveColumnNames = params.get("hive_column_names");
@@ -110,6 +116,7 @@ public class HiveScanner extends ConnectorScanner {
             LOG.debug("key = " + kv.getKey() + ", value = " + kv.getValue());
         }
         this.timeZone = params.get("time_zone");
+        this.batchDecode = Boolean.parseBoolean(params.getOrDefault("batch_decode", "true"));
     }
 
     private JobConf makeJobConf(Properties properties) {
@@ -200,6 +207,12 @@ public class HiveScanner extends ConnectorScanner {
             structFields[i] = field;
             fieldInspectors[i] = field.getFieldObjectInspector();
         }
+        if (batchDecode) {
+            converters = new HiveColumnConverter[requiredFields.length];
+            for (int i = 0; i < requiredFields.length; i++) {
+                converters[i] = HiveColumnConverter.create(fieldInspectors[i], requiredTypes[i], timeZone);
+            }
+        }
         key = (Writable) reader.createKey();
         value = (Writable) reader.createValue();
     }
@@ -234,6 +247,9 @@ public class HiveScanner extends ConnectorScanner {
     @Override
     public int getNext() throws IOException {
         try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            if (batchDecode) {
+                return decodeBatch();
+            }
             int numRows = 0;
             for (; numRows < getTableSize(); numRows++) {
                 if (!reader.next(key, value)) {
@@ -258,6 +274,29 @@ public class HiveScanner extends ConnectorScanner {
         }
     }
 
+    private int decodeBatch() throws Exception {
+        OffHeapColumnVector[] vectors = getOffHeapTable().vectors;
+        int tableSize = getTableSize();
+        int numFields = requiredFields.length;
+        int numRows = 0;
+        for (; numRows < tableSize; numRows++) {
+            if (!reader.next(key, value)) {
+                break;
+            }
+            // serdes reuse the deserialized row object, so it must be consumed before reading the next record.
+            Object rowData = deserializer.deserialize(value);
+            for (int i = 0; i < numFields; i++) {
+                Object fieldData = rowInspector.getStructFieldData(rowData, structFields[i]);
+                if (fieldData == null) {
+                    vectors[i].appendNull();
+                } else {
+                    converters[i].append(vectors[i], fieldData);
+                }
+            }
+        }
+        return numRows;
+    }
+
     private InputFormat<?, ?> createInputFormat(Configuration conf, String inputFormat) throws Exception {
         Class<?> clazz = conf.getClassByName(inputFormat);
         Class<? extends InputFormat<?, ?>> cls =
@@ -312,6 +351,9 @@ public class HiveScanner extends ConnectorScanner {
         sb.append("inputFormat: ");
         sb.append(inputFormat);
         sb.append("\n");
+        sb.append("batchDecode: ");
+        sb.append(batchDecode);
+        sb.append("\n");
         return sb.toString();
     }
 }
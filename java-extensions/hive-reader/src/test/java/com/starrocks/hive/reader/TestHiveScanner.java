@@ -14,17 +14,33 @@
 
 package com.starrocks.hive.reader;
 
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.OffHeapColumnVector;
 import com.starrocks.jni.connector.OffHeapTable;
 import com.starrocks.utils.Platform;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class TestHiveScanner {
@@ -179,4 +195,193 @@ public class TestHiveScanner {
         params = createStructScanTestParams();
         runStructScanOnParams(params);
     }
+
+    private static final int LAZY_SIMPLE_NUM_ROWS = 5000;
+
+    List<String> createLazySimpleRows(int numRows) {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < numRows; i++) {
+            // every 10th row has null values
+            String name = i % 10 == 0 ? "\\N" : "name_" + i;
+            String price = i % 10 == 0 ? "\\N" : String.valueOf(i * 0.5);
+            rows.add(i + "\u0001" + i * 1000L + "\u0001" + price + "\u0001" + name + "\u0001" + "v" + i % 100);
+        }
+        return rows;
+    }
+
+    Map<String, String> createLazySimpleScanTestParams(File file, String inputFormat) {
+        Map<String, String> params = new HashMap<>();
+        params.put("data_file_path", file.getPath());
+        params.put("block_offset", "0");
+        params.put("block_length", String.valueOf(file.length()));
+        params.put("hive_column_names", "id,big_id,price,name,tag");
+        params.put("hive_column_types", "int#bigint#double#string#varchar(10)");
+        params.put("input_format", inputFormat);
+        params.put("serde", "org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe");
+        params.put("required_fields", "id,big_id,price,name,tag");
+        return params;
+    }
+
+    String runLazySimpleScanOnParams(Map<String, String> params) throws IOException {
+        HiveScanner scanner = new HiveScanner(4096, params);
+        scanner.open();
+        StringBuilder sb = new StringBuilder();
+        long numRows = 0;
+        while (true) {
+            scanner.getNextOffHeapChunk();
+            OffHeapTable table = scanner.getOffHeapTable();
+            if (table.getNumRows() == 0) {
+                break;
+            }
+            numRows += table.getNumRows();
+            sb.append(table.dump(table.getNumRows()));
+            table.checkTableMeta(false);
+            table.close();
+        }
+        scanner.close();
+        Assertions.assertEquals(LAZY_SIMPLE_NUM_ROWS, numRows);
+        return sb.toString();
+    }
+
+    void compareBatchDecode(Map<String, String> params) throws IOException {
+        params.put("batch_decode", "false");
+        String expected = runLazySimpleScanOnParams(params);
+        params.put("batch_decode", "true");
+        String actual = runLazySimpleScanOnParams(params);
+        Assertions.assertEquals(expected, actual);
+    }
+
+    Map<String, String> createTextFileParams(File dir, int numRows) throws IOException {
+        File file = new File(dir, "rows.txt");
+        Files.write(file.toPath(), createLazySimpleRows(numRows), StandardCharsets.UTF_8);
+        return createLazySimpleScanTestParams(file, "org.apache.hadoop.mapred.TextInputFormat");
+    }
+
+    Map<String, String> createSequenceFileParams(File dir, int numRows) throws IOException {
+        File file = new File(dir, "rows.seq");
+        try (SequenceFile.Writer writer = SequenceFile.createWriter(new Configuration(),
+                SequenceFile.Writer.file(new Path(file.getPath())),
+                SequenceFile.Writer.keyClass(LongWritable.class),
+                SequenceFile.Writer.valueClass(Text.class))) {
+            LongWritable key = new LongWritable();
+            Text value = new Text();
+            for (String row : createLazySimpleRows(numRows)) {
+                key.set(key.get() + 1);
+                value.set(row);
+                writer.append(key, value);
+            }
+        }
+        return createLazySimpleScanTestParams(file, "org.apache.hadoop.mapred.SequenceFileInputFormat");
+    }
+
+    @Test
+    public void batchDecodeTestOnTextFile(@TempDir File dir) throws IOException {
+        compareBatchDecode(createTextFileParams(dir, LAZY_SIMPLE_NUM_ROWS));
+    }
+
+    @Test
+    public void batchDecodeTestOnSequenceFile(@TempDir File dir) throws IOException {
+        compareBatchDecode(createSequenceFileParams(dir, LAZY_SIMPLE_NUM_ROWS));
+    }
+
+    long scanLazySimpleRows(Map<String, String> params) throws IOException {
+        HiveScanner scanner = new HiveScanner(4096, params);
+        scanner.open();
+        long numRows = 0;
+        while (true) {
+            scanner.getNextOffHeapChunk();
+            OffHeapTable table = scanner.getOffHeapTable();
+            if (table.getNumRows() == 0) {
+                break;
+            }
+            numRows += table.getNumRows();
+            table.close();
+        }
+        scanner.close();
+        return numRows;
+    }
+
+    /**
+     * Reports the rows/s of scanning text and SequenceFile tables with and without batch decoding.
+     * It's disabled since it takes a while, run it manually to compare the modes.
+     */
+    @Disabled("benchmark")
+    @Test
+    public void benchmarkBatchDecode(@TempDir File dir) throws IOException {
+        int numRows = 1000000;
+        int warmupRounds = 2;
+        int rounds = 5;
+        Map<String, Map<String, String>> formats = new LinkedHashMap<>();
+        formats.put("text", createTextFileParams(dir, numRows));
+        formats.put("sequence", createSequenceFileParams(dir, numRows));
+        for (Map.Entry<String, Map<String, String>> format : formats.entrySet()) {
+            for (String batchDecode : new String[] {"false", "true"}) {
+                Map<String, String> params = format.getValue();
+                params.put("batch_decode", batchDecode);
+                for (int i = 0; i < warmupRounds; i++) {
+                    scanLazySimpleRows(params);
+                }
+                long startNs = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                    Assertions.assertEquals(numRows, scanLazySimpleRows(params));
+                }
+                double seconds = (System.nanoTime() - startNs) / 1e9;
+                System.out.printf("format: %s, batch_decode: %s, rows/s: %.0f%n", format.getKey(), batchDecode,
+                        numRows * (double) rounds / seconds);
+            }
+        }
+    }
+
+    byte[] getRawBytes(OffHeapColumnVector vector, int rowId) {
+        int start = Platform.getInt(null, vector.arrayOffsetNativeAddress() + 4L * rowId);
+        int end = Platform.getInt(null, vector.arrayOffsetNativeAddress() + 4L * (rowId + 1));
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = Platform.getByte(null, vector.arrayDataNativeAddress() + start + i);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void stringConverterTest() {
+        byte[][] values = {
+                "abc".getBytes(StandardCharsets.UTF_8),
+                "\u4e2d\u6587\ud83d\ude00".getBytes(StandardCharsets.UTF_8),
+                // truncated sequence, overlong encoding, encoded surrogate and a stray continuation byte
+                {'a', (byte) 0xE4, (byte) 0xB8},
+                {(byte) 0xC0, (byte) 0xAF},
+                {(byte) 0xED, (byte) 0xA0, (byte) 0x80},
+                {(byte) 0x80, 'b'},
+        };
+        ObjectInspector inspector = PrimitiveObjectInspectorFactory.writableStringObjectInspector;
+        ColumnType type = new ColumnType("name", "string");
+        HiveColumnConverter converter = HiveColumnConverter.create(inspector, type, "UTC");
+        OffHeapColumnVector actual = new OffHeapColumnVector(values.length, type);
+        OffHeapColumnVector expected = new OffHeapColumnVector(values.length, type);
+        try {
+            for (byte[] value : values) {
+                Text text = new Text(value);
+                converter.append(actual, text);
+                // the legacy path decodes Text to String and encodes it back
+                expected.appendValue(new HiveColumnValue(inspector, text, "UTC"));
+            }
+            for (int i = 0; i < values.length; i++) {
+                Assertions.assertArrayEquals(getRawBytes(expected, i), getRawBytes(actual, i));
+            }
+            Assertions.assertArrayEquals(values[0], getRawBytes(actual, 0));
+            Assertions.assertArrayEquals(values[1], getRawBytes(actual, 1));
+        } finally {
+            actual.close();
+            expected.close();
+        }
+    }
+
+    @Test
+    public void batchDecodeTestOnAvroFile() throws IOException {
+        Map<String, String> params = createScanTestParams();
+        params.put("batch_decode", "false");
+        String expected = runScanOnParams(params);
+        params.put("batch_decode", "true");
+        Assertions.assertEquals(expected, runScanOnParams(params));
+    }
 }
@@ -0,0 +1,255 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.hudi.reader;
+
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.LocalTimeConverter;
+import com.starrocks.jni.connector.OffHeapColumnVector;
+import com.starrocks.jni.connector.ScannerHelper;
+import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.MapObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.BooleanObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.DateObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.DoubleObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.FloatObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.HiveDecimalObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.IntObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.LongObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.ShortObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.StringObjectInspector;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.starrocks.hudi.reader.HudiScannerUtils.TIMESTAMP_UNIT_MAPPING;
+
+/**
+ * Appends the non-null values of a hudi column to its off-heap column vector.
+ * <p>
+ * Converters are resolved once per column when the scanner is opened, from the ObjectInspectors of the merged
+ * parquet and avro log records. Values are read by the primitive getters and writables of the inspectors and
+ * written by the typed appends of {@link OffHeapColumnVector}, so there is neither boxing nor a
+ * {@link HudiColumnValue} allocated for each value. Decimals of up to 18 digits are written by their unscaled long,
+ * int64 timestamps by their epoch microseconds, and nested values are written into the child vectors directly.
+ * Other values fall back to {@link HudiColumnValue}.
+ */
+@FunctionalInterface
+interface HudiColumnConverter {
+
+    void append(OffHeapColumnVector vector, Object fieldData);
+
+    default void appendNullable(OffHeapColumnVector vector, Object fieldData) {
+        if (fieldData == null) {
+            vector.appendNull();
+        } else {
+            append(vector, fieldData);
+        }
+    }
+
+    static HudiColumnConverter create(ObjectInspector inspector, ColumnType type, String timeZone) {
+        HudiColumnConverter generic = (vector, fieldData) ->
+                vector.appendValue(new HudiColumnValue(inspector, fieldData, timeZone));
+        switch (inspector.getCategory()) {
+            case PRIMITIVE:
+                return createPrimitiveConverter((PrimitiveObjectInspector) inspector, type, timeZone, generic);
+            case LIST:
+                return type.isArray() ? createListConverter((ListObjectInspector) inspector, type, timeZone) : generic;
+            case MAP:
+                return type.isMap() ? createMapConverter((MapObjectInspector) inspector, type, timeZone) : generic;
+            case STRUCT:
+                return type.isStruct() ?
+                        createStructConverter((StructObjectInspector) inspector, type, timeZone) : generic;
+            default:
+                return generic;
+        }
+    }
+
+    static HudiColumnConverter createPrimitiveConverter(PrimitiveObjectInspector inspector, ColumnType type,
+                                                        String timeZone, HudiColumnConverter generic) {
+        ColumnType.TypeValue typeValue = type.getTypeValue();
+        switch (inspector.getPrimitiveCategory()) {
+            case BOOLEAN: {
+                if (typeValue != ColumnType.TypeValue.BOOLEAN) {
+                    return generic;
+                }
+                BooleanObjectInspector booleanInspector = (BooleanObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendBoolean(booleanInspector.get(fieldData));
+            }
+            case SHORT: {
+                if (typeValue != ColumnType.TypeValue.SHORT) {
+                    return generic;
+                }
+                ShortObjectInspector shortInspector = (ShortObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendShort(shortInspector.get(fieldData));
+            }
+            case INT: {
+                if (typeValue != ColumnType.TypeValue.INT) {
+                    return generic;
+                }
+                IntObjectInspector intInspector = (IntObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendInt(intInspector.get(fieldData));
+            }
+            case LONG: {
+                if (typeValue != ColumnType.TypeValue.LONG) {
+                    return generic;
+                }
+                LongObjectInspector longInspector = (LongObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendLong(longInspector.get(fieldData));
+            }
+            case FLOAT: {
+                if (typeValue != ColumnType.TypeValue.FLOAT) {
+                    return generic;
+                }
+                FloatObjectInspector floatInspector = (FloatObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendFloat(floatInspector.get(fieldData));
+            }
+            case DOUBLE: {
+                if (typeValue != ColumnType.TypeValue.DOUBLE) {
+                    return generic;
+                }
+                DoubleObjectInspector doubleInspector = (DoubleObjectInspector) inspector;
+                return (vector, fieldData) -> vector.appendDouble(doubleInspector.get(fieldData));
+            }
+            case STRING: {
+                if (typeValue != ColumnType.TypeValue.STRING) {
+                    return generic;
+                }
+                // copy the utf-8 bytes of Text directly instead of decoding them to String and encoding back.
+                // Malformed bytes still go through String, which replaces them with U+FFFD as the legacy path does.
+                StringObjectInspector stringInspector = (StringObjectInspector) inspector;
+                return (vector, fieldData) -> {
+                    Text text = stringInspector.getPrimitiveWritableObject(fieldData);
+                    if (ScannerHelper.isValidUtf8(text.getBytes(), text.getLength())) {
+                        vector.appendBinary(text.getBytes(), 0, text.getLength());
+                    } else {
+                        vector.appendString(text.toString());
+                    }
+                };
+            }
+            case DATE: {
+                if (typeValue != ColumnType.TypeValue.DATE) {
+                    return generic;
+                }
+                DateObjectInspector dateInspector = (DateObjectInspector) inspector;
+                return (vector, fieldData) ->
+                        vector.appendDate(dateInspector.getPrimitiveWritableObject(fieldData).getDays());
+            }
+            case DECIMAL: {
+                if (typeValue != ColumnType.TypeValue.DECIMAL32 && typeValue != ColumnType.TypeValue.DECIMAL64) {
+                    return generic;
+                }
+                HiveDecimalObjectInspector decimalInspector = (HiveDecimalObjectInspector) inspector;
+                int scale = type.getScale();
+                return (vector, fieldData) ->
+                        vector.appendDecimal(decimalInspector.getPrimitiveWritableObject(fieldData).serialize64(scale));
+            }
+            case TIMESTAMP: {
+                TimeUnit timeUnit = TIMESTAMP_UNIT_MAPPING.get(typeValue);
+                if (timeUnit == null) {
+                    return generic;
+                }
+                // int64 timestamps are converted without creating an Instant and a LocalDateTime for each value,
+                // the others are read by the inspector.
+                ZoneId zoneId = timeZone == null ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+                LocalTimeConverter localTimeConverter = new LocalTimeConverter(zoneId);
+                return (vector, fieldData) -> {
+                    if (fieldData instanceof LongWritable) {
+                        long epochMicros = timeUnit.toMicros(((LongWritable) fieldData).get());
+                        vector.appendDateTime(localTimeConverter.toLocalEpochMicros(epochMicros));
+                    } else {
+                        generic.append(vector, fieldData);
+                    }
+                };
+            }
+            default:
+                return generic;
+        }
+    }
+
+    static HudiColumnConverter createListConverter(ListObjectInspector inspector, ColumnType type, String timeZone) {
+        HudiColumnConverter elementConverter =
+                create(inspector.getListElementObjectInspector(), type.getChildTypes().get(0), timeZone);
+        return (vector, fieldData) -> {
+            OffHeapColumnVector elements = vector.getChildColumn(0);
+            int offset = elements.getElementsAppended();
+            int size = inspector.getListLength(fieldData);
+            for (int i = 0; i < size; i++) {
+                elementConverter.appendNullable(elements, inspector.getListElement(fieldData, i));
+            }
+            vector.appendArray(offset, size);
+        };
+    }
+
+    static HudiColumnConverter createMapConverter(MapObjectInspector inspector, ColumnType type, String timeZone) {
+        int keyIndex = type.getChildNames().indexOf(ColumnType.FIELD_0_NAME);
+        int valueIndex = type.getChildNames().indexOf(ColumnType.FIELD_1_NAME);
+        HudiColumnConverter keyConverter = keyIndex == -1 ? null :
+                create(inspector.getMapKeyObjectInspector(), type.getChildTypes().get(keyIndex), timeZone);
+        HudiColumnConverter valueConverter = valueIndex == -1 ? null :
+                create(inspector.getMapValueObjectInspector(), type.getChildTypes().get(valueIndex), timeZone);
+        return (vector, fieldData) -> {
+            Map<?, ?> map = inspector.getMap(fieldData);
+            int offset = vector.getChildColumn(0).getElementsAppended();
+            OffHeapColumnVector keys = vector.getMapKeyColumnVector();
+            OffHeapColumnVector values = vector.getMapValueColumnVector();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (keyConverter != null) {
+                    keyConverter.appendNullable(keys, entry.getKey());
+                }
+                if (valueConverter != null) {
+                    valueConverter.appendNullable(values, entry.getValue());
+                }
+            }
+            vector.appendArray(offset, map.size());
+        };
+    }
+
+    static HudiColumnConverter createStructConverter(StructObjectInspector inspector, ColumnType type,
+                                                     String timeZone) {
+        List<? extends StructField> fields = inspector.getAllStructFieldRefs();
+        List<Integer> fieldIndex = type.getFieldIndex();
+        StructField[] selectedFields = new StructField[fieldIndex.size()];
+        HudiColumnConverter[] fieldConverters = new HudiColumnConverter[fieldIndex.size()];
+        for (int i = 0; i < fieldIndex.size(); i++) {
+            Integer index = fieldIndex.get(i);
+            if (index != null) {
+                selectedFields[i] = fields.get(index);
+                fieldConverters[i] = create(selectedFields[i].getFieldObjectInspector(),
+                        type.getChildTypes().get(i), timeZone);
+            }
+        }
+        return (vector, fieldData) -> {
+            for (int i = 0; i < fieldConverters.length; i++) {
+                OffHeapColumnVector field = vector.getChildColumn(i);
+                if (fieldConverters[i] == null) {
+                    // field selected but missing in the schema
+                    field.appendNull();
+                } else {
+                    fieldConverters[i].appendNullable(field, inspector.getStructFieldData(fieldData, selectedFields[i]));
+                }
+            }
+            vector.appendStruct();
+        };
+    }
+}
@@ -17,6 +17,7 @@ package com.starrocks.hudi.reader;
 import com.starrocks.jni.connector.ColumnType;
 import com.starrocks.jni.connector.ColumnValue;
 import com.starrocks.jni.connector.ConnectorScanner;
+import com.starrocks.jni.connector.OffHeapColumnVector;
 import com.starrocks.jni.connector.ScannerHelper;
 import com.starrocks.jni.connector.SelectedFields;
 import com.starrocks.utils.loader.ThreadContextClassLoader;
@@ -80,6 +81,11 @@ public class HudiSliceScanner extends ConnectorScanner {
     private final String fsOptionsProps;
     private final String timeZone;
 
+    // Decode the rows of a chunk by the converters resolved when opening, instead of allocating a HudiColumnValue
+    // and boxing each value.
+    private final boolean batchDecode;
+    private HudiColumnConverter[] converters;
+
     public HudiSliceScanner(int fetchSize, Map<String, String> params) {
         this.fetchSize = fetchSize;
         this.hiveColumnNames = params.get("hive_column_names");
@@ -105,6 +111,7 @@ public class HudiSliceScanner extends ConnectorScanner {
             LOG.debug("key = " + kv.getKey() + ", value = " + kv.getValue());
         }
         this.timeZone = params.get("time_zone");
+        this.batchDecode = Boolean.parseBoolean(params.getOrDefault("batch_decode", "true"));
     }
 
     private JobConf makeJobConf(Properties properties) {
@@ -205,6 +212,12 @@ public class HudiSliceScanner extends ConnectorScanner {
             structFields[i] = field;
             fieldInspectors[i] = field.getFieldObjectInspector();
         }
+        if (batchDecode) {
+            converters = new HudiColumnConverter[requiredFields.length];
+            for (int i = 0; i < requiredFields.length; i++) {
+                converters[i] = HudiColumnConverter.create(fieldInspectors[i], requiredTypes[i], timeZone);
+            }
+        }
     }
 
     @Override
@@ -237,6 +250,9 @@ public class HudiSliceScanner extends ConnectorScanner {
     @Override
     public int getNext() throws IOException {
         try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            if (batchDecode) {
+                return decodeBatch();
+            }
             NullWritable key = reader.createKey();
             ArrayWritable value = reader.createValue();
             int numRows = 0;
@@ -263,6 +279,27 @@ public class HudiSliceScanner extends ConnectorScanner {
         }
     }
 
+    private int decodeBatch() throws Exception {
+        OffHeapColumnVector[] vectors = getOffHeapTable().vectors;
+        NullWritable key = reader.createKey();
+        ArrayWritable value = reader.createValue();
+        int tableSize = getTableSize();
+        int numFields = requiredFields.length;
+        int numRows = 0;
+        for (; numRows < tableSize; numRows++) {
+            if (!reader.next(key, value)) {
+                break;
+            }
+            // the merged record is reused by the reader, so it must be consumed before reading the next one.
+            Object rowData = deserializer.deserialize(value);
+            for (int i = 0; i < numFields; i++) {
+                Object fieldData = rowInspector.getStructFieldData(rowData, structFields[i]);
+                converters[i].appendNullable(vectors[i], fieldData);
+            }
+        }
+        return numRows;
+    }
+
     private InputFormat<?, ?> createInputFormat(Configuration conf, String inputFormat) throws Exception {
         Class<?> clazz = conf.getClassByName(inputFormat);
         Class<? extends InputFormat<?, ?>> cls =
@@ -318,6 +355,9 @@ public class HudiSliceScanner extends ConnectorScanner {
         sb.append("inputFormat: ");
         sb.append(inputFormat);
         sb.append("\n");
+        sb.append("batchDecode: ");
+        sb.append(batchDecode);
+        sb.append("\n");
         return sb.toString();
     }
 }
\ No newline at end of file
@@ -14,16 +14,24 @@
 
 package com.starrocks.hudi.reader;
 
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.OffHeapColumnVector;
 import com.starrocks.jni.connector.OffHeapTable;
 import com.starrocks.utils.Platform;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.Text;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class TestHudiSliceScanner {
@@ -335,4 +343,66 @@ insert into test_hudi_mor5 values('AA1', 20, 1, "1",
         Map<String, String> params = case5CreateScanTestParams();
         runScanOnParams(params);
     }
+
+    @Test
+    public void testBatchDecode() throws IOException {
+        Map<String, String> params1 = createScanTestParams();
+        params1.put("required_fields", "a,b,c,d,e");
+        Map<String, String> params2 = case2CreateScanTestParams();
+        params2.put("required_fields", "a,b,c,d,e");
+        Map<String, String> params3 = case2CreateScanTestParams();
+        params3.put("required_fields", "e");
+        params3.put("nested_fields", "e.c.b.b,e.c.a.$0");
+        Map<String, String> params4 = case5CreateScanTestParams();
+        for (Map<String, String> params : List.of(params1, params2, params3, params4)) {
+            params.put("batch_decode", "false");
+            String expected = runScanOnParams(params);
+            params.put("batch_decode", "true");
+            Assertions.assertEquals(expected, runScanOnParams(params));
+        }
+    }
+
+    byte[] getRawBytes(OffHeapColumnVector vector, int rowId) {
+        int start = Platform.getInt(null, vector.arrayOffsetNativeAddress() + 4L * rowId);
+        int end = Platform.getInt(null, vector.arrayOffsetNativeAddress() + 4L * (rowId + 1));
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = Platform.getByte(null, vector.arrayDataNativeAddress() + start + i);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testBatchDecodeMalformedString() {
+        byte[][] values = {
+                "abc".getBytes(StandardCharsets.UTF_8),
+                "\u4e2d\u6587\ud83d\ude00".getBytes(StandardCharsets.UTF_8),
+                // truncated sequence, overlong encoding, encoded surrogate and a stray continuation byte
+                {'a', (byte) 0xE4, (byte) 0xB8},
+                {(byte) 0xC0, (byte) 0xAF},
+                {(byte) 0xED, (byte) 0xA0, (byte) 0x80},
+                {(byte) 0x80, 'b'},
+        };
+        ObjectInspector inspector = PrimitiveObjectInspectorFactory.writableStringObjectInspector;
+        ColumnType type = new ColumnType("name", "string");
+        HudiColumnConverter converter = HudiColumnConverter.create(inspector, type, "UTC");
+        OffHeapColumnVector actual = new OffHeapColumnVector(values.length, type);
+        OffHeapColumnVector expected = new OffHeapColumnVector(values.length, type);
+        try {
+            for (byte[] value : values) {
+                Text text = new Text(value);
+                converter.append(actual, text);
+                // the legacy path decodes Text to String and encodes it back
+                expected.appendValue(new HudiColumnValue(inspector, text, "UTC"));
+            }
+            for (int i = 0; i < values.length; i++) {
+                Assertions.assertArrayEquals(getRawBytes(expected, i), getRawBytes(actual, i));
+            }
+            Assertions.assertArrayEquals(values[0], getRawBytes(actual, 0));
+            Assertions.assertArrayEquals(values[1], getRawBytes(actual, 1));
+        } finally {
+            actual.close();
+            expected.close();
+        }
+    }
 }
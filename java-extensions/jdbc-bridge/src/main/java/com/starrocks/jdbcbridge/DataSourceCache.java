@@ -17,6 +17,7 @@ package com.starrocks.jdbcbridge;
 import com.zaxxer.hikari.HikariDataSource;
 
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
@@ -25,10 +26,15 @@ public class DataSourceCache {
     public static final class DataSourceCacheItem {
         private final HikariDataSource hikariDataSource;
         private final ClassLoader classLoader;
+        // the pool size the data source was created with
+        private final int initialMaximumPoolSize;
+        // pool size requested by the open scans -> number of the scans
+        private final TreeMap<Integer, Integer> requestedPoolSizes = new TreeMap<>();
 
         public DataSourceCacheItem(HikariDataSource hikariDataSource, ClassLoader classLoader) {
             this.hikariDataSource = hikariDataSource;
             this.classLoader = classLoader;
+            this.initialMaximumPoolSize = hikariDataSource.getMaximumPoolSize();
         }
 
         public HikariDataSource getHikariDataSource() {
@@ -38,6 +44,30 @@ public class DataSourceCache {
         public ClassLoader getClassLoader() {
             return classLoader;
         }
+
+        // The data source is shared by all the scans of the same url and user, grow the pool if a scan which is
+        // split into many ranges needs more connections than it was created with. Every call must be paired with
+        // releaseMaximumPoolSize when the scan is closed, the pool shrinks back to the largest size requested by
+        // the scans still open, but never below the size it was created with.
+        public synchronized void acquireMaximumPoolSize(int maximumPoolSize) {
+            requestedPoolSizes.merge(maximumPoolSize, 1, Integer::sum);
+            updateMaximumPoolSize();
+        }
+
+        public synchronized void releaseMaximumPoolSize(int maximumPoolSize) {
+            requestedPoolSizes.computeIfPresent(maximumPoolSize, (size, count) -> count > 1 ? count - 1 : null);
+            updateMaximumPoolSize();
+        }
+
+        private void updateMaximumPoolSize() {
+            int maximumPoolSize = initialMaximumPoolSize;
+            if (!requestedPoolSizes.isEmpty()) {
+                maximumPoolSize = Math.max(maximumPoolSize, requestedPoolSizes.lastKey());
+            }
+            if (hikariDataSource.getMaximumPoolSize() != maximumPoolSize) {
+                hikariDataSource.getHikariConfigMXBean().setMaximumPoolSize(maximumPoolSize);
+            }
+        }
     }
 
     private final Map<String, DataSourceCacheItem> sources = new ConcurrentHashMap<>();
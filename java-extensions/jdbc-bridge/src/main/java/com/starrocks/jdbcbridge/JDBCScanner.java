@@ -14,6 +14,9 @@
 
 package com.starrocks.jdbcbridge;
 
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.OffHeapColumnVector;
+import com.starrocks.jni.connector.OffHeapTable;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
@@ -28,6 +31,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.time.LocalDate;
@@ -44,6 +48,7 @@ import java.util.Set;
 public class JDBCScanner {
     private String driverLocation;
     private HikariDataSource dataSource;
+    private DataSourceCache.DataSourceCacheItem cacheItem;
     private JDBCScanContext scanContext;
     private Connection connection;
     private PreparedStatement statement;
@@ -52,6 +57,11 @@ public class JDBCScanner {
     private List<String> resultColumnClassNames;
     private List<Object[]> resultChunk;
     private int resultNumRows = 0;
+    // type of the columns written into off-heap memory directly, null for the columns returned as boxed arrays
+    private ColumnType[] offHeapColumnTypes;
+    // result column index -> vector index in offHeapTable, -1 for the columns returned as boxed arrays
+    private int[] offHeapColumnIndexes;
+    private OffHeapTable offHeapTable;
     ClassLoader classLoader;
 
     public JDBCScanner(String driverLocation, JDBCScanContext scanContext) {
@@ -80,6 +90,8 @@ public class JDBCScanner {
             // ArrayStoreException in getNextChunk
             return new DataSourceCache.DataSourceCacheItem(hikariDataSource, classLoader);
         });
+        cacheItem.acquireMaximumPoolSize(scanContext.getConnectionPoolSize());
+        this.cacheItem = cacheItem;
         dataSource = cacheItem.getHikariDataSource();
         classLoader = cacheItem.getClassLoader();
 
@@ -93,7 +105,12 @@ public class JDBCScanner {
             statement.setFetchSize(scanContext.getStatementFetchSize());
         }
         statement.executeQuery();
-        resultSet = statement.getResultSet();
+        openResultSet(statement.getResultSet());
+    }
+
+    // split from open() so that tests can scan a result set without a database
+    void openResultSet(ResultSet resultSet) throws Exception {
+        this.resultSet = resultSet;
         resultSetMetaData = resultSet.getMetaData();
         resultColumnClassNames = new ArrayList<>(resultSetMetaData.getColumnCount());
         resultChunk = new ArrayList<>(resultSetMetaData.getColumnCount());
@@ -143,6 +160,48 @@ public class JDBCScanner {
         return resultColumnClassNames;
     }
 
+    /**
+     * Let the columns be written into off-heap memory by the primitive getters of ResultSet, so that neither
+     * boxed values are created nor BE needs to convert them again.
+     *
+     * @param types comma separated off-heap types of the result columns, like `int,,string`,
+     *              empty for the columns still returned as boxed arrays by {@link #getNextChunk()}
+     */
+    public void setOffHeapColumnTypes(String types) {
+        int columnCount = resultColumnClassNames.size();
+        String[] columnTypes = types.split(",", -1);
+        if (columnTypes.length != columnCount) {
+            throw new IllegalArgumentException("Expect " + columnCount + " off-heap column types, but got " + types);
+        }
+        offHeapColumnTypes = new ColumnType[columnCount];
+        offHeapColumnIndexes = new int[columnCount];
+        int numOffHeapColumns = 0;
+        for (int i = 0; i < columnCount; i++) {
+            if (columnTypes[i].isEmpty()) {
+                offHeapColumnIndexes[i] = -1;
+                continue;
+            }
+            offHeapColumnTypes[i] = new ColumnType(columnTypes[i]);
+            offHeapColumnIndexes[i] = numOffHeapColumns++;
+            // the boxed array is not used anymore
+            resultChunk.set(i, null);
+        }
+        if (numOffHeapColumns == 0) {
+            offHeapColumnTypes = null;
+            offHeapColumnIndexes = null;
+        }
+    }
+
+    // address of the off-heap table meta of the last chunk, see OffHeapTable for the memory layout
+    public long getOffHeapChunkMeta() {
+        return offHeapTable.getMetaNativeAddress();
+    }
+
+    // for test only.
+    OffHeapTable getOffHeapTable() {
+        return offHeapTable;
+    }
+
     public boolean hasNext() throws Exception {
         return resultSet.next();
     }
@@ -152,8 +211,16 @@ public class JDBCScanner {
         int chunkSize = scanContext.getStatementFetchSize();
         int columnCount = resultSetMetaData.getColumnCount();
         resultNumRows = 0;
+        if (offHeapColumnTypes != null) {
+            newOffHeapTable(chunkSize);
+        }
         do {
             for (int i = 0; i < columnCount; i++) {
+                if (offHeapColumnIndexes != null && offHeapColumnIndexes[i] >= 0) {
+                    appendOffHeapValue(offHeapTable.vectors[offHeapColumnIndexes[i]],
+                            offHeapColumnTypes[i].getTypeValue(), i + 1);
+                    continue;
+                }
                 Object[] dataColumn = resultChunk.get(i);
                 Object resultObject = resultSet.getObject(i + 1);
                 // in some cases, the real java class type of result is not consistent with the type from
@@ -194,22 +261,135 @@ public class JDBCScanner {
             }
             resultNumRows++;
         } while (resultNumRows < chunkSize && resultSet.next());
+        if (offHeapTable != null) {
+            offHeapTable.setNumRows(resultNumRows);
+        }
         return resultChunk;
     }
 
+    private void newOffHeapTable(int chunkSize) throws SQLException {
+        releaseOffHeapTable();
+        List<ColumnType> types = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        for (int i = 0; i < offHeapColumnTypes.length; i++) {
+            if (offHeapColumnTypes[i] != null) {
+                types.add(offHeapColumnTypes[i]);
+                fields.add(resultSetMetaData.getColumnLabel(i + 1));
+            }
+        }
+        offHeapTable = new OffHeapTable(types.toArray(new ColumnType[0]), fields.toArray(new String[0]), chunkSize);
+    }
+
+    private void releaseOffHeapTable() {
+        if (offHeapTable != null) {
+            offHeapTable.close();
+            offHeapTable = null;
+        }
+    }
+
+    // use primitive getters and check wasNull() afterward, to avoid creating a boxed object for each value
+    private void appendOffHeapValue(OffHeapColumnVector vector, ColumnType.TypeValue type, int columnIndex)
+            throws SQLException {
+        switch (type) {
+            case BOOLEAN: {
+                boolean value = resultSet.getBoolean(columnIndex);
+                if (resultSet.wasNull()) {
+                    vector.appendNull();
+                } else {
+                    vector.appendBoolean(value);
+                }
+                break;
+            }
+            case BYTE:
+            case TINYINT: {
+                byte value = resultSet.getByte(columnIndex);
+                if (resultSet.wasNull()) {
+                    vector.appendNull();
+                } else {
+                    vector.appendByte(value);
+                }
+                break;
+            }
+            case SHORT: {
+                short value = resultSet.getShort(columnIndex);
+                if (resultSet.wasNull()) {
+                    vector.appendNull();
+                } else {
+                    vector.appendShort(value);
+                }
+                break;
+            }
+            case INT: {
+                int value = resultSet.getInt(columnIndex);
+                if (resultSet.wasNull()) {
+                    vector.appendNull();
+                } else {
+                    vector.appendInt(value);
+                }
+                break;
+            }
+            case LONG: {
+                long value = resultSet.getLong(columnIndex);
+                if (resultSet.wasNull()) {
+                    vector.appendNull();
+                } else {
+                    vector.appendLong(value);
+                }
+                break;
+            }
+            case FLOAT: {
+                float value = resultSet.getFloat(columnIndex);
+                if (resultSet.wasNull()) {
+                    vector.appendNull();
+                } else {
+                    vector.appendFloat(value);
+                }
+                break;
+            }
+            case DOUBLE: {
+                double value = resultSet.getDouble(columnIndex);
+                if (resultSet.wasNull()) {
+                    vector.appendNull();
+                } else {
+                    vector.appendDouble(value);
+                }
+                break;
+            }
+            case STRING: {
+                String value = resultSet.getString(columnIndex);
+                if (value == null) {
+                    vector.appendNull();
+                } else {
+                    vector.appendString(value);
+                }
+                break;
+            }
+            default:
+                throw new UnsupportedOperationException("Unsupported off-heap column type: " + type);
+        }
+    }
+
     public int getResultNumRows() {
         return resultNumRows;
     }
 
     public void close() throws Exception {
-        if (resultSet != null) {
-            resultSet.close();
-        }
-        if (statement != null) {
-            statement.close();
-        }
-        if (connection != null) {
-            connection.close();
+        try {
+            releaseOffHeapTable();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            if (statement != null) {
+                statement.close();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        } finally {
+            if (cacheItem != null) {
+                cacheItem.releaseMaximumPoolSize(scanContext.getConnectionPoolSize());
+                cacheItem = null;
+            }
         }
     }
 }
@@ -0,0 +1,197 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.jdbcbridge;
+
+import com.starrocks.jni.connector.OffHeapColumnVector;
+import com.starrocks.jni.connector.OffHeapTable;
+import com.starrocks.utils.Platform;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestJDBCScanner {
+    private static final int FETCH_SIZE = 4;
+    private static final int NUM_ROWS = 10;
+
+    private static final String[] COLUMN_CLASS_NAMES = {
+            "java.lang.Boolean", "java.lang.Integer", "java.lang.Long", "java.lang.Double", "java.lang.String",
+            "java.math.BigDecimal", "java.sql.Date"};
+    // the types BE asks for, decimals and dates are still returned as boxed arrays
+    private static final String OFF_HEAP_COLUMN_TYPES = "boolean,int,bigint,double,string,,";
+
+    @BeforeEach
+    public void setUp() {
+        System.setProperty(Platform.UT_KEY, Boolean.TRUE.toString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setProperty(Platform.UT_KEY, Boolean.FALSE.toString());
+    }
+
+    private static List<Object[]> createRows() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < NUM_ROWS; i++) {
+            if (i % 3 == 0) {
+                // every column is null
+                rows.add(new Object[COLUMN_CLASS_NAMES.length]);
+                continue;
+            }
+            rows.add(new Object[] {
+                    i % 2 == 0,
+                    -i,
+                    (long) i * Integer.MAX_VALUE,
+                    i * 0.5,
+                    i % 4 == 0 ? "" : "str_\u4e2d_" + i,
+                    new BigDecimal("123456789012345678901234567890." + i),
+                    Date.valueOf("2024-02-" + (10 + i))});
+        }
+        return rows;
+    }
+
+    // a forward only result set over the rows, supporting the getters used by JDBCScanner
+    private static ResultSet createResultSet(List<Object[]> rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                TestJDBCScanner.class.getClassLoader(), new Class<?>[] {ResultSetMetaData.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return COLUMN_CLASS_NAMES.length;
+                        case "getColumnClassName":
+                            return COLUMN_CLASS_NAMES[(int) args[0] - 1];
+                        case "getColumnLabel":
+                            return "c" + args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        int[] rowIndex = {-1};
+        boolean[] wasNull = {false};
+        return (ResultSet) Proxy.newProxyInstance(
+                TestJDBCScanner.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMetaData":
+                            return metaData;
+                        case "next":
+                            return ++rowIndex[0] < rows.size();
+                        case "wasNull":
+                            return wasNull[0];
+                        case "close":
+                            return null;
+                        default:
+                            break;
+                    }
+                    Object value = rows.get(rowIndex[0])[(int) args[0] - 1];
+                    wasNull[0] = value == null;
+                    switch (method.getName()) {
+                        case "getObject":
+                            return value;
+                        case "getString":
+                            return value == null ? null : value.toString();
+                        case "getBoolean":
+                            return value != null && (Boolean) value;
+                        case "getInt":
+                            return value == null ? 0 : ((Number) value).intValue();
+                        case "getLong":
+                            return value == null ? 0L : ((Number) value).longValue();
+                        case "getDouble":
+                            return value == null ? 0.0 : ((Number) value).doubleValue();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static JDBCScanner createScanner(List<Object[]> rows) throws Exception {
+        JDBCScanContext scanContext = new JDBCScanContext();
+        scanContext.setStatementFetchSize(FETCH_SIZE);
+        JDBCScanner scanner = new JDBCScanner("", scanContext);
+        scanner.classLoader = TestJDBCScanner.class.getClassLoader();
+        scanner.openResultSet(createResultSet(rows));
+        return scanner;
+    }
+
+    private static Object getOffHeapValue(OffHeapColumnVector vector, int rowId) {
+        if (vector.isNullAt(rowId)) {
+            return null;
+        }
+        switch (vector.getType().getTypeValue()) {
+            case BOOLEAN:
+                return vector.getBoolean(rowId);
+            case INT:
+                return vector.getInt(rowId);
+            case LONG:
+                return vector.getLong(rowId);
+            case DOUBLE:
+                return vector.getDouble(rowId);
+            case STRING:
+                return vector.getUTF8String(rowId);
+            default:
+                throw new UnsupportedOperationException(vector.getType().getTypeValue().toString());
+        }
+    }
+
+    @Test
+    public void testOffHeapColumnsMatchBoxedArrays() throws Exception {
+        List<Object[]> rows = createRows();
+        JDBCScanner boxedScanner = createScanner(rows);
+        JDBCScanner offHeapScanner = createScanner(rows);
+        offHeapScanner.setOffHeapColumnTypes(OFF_HEAP_COLUMN_TYPES);
+        try {
+            int numRows = 0;
+            while (boxedScanner.hasNext()) {
+                Assertions.assertTrue(offHeapScanner.hasNext());
+                List<Object[]> expected = boxedScanner.getNextChunk();
+                List<Object[]> actual = offHeapScanner.getNextChunk();
+                int chunkRows = boxedScanner.getResultNumRows();
+                Assertions.assertEquals(chunkRows, offHeapScanner.getResultNumRows());
+
+                OffHeapTable table = offHeapScanner.getOffHeapTable();
+                Assertions.assertEquals(chunkRows, table.getNumRows());
+                int vectorIndex = 0;
+                for (int column = 0; column < COLUMN_CLASS_NAMES.length; column++) {
+                    boolean offHeap = !OFF_HEAP_COLUMN_TYPES.split(",", -1)[column].isEmpty();
+                    for (int row = 0; row < chunkRows; row++) {
+                        Object value = offHeap ? getOffHeapValue(table.vectors[vectorIndex], row) :
+                                actual.get(column)[row];
+                        Assertions.assertEquals(expected.get(column)[row], value,
+                                "column " + COLUMN_CLASS_NAMES[column] + ", row " + (numRows + row));
+                    }
+                    if (offHeap) {
+                        Assertions.assertNull(actual.get(column));
+                        vectorIndex++;
+                    }
+                }
+                numRows += chunkRows;
+            }
+            Assertions.assertFalse(offHeapScanner.hasNext());
+            Assertions.assertEquals(NUM_ROWS, numRows);
+        } finally {
+            boxedScanner.close();
+            offHeapScanner.close();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.jni.connector;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Converts instants to the local time of a time zone for readers writing datetimes by
+ * {@link OffHeapColumnVector#appendDateTime(long)}. The zone offset is cached together with the range of instants
+ * it's valid for, so converting a column of timestamps doesn't create objects for each value.
+ */
+public class LocalTimeConverter {
+    private static final long MICROS_PER_SECOND = 1000000L;
+
+    private final ZoneRules rules;
+    // the cached offset is valid for the epoch seconds in [validFrom, validUntil)
+    private long validFrom = Long.MAX_VALUE;
+    private long validUntil = Long.MIN_VALUE;
+    private long offsetMicros;
+
+    public LocalTimeConverter(ZoneId zoneId) {
+        this.rules = zoneId.getRules();
+    }
+
+    public long toLocalEpochMicros(long epochMicros) {
+        long epochSecond = Math.floorDiv(epochMicros, MICROS_PER_SECOND);
+        if (epochSecond < validFrom || epochSecond >= validUntil) {
+            updateOffset(epochSecond);
+        }
+        return epochMicros + offsetMicros;
+    }
+
+    private void updateOffset(long epochSecond) {
+        Instant instant = Instant.ofEpochSecond(epochSecond);
+        offsetMicros = rules.getOffset(instant).getTotalSeconds() * MICROS_PER_SECOND;
+        if (rules.isFixedOffset()) {
+            validFrom = Long.MIN_VALUE;
+            validUntil = Long.MAX_VALUE;
+            return;
+        }
+        // the last transition at or before the instant, and the first one after it
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        validFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+        validUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+    }
+}
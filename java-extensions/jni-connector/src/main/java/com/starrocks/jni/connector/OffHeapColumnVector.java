@@ -58,6 +58,11 @@ public class OffHeapColumnVector {
 
     private static final int DEFAULT_STRING_LENGTH = 4;
 
+    // julian day number of 1970-01-01, dates and datetimes are stored as julian days in be.
+    private static final int JULIAN_DAY_OF_EPOCH = 2440588;
+    private static final long MICROS_PER_DAY = 86400L * 1000000L;
+    private static final int TIMESTAMP_BITS = 40;
+
     /**
      * Current write cursor (row index) when appending data.
      */
@@ -359,6 +364,26 @@ public class OffHeapColumnVector {
         Platform.copyMemory(newValue, Platform.BYTE_ARRAY_OFFSET, null, data + rowId * typeSize, typeSize);
     }
 
+    /**
+     * Append a decimal by its unscaled value, which must be of the scale of this column.
+     * Avoids the BigDecimal and byte array of {@link #appendDecimal(BigDecimal)} for decimals of up to 18 digits.
+     */
+    public int appendDecimal(long unscaledValue) {
+        reserve(elementsAppended + 1);
+        int typeSize = type.getPrimitiveTypeValueSize();
+        long offset = data + (long) elementsAppended * typeSize;
+        if (typeSize == 4) {
+            Platform.putInt(null, offset, (int) unscaledValue);
+        } else if (typeSize == 8) {
+            Platform.putLong(null, offset, unscaledValue);
+        } else {
+            // 128 bits in little endian, sign extended.
+            Platform.putLong(null, offset, unscaledValue);
+            Platform.putLong(null, offset + 8, unscaledValue < 0 ? -1L : 0L);
+        }
+        return elementsAppended++;
+    }
+
     public BigDecimal getDecimal(int rowId) {
         int typeSize = type.getPrimitiveTypeValueSize();
         byte[] bytes = new byte[typeSize];
@@ -394,6 +419,10 @@ public class OffHeapColumnVector {
         return appendByteArray(binary, 0, binary.length);
     }
 
+    public int appendBinary(byte[] binary, int offset, int length) {
+        return appendByteArray(binary, offset, length);
+    }
+
     private int appendByteArray(byte[] value, int offset, int length) {
         int copiedOffset = arrayData().appendBytes(length, value, offset);
         reserve(elementsAppended + 1);
@@ -479,6 +508,54 @@ public class OffHeapColumnVector {
         return appendLong(datetime);
     }
 
+    /**
+     * Append a date by the days since 1970-01-01.
+     */
+    public int appendDate(int epochDay) {
+        return appendInt(epochDay + JULIAN_DAY_OF_EPOCH);
+    }
+
+    /**
+     * Append a datetime by the microseconds since 1970-01-01 00:00:00 of the local time, without creating
+     * a LocalDateTime.
+     */
+    public int appendDateTime(long epochMicros) {
+        long epochDay = Math.floorDiv(epochMicros, MICROS_PER_DAY);
+        long microOfDay = Math.floorMod(epochMicros, MICROS_PER_DAY);
+        return appendLong((epochDay + JULIAN_DAY_OF_EPOCH) << TIMESTAMP_BITS | microOfDay);
+    }
+
+    /**
+     * Append an array or a map whose elements have already been appended to the child columns from
+     * {@code offset}. Together with {@link #getChildColumn(int)} it lets readers write nested values without
+     * unpacking them into ColumnValue lists.
+     */
+    public int appendArray(int offset, int size) {
+        reserve(elementsAppended + 1);
+        putArrayOffset(elementsAppended, offset, size);
+        return elementsAppended++;
+    }
+
+    /**
+     * Append a struct whose fields have already been appended to the child columns.
+     */
+    public int appendStruct() {
+        reserve(elementsAppended + 1);
+        return elementsAppended++;
+    }
+
+    public OffHeapColumnVector getChildColumn(int index) {
+        return childColumns[index];
+    }
+
+    public int getElementsAppended() {
+        return elementsAppended;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
     public void updateMeta(OffHeapColumnVector meta) {
         if (type.isUnknown()) {
             meta.appendLong(0);
@@ -573,7 +650,7 @@ public class OffHeapColumnVector {
         }
     }
 
-    OffHeapColumnVector getMapKeyColumnVector() {
+    public OffHeapColumnVector getMapKeyColumnVector() {
         if (type.isMapKeySelected()) {
             return childColumns[0];
         } else {
@@ -581,7 +658,7 @@ public class OffHeapColumnVector {
         }
     }
 
-    OffHeapColumnVector getMapValueColumnVector() {
+    public OffHeapColumnVector getMapValueColumnVector() {
         if (type.isMapValueSelected()) {
             if (type.isMapKeySelected()) {
                 return childColumns[1];
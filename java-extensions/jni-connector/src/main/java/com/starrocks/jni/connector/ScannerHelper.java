@@ -77,4 +77,52 @@ public class ScannerHelper {
         }
         return res.toArray(new String[0]);
     }
+
+    /**
+     * Returns true if the bytes are well-formed utf-8, i.e. decoding them to String and encoding back is lossless:
+     * no overlong encodings, surrogates or code points beyond U+10FFFF.
+     */
+    public static boolean isValidUtf8(byte[] bytes, int length) {
+        int i = 0;
+        while (i < length) {
+            int b = bytes[i];
+            if (b >= 0) {
+                i++;
+                continue;
+            }
+            int trailing;
+            int codePoint;
+            int minCodePoint;
+            if ((b & 0xE0) == 0xC0) {
+                trailing = 1;
+                codePoint = b & 0x1F;
+                minCodePoint = 0x80;
+            } else if ((b & 0xF0) == 0xE0) {
+                trailing = 2;
+                codePoint = b & 0x0F;
+                minCodePoint = 0x800;
+            } else if ((b & 0xF8) == 0xF0) {
+                trailing = 3;
+                codePoint = b & 0x07;
+                minCodePoint = 0x10000;
+            } else {
+                return false;
+            }
+            if (i + trailing >= length) {
+                return false;
+            }
+            for (int j = 1; j <= trailing; j++) {
+                int c = bytes[i + j];
+                if ((c & 0xC0) != 0x80) {
+                    return false;
+                }
+                codePoint = (codePoint << 6) | (c & 0x3F);
+            }
+            if (codePoint < minCodePoint || codePoint > 0x10FFFF || (codePoint >= 0xD800 && codePoint <= 0xDFFF)) {
+                return false;
+            }
+            i += trailing + 1;
+        }
+        return true;
+    }
 }
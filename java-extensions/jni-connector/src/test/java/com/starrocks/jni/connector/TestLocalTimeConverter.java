@@ -0,0 +1,86 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.jni.connector;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TestLocalTimeConverter {
+    private static final long MICROS_PER_SECOND = 1000000L;
+
+    private static long expectedLocalEpochMicros(long epochMicros, ZoneId zoneId) {
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(epochMicros, MICROS_PER_SECOND),
+                Math.floorMod(epochMicros, MICROS_PER_SECOND) * 1000L);
+        LocalDateTime localDateTime = LocalDateTime.ofInstant(instant, zoneId);
+        return localDateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + localDateTime.getNano() / 1000;
+    }
+
+    private static List<Long> aroundTransition(long transitionEpochSecond) {
+        List<Long> epochMicros = new ArrayList<>();
+        for (long second = transitionEpochSecond - 3600; second <= transitionEpochSecond + 3600; second += 900) {
+            epochMicros.add(second * MICROS_PER_SECOND);
+        }
+        // the last microsecond before the transition and the first one at it
+        epochMicros.add(transitionEpochSecond * MICROS_PER_SECOND - 1);
+        epochMicros.add(transitionEpochSecond * MICROS_PER_SECOND);
+        epochMicros.add(transitionEpochSecond * MICROS_PER_SECOND + 1);
+        return epochMicros;
+    }
+
+    @Test
+    public void testAcrossDstTransitions() {
+        ZoneId zoneId = ZoneId.of("America/Los_Angeles");
+        List<Long> epochMicros = new ArrayList<>();
+        // 2024-03-10 02:00 PST jumps to 03:00 PDT, 2024-11-03 02:00 PDT falls back to 01:00 PST
+        epochMicros.addAll(aroundTransition(Instant.parse("2024-03-10T10:00:00Z").getEpochSecond()));
+        epochMicros.addAll(aroundTransition(Instant.parse("2024-11-03T09:00:00Z").getEpochSecond()));
+        epochMicros.add(Instant.parse("1960-07-01T12:34:56.789Z").getEpochSecond() * MICROS_PER_SECOND - 123);
+
+        // ascending, descending and unordered values all go through the cached offset of one converter
+        List<List<Long>> orders = new ArrayList<>();
+        List<Long> ascending = new ArrayList<>(epochMicros);
+        Collections.sort(ascending);
+        orders.add(ascending);
+        List<Long> descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+        orders.add(descending);
+        orders.add(epochMicros);
+        for (List<Long> values : orders) {
+            LocalTimeConverter converter = new LocalTimeConverter(zoneId);
+            for (long value : values) {
+                Assertions.assertEquals(expectedLocalEpochMicros(value, zoneId), converter.toLocalEpochMicros(value),
+                        "epoch micros " + value);
+            }
+        }
+    }
+
+    @Test
+    public void testFixedOffset() {
+        ZoneId zoneId = ZoneId.of("+08:00");
+        LocalTimeConverter converter = new LocalTimeConverter(zoneId);
+        for (long value : aroundTransition(Instant.parse("2024-03-10T10:00:00Z").getEpochSecond())) {
+            Assertions.assertEquals(value + 8 * 3600 * MICROS_PER_SECOND, converter.toLocalEpochMicros(value));
+        }
+    }
+}
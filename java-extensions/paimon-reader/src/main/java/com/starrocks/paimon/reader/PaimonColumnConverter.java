@@ -0,0 +1,190 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.paimon.reader;
+
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.LocalTimeConverter;
+import com.starrocks.jni.connector.OffHeapColumnVector;
+import org.apache.paimon.data.DataGetters;
+import org.apache.paimon.data.Decimal;
+import org.apache.paimon.data.InternalArray;
+import org.apache.paimon.data.InternalMap;
+import org.apache.paimon.data.InternalRow;
+import org.apache.paimon.data.Timestamp;
+import org.apache.paimon.types.ArrayType;
+import org.apache.paimon.types.DataType;
+import org.apache.paimon.types.DecimalType;
+import org.apache.paimon.types.LocalZonedTimestampType;
+import org.apache.paimon.types.MapType;
+import org.apache.paimon.types.RowType;
+import org.apache.paimon.types.TimestampType;
+import org.apache.paimon.utils.InternalRowUtils;
+
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Appends the non-null value at a position of a paimon row or array to an off-heap column vector.
+ * <p>
+ * Converters are resolved once per column when the scanner is opened. Values are read by the typed getters of
+ * {@link DataGetters} and written by the typed appends of {@link OffHeapColumnVector}, so there is neither boxing
+ * nor a {@link PaimonColumnValue} allocated for each value. Decimals of up to 18 digits are written by their unscaled
+ * long, timestamps by their epoch microseconds, and nested values are written into the child vectors directly.
+ */
+@FunctionalInterface
+interface PaimonColumnConverter {
+
+    void append(OffHeapColumnVector vector, DataGetters data, int pos);
+
+    default void appendNullable(OffHeapColumnVector vector, DataGetters data, int pos) {
+        if (data.isNullAt(pos)) {
+            vector.appendNull();
+        } else {
+            append(vector, data, pos);
+        }
+    }
+
+    static PaimonColumnConverter create(DataType dataType, ColumnType type, String timeZone) {
+        PaimonColumnConverter generic = (vector, data, pos) -> vector.appendValue(
+                new PaimonColumnValue(InternalRowUtils.get(data, pos, dataType), dataType, timeZone));
+        switch (dataType.getTypeRoot()) {
+            case BOOLEAN:
+                return (vector, data, pos) -> vector.appendBoolean(data.getBoolean(pos));
+            case TINYINT:
+                return (vector, data, pos) -> vector.appendByte(data.getByte(pos));
+            case SMALLINT:
+                return (vector, data, pos) -> vector.appendShort(data.getShort(pos));
+            case INTEGER:
+                return (vector, data, pos) -> vector.appendInt(data.getInt(pos));
+            case BIGINT:
+                return (vector, data, pos) -> vector.appendLong(data.getLong(pos));
+            case FLOAT:
+                return (vector, data, pos) -> vector.appendFloat(data.getFloat(pos));
+            case DOUBLE:
+                return (vector, data, pos) -> vector.appendDouble(data.getDouble(pos));
+            case CHAR:
+            case VARCHAR:
+                // paimon strings are utf-8 already, copy the bytes instead of decoding to String and encoding back
+                return (vector, data, pos) -> vector.appendBinary(data.getString(pos).toBytes());
+            case BINARY:
+            case VARBINARY:
+                return (vector, data, pos) -> vector.appendBinary(data.getBinary(pos));
+            case DATE:
+                return (vector, data, pos) -> vector.appendDate(data.getInt(pos));
+            case DECIMAL: {
+                DecimalType decimalType = (DecimalType) dataType;
+                int precision = decimalType.getPrecision();
+                int scale = decimalType.getScale();
+                if (scale != type.getScale()) {
+                    return generic;
+                }
+                if (Decimal.isCompact(precision)) {
+                    return (vector, data, pos) ->
+                            vector.appendDecimal(data.getDecimal(pos, precision, scale).toUnscaledLong());
+                }
+                return (vector, data, pos) ->
+                        vector.appendDecimal(data.getDecimal(pos, precision, scale).toBigDecimal());
+            }
+            case TIMESTAMP_WITHOUT_TIME_ZONE: {
+                int precision = ((TimestampType) dataType).getPrecision();
+                return (vector, data, pos) -> vector.appendDateTime(toEpochMicros(data.getTimestamp(pos, precision)));
+            }
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE: {
+                int precision = ((LocalZonedTimestampType) dataType).getPrecision();
+                LocalTimeConverter localTimeConverter = new LocalTimeConverter(ZoneId.of(timeZone));
+                return (vector, data, pos) -> vector.appendDateTime(
+                        localTimeConverter.toLocalEpochMicros(toEpochMicros(data.getTimestamp(pos, precision))));
+            }
+            case ARRAY:
+                return createArrayConverter((ArrayType) dataType, type, timeZone);
+            case MAP:
+                return createMapConverter((MapType) dataType, type, timeZone);
+            case ROW:
+                return createRowConverter((RowType) dataType, type, timeZone);
+            default:
+                return generic;
+        }
+    }
+
+    static long toEpochMicros(Timestamp timestamp) {
+        return timestamp.getMillisecond() * 1000L + timestamp.getNanoOfMillisecond() / 1000;
+    }
+
+    static PaimonColumnConverter createArrayConverter(ArrayType arrayType, ColumnType type, String timeZone) {
+        PaimonColumnConverter elementConverter =
+                create(arrayType.getElementType(), type.getChildTypes().get(0), timeZone);
+        return (vector, data, pos) -> {
+            InternalArray array = data.getArray(pos);
+            OffHeapColumnVector elements = vector.getChildColumn(0);
+            int offset = elements.getElementsAppended();
+            for (int i = 0; i < array.size(); i++) {
+                elementConverter.appendNullable(elements, array, i);
+            }
+            vector.appendArray(offset, array.size());
+        };
+    }
+
+    static PaimonColumnConverter createMapConverter(MapType mapType, ColumnType type, String timeZone) {
+        int keyIndex = type.getChildNames().indexOf(ColumnType.FIELD_0_NAME);
+        int valueIndex = type.getChildNames().indexOf(ColumnType.FIELD_1_NAME);
+        PaimonColumnConverter keyConverter = keyIndex == -1 ? null :
+                create(mapType.getKeyType(), type.getChildTypes().get(keyIndex), timeZone);
+        PaimonColumnConverter valueConverter = valueIndex == -1 ? null :
+                create(mapType.getValueType(), type.getChildTypes().get(valueIndex), timeZone);
+        return (vector, data, pos) -> {
+            InternalMap map = data.getMap(pos);
+            int offset = vector.getChildColumn(0).getElementsAppended();
+            if (keyConverter != null) {
+                appendAll(keyConverter, vector.getMapKeyColumnVector(), map.keyArray());
+            }
+            if (valueConverter != null) {
+                appendAll(valueConverter, vector.getMapValueColumnVector(), map.valueArray());
+            }
+            vector.appendArray(offset, map.size());
+        };
+    }
+
+    static void appendAll(PaimonColumnConverter converter, OffHeapColumnVector vector, InternalArray array) {
+        for (int i = 0; i < array.size(); i++) {
+            converter.appendNullable(vector, array, i);
+        }
+    }
+
+    static PaimonColumnConverter createRowConverter(RowType rowType, ColumnType type, String timeZone) {
+        int numFields = rowType.getFieldCount();
+        List<Integer> fieldIndex = type.getFieldIndex();
+        PaimonColumnConverter[] fieldConverters = new PaimonColumnConverter[fieldIndex.size()];
+        for (int i = 0; i < fieldIndex.size(); i++) {
+            Integer index = fieldIndex.get(i);
+            if (index != null) {
+                fieldConverters[i] = create(rowType.getTypeAt(index), type.getChildTypes().get(i), timeZone);
+            }
+        }
+        return (vector, data, pos) -> {
+            InternalRow row = data.getRow(pos, numFields);
+            for (int i = 0; i < fieldConverters.length; i++) {
+                OffHeapColumnVector field = vector.getChildColumn(i);
+                if (fieldConverters[i] == null) {
+                    // field selected but missing in the schema
+                    field.appendNull();
+                } else {
+                    fieldConverters[i].appendNullable(field, row, fieldIndex.get(i));
+                }
+            }
+            vector.appendStruct();
+        };
+    }
+}
@@ -17,6 +17,7 @@ package com.starrocks.paimon.reader;
 import com.starrocks.jni.connector.ColumnType;
 import com.starrocks.jni.connector.ColumnValue;
 import com.starrocks.jni.connector.ConnectorScanner;
+import com.starrocks.jni.connector.OffHeapColumnVector;
 import com.starrocks.jni.connector.ScannerHelper;
 import com.starrocks.jni.connector.SelectedFields;
 import com.starrocks.utils.loader.ThreadContextClassLoader;
@@ -55,6 +56,11 @@ public class PaimonSplitScanner extends ConnectorScanner {
 
     private String timeZone;
 
+    // Convert the rows of a chunk by the converters resolved when opening, instead of boxing each value and
+    // allocating a PaimonColumnValue for it.
+    private final boolean batchDecode;
+    private PaimonColumnConverter[] converters;
+
     public PaimonSplitScanner(int fetchSize, Map<String, String> params) {
         this.fetchSize = fetchSize;
         this.requiredFields = ScannerHelper.splitAndOmitEmptyStrings(params.get("required_fields"), ",");
@@ -64,6 +70,7 @@ public class PaimonSplitScanner extends ConnectorScanner {
         this.encodedTable = params.get("native_table");
         this.classLoader = this.getClass().getClassLoader();
         this.timeZone = params.get("time_zone");
+        this.batchDecode = Boolean.parseBoolean(params.getOrDefault("batch_decode", "true"));
     }
 
     private void parseRequiredTypes() {
@@ -92,6 +99,13 @@ public class PaimonSplitScanner extends ConnectorScanner {
             String name = requiredFields[i];
             type.pruneOnField(ssf, name);
         }
+
+        if (batchDecode) {
+            converters = new PaimonColumnConverter[requiredFields.length];
+            for (int i = 0; i < requiredFields.length; i++) {
+                converters[i] = PaimonColumnConverter.create(logicalTypes[i], requiredTypes[i], timeZone);
+            }
+        }
     }
 
     private void initReader() throws IOException {
@@ -138,6 +152,9 @@ public class PaimonSplitScanner extends ConnectorScanner {
     @Override
     public int getNext() throws IOException {
         try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(classLoader)) {
+            if (batchDecode) {
+                return decodeBatch();
+            }
             int numRows = 0;
             while (iterator.hasNext() && numRows < fetchSize) {
                 InternalRow row = iterator.next();
@@ -165,6 +182,24 @@ public class PaimonSplitScanner extends ConnectorScanner {
 
     }
 
+    private int decodeBatch() {
+        OffHeapColumnVector[] vectors = getOffHeapTable().vectors;
+        int numFields = requiredFields.length;
+        int numRows = 0;
+        while (numRows < fetchSize && iterator.hasNext()) {
+            // the readers of columnar formats reuse the row object, so it must be consumed before the next one.
+            InternalRow row = iterator.next();
+            if (row == null) {
+                break;
+            }
+            for (int i = 0; i < numFields; i++) {
+                converters[i].appendNullable(vectors[i], row, i);
+            }
+            numRows++;
+        }
+        return numRows;
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("splitInfo: ");
@@ -176,6 +211,9 @@ public class PaimonSplitScanner extends ConnectorScanner {
         sb.append("fetchSize: ");
         sb.append(fetchSize);
         sb.append("\n");
+        sb.append("batchDecode: ");
+        sb.append(batchDecode);
+        sb.append("\n");
         return sb.toString();
     }
 }
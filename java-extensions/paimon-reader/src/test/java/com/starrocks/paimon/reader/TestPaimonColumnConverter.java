@@ -0,0 +1,156 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.paimon.reader;
+
+import com.starrocks.jni.connector.ColumnType;
+import com.starrocks.jni.connector.OffHeapColumnVector;
+import com.starrocks.jni.connector.SelectedFields;
+import com.starrocks.utils.Platform;
+import org.apache.paimon.data.BinaryString;
+import org.apache.paimon.data.Decimal;
+import org.apache.paimon.data.GenericArray;
+import org.apache.paimon.data.GenericMap;
+import org.apache.paimon.data.GenericRow;
+import org.apache.paimon.data.InternalRow;
+import org.apache.paimon.data.Timestamp;
+import org.apache.paimon.types.DataType;
+import org.apache.paimon.types.DataTypes;
+import org.apache.paimon.types.RowType;
+import org.apache.paimon.utils.InternalRowUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestPaimonColumnConverter {
+    private static final String TIME_ZONE = "America/Los_Angeles";
+
+    private static final RowType ROW_TYPE = RowType.of(
+            new DataType[] {
+                    DataTypes.BOOLEAN(),
+                    DataTypes.INT(),
+                    DataTypes.BIGINT(),
+                    DataTypes.DOUBLE(),
+                    DataTypes.STRING(),
+                    DataTypes.DECIMAL(10, 2),
+                    DataTypes.DECIMAL(38, 6),
+                    DataTypes.DATE(),
+                    DataTypes.TIMESTAMP(6),
+                    DataTypes.TIMESTAMP_WITH_LOCAL_TIME_ZONE(6),
+                    DataTypes.ARRAY(DataTypes.INT()),
+                    DataTypes.MAP(DataTypes.STRING(), DataTypes.BIGINT()),
+                    DataTypes.ROW(DataTypes.FIELD(0, "a", DataTypes.INT()), DataTypes.FIELD(1, "b", DataTypes.STRING()))
+            },
+            new String[] {"c_bool", "c_int", "c_bigint", "c_double", "c_string", "c_decimal64", "c_decimal128",
+                    "c_date", "c_timestamp", "c_timestamp_ltz", "c_array", "c_map", "c_row"});
+
+    @BeforeEach
+    public void setUp() {
+        System.setProperty(Platform.UT_KEY, Boolean.TRUE.toString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setProperty(Platform.UT_KEY, Boolean.FALSE.toString());
+    }
+
+    private static List<InternalRow> createRows() {
+        List<InternalRow> rows = new ArrayList<>();
+        // the local zoned timestamps cross the dst transitions of the time zone
+        long[] epochMillis = {
+                Instant.parse("2024-03-10T09:59:59.999Z").toEpochMilli(),
+                Instant.parse("2024-03-10T10:00:00Z").toEpochMilli(),
+                Instant.parse("2024-11-03T08:59:59.999Z").toEpochMilli(),
+                Instant.parse("2024-11-03T09:00:00Z").toEpochMilli(),
+                Instant.parse("1960-01-01T00:00:00.001Z").toEpochMilli(),
+        };
+        for (int i = 0; i < 20; i++) {
+            if (i % 5 == 0) {
+                // every column is null
+                rows.add(new GenericRow(ROW_TYPE.getFieldCount()));
+                continue;
+            }
+            Map<Object, Object> map = new HashMap<>();
+            map.put(BinaryString.fromString("k" + i), (long) i);
+            map.put(BinaryString.fromString("null_" + i), null);
+            rows.add(GenericRow.of(
+                    i % 2 == 0,
+                    i % 3 == 0 ? null : -i,
+                    (long) i * Integer.MAX_VALUE,
+                    i * 0.25,
+                    BinaryString.fromString(i % 4 == 0 ? "" : "str_\u4e2d_" + i),
+                    Decimal.fromBigDecimal(new BigDecimal(-i * 100 + ".25"), 10, 2),
+                    Decimal.fromBigDecimal(new BigDecimal("12345678901234567890123456789012." + i), 38, 6),
+                    (int) LocalDate.of(2024, 1, 1).plusDays(i * 31L).toEpochDay(),
+                    Timestamp.fromEpochMillis(epochMillis[i % epochMillis.length], i * 1000),
+                    Timestamp.fromEpochMillis(epochMillis[i % epochMillis.length], i * 1000),
+                    new GenericArray(new Object[] {i, null, -i}),
+                    new GenericMap(map),
+                    GenericRow.of(i, i % 3 == 0 ? null : BinaryString.fromString("f" + i))));
+        }
+        return rows;
+    }
+
+    private static String dump(OffHeapColumnVector vector, int numRows) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < numRows; i++) {
+            if (vector.getType().getTypeValue() == ColumnType.TypeValue.DATE && !vector.isNullAt(i)) {
+                // dump doesn't support dates, which are stored as int
+                sb.append(vector.getInt(i));
+            } else {
+                vector.dump(sb, i);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testCompareWithColumnValue() {
+        List<InternalRow> rows = createRows();
+        SelectedFields ssf = new SelectedFields();
+        for (int i = 0; i < ROW_TYPE.getFieldCount(); i++) {
+            DataType dataType = ROW_TYPE.getTypeAt(i);
+            String name = ROW_TYPE.getFieldNames().get(i);
+            ColumnType type = new ColumnType(PaimonTypeUtils.fromPaimonType(dataType));
+            type.pruneOnField(ssf, name);
+            PaimonColumnConverter converter = PaimonColumnConverter.create(dataType, type, TIME_ZONE);
+
+            OffHeapColumnVector expected = new OffHeapColumnVector(rows.size(), type);
+            OffHeapColumnVector actual = new OffHeapColumnVector(rows.size(), type);
+            try {
+                for (InternalRow row : rows) {
+                    // the legacy path of PaimonSplitScanner
+                    Object fieldData = InternalRowUtils.get(row, i, dataType);
+                    expected.appendValue(fieldData == null ? null : new PaimonColumnValue(fieldData, dataType, TIME_ZONE));
+                    converter.appendNullable(actual, row, i);
+                }
+                Assertions.assertEquals(dump(expected, rows.size()), dump(actual, rows.size()), name);
+            } finally {
+                expected.close();
+                actual.close();
+            }
+        }
+    }
+}